@@ -20,9 +20,9 @@ package org.neo4j.graphalgo;
 
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
-import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.ProcedureConstants;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
@@ -67,7 +67,7 @@ public final class ArticleRankProc {
 
     @Procedure(value = "algo.articleRank", mode = Mode.WRITE)
     @Description("CALL algo.articleRank(label:String, relationship:String, " +
-            "{iterations:5, dampingFactor:0.85, weightProperty: null, write: true, writeProperty:'articlerank', concurrency:4}) " +
+            "{iterations:5, tolerance:0.0, dampingFactor:0.85, weightProperty: null, write: true, writeProperty:'articlerank', concurrency:4}) " +
             "YIELD nodes, iterations, loadMillis, computeMillis, writeMillis, dampingFactor, write, writeProperty" +
             " - calculates page rank and potentially writes back")
     public Stream<PageRankScore.Stats> articleRank(
@@ -98,7 +98,7 @@ public final class ArticleRankProc {
 
     @Procedure(value = "algo.articleRank.stream", mode = Mode.READ)
     @Description("CALL algo.articleRank.stream(label:String, relationship:String, " +
-            "{iterations:20, dampingFactor:0.85, weightProperty: null, concurrency:4}) " +
+            "{iterations:20, tolerance:0.0, dampingFactor:0.85, weightProperty: null, concurrency:4}) " +
             "YIELD node, score - calculates page rank and streams results")
     public Stream<CentralityScore> articleRankStream(
             @Name(value = "label", defaultValue = "") String label,
@@ -160,6 +160,7 @@ public final class ArticleRankProc {
 
         double dampingFactor = configuration.get(CONFIG_DAMPING, DEFAULT_DAMPING);
         int iterations = configuration.getIterations(DEFAULT_ITERATIONS);
+        double tolerance = configuration.getTolerance(ProcedureConstants.TOLERANCE_DEFAULT);
         final int batchSize = configuration.getBatchSize();
         final int concurrency = configuration.getConcurrency(Pools.getNoThreadsInDefaultPool());
         log.debug("Computing article rank with damping of " + dampingFactor + " and " + iterations + " iterations.");
@@ -181,10 +182,10 @@ public final class ArticleRankProc {
                 .withLog(log)
                 .withTerminationFlag(terminationFlag);
 
-        statsBuilder.timeEval(() -> prAlgo.compute(iterations));
+        statsBuilder.timeEval(() -> prAlgo.compute(iterations, tolerance));
 
         statsBuilder
-                .withIterations(iterations)
+                .withIterations(prAlgo.iterations())
                 .withDampingFactor(dampingFactor);
 
         final CentralityResult pageRank = prAlgo.result();
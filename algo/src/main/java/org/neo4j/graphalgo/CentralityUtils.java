@@ -3,10 +3,13 @@ package org.neo4j.graphalgo;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.ImportDirectory;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.write.Exporter;
+import org.neo4j.graphalgo.core.write.FileExporter;
+import org.neo4j.graphalgo.core.write.PropertyTranslator;
 import org.neo4j.graphalgo.impl.pagerank.PageRankResult;
 import org.neo4j.graphalgo.impl.results.CentralityResult;
 import org.neo4j.graphalgo.results.AbstractWriteBuilder;
@@ -25,17 +28,32 @@ public class CentralityUtils {
                              CentralityResult result, ProcedureConfiguration configuration,
                              AbstractWriteBuilder statsBuilder,
                              String defaultScoreProperty) {
-        if (configuration.isWriteFlag(true)) {
-            log.debug("Writing results");
-            String propertyName = configuration.getWriteProperty(defaultScoreProperty);
+        String propertyName = configuration.getWriteProperty(defaultScoreProperty);
+        boolean write = configuration.isWriteFlag(true);
+        String exportPath = configuration.getExportPath();
+        if (write || exportPath != null) {
             try (ProgressTimer timer = statsBuilder.timeWrite()) {
-                Exporter exporter = Exporter
-                        .of(api, graph)
-                        .withLog(log)
-                        .parallel(Pools.DEFAULT, configuration.getConcurrency(), terminationFlag)
-                        .build();
-                result.export(propertyName, exporter);
+                // exported before the write, which may normalize the scores in place
+                if (exportPath != null) {
+                    log.debug("Exporting results");
+                    FileExporter.of(graph)
+                            .withFormat(configuration.getExportFormat())
+                            .parallel(Pools.DEFAULT, configuration.getConcurrency(), terminationFlag)
+                            .build(ImportDirectory.resolveExport(api, exportPath))
+                            .write(propertyName, result, (PropertyTranslator.OfDouble<CentralityResult>) CentralityResult::score);
+                }
+                if (write) {
+                    log.debug("Writing results");
+                    Exporter exporter = Exporter
+                            .of(api, graph)
+                            .withLog(log)
+                            .parallel(Pools.DEFAULT, configuration.getConcurrency(), terminationFlag)
+                            .build();
+                    result.export(propertyName, exporter);
+                }
             }
+        }
+        if (write) {
             statsBuilder.withWrite(true).withProperty(propertyName);
         } else {
             statsBuilder.withWrite(false);
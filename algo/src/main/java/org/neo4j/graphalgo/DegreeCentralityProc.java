@@ -20,6 +20,7 @@ package org.neo4j.graphalgo;
 
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.ProcedureConstants;
@@ -29,6 +30,7 @@ import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.impl.Algorithm;
 import org.neo4j.graphalgo.impl.degree.DegreeCentrality;
+import org.neo4j.graphalgo.impl.degree.HugeDegreeCentrality;
 import org.neo4j.graphalgo.impl.results.CentralityResult;
 import org.neo4j.graphalgo.impl.pagerank.DegreeCentralityAlgorithm;
 import org.neo4j.graphalgo.results.CentralityScore;
@@ -167,7 +169,10 @@ public final class DegreeCentralityProc {
             direction = Direction.OUTGOING;
         }
 
-        DegreeCentralityAlgorithm algo = new DegreeCentrality(graph, Pools.DEFAULT, concurrency, direction, weightPropertyKey != null);
+        final boolean weighted = weightPropertyKey != null;
+        DegreeCentralityAlgorithm algo = graph instanceof HugeGraph
+                ? new HugeDegreeCentrality((HugeGraph) graph, Pools.DEFAULT, concurrency, direction, weighted, tracker)
+                : new DegreeCentrality(graph, Pools.DEFAULT, concurrency, direction, weighted);
         statsBuilder.timeEval(algo::compute);
         Algorithm<?> algorithm = algo.algorithm();
         algorithm.withTerminationFlag(terminationFlag);
@@ -22,6 +22,7 @@ import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.ProcedureConstants;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
@@ -59,7 +60,7 @@ public final class EigenvectorCentralityProc {
 
     @Procedure(value = "algo.eigenvector", mode = Mode.WRITE)
     @Description("CALL algo.eigenvector(label:String, relationship:String, " +
-            "{weightProperty: null, write: true, writeProperty:'eigenvector', concurrency:4}) " +
+            "{iterations:20, tolerance:0.0, weightProperty: null, write: true, writeProperty:'eigenvector', concurrency:4}) " +
             "YIELD nodes, iterations, loadMillis, computeMillis, writeMillis, dampingFactor, write, writeProperty" +
             " - calculates eigenvector centrality and potentially writes back")
     public Stream<PageRankScore.Stats> write(
@@ -90,7 +91,7 @@ public final class EigenvectorCentralityProc {
 
     @Procedure(value = "algo.eigenvector.stream", mode = Mode.READ)
     @Description("CALL algo.eigenvector.stream(label:String, relationship:String, " +
-            "{weightProperty: null, concurrency:4}) " +
+            "{iterations:20, tolerance:0.0, weightProperty: null, concurrency:4}) " +
             "YIELD node, score - calculates eigenvector centrality and streams results")
     public Stream<CentralityScore> stream(
             @Name(value = "label", defaultValue = "") String label,
@@ -157,6 +158,7 @@ public final class EigenvectorCentralityProc {
             PageRankScore.Stats.Builder statsBuilder) {
         double dampingFactor = 1.0;
         int iterations = configuration.getIterations(DEFAULT_ITERATIONS);
+        double tolerance = configuration.getTolerance(ProcedureConstants.TOLERANCE_DEFAULT);
         final int batchSize = configuration.getBatchSize();
         final int concurrency = configuration.getConcurrency(Pools.getNoThreadsInDefaultPool());
         log.debug("Computing eigenvector centrality with " + iterations + " iterations.");
@@ -171,8 +173,8 @@ public final class EigenvectorCentralityProc {
                 .withLog(log)
                 .withTerminationFlag(terminationFlag);
 
-        statsBuilder.timeEval(() -> prAlgo.compute(iterations));
-        statsBuilder.withIterations(iterations).withDampingFactor(dampingFactor);
+        statsBuilder.timeEval(() -> prAlgo.compute(iterations, tolerance));
+        statsBuilder.withIterations(prAlgo.iterations()).withDampingFactor(dampingFactor);
 
         final CentralityResult results = prAlgo.result();
         algo.release();
@@ -1,15 +1,20 @@
 package org.neo4j.graphalgo;
 
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.api.NodeProperties;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.core.write.Translators;
+import org.neo4j.graphalgo.impl.infomap.HugeInfoMap;
 import org.neo4j.graphalgo.impl.infomap.InfoMap;
 import org.neo4j.graphalgo.results.AbstractResultBuilder;
 import org.neo4j.kernel.api.KernelTransaction;
@@ -17,8 +22,13 @@ import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
 import org.neo4j.procedure.*;
 
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 import java.util.stream.Stream;
 
 /**
@@ -28,6 +38,8 @@ public class InfoMapProc {
 
     private static final String PAGE_RANK_PROPERTY = "pageRankProperty";
     private static final String DEFAULT_WRITE_PROPERTY_VALUE = "community";
+    private static final String LEVELS = "levels";
+    private static final String INNER_ITERATIONS = "innerIterations";
 
     @Context
     public GraphDatabaseAPI db;
@@ -74,6 +86,19 @@ public class InfoMapProc {
         final ProgressLogger progressLogger = ProgressLogger.wrap(log, "InfoMap");
         final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
 
+        if (config.getGraphImpl() == HugeGraphFactory.class) {
+            final HugeGraph hugeGraph = loadHugeGraph(config, setup);
+            final HugeLongArray communities = hugeInfoMap(hugeGraph, config, setup, pageRankIterations)
+                    .withProgressLogger(progressLogger)
+                    .withTerminationFlag(terminationFlag)
+                    .compute(
+                            config.getNumber(LEVELS, HugeInfoMap.DEFAULT_MAX_LEVELS).intValue(),
+                            config.getNumber(INNER_ITERATIONS, HugeInfoMap.DEFAULT_MAX_ITERATIONS).intValue())
+                    .getCommunities();
+            return LongStream.range(0L, hugeGraph.nodeCount())
+                    .mapToObj(i -> new Result(hugeGraph.toOriginalNodeId(i), communities.get(i)));
+        }
+
         switch (setup) {
 
             case WEIGHTED:
@@ -203,6 +228,35 @@ public class InfoMapProc {
         final ProgressLogger progressLogger = ProgressLogger.wrap(log, "InfoMap");
         final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
 
+        if (config.getGraphImpl() == HugeGraphFactory.class) {
+            final HugeGraph hugeGraph;
+            try (ProgressTimer timer = builder.timeLoad()) {
+                hugeGraph = loadHugeGraph(config, setup);
+            }
+            final HugeInfoMap hugeInfoMap = hugeInfoMap(hugeGraph, config, setup, pageRankIterations)
+                    .withProgressLogger(progressLogger)
+                    .withTerminationFlag(terminationFlag);
+            builder.timeEval(() -> hugeInfoMap.compute(
+                    config.getNumber(LEVELS, HugeInfoMap.DEFAULT_MAX_LEVELS).intValue(),
+                    config.getNumber(INNER_ITERATIONS, HugeInfoMap.DEFAULT_MAX_ITERATIONS).intValue()));
+            builder.withCommunityCount(hugeInfoMap.getCommunityCount());
+            builder.withNodeCount(hugeGraph.nodeCount());
+            builder.withIterations(hugeInfoMap.getIterations());
+            builder.withCodeLengths(hugeInfoMap.getCodeLengths());
+
+            if (config.isWriteFlag()) {
+                try (ProgressTimer timer = builder.timeWrite()) {
+                    Exporter.of(db, hugeGraph)
+                            .withLog(log)
+                            .build()
+                            .write(config.getWriteProperty(DEFAULT_WRITE_PROPERTY_VALUE),
+                                    hugeInfoMap.getCommunities(),
+                                    HugeLongArray.Translator.INSTANCE);
+                }
+            }
+            return Stream.of(builder.build());
+        }
+
         switch (setup) {
 
             case WEIGHTED:
@@ -325,6 +379,33 @@ public class InfoMapProc {
     }
 
 
+    private HugeGraph loadHugeGraph(ProcedureConfiguration config, Setup setup) {
+        if (setup == Setup.WEIGHTED_EXT_PR || setup == Setup.UNWEIGHTED_EXT_PR) {
+            throw new IllegalArgumentException(PAGE_RANK_PROPERTY + " is not supported for huge graphs, " +
+                    "they don't load node properties");
+        }
+        final GraphLoader loader = new GraphLoader(db, Pools.DEFAULT)
+                .init(log, config.getNodeLabelOrQuery(), config.getRelationshipOrQuery(), config)
+                .asUndirected(true);
+        if (setup == Setup.WEIGHTED) {
+            log.info("initializing weighted huge InfoMap with internal PageRank computation");
+            loader.withRelationshipWeightsFromProperty(config.getWeightProperty(), 1.0);
+        } else {
+            log.info("initializing unweighted huge InfoMap with internal PageRank computation");
+        }
+        return (HugeGraph) loader.load(HugeGraphFactory.class);
+    }
+
+    private HugeInfoMap hugeInfoMap(HugeGraph graph, ProcedureConfiguration config, Setup setup, int pageRankIterations) {
+        final double threshold = config.getNumber("threshold", InfoMap.THRESHOLD).doubleValue();
+        final double tau = config.getNumber("tau", InfoMap.TAU).doubleValue();
+        final AllocationTracker tracker = AllocationTracker.create();
+        if (setup == Setup.WEIGHTED) {
+            return HugeInfoMap.weighted(graph, pageRankIterations, threshold, tau, Pools.DEFAULT, config.getConcurrency(), tracker);
+        }
+        return HugeInfoMap.unweighted(graph, pageRankIterations, threshold, tau, Pools.DEFAULT, config.getConcurrency(), tracker);
+    }
+
     /**
      * result object
      */
@@ -344,6 +425,12 @@ public class InfoMapProc {
         private long nodeCount = 0;
         private long communityCount = 0;
         private long iterations = 1;
+        private List<Double> codeLengths = Collections.emptyList();
+
+        public InfoMapResultBuilder withCodeLengths(double[] codeLengths) {
+            this.codeLengths = Arrays.stream(codeLengths).boxed().collect(Collectors.toList());
+            return this;
+        }
 
         public InfoMapResultBuilder withIterations(long iterations) {
             this.iterations = iterations;
@@ -361,7 +448,7 @@ public class InfoMapProc {
         }
 
         public InfoMapResult build() {
-            return new InfoMapResult(loadDuration, evalDuration, writeDuration, nodeCount, iterations, communityCount);
+            return new InfoMapResult(loadDuration, evalDuration, writeDuration, nodeCount, iterations, communityCount, codeLengths);
         }
     }
 
@@ -373,14 +460,17 @@ public class InfoMapProc {
         public final long nodeCount;
         public final long iterations;
         public final long communityCount;
+        // codelength after every level, only computed for huge graphs
+        public final List<Double> codeLengths;
 
-        private InfoMapResult(long loadMillis, long computeMillis, long writeMillis, long nodeCount, long iterations, long communityCount) {
+        private InfoMapResult(long loadMillis, long computeMillis, long writeMillis, long nodeCount, long iterations, long communityCount, List<Double> codeLengths) {
             this.loadMillis = loadMillis;
             this.computeMillis = computeMillis;
             this.writeMillis = writeMillis;
             this.nodeCount = nodeCount;
             this.iterations = iterations;
             this.communityCount = communityCount;
+            this.codeLengths = codeLengths;
         }
 
         public static InfoMapResultBuilder builder() {
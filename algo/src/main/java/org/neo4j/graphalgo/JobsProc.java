@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo;
+
+import org.neo4j.graphalgo.core.utils.jobs.Job;
+import org.neo4j.graphalgo.core.utils.jobs.JobRegistry;
+import org.neo4j.internal.kernel.api.security.SecurityContext;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Lists, observes and cancels the algorithms that are running in other transactions of the same database.
+ * Users see their own jobs, admins see all of them.
+ */
+public final class JobsProc {
+
+    @Context
+    public GraphDatabaseAPI api;
+
+    @Context
+    public KernelTransaction transaction;
+
+    @Procedure(name = "algo.jobs.list")
+    @Description("CALL algo.jobs.list() YIELD id, username, phase, task, progress, phaseMillis, runningMillis, " +
+            "percentPerSecond, remainingMillis, trackedMemory, cancelled - lists the running algorithm jobs")
+    public Stream<JobResult> list() {
+        SecurityContext caller = transaction.securityContext();
+        JobRegistry registry = JobRegistry.of(api);
+        if (registry == null) {
+            return Stream.empty();
+        }
+        return registry.jobs().stream()
+                .filter(job -> JobRegistry.isVisible(job, caller))
+                .sorted(Comparator.comparingLong(Job::id))
+                .map(JobResult::new);
+    }
+
+    @Procedure(name = "algo.jobs.progress")
+    @Description("CALL algo.jobs.progress(id) YIELD id, username, phase, task, progress, phaseMillis, runningMillis, " +
+            "percentPerSecond, remainingMillis, trackedMemory, cancelled - shows the progress of a running job")
+    public Stream<JobResult> progress(@Name("id") long id) {
+        SecurityContext caller = transaction.securityContext();
+        JobRegistry registry = JobRegistry.of(api);
+        return Optional.ofNullable(registry)
+                .flatMap(r -> r.get(id))
+                .filter(job -> JobRegistry.isVisible(job, caller))
+                .map(JobResult::new)
+                .map(Stream::of)
+                .orElseGet(Stream::empty);
+    }
+
+    @Procedure(name = "algo.jobs.cancel")
+    @Description("CALL algo.jobs.cancel(id) YIELD id, username, phase, task, progress, phaseMillis, runningMillis, " +
+            "percentPerSecond, remainingMillis, trackedMemory, cancelled - cancels a running job of the user, " +
+            "admins can cancel every job")
+    public Stream<JobResult> cancel(@Name("id") long id) {
+        JobRegistry registry = JobRegistry.of(api);
+        if (registry == null) {
+            throw new IllegalArgumentException("No running job with id " + id);
+        }
+        return Stream.of(new JobResult(registry.cancel(id, transaction.securityContext())));
+    }
+
+    public static final class JobResult {
+        public final long id;
+        public final String username;
+        public final String phase;
+        public final String task;
+        public final double progress;
+        public final long phaseMillis;
+        public final long runningMillis;
+        public final double percentPerSecond;
+        public final long remainingMillis;
+        public final long trackedMemory;
+        public final boolean cancelled;
+
+        JobResult(Job job) {
+            Job.Phase phase = job.phase();
+            double done = job.progress();
+            this.id = job.id();
+            this.username = job.username();
+            this.phase = phase == null ? null : phase.name();
+            this.task = job.task();
+            this.progress = done * 100.0;
+            this.phaseMillis = job.phaseMillis();
+            this.runningMillis = job.runningMillis();
+            this.percentPerSecond = phaseMillis > 0L ? progress * 1000.0 / phaseMillis : 0.0;
+            // a linear extrapolation of the current phase, -1 until there is any progress
+            this.remainingMillis = done > 0.0 ? (long) (phaseMillis * (1.0 - done) / done) : -1L;
+            this.trackedMemory = job.trackedMemory();
+            this.cancelled = job.isCancelled();
+        }
+    }
+}
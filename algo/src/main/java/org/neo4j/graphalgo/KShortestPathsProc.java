@@ -68,7 +68,7 @@ public class KShortestPathsProc {
 
     @Procedure(value = "algo.kShortestPaths", mode = Mode.WRITE)
     @Description("CALL algo.kShortestPaths(startNode:Node, endNode:Node, k:int, weightProperty:String" +
-            "{nodeQuery:'labelName', relationshipQuery:'relationshipName', direction:'OUT', defaultValue:1.0, maxDepth:42, write:'true', " +
+            "{nodeQuery:'labelName', relationshipQuery:'relationshipName', direction:'OUT', defaultValue:1.0, maxDepth:42, concurrency:4, write:'true', " +
             PREFIX_IDENTIFIER + ":'PATH_'}) " +
             "YIELD resultCount, loadMillis, evalMillis, writeMillis - yields resultCount, loadMillis, evalMillis, writeMillis")
     public Stream<KspResult> yens(
@@ -108,7 +108,7 @@ public class KShortestPathsProc {
 
         // eval
         try (ProgressTimer timer = builder.timeEval()) {
-            algorithm = new YensKShortestPaths(graph)
+            algorithm = new YensKShortestPaths(graph, Pools.DEFAULT, configuration.getConcurrency())
                     .withProgressLogger(ProgressLogger.wrap(log, "KShortestPaths(Yen)"))
                     .withTerminationFlag(TerminationFlag.wrap(transaction))
                     .compute(startNode.getId(),
@@ -135,7 +135,7 @@ public class KShortestPathsProc {
 
     @Procedure(value = "algo.kShortestPaths.stream", mode = Mode.READ)
     @Description("CALL algo.kShortestPaths.stream(startNode:Node, endNode:Node, k:int, weightProperty:String" +
-            "{nodeQuery:'labelName', relationshipQuery:'relationshipName', direction:'OUT', defaultValue:1.0, maxDepth:42}) " +
+            "{nodeQuery:'labelName', relationshipQuery:'relationshipName', direction:'OUT', defaultValue:1.0, maxDepth:42, concurrency:4}) " +
             "YIELD sourceNodeId, targetNodeId, nodeIds, costs")
     public Stream<KspStreamResult> yensStreaming(
             @Name("startNode") Node startNode,
@@ -174,7 +174,7 @@ public class KShortestPathsProc {
 
         // eval
         try (ProgressTimer timer = builder.timeEval()) {
-            algorithm = new YensKShortestPaths(graph)
+            algorithm = new YensKShortestPaths(graph, Pools.DEFAULT, configuration.getConcurrency())
                     .withProgressLogger(ProgressLogger.wrap(log, "KShortestPaths(Yen)"))
                     .withTerminationFlag(TerminationFlag.wrap(transaction))
                     .compute(startNode.getId(),
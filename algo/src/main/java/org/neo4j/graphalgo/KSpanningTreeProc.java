@@ -26,8 +26,11 @@ import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.impl.spanningTrees.SpanningTree;
 import org.neo4j.graphalgo.core.write.Exporter;
+import org.neo4j.graphalgo.impl.spanningTrees.HugeBoruvka;
+import org.neo4j.graphalgo.impl.spanningTrees.HugeSpanningForest;
 import org.neo4j.graphalgo.impl.spanningTrees.KSpanningTree;
 import org.neo4j.graphalgo.impl.spanningTrees.Prim;
 import org.neo4j.kernel.api.KernelTransaction;
@@ -113,6 +116,10 @@ public class KSpanningTreeProc {
             return Stream.of(builder.withEffectiveNodeCount(0).build());
         }
 
+        if (graph instanceof HugeGraph) {
+            return hugeSpanningTree((HugeGraph) graph, startNode, k, configuration, builder, max);
+        }
+
         final int root = graph.toMappedNodeId(startNode);
 
         final KSpanningTree kSpanningTree = new KSpanningTree(graph, graph, graph)
@@ -147,4 +154,52 @@ public class KSpanningTreeProc {
 
         return Stream.of(builder.build());
     }
+
+    private Stream<Prim.Result> hugeSpanningTree(
+            HugeGraph graph,
+            long startNode,
+            long k,
+            ProcedureConfiguration configuration,
+            Prim.Builder builder,
+            boolean max) {
+        final long root = graph.toHugeMappedNodeId(startNode);
+        final AllocationTracker tracker = AllocationTracker.create();
+        final HugeBoruvka boruvka = new HugeBoruvka(graph, configuration.getConcurrency(), Pools.DEFAULT, tracker)
+                .withProgressLogger(ProgressLogger.wrap(log, "KSpanningTrees"))
+                .withTerminationFlag(TerminationFlag.wrap(transaction));
+
+        final HugeSpanningForest[] kSpanningTree = new HugeSpanningForest[1];
+        builder.timeEval(() -> {
+            if (max) {
+                boruvka.computeMaximumSpanningForest();
+            } else {
+                boruvka.computeMinimumSpanningForest();
+            }
+            final HugeSpanningForest spanningForest = boruvka.getSpanningForest();
+            builder.withEffectiveNodeCount(spanningForest.treeSize(root));
+            kSpanningTree[0] = spanningForest.kSpanningTree(root, (int) k, tracker);
+            boruvka.release();
+        });
+
+        if (configuration.isWriteFlag()) {
+            try (ProgressTimer timer = builder.timeWrite()) {
+                final Exporter exporter = Exporter.of(api, graph)
+                        .withLog(log)
+                        .parallel(
+                                Pools.DEFAULT,
+                                configuration.getConcurrency(),
+                                TerminationFlag.wrap(transaction))
+                        .build();
+
+                exporter.write(
+                        configuration.get(
+                                CONFIG_CLUSTER_PROPERTY,
+                                DEFAULT_CLUSTER_PROPERTY),
+                        kSpanningTree[0],
+                        HugeSpanningForest.TRANSLATOR);
+            }
+        }
+
+        return Stream.of(builder.build());
+    }
 }
@@ -128,7 +128,7 @@ public final class LabelPropagationProc {
             write(concurrency, writeProperty, graph, labels, stats);
         }
 
-        return Stream.of(stats.build(graph.nodeCount(), l -> (long) labels[(int) l]));
+        return Stream.of(stats.build(graph.nodeCount(), concurrency, l -> labels[(int) l]));
     }
 
     @Procedure(value = "algo.labelPropagation.stream")
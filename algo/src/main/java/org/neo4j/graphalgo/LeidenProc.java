@@ -0,0 +1,298 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo;
+
+import org.HdrHistogram.Histogram;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.write.Exporter;
+import org.neo4j.graphalgo.impl.louvain.Leiden;
+import org.neo4j.graphalgo.results.AbstractCommunityResultBuilder;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Leiden community detection, always on a huge graph.
+ */
+public class LeidenProc {
+
+    private static final String RESOLUTION = "resolution";
+    private static final String RANDOMNESS = "randomness";
+    private static final String SEED = "seed";
+
+    @Context
+    public GraphDatabaseAPI api;
+
+    @Context
+    public Log log;
+
+    @Context
+    public KernelTransaction transaction;
+
+    @Procedure(value = "algo.leiden", mode = Mode.WRITE)
+    @Description("CALL algo.leiden(label:String, relationship:String, " +
+            "{weightProperty:'weight', defaultValue:1.0, write: true, writeProperty:'community', concurrency:4, " +
+            "iterations:10, innerIterations:10, resolution:1.0, randomness:0.01, seed:42}) " +
+            "YIELD nodes, communityCount, levels, iterations, modularity, modularities, loadMillis, computeMillis, writeMillis")
+    public Stream<LeidenResult> leiden(
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        final ProcedureConfiguration configuration = ProcedureConfiguration.create(config)
+                .overrideNodeLabelOrQuery(label)
+                .overrideRelationshipTypeOrQuery(relationship);
+
+        final Builder builder = new Builder();
+
+        final HugeGraph graph;
+        try (ProgressTimer timer = builder.timeLoad()) {
+            graph = graph(label, relationship, configuration);
+        }
+
+        if (graph.nodeCount() == 0) {
+            graph.release();
+            return Stream.of(LeidenResult.EMPTY);
+        }
+
+        final Leiden leiden = leiden(graph, configuration);
+        try (ProgressTimer timer = builder.timeEval()) {
+            leiden.compute(
+                    configuration.getIterations(Leiden.DEFAULT_MAX_LEVELS),
+                    configuration.getNumber(LouvainProc.INNER_ITERATIONS, (long) Leiden.DEFAULT_MAX_ITERATIONS).intValue());
+        }
+
+        final HugeLongArray communities = leiden.getCommunities();
+        if (configuration.isWriteFlag()) {
+            final String writeProperty = configuration.getWriteProperty("community");
+            builder.withWrite(true);
+            builder.withWriteProperty(writeProperty);
+            builder.timeWrite(() -> Exporter.of(api, graph)
+                    .withLog(log)
+                    .parallel(Pools.DEFAULT, configuration.getConcurrency(), TerminationFlag.wrap(transaction))
+                    .build()
+                    .write(writeProperty, communities, HugeLongArray.Translator.INSTANCE));
+        }
+
+        builder.withLevels(leiden.getModularities().length);
+        builder.withIterations(leiden.getIterations());
+        builder.withModularities(leiden.getModularities());
+        graph.release();
+
+        return Stream.of(builder.build(graph.nodeCount(), configuration.getConcurrency(), communities::get));
+    }
+
+    @Procedure(value = "algo.leiden.stream")
+    @Description("CALL algo.leiden.stream(label:String, relationship:String, " +
+            "{weightProperty:'weight', defaultValue:1.0, concurrency:4, " +
+            "iterations:10, innerIterations:10, resolution:1.0, randomness:0.01, seed:42}) " +
+            "YIELD nodeId, community - yields a community to each node id")
+    public Stream<StreamingResult> leidenStream(
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        final ProcedureConfiguration configuration = ProcedureConfiguration.create(config)
+                .overrideNodeLabelOrQuery(label)
+                .overrideRelationshipTypeOrQuery(relationship);
+
+        final HugeGraph graph = graph(label, relationship, configuration);
+
+        if (graph.nodeCount() == 0) {
+            graph.release();
+            return Stream.empty();
+        }
+
+        final HugeLongArray communities = leiden(graph, configuration)
+                .compute(
+                        configuration.getIterations(Leiden.DEFAULT_MAX_LEVELS),
+                        configuration.getNumber(LouvainProc.INNER_ITERATIONS, (long) Leiden.DEFAULT_MAX_ITERATIONS).intValue())
+                .getCommunities();
+        graph.release();
+
+        return LongStream.range(0L, graph.nodeCount())
+                .mapToObj(node -> new StreamingResult(graph.toOriginalNodeId(node), communities.get(node)));
+    }
+
+    private HugeGraph graph(String label, String relationship, ProcedureConfiguration config) {
+        return (HugeGraph) new GraphLoader(api, Pools.DEFAULT)
+                .init(log, label, relationship, config)
+                .withOptionalRelationshipWeightsFromProperty(config.getWeightProperty(), config.getWeightPropertyDefaultValue(1.0))
+                .asUndirected(true)
+                .load(HugeGraphFactory.class);
+    }
+
+    private Leiden leiden(HugeGraph graph, ProcedureConfiguration configuration) {
+        return new Leiden(
+                graph,
+                configuration.getNumber(RESOLUTION, Leiden.DEFAULT_RESOLUTION).doubleValue(),
+                configuration.getNumber(RANDOMNESS, Leiden.DEFAULT_RANDOMNESS).doubleValue(),
+                configuration.getNumber(SEED, System.currentTimeMillis()).longValue(),
+                Pools.DEFAULT,
+                configuration.getConcurrency(),
+                AllocationTracker.create())
+                .withProgressLogger(ProgressLogger.wrap(log, "Leiden"))
+                .withTerminationFlag(TerminationFlag.wrap(transaction));
+    }
+
+    public static final class StreamingResult {
+        public final long nodeId;
+        public final long community;
+
+        public StreamingResult(long nodeId, long community) {
+            this.nodeId = nodeId;
+            this.community = community;
+        }
+    }
+
+    public static class LeidenResult {
+
+        public static final LeidenResult EMPTY = new LeidenResult(
+                0, 0, 0, 0, 0, 0,
+                -1, -1, -1, -1, -1, -1, -1, -1, -1, -1,
+                0, 0, new double[]{},
+                false, null);
+
+        public final long loadMillis;
+        public final long computeMillis;
+        public final long writeMillis;
+        public final long postProcessingMillis;
+        public final long nodes;
+        public final long communityCount;
+        public final long levels;
+        public final long iterations;
+        public final List<Double> modularities;
+        public final double modularity;
+        public final long p1;
+        public final long p5;
+        public final long p10;
+        public final long p25;
+        public final long p50;
+        public final long p75;
+        public final long p90;
+        public final long p95;
+        public final long p99;
+        public final long p100;
+        public final boolean write;
+        public final String writeProperty;
+
+        public LeidenResult(long loadMillis, long computeMillis, long postProcessingMillis, long writeMillis, long nodes,
+                            long communityCount, long p100, long p99, long p95, long p90, long p75, long p50, long p25, long p10, long p5, long p1,
+                            long levels, long iterations, double[] modularities,
+                            boolean write, String writeProperty) {
+            this.loadMillis = loadMillis;
+            this.computeMillis = computeMillis;
+            this.postProcessingMillis = postProcessingMillis;
+            this.writeMillis = writeMillis;
+            this.nodes = nodes;
+            this.communityCount = communityCount;
+            this.p100 = p100;
+            this.p99 = p99;
+            this.p95 = p95;
+            this.p90 = p90;
+            this.p75 = p75;
+            this.p50 = p50;
+            this.p25 = p25;
+            this.p10 = p10;
+            this.p5 = p5;
+            this.p1 = p1;
+            this.levels = levels;
+            this.iterations = iterations;
+            this.modularities = new ArrayList<>(modularities.length);
+            for (double mod : modularities) this.modularities.add(mod);
+            this.modularity = modularities.length == 0 ? -1 : modularities[modularities.length - 1];
+            this.write = write;
+            this.writeProperty = writeProperty;
+        }
+    }
+
+    public static class Builder extends AbstractCommunityResultBuilder<LeidenResult> {
+
+        private long levels = -1;
+        private long iterations = -1;
+        private double[] modularities = new double[]{};
+        private String writeProperty;
+
+        public Builder withWriteProperty(String writeProperty) {
+            this.writeProperty = writeProperty;
+            return this;
+        }
+
+        public Builder withLevels(long levels) {
+            this.levels = levels;
+            return this;
+        }
+
+        public Builder withIterations(long iterations) {
+            this.iterations = iterations;
+            return this;
+        }
+
+        public Builder withModularities(double[] modularities) {
+            this.modularities = modularities;
+            return this;
+        }
+
+        @Override
+        protected LeidenResult build(long loadMillis, long computeMillis, long writeMillis, long postProcessingMillis, long nodeCount, long communityCount, Histogram communityHistogram, boolean write) {
+            return new LeidenResult(
+                    loadMillis,
+                    computeMillis,
+                    postProcessingMillis,
+                    writeMillis,
+                    nodeCount,
+                    communityCount,
+                    communityHistogram.getValueAtPercentile(100),
+                    communityHistogram.getValueAtPercentile(99),
+                    communityHistogram.getValueAtPercentile(95),
+                    communityHistogram.getValueAtPercentile(90),
+                    communityHistogram.getValueAtPercentile(75),
+                    communityHistogram.getValueAtPercentile(50),
+                    communityHistogram.getValueAtPercentile(25),
+                    communityHistogram.getValueAtPercentile(10),
+                    communityHistogram.getValueAtPercentile(5),
+                    communityHistogram.getValueAtPercentile(1),
+                    levels,
+                    iterations,
+                    modularities,
+                    write,
+                    writeProperty);
+        }
+    }
+}
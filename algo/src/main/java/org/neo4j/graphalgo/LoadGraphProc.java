@@ -20,13 +20,18 @@ package org.neo4j.graphalgo;
 
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.ProcedureConstants;
+import org.neo4j.graphalgo.core.huge.loader.BinaryEdgeListLoader;
 import org.neo4j.graphalgo.core.loading.LoadGraphFactory;
+import org.neo4j.graphalgo.core.utils.ImportDirectory;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.write.FileExporter;
 import org.neo4j.graphalgo.impl.LabelPropagation;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.KernelTransaction;
@@ -34,6 +39,11 @@ import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
 import org.neo4j.procedure.*;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+import java.util.Locale;
 import java.util.Map;
 import java.util.stream.Stream;
 
@@ -51,7 +61,8 @@ public final class LoadGraphProc {
     @Procedure(name = "algo.graph.load")
     @Description("CALL algo.graph.load(" +
             "name:String, label:String, relationship:String" +
-            "{direction:'OUT/IN/BOTH', undirected:true/false, sorted:true/false, nodeProperty:'value', nodeWeight:'weight', relationshipWeight: 'weight', graph:'heavy/huge/cypher'}) " +
+            "{direction:'OUT/IN/BOTH', undirected:true/false, sorted:true/false, nodeProperty:'value', nodeWeight:'weight', relationshipWeight: 'weight', graph:'heavy/huge/cypher', " +
+            "file:'edges.bin', weighted:true/false, byteOrder:'big/little'}) " +
             "YIELD nodes, relationships, loadMillis, computeMillis, writeMillis, write, nodeProperty, nodeWeight, relationshipWeight - " +
             "load named graph")
     public Stream<LoadGraphStats> load(
@@ -87,6 +98,11 @@ public final class LoadGraphProc {
             return Stream.of(stats);
         }
 
+        String file = configuration.getString("file", null);
+        if (file != null) {
+            return Stream.of(loadFile(name, file, configuration, direction, stats));
+        }
+
         try (ProgressTimer timer = ProgressTimer.start()) {
             Class<? extends GraphFactory> graphImpl = configuration.getGraphImpl();
 
@@ -114,6 +130,56 @@ public final class LoadGraphProc {
         return Stream.of(stats);
     }
 
+    /**
+     * Loads a huge graph from a binary edge list instead of the store,
+     * file access follows the settings of {@code LOAD CSV}.
+     */
+    private LoadGraphStats loadFile(
+            String name,
+            String file,
+            ProcedureConfiguration configuration,
+            Direction direction,
+            LoadGraphStats stats) {
+        boolean weighted = configuration.get("weighted", false);
+        String byteOrder = configuration.getString("byteOrder", "big");
+        stats.graph = HugeGraph.TYPE;
+        stats.loadNodes = null;
+        stats.loadRelationships = null;
+        stats.relationshipWeight = weighted ? "weight" : null;
+
+        Path path = ImportDirectory.resolve(dbAPI, file);
+        try (ProgressTimer timer = ProgressTimer.start()) {
+            BinaryEdgeListLoader loader = new BinaryEdgeListLoader(path)
+                    .withByteOrder(parseByteOrder(byteOrder))
+                    .withDirection(direction)
+                    .asUndirected(stats.undirected)
+                    .withConcurrency(configuration.getConcurrency())
+                    .withExecutorService(Pools.DEFAULT)
+                    .withAllocationTracker(new AllocationTracker());
+            if (weighted) {
+                loader.withRelationshipWeights(1.0d);
+            }
+            HugeGraph graph = loader.load();
+            stats.nodes = graph.nodeCount();
+            stats.loadMillis = timer.stop().getDuration();
+            LoadGraphFactory.set(name, graph);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return stats;
+    }
+
+    private static ByteOrder parseByteOrder(String byteOrder) {
+        switch (byteOrder.toLowerCase(Locale.ROOT)) {
+            case "big":
+                return ByteOrder.BIG_ENDIAN;
+            case "little":
+                return ByteOrder.LITTLE_ENDIAN;
+            default:
+                throw new IllegalArgumentException("Unknown byte order: " + byteOrder + ", expected 'big' or 'little'");
+        }
+    }
+
     public static class LoadGraphStats {
         public String name, graph, direction;
         public boolean undirected;
@@ -151,6 +217,46 @@ public final class LoadGraphProc {
         return Stream.of(info);
     }
 
+    @Procedure(name = "algo.graph.export")
+    @Description("CALL algo.graph.export(name:String, directory:String, " +
+            "{format:'csv/binary', direction:'OUT/IN/BOTH', weighted:true/false, concurrency:4}) " +
+            "YIELD name, directory, format, partitions, nodes, relationships, writeMillis - " +
+            "export the relationships of a named graph into partition files")
+    public Stream<ExportGraphStats> export(
+            @Name("name") String name,
+            @Name("directory") String directory,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+        Graph graph = LoadGraphFactory.get(name);
+        if (graph == null) {
+            throw new IllegalArgumentException("There is no graph named " + name);
+        }
+        ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
+        FileExporter.Format format = FileExporter.Format.parse(configuration.getString("format", "csv"));
+
+        ExportGraphStats stats = new ExportGraphStats();
+        stats.name = name;
+        stats.directory = directory;
+        stats.format = format.name().toLowerCase(Locale.ROOT);
+        stats.nodes = graph.nodeCount();
+        try (ProgressTimer timer = ProgressTimer.start()) {
+            FileExporter exporter = FileExporter.of(graph)
+                    .withFormat(format)
+                    .parallel(Pools.DEFAULT, configuration.getConcurrency(), TerminationFlag.wrap(transaction))
+                    .build(ImportDirectory.resolveExport(dbAPI, directory));
+            stats.partitions = exporter.partitionCount();
+            stats.relationships = exporter.writeRelationships(
+                    configuration.getDirection(Direction.OUTGOING),
+                    configuration.get("weighted", false));
+            stats.writeMillis = timer.stop().getDuration();
+        }
+        return Stream.of(stats);
+    }
+
+    public static class ExportGraphStats {
+        public String name, directory, format;
+        public long partitions, nodes, relationships, writeMillis;
+    }
+
     public static class GraphInfo {
         public final String name;
         public String type;
@@ -18,16 +18,18 @@
  */
 package org.neo4j.graphalgo;
 
-import com.carrotsearch.hppc.LongLongMap;
 import org.HdrHistogram.Histogram;
 import org.neo4j.graphalgo.api.*;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.ImportDirectory;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.write.FileExporter;
+import org.neo4j.graphalgo.core.write.Translators;
 import org.neo4j.graphalgo.impl.louvain.*;
 import org.neo4j.graphalgo.results.AbstractCommunityResultBuilder;
 import org.neo4j.kernel.api.KernelTransaction;
@@ -66,7 +68,7 @@ public class LouvainProc {
 
     @Procedure(value = "algo.louvain", mode = Mode.WRITE)
     @Description("CALL algo.louvain(label:String, relationship:String, " +
-            "{weightProperty:'weight', defaultValue:1.0, write: true, writeProperty:'community', concurrency:4, communityProperty:'propertyOfPredefinedCommunity', innerIterations:10, communitySelection:'classic'}) " +
+            "{weightProperty:'weight', defaultValue:1.0, write: true, writeProperty:'community', exportPath:'communities', exportFormat:'csv/binary', concurrency:4, communityProperty:'propertyOfPredefinedCommunity', innerIterations:10, communitySelection:'classic'}) " +
             "YIELD nodes, communityCount, iterations, loadMillis, computeMillis, writeMillis")
     public Stream<LouvainResult> louvain(
             @Name(value = "label", defaultValue = "") String label,
@@ -107,18 +109,23 @@ public class LouvainProc {
             }
         }
 
-        if (configuration.isWriteFlag()) {
+        if (configuration.isWriteFlag() || configuration.getExportPath() != null) {
             builder.timeWrite(() -> {
                 String writeProperty = configuration.getWriteProperty("community");
-                boolean includeIntermediateCommunities = configuration.get(INCLUDE_INTERMEDIATE_COMMUNITIES, false);
-                String intermediateCommunitiesWriteProperty = configuration.get(INTERMEDIATE_COMMUNITIES_WRITE_PROPERTY, "communities");
-
-                builder.withWrite(true);
-                builder.withWriteProperty(writeProperty);
-                builder.withIntermediateCommunities(includeIntermediateCommunities);
-                builder.withIntermediateCommunitiesWriteProperty(intermediateCommunitiesWriteProperty);
-
-                write(graph, louvain.getDendrogram(), louvain.getCommunityIds(), configuration, writeProperty, includeIntermediateCommunities, intermediateCommunitiesWriteProperty);
+                if (configuration.getExportPath() != null) {
+                    export(graph, louvain.getCommunityIds(), configuration, writeProperty);
+                }
+                if (configuration.isWriteFlag()) {
+                    boolean includeIntermediateCommunities = configuration.get(INCLUDE_INTERMEDIATE_COMMUNITIES, false);
+                    String intermediateCommunitiesWriteProperty = configuration.get(INTERMEDIATE_COMMUNITIES_WRITE_PROPERTY, "communities");
+
+                    builder.withWrite(true);
+                    builder.withWriteProperty(writeProperty);
+                    builder.withIntermediateCommunities(includeIntermediateCommunities);
+                    builder.withIntermediateCommunitiesWriteProperty(intermediateCommunitiesWriteProperty);
+
+                    write(graph, louvain.getDendrogram(), louvain.getCommunityIds(), configuration, writeProperty, includeIntermediateCommunities, intermediateCommunitiesWriteProperty);
+                }
             });
         }
 
@@ -127,7 +134,7 @@ public class LouvainProc {
         builder.withFinalModularity(louvain.getFinalModularity());
 
         final int[] communityIds = louvain.getCommunityIds();
-        return Stream.of(builder.build(graph.nodeCount(), n -> (long) communityIds[(int) n]));
+        return Stream.of(builder.build(graph.nodeCount(), configuration.getConcurrency(), n -> communityIds[(int) n]));
     }
 
     @Procedure(value = "algo.louvain.stream")
@@ -199,6 +206,16 @@ public class LouvainProc {
                 .export(allCommunities, finalCommunities, includeIntermediateCommunities);
     }
 
+    private void export(Graph graph, int[] finalCommunities, ProcedureConfiguration configuration, String writeProperty) {
+        log.debug("Exporting results");
+
+        FileExporter.of(graph)
+                .withFormat(configuration.getExportFormat())
+                .parallel(Pools.DEFAULT, configuration.getConcurrency(), TerminationFlag.wrap(transaction))
+                .build(ImportDirectory.resolveExport(api, configuration.getExportPath()))
+                .write(writeProperty, finalCommunities, Translators.INT_ARRAY_TRANSLATOR);
+    }
+
     public static class LouvainResult {
 
         public static final LouvainResult EMPTY = new LouvainResult(
@@ -311,7 +328,7 @@ public class LouvainProc {
         }
 
         @Override
-        protected LouvainResult build(long loadMillis, long computeMillis, long writeMillis, long postProcessingMillis, long nodeCount, long communityCount, LongLongMap communitySizeMap, Histogram communityHistogram, boolean write) {
+        protected LouvainResult build(long loadMillis, long computeMillis, long writeMillis, long postProcessingMillis, long nodeCount, long communityCount, Histogram communityHistogram, boolean write) {
             return new LouvainResult(
                     loadMillis,
                     computeMillis,
@@ -0,0 +1,151 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo;
+
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryTree;
+import org.neo4j.graphalgo.impl.HugeParallelUnionFindQueue;
+import org.neo4j.graphalgo.impl.HugeShortestPathDeltaStepping;
+import org.neo4j.graphalgo.impl.degree.HugeDegreeCentrality;
+import org.neo4j.graphalgo.impl.pagerank.HugePageRank;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.Log;
+import org.neo4j.procedure.Context;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Estimates the heap that loading a graph and running an algorithm on it would need,
+ * based on the counts store only, without loading anything.
+ */
+public final class MemRecProc {
+
+    private static final String LOAD_ONLY = "graph.load";
+
+    @Context
+    public GraphDatabaseAPI api;
+
+    @Context
+    public Log log;
+
+    @Procedure(name = "algo.memrec")
+    @Description("CALL algo.memrec(label:String, relationship:String, algo:String, " +
+            "{direction:'OUT/IN/BOTH', weightProperty:'weight', concurrency:4, batchSize:10000, graph:'huge/heavy'}) " +
+            "YIELD requiredMemory, treeView, mapView, bytesMin, bytesMax, nodeCount, relationshipCount - " +
+            "estimates the memory needed to load the graph and run the algorithm " +
+            "(graph.load, pageRank, unionFind, degreeCentrality or deltaStepping; algorithms only on huge graphs)")
+    public Stream<MemRecResult> memrec(
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "algo", defaultValue = LOAD_ONLY) String algo,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+
+        ProcedureConfiguration configuration = ProcedureConfiguration.create(config)
+                .overrideNodeLabelOrQuery(label)
+                .overrideRelationshipTypeOrQuery(relationship);
+        Class<? extends GraphFactory> graphImpl = configuration.getGraphImpl("huge");
+        MemoryEstimation algorithm = algorithmEstimation(algo, graphImpl, configuration);
+        int concurrency = configuration.getConcurrency();
+
+        GraphFactory factory = new GraphLoader(api, Pools.DEFAULT)
+                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
+                .withOptionalRelationshipWeightsFromProperty(configuration.getWeightProperty(), 1.0)
+                .withDirection(configuration.getDirection(Direction.OUTGOING))
+                .build(graphImpl);
+        if (!factory.canEstimateMemory()) {
+            throw new IllegalArgumentException(String.format(
+                    "No memory estimation for graph '%s', cypher and named graphs are not supported",
+                    configuration.getGraphName("huge")));
+        }
+
+        MemoryEstimation estimation = MemoryEstimations.builder(algo)
+                .add(factory.memoryEstimation())
+                .add(algorithm)
+                .build();
+        GraphDimensions dimensions = factory.dimensions();
+        MemoryTree tree = estimation.estimate(dimensions, concurrency);
+        return Stream.of(new MemRecResult(tree, dimensions));
+    }
+
+    /**
+     * Only the huge implementations describe their memory usage, the estimates
+     * do not hold for the algorithms that run on the other graphs.
+     */
+    private static MemoryEstimation algorithmEstimation(
+            String algo,
+            Class<? extends GraphFactory> graphImpl,
+            ProcedureConfiguration configuration) {
+        if (!LOAD_ONLY.equals(algo) && graphImpl != HugeGraphFactory.class) {
+            throw new IllegalArgumentException(String.format(
+                    "No memory estimation for '%s' on graph '%s', only %s can be estimated for graphs other than 'huge'",
+                    algo,
+                    configuration.getGraphName("huge"),
+                    LOAD_ONLY));
+        }
+        switch (algo) {
+            case LOAD_ONLY:
+                return MemoryEstimations.empty();
+            case "pageRank":
+                return HugePageRank.memoryEstimation();
+            case "unionFind":
+                return HugeParallelUnionFindQueue.memoryEstimation(configuration.getBatchSize());
+            case "degreeCentrality":
+                return HugeDegreeCentrality.memoryEstimation();
+            case "deltaStepping":
+                return HugeShortestPathDeltaStepping.memoryEstimation();
+            default:
+                throw new IllegalArgumentException(String.format(
+                        "No memory estimation for '%s', expected one of %s, pageRank, unionFind, degreeCentrality or deltaStepping",
+                        algo,
+                        LOAD_ONLY));
+        }
+    }
+
+    public static final class MemRecResult {
+        public final String requiredMemory;
+        public final String treeView;
+        public final Map<String, Object> mapView;
+        public final long bytesMin;
+        public final long bytesMax;
+        public final long nodeCount;
+        public final long relationshipCount;
+
+        MemRecResult(MemoryTree tree, GraphDimensions dimensions) {
+            this.requiredMemory = tree.memoryUsage().toString();
+            this.treeView = tree.render();
+            this.mapView = tree.renderMap();
+            this.bytesMin = tree.memoryUsage().min();
+            this.bytesMax = tree.memoryUsage().max();
+            this.nodeCount = dimensions.hugeNodeCount();
+            this.relationshipCount = dimensions.maxRelCount();
+        }
+    }
+}
@@ -20,6 +20,7 @@ package org.neo4j.graphalgo;
 
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeWeightedRelationshipConsumer;
 import org.neo4j.graphalgo.api.RelationshipConsumer;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
@@ -28,7 +29,10 @@ import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.write.Exporter;
+import org.neo4j.graphalgo.impl.spanningTrees.HugeBoruvka;
+import org.neo4j.graphalgo.impl.spanningTrees.HugeSpanningForest;
 import org.neo4j.graphalgo.impl.spanningTrees.Prim;
 import org.neo4j.graphalgo.impl.spanningTrees.SpanningTree;
 import org.neo4j.internal.kernel.api.Write;
@@ -140,6 +144,10 @@ public class PrimProc {
             return Stream.of(builder.build());
         }
 
+        if (graph instanceof HugeGraph) {
+            return hugeSpanningTree((HugeGraph) graph, weightProperty, startNode, configuration, builder, max);
+        }
+
         final int root = graph.toMappedNodeId(startNode);
         final Prim mstPrim = new Prim(graph, graph, graph)
                 .withProgressLogger(ProgressLogger.wrap(log, "Prim(MaximumSpanningTree)"))
@@ -169,6 +177,58 @@ public class PrimProc {
         return Stream.of(builder.build());
     }
 
+    private Stream<Prim.Result> hugeSpanningTree(
+            HugeGraph graph,
+            String weightProperty,
+            long startNode,
+            ProcedureConfiguration configuration,
+            Prim.Builder builder,
+            boolean max) {
+        final long root = graph.toHugeMappedNodeId(startNode);
+        final HugeBoruvka boruvka = new HugeBoruvka(graph, configuration.getConcurrency(), Pools.DEFAULT, AllocationTracker.create())
+                .withProgressLogger(ProgressLogger.wrap(log, "Boruvka(SpanningForest)"))
+                .withTerminationFlag(TerminationFlag.wrap(transaction));
+        builder.timeEval(() -> {
+            if (max) {
+                boruvka.computeMaximumSpanningForest();
+            } else {
+                boruvka.computeMinimumSpanningForest();
+            }
+        });
+        final HugeSpanningForest spanningForest = boruvka.getSpanningForest();
+        builder.withEffectiveNodeCount(spanningForest.treeSize(root));
+        if (configuration.isWriteFlag()) {
+            boruvka.release();
+            builder.timeWrite(() -> {
+                Exporter.of(graph, api)
+                        .withLog(log)
+                        .build()
+                        .writeRelationshipAndProperty(
+                                configuration.get(CONFIG_WRITE_RELATIONSHIP, CONFIG_WRITE_RELATIONSHIP_DEFAULT),
+                                weightProperty,
+                                (ops, relType, propertyType) -> spanningForest.forEachInTree(root, writeBack(relType, propertyType, graph, ops))
+                        );
+            });
+        }
+        return Stream.of(builder.build());
+    }
+
+    private static HugeWeightedRelationshipConsumer writeBack(int relType, int propertyType, HugeGraph graph, Write ops) {
+        return (source, target, weight) -> {
+            try {
+                final long relId = ops.relationshipCreate(
+                        graph.toOriginalNodeId(source),
+                        relType,
+                        graph.toOriginalNodeId(target)
+                );
+                ops.relationshipSetProperty(relId, propertyType, Values.doubleValue(weight));
+            } catch (KernelException e) {
+                ExceptionUtil.throwKernelException(e);
+            }
+            return true;
+        };
+    }
+
     private static RelationshipConsumer writeBack(int relType, int propertyType, Graph graph, Write ops) {
         return (source, target, rid) -> {
             try {
@@ -19,14 +19,17 @@
 package org.neo4j.graphalgo;
 
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.core.write.Translators;
+import org.neo4j.graphalgo.impl.HugeShortestPathDeltaStepping;
 import org.neo4j.graphalgo.impl.ShortestPathDeltaStepping;
 import org.neo4j.graphalgo.results.DeltaSteppingProcResult;
 import org.neo4j.graphdb.Direction;
@@ -71,7 +74,7 @@ public class ShortestPathDeltaSteppingProc {
 
     @Procedure("algo.shortestPath.deltaStepping.stream")
     @Description("CALL algo.shortestPath.deltaStepping.stream(startNode:Node, weightProperty:String, delta:Double" +
-            "{label:'labelName', relationship:'relationshipName', defaultValue:1.0, concurrency:4}) " +
+            "{label:'labelName', relationship:'relationshipName', defaultValue:1.0, concurrency:4, graph:'heavy/huge'}) " +
             "YIELD nodeId, distance - yields a stream of {nodeId, distance} from start to end (inclusive)")
     public Stream<ShortestPathDeltaStepping.DeltaSteppingResult> deltaSteppingStream(
             @Name("startNode") Node startNode,
@@ -103,6 +106,21 @@ public class ShortestPathDeltaSteppingProc {
             return Stream.empty();
         }
 
+        if (graph instanceof HugeGraph) {
+            final HugeShortestPathDeltaStepping algo = new HugeShortestPathDeltaStepping(
+                    (HugeGraph) graph,
+                    delta,
+                    direction,
+                    Pools.DEFAULT,
+                    configuration.getConcurrency(),
+                    AllocationTracker.create())
+                    .withProgressLogger(ProgressLogger.wrap(log, "ShortestPaths(DeltaStepping)"))
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .compute(startNode.getId());
+            graph.release();
+            return algo.resultStream();
+        }
+
         final ShortestPathDeltaStepping algo = new ShortestPathDeltaStepping(graph, delta, direction)
                 .withProgressLogger(ProgressLogger.wrap(log, "ShortestPaths(DeltaStepping)"))
                 .withTerminationFlag(TerminationFlag.wrap(transaction))
@@ -116,7 +134,7 @@ public class ShortestPathDeltaSteppingProc {
 
     @Procedure(value = "algo.shortestPath.deltaStepping", mode = Mode.WRITE)
     @Description("CALL algo.shortestPath.deltaStepping(startNode:Node, weightProperty:String, delta:Double" +
-            "{label:'labelName', relationship:'relationshipName', defaultValue:1.0, write:true, writeProperty:'sssp'}) " +
+            "{label:'labelName', relationship:'relationshipName', defaultValue:1.0, write:true, writeProperty:'sssp', graph:'heavy/huge'}) " +
             "YIELD loadDuration, evalDuration, writeDuration, nodeCount")
     public Stream<DeltaSteppingProcResult> deltaStepping(
             @Name("startNode") Node startNode,
@@ -155,6 +173,39 @@ public class ShortestPathDeltaSteppingProc {
         }
 
         final TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
+        if (graph instanceof HugeGraph) {
+            final HugeShortestPathDeltaStepping algorithm = new HugeShortestPathDeltaStepping(
+                    (HugeGraph) graph,
+                    delta,
+                    direction,
+                    Pools.DEFAULT,
+                    configuration.getConcurrency(),
+                    AllocationTracker.create())
+                    .withProgressLogger(ProgressLogger.wrap(log, "ShortestPaths(DeltaStepping)"))
+                    .withTerminationFlag(terminationFlag);
+
+            builder.timeEval(() -> algorithm.compute(startNode.getId()));
+            graph.release();
+
+            if (configuration.isWriteFlag()) {
+                builder.timeWrite(() -> Exporter
+                        .of(api, graph)
+                        .withLog(log)
+                        .parallel(Pools.DEFAULT, configuration.getConcurrency(), terminationFlag)
+                        .build()
+                        .write(
+                                configuration.get(WRITE_PROPERTY, DEFAULT_TARGET_PROPERTY),
+                                algorithm,
+                                HugeShortestPathDeltaStepping.Translator.INSTANCE
+                        ));
+            }
+            algorithm.release();
+
+            return Stream.of(builder
+                    .withNodeCount(graph.nodeCount())
+                    .build());
+        }
+
         final ShortestPathDeltaStepping algorithm = new ShortestPathDeltaStepping(graph, delta, direction)
                 .withProgressLogger(ProgressLogger.wrap(log, "ShortestPaths(DeltaStepping)"))
                 .withTerminationFlag(terminationFlag)
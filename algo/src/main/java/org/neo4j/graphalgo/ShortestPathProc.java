@@ -20,15 +20,19 @@ package org.neo4j.graphalgo;
 
 import com.carrotsearch.hppc.IntArrayDeque;
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.api.IdMapping;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.write.Exporter;
 import org.neo4j.graphalgo.core.write.PropertyTranslator;
+import org.neo4j.graphalgo.impl.HugeBidirectionalDijkstra;
 import org.neo4j.graphalgo.impl.ShortestPathAStar;
 import org.neo4j.graphalgo.impl.ShortestPathDijkstra;
 import org.neo4j.graphalgo.results.DijkstraResult;
@@ -40,6 +44,7 @@ import org.neo4j.logging.Log;
 import org.neo4j.procedure.*;
 
 import java.util.Map;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
 /**
@@ -85,6 +90,7 @@ public class ShortestPathProc {
         ProcedureConfiguration configuration = ProcedureConfiguration.create(config);
 
         Direction direction = configuration.getDirection(Direction.BOTH);
+        final boolean bidirectional = configuration.getGraphImpl() == HugeGraphFactory.class;
 
         GraphLoader graphLoader = new GraphLoader(api, Pools.DEFAULT)
                 .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
@@ -92,11 +98,14 @@ public class ShortestPathProc {
                         propertyName,
                         configuration.getWeightPropertyDefaultValue(1.0));
 
+        final Direction reverseDirection;
         if(direction == Direction.BOTH) {
             direction = Direction.OUTGOING;
+            reverseDirection = direction;
             graphLoader.asUndirected(true).withDirection(direction);
         } else {
-            graphLoader.withDirection(direction);
+            reverseDirection = direction.reverse();
+            graphLoader.withDirection(bidirectional ? Direction.BOTH : direction);
         }
 
 
@@ -107,6 +116,19 @@ public class ShortestPathProc {
             return Stream.empty();
         }
 
+        if (bidirectional) {
+            final HugeBidirectionalDijkstra.Path path;
+            final HugeBidirectionalDijkstra dijkstra = bidirectionalDijkstra(graph, direction, reverseDirection);
+            try {
+                path = dijkstra.compute(startNode.getId(), endNode.getId());
+            } finally {
+                dijkstra.release();
+                graph.release();
+            }
+            return IntStream.range(0, path.length())
+                    .mapToObj(i -> new ShortestPathDijkstra.Result(path.nodeIds[i], path.costs[i]));
+        }
+
         return new ShortestPathDijkstra(graph)
                 .withProgressLogger(ProgressLogger.wrap(log, "ShortestPath(Dijkstra)"))
                 .withTerminationFlag(TerminationFlag.wrap(transaction))
@@ -133,6 +155,8 @@ public class ShortestPathProc {
         final ShortestPathDijkstra dijkstra;
 
         Direction direction = configuration.getDirection(Direction.BOTH);
+        final boolean bidirectional = configuration.getGraphImpl() == HugeGraphFactory.class;
+        final Direction reverseDirection;
         try (ProgressTimer timer = builder.timeLoad()) {
             GraphLoader graphLoader = new GraphLoader(api, Pools.DEFAULT)
                     .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
@@ -143,9 +167,11 @@ public class ShortestPathProc {
 
             if(direction == Direction.BOTH) {
                 direction = Direction.OUTGOING;
+                reverseDirection = direction;
                 graphLoader.asUndirected(true).withDirection(direction);
             } else {
-                graphLoader.withDirection(direction);
+                reverseDirection = direction.reverse();
+                graphLoader.withDirection(bidirectional ? Direction.BOTH : direction);
             }
 
 
@@ -157,6 +183,32 @@ public class ShortestPathProc {
             return Stream.of(builder.build());
         }
 
+        if (bidirectional) {
+            final HugeBidirectionalDijkstra.Path path;
+            final HugeBidirectionalDijkstra bidirectionalDijkstra = bidirectionalDijkstra(graph, direction, reverseDirection);
+            try (ProgressTimer timer = builder.timeEval()) {
+                path = bidirectionalDijkstra.compute(startNode.getId(), endNode.getId());
+                builder.withNodeCount(path.length())
+                        .withTotalCosts(path.totalCost());
+            } finally {
+                bidirectionalDijkstra.release();
+                graph.release();
+            }
+            if (configuration.isWriteFlag()) {
+                try (ProgressTimer timer = builder.timeWrite()) {
+                    Exporter.of(new PathMapping(path.nodeIds), api)
+                            .withLog(log)
+                            .build()
+                            .write(
+                                    configuration.getWriteProperty(DEFAULT_TARGET_PROPERTY),
+                                    path,
+                                    (PropertyTranslator.OfInt<HugeBidirectionalDijkstra.Path>) (data, nodeId) -> (int) nodeId
+                            );
+                }
+            }
+            return Stream.of(builder.build());
+        }
+
         try (ProgressTimer timer = builder.timeEval()) {
             dijkstra = new ShortestPathDijkstra(graph)
                     .withProgressLogger(ProgressLogger.wrap(log, "ShortestPath(Dijkstra)"))
@@ -228,6 +280,53 @@ public class ShortestPathProc {
     				.resultStream();
     }
 
+    /**
+     * point-to-point searches on huge graphs run bidirectional, the backward search follows reverseDirection
+     */
+    private HugeBidirectionalDijkstra bidirectionalDijkstra(Graph graph, Direction direction, Direction reverseDirection) {
+        return new HugeBidirectionalDijkstra(
+                (HugeGraph) graph,
+                direction,
+                reverseDirection,
+                HugeBidirectionalDijkstra.Heuristic.NONE,
+                AllocationTracker.EMPTY)
+                .withProgressLogger(ProgressLogger.wrap(log, "ShortestPath(BidirectionalDijkstra)"))
+                .withTerminationFlag(TerminationFlag.wrap(transaction));
+    }
+
+    private static final class PathMapping implements IdMapping {
+        private final long[] nodeIds;
+
+        private PathMapping(long[] nodeIds) {
+            this.nodeIds = nodeIds;
+        }
+
+        @Override
+        public int toMappedNodeId(final long nodeId) {
+            for (int i = 0; i < nodeIds.length; i++) {
+                if (nodeIds[i] == nodeId) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public long toOriginalNodeId(final int nodeId) {
+            return nodeIds[nodeId];
+        }
+
+        @Override
+        public boolean contains(final long nodeId) {
+            return true;
+        }
+
+        @Override
+        public long nodeCount() {
+            return nodeIds.length;
+        }
+    }
+
     private static final class DequeMapping implements IdMapping {
         private final IdMapping mapping;
         private final int[] data;
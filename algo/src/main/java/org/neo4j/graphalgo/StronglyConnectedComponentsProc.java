@@ -143,7 +143,7 @@ public class StronglyConnectedComponentsProc {
             });
         }
 
-        return Stream.of(builder.build(graph.nodeCount(), l -> (long) connectedComponents[((int) l)]));
+        return Stream.of(builder.build(graph.nodeCount(), configuration.getConcurrency(), l -> connectedComponents[((int) l)]));
     }
 
     // algo.scc.tunedTarjan
@@ -196,7 +196,7 @@ public class StronglyConnectedComponentsProc {
         }
 
         final int[] connectedComponents = tarjan.getConnectedComponents();
-        return Stream.of(builder.build(graph.nodeCount(), l -> (long) connectedComponents[((int) l)]));
+        return Stream.of(builder.build(graph.nodeCount(), configuration.getConcurrency(), l -> connectedComponents[((int) l)]));
     }
 
     // algo.scc.tunedTarjan.stream
@@ -270,11 +270,11 @@ public class StronglyConnectedComponentsProc {
 
         if (graph instanceof HugeGraph) {
             final HugeLongArray connectedComponents = tarjan.getConnectedComponents();
-            return Stream.of(builder.build(graph.nodeCount(), connectedComponents::get));
+            return Stream.of(builder.build(graph.nodeCount(), configuration.getConcurrency(), connectedComponents::get));
         }
         final int[] connectedComponents = tarjan.getConnectedComponents();
         tarjan.release();
-        return Stream.of(builder.build(graph.nodeCount(), l -> (long) connectedComponents[((int) l)]));
+        return Stream.of(builder.build(graph.nodeCount(), configuration.getConcurrency(), l -> connectedComponents[((int) l)]));
     }
 
     private void write(ProcedureConfiguration configuration, Graph graph, TerminationFlag terminationFlag, SCCAlgorithm tarjan, String partitionProperty) {
@@ -399,7 +399,7 @@ public class StronglyConnectedComponentsProc {
             });
         }
 
-        return Stream.of(builder.build(graph.nodeCount(), l -> (long) connectedComponents[((int) l)]));
+        return Stream.of(builder.build(graph.nodeCount(), configuration.getConcurrency(), l -> connectedComponents[((int) l)]));
     }
 
     // algo.scc.multistep.stream
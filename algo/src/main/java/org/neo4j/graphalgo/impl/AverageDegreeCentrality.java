@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.SortedMap;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
 public class AverageDegreeCentrality extends Algorithm<AverageDegreeCentrality> {
@@ -66,7 +67,8 @@ public class AverageDegreeCentrality extends Algorithm<AverageDegreeCentrality>
         for (int i = 0; i < concurrency; i++) {
                 tasks.add(new DegreeTask());
         }
-        ParallelUtil.runWithConcurrency(concurrency, tasks, executor);
+        // retry while the pool is busy, every abandoned task would leave nodes out of the average
+        ParallelUtil.runWithConcurrency(concurrency, tasks, 3, 1, TimeUnit.SECONDS, executor);
 
         return this;
     }
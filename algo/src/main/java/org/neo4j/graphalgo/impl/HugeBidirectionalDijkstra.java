@@ -0,0 +1,375 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.MemoryUsage;
+import org.neo4j.graphalgo.core.utils.queue.PagedQuadMinHeap;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Arrays;
+
+/**
+ * Point-to-point shortest paths on huge graphs by bidirectional Dijkstra.
+ * <p>
+ * The forward search follows the relationships in the given direction from the start node,
+ * the backward search follows them in the opposite direction from the goal node. The side
+ * with the smaller queue is expanded next, and the search ends once the smallest keys of
+ * both queues add up to the shortest path found so far.
+ * <p>
+ * An optional {@link Heuristic} makes the search goal-directed. Both searches use the
+ * average of the forward and backward potentials, so that their keys stay consistent
+ * and the stopping criterion remains exact. Without a heuristic the potentials are zero.
+ * <p>
+ * The state of a query is kept in a {@link Search} that is owned by the caller, a thread that
+ * runs many queries reuses one from {@link #newSearch()}. Distances and parents are stored in
+ * pages that are allocated on first access, so a query only pays for the regions of the graph
+ * it reaches, and are stamped with the id of the query that wrote them, so they are never
+ * cleared between queries.
+ */
+public final class HugeBidirectionalDijkstra extends Algorithm<HugeBidirectionalDijkstra> {
+
+    public static final double NO_PATH_FOUND = -1.0;
+
+    private static final long NO_NODE = -1L;
+
+    private static final int PAGE_SHIFT = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final long PAGE_BYTES = MemoryUsage.sizeOfIntArray(PAGE_SIZE)
+            + MemoryUsage.sizeOfDoubleArray(PAGE_SIZE)
+            + MemoryUsage.sizeOfLongArray(PAGE_SIZE);
+
+    /**
+     * A lower bound of the costs between two nodes, e.g. the geographic distance.
+     * It has to be consistent, it must never overestimate the cost of a relationship
+     * minus the difference of the estimates of its nodes.
+     */
+    @FunctionalInterface
+    public interface Heuristic {
+
+        Heuristic NONE = (sourceNodeId, targetNodeId) -> 0.0;
+
+        /**
+         * @param sourceNodeId mapped source node id
+         * @param targetNodeId mapped target node id
+         */
+        double estimate(long sourceNodeId, long targetNodeId);
+    }
+
+    private HugeGraph graph;
+    private final Direction direction;
+    private final Direction reverseDirection;
+    private final Heuristic heuristic;
+    private final AllocationTracker tracker;
+    private final int pageCount;
+
+    /**
+     * @param direction        the direction the forward search follows from the start node
+     * @param reverseDirection the direction the backward search follows from the goal node,
+     *                         the same as {@code direction} for undirected graphs
+     */
+    public HugeBidirectionalDijkstra(
+            HugeGraph graph,
+            Direction direction,
+            Direction reverseDirection,
+            Heuristic heuristic,
+            AllocationTracker tracker) {
+        this.graph = graph;
+        this.direction = direction;
+        this.reverseDirection = reverseDirection;
+        this.heuristic = heuristic;
+        this.tracker = tracker;
+        this.pageCount = Math.toIntExact((graph.nodeCount() + PAGE_MASK) >>> PAGE_SHIFT);
+    }
+
+    /**
+     * Computes a shortest path from startNode to goalNode with a search that is released afterwards,
+     * may be called by many threads at once.
+     *
+     * @param startNode the neo4j id of the start node
+     * @param goalNode  the neo4j id of the goal node
+     */
+    public Path compute(long startNode, long goalNode) {
+        Search search = newSearch();
+        try {
+            return search.compute(startNode, goalNode);
+        } finally {
+            search.release();
+        }
+    }
+
+    /**
+     * Creates the state for the queries of one thread, it has to be released by the caller.
+     */
+    public Search newSearch() {
+        return new Search();
+    }
+
+    @Override
+    public HugeBidirectionalDijkstra me() {
+        return this;
+    }
+
+    @Override
+    public HugeBidirectionalDijkstra release() {
+        graph = null;
+        return this;
+    }
+
+    /**
+     * The nodes of a path with the costs to reach them from the start node.
+     */
+    public static final class Path {
+
+        static final Path EMPTY = new Path(new long[0], new double[0]);
+
+        /**
+         * neo4j node ids, from start to goal
+         */
+        public final long[] nodeIds;
+        public final double[] costs;
+
+        Path(long[] nodeIds, double[] costs) {
+            this.nodeIds = nodeIds;
+            this.costs = costs;
+        }
+
+        public int length() {
+            return nodeIds.length;
+        }
+
+        public double totalCost() {
+            return costs.length == 0 ? NO_PATH_FOUND : costs[costs.length - 1];
+        }
+    }
+
+    /**
+     * The state of the queries of a single thread.
+     */
+    public final class Search {
+        private HugeGraph graph = HugeBidirectionalDijkstra.this.graph.concurrentCopy();
+        private final Side forward = new Side(direction, 1.0);
+        private final Side backward = new Side(reverseDirection, -1.0);
+        private int epoch;
+        private long source;
+        private long target;
+        private double best;
+        private long meeting;
+
+        private Search() {
+        }
+
+        /**
+         * Computes a shortest path from startNode to goalNode.
+         *
+         * @param startNode the neo4j id of the start node
+         * @param goalNode  the neo4j id of the goal node
+         */
+        public Path compute(long startNode, long goalNode) {
+            long source = graph.toHugeMappedNodeId(startNode);
+            long target = graph.toHugeMappedNodeId(goalNode);
+            if (source == NO_NODE || target == NO_NODE) {
+                return Path.EMPTY;
+            }
+            return run(source, target);
+        }
+
+        /**
+         * Drops the graph and the pages of the search, it cannot be used afterwards.
+         */
+        public void release() {
+            forward.release();
+            backward.release();
+            graph = null;
+        }
+
+        private Path run(long source, long target) {
+            nextEpoch();
+            this.source = source;
+            this.target = target;
+            best = Double.POSITIVE_INFINITY;
+            meeting = NO_NODE;
+            forward.start(source);
+            backward.start(target);
+            if (source == target) {
+                best = 0.0;
+                meeting = source;
+            }
+            while (!forward.queue.isEmpty() && !backward.queue.isEmpty() && running()) {
+                if (forward.queue.topKey() + backward.queue.topKey() >= best) {
+                    break;
+                }
+                if (forward.queue.size() <= backward.queue.size()) {
+                    forward.expand(backward);
+                } else {
+                    backward.expand(forward);
+                }
+            }
+            return meeting == NO_NODE ? Path.EMPTY : path();
+        }
+
+        // potential of the forward search, the backward search uses the negation
+        private double potential(long node) {
+            return (heuristic.estimate(node, target) - heuristic.estimate(source, node)) * 0.5;
+        }
+
+        private Path path() {
+            int forwardLength = 0;
+            for (long node = meeting; node != NO_NODE; node = forward.parent(node)) {
+                forwardLength++;
+            }
+            int length = forwardLength - 1;
+            for (long node = meeting; node != NO_NODE; node = backward.parent(node)) {
+                length++;
+            }
+            long[] nodeIds = new long[length];
+            double[] costs = new double[length];
+            int index = forwardLength;
+            for (long node = meeting; node != NO_NODE; node = forward.parent(node)) {
+                --index;
+                nodeIds[index] = graph.toOriginalNodeId(node);
+                costs[index] = forward.distance(node);
+            }
+            index = forwardLength - 1;
+            for (long node = backward.parent(meeting); node != NO_NODE; node = backward.parent(node)) {
+                ++index;
+                nodeIds[index] = graph.toOriginalNodeId(node);
+                costs[index] = best - backward.distance(node);
+            }
+            return new Path(nodeIds, costs);
+        }
+
+        private void nextEpoch() {
+            if (++epoch == Integer.MAX_VALUE) {
+                // stamps of earlier queries could become valid again
+                forward.clearStamps();
+                backward.clearStamps();
+                epoch = 1;
+            }
+        }
+
+        private final class Side {
+            private final Direction direction;
+            private final double sign;
+            private final PagedQuadMinHeap queue = new PagedQuadMinHeap(tracker);
+            private final int[][] stamps = new int[pageCount][];
+            private final double[][] distances = new double[pageCount][];
+            private final long[][] parents = new long[pageCount][];
+
+            private Side(Direction direction, double sign) {
+                this.direction = direction;
+                this.sign = sign;
+            }
+
+            void start(long node) {
+                queue.clear();
+                update(node, 0.0, NO_NODE);
+                queue.add(node, sign * potential(node));
+            }
+
+            /**
+             * Settles the node with the smallest key and relaxes its relationships.
+             */
+            void expand(Side other) {
+                double key = queue.topKey();
+                long node = queue.pop();
+                double distance = distance(node);
+                if (key > distance + sign * potential(node)) {
+                    // the node has been queued again with a lower distance
+                    return;
+                }
+                graph.forEachRelationship(node, direction, (s, t, weight) -> {
+                    double newDistance = distance + weight;
+                    if (update(t, newDistance, node)) {
+                        queue.add(t, newDistance + sign * potential(t));
+                        if (other.reached(t)) {
+                            double length = newDistance + other.distance(t);
+                            if (length < best) {
+                                best = length;
+                                meeting = t;
+                            }
+                        }
+                    }
+                    return true;
+                });
+            }
+
+            boolean reached(long node) {
+                int[] page = stamps[(int) (node >>> PAGE_SHIFT)];
+                return page != null && page[(int) (node & PAGE_MASK)] == epoch;
+            }
+
+            double distance(long node) {
+                return distances[(int) (node >>> PAGE_SHIFT)][(int) (node & PAGE_MASK)];
+            }
+
+            long parent(long node) {
+                return parents[(int) (node >>> PAGE_SHIFT)][(int) (node & PAGE_MASK)];
+            }
+
+            /**
+             * @return true if the node has not been reached before or the distance is lower than before
+             */
+            private boolean update(long node, double distance, long parent) {
+                int pageIndex = (int) (node >>> PAGE_SHIFT);
+                int indexInPage = (int) (node & PAGE_MASK);
+                int[] stampPage = stamps[pageIndex];
+                if (stampPage == null) {
+                    stampPage = stamps[pageIndex] = new int[PAGE_SIZE];
+                    distances[pageIndex] = new double[PAGE_SIZE];
+                    parents[pageIndex] = new long[PAGE_SIZE];
+                    tracker.add(PAGE_BYTES);
+                }
+                if (stampPage[indexInPage] == epoch) {
+                    if (distance >= distances[pageIndex][indexInPage]) {
+                        return false;
+                    }
+                } else {
+                    stampPage[indexInPage] = epoch;
+                }
+                distances[pageIndex][indexInPage] = distance;
+                parents[pageIndex][indexInPage] = parent;
+                return true;
+            }
+
+            void release() {
+                for (int pageIndex = 0; pageIndex < stamps.length; pageIndex++) {
+                    if (stamps[pageIndex] != null) {
+                        stamps[pageIndex] = null;
+                        distances[pageIndex] = null;
+                        parents[pageIndex] = null;
+                        tracker.remove(PAGE_BYTES);
+                    }
+                }
+                queue.release();
+            }
+
+            void clearStamps() {
+                for (int[] page : stamps) {
+                    if (page != null) {
+                        Arrays.fill(page, 0);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -20,8 +20,13 @@ package org.neo4j.graphalgo.impl;
 
 import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.api.HugeRelationshipIterator;
+import org.neo4j.graphalgo.core.GraphDimensions;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 import org.neo4j.graphalgo.core.utils.paged.PagedDisjointSetStruct;
 import org.neo4j.graphdb.Direction;
 
@@ -32,6 +37,8 @@ import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.shallowSizeOfInstance;
+
 /**
  * parallel UnionFind using ExecutorService only.
  * <p>
@@ -51,6 +58,8 @@ public class HugeParallelUnionFindQueue extends GraphUnionFindAlgo<HugeGraph, Pa
     private final long nodeCount;
     private final long batchSize;
     private final int stepSize;
+    private final int concurrency;
+    private final int minBatchSize;
     private final AllocationTracker tracker;
 
     /**
@@ -66,6 +75,8 @@ public class HugeParallelUnionFindQueue extends GraphUnionFindAlgo<HugeGraph, Pa
         this.executor = executor;
         nodeCount = graph.nodeCount();
         this.tracker = tracker;
+        this.concurrency = concurrency;
+        this.minBatchSize = minBatchSize;
         this.batchSize = ParallelUtil.adjustBatchSize(
                 nodeCount,
                 concurrency,
@@ -83,8 +94,34 @@ public class HugeParallelUnionFindQueue extends GraphUnionFindAlgo<HugeGraph, Pa
         stepSize = (int) targetSteps;
     }
 
+    /**
+     * Every batch unions into its own struct over all nodes, the structs are merged pairwise
+     * once they are done. At least the structs of the concurrently running batches are alive.
+     */
+    public static MemoryEstimation memoryEstimation(int minBatchSize) {
+        return MemoryEstimations.builder(HugeParallelUnionFindQueue.class)
+                .perGraphDimension("structs", (dimensions, concurrency) -> {
+                    long nodeCount = dimensions.hugeNodeCount();
+                    long batchSize = ParallelUtil.adjustBatchSize(
+                            nodeCount,
+                            concurrency,
+                            minBatchSize,
+                            Integer.MAX_VALUE);
+                    long steps = ParallelUtil.threadSize(batchSize, nodeCount);
+                    long perStruct = shallowSizeOfInstance(PagedDisjointSetStruct.class) +
+                            2L * HugeLongArray.estimateMemoryUsage(nodeCount);
+                    return MemoryRange.of(
+                            Math.min(concurrency, steps) * perStruct,
+                            steps * perStruct);
+                })
+                .build();
+    }
+
     @Override
     public PagedDisjointSetStruct compute() {
+        MemoryEstimations.assertFitsInFreeHeap(
+                memoryEstimation(minBatchSize).estimate(GraphDimensions.of(nodeCount, 0L), concurrency),
+                "UnionFind");
         final List<Future<?>> futures = new ArrayList<>(stepSize);
         final BlockingQueue<PagedDisjointSetStruct> queue = new ArrayBlockingQueue<>(stepSize);
 
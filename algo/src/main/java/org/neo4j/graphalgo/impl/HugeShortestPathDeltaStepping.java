@@ -0,0 +1,392 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl;
+
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongObjectHashMap;
+import com.carrotsearch.hppc.cursors.LongCursor;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicLongArray;
+import org.neo4j.graphalgo.core.write.PropertyTranslator;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Parallel non-negative single source shortest paths by delta-stepping for huge graphs.
+ * <p>
+ * Distances are stored as the bits of their double value in a paged atomic array, which
+ * preserves the order of non-negative doubles, so that they are lowered with a CAS-min.
+ * Every worker keeps its own buckets, lists of the nodes whose distance it lowered into
+ * the bucket. Only non-empty buckets exist, so the next bucket is found without scanning
+ * the nodes or empty buckets. The lists of all workers are merged only when the bucket is
+ * processed, by splitting every list evenly across the workers. Nodes are not removed from
+ * a bucket when their distance gets lower, but skipped if they no longer belong to it.
+ * <p>
+ * Before the first phase the relationships of every node are classified by their weight,
+ * so that the light phases skip nodes with only heavy relationships and the heavy phase
+ * skips nodes with only light relationships. Negative weights are rejected at that point.
+ *
+ * @see ShortestPathDeltaStepping
+ */
+public final class HugeShortestPathDeltaStepping extends Algorithm<HugeShortestPathDeltaStepping> {
+
+    private static final long INFINITY = Double.doubleToLongBits(Double.POSITIVE_INFINITY);
+    private static final long NO_BUCKET = Long.MAX_VALUE;
+    private static final long MIN_BATCH_SIZE = 10_000L;
+    // smaller frontiers are relaxed by fewer workers, down to the calling thread alone
+    private static final int MIN_FRONTIER_PER_WORKER = 1_000;
+
+    private HugeGraph graph;
+    private final double delta;
+    private final Direction direction;
+    private final ExecutorService executor;
+    private final int concurrency;
+    private final AllocationTracker tracker;
+    private final long nodeCount;
+
+    private PagedAtomicLongArray distances;
+    // one bit per node that has no relationship of that kind
+    private HugeLongArray noLight;
+    private HugeLongArray noHeavy;
+    private Worker[] workers;
+
+    public HugeShortestPathDeltaStepping(
+            HugeGraph graph,
+            double delta,
+            Direction direction,
+            ExecutorService executor,
+            int concurrency,
+            AllocationTracker tracker) {
+        if (!(delta > 0.0)) {
+            throw new IllegalArgumentException("delta must be > 0, but was " + delta);
+        }
+        this.graph = graph;
+        this.delta = delta;
+        this.direction = direction;
+        this.executor = executor;
+        this.concurrency = Math.max(1, concurrency);
+        this.tracker = tracker;
+        this.nodeCount = graph.nodeCount();
+    }
+
+    public static MemoryEstimation memoryEstimation() {
+        return MemoryEstimations.builder(HugeShortestPathDeltaStepping.class)
+                .perNode("distances", PagedAtomicLongArray::estimateMemoryUsage)
+                .perNode("edge classes", n -> 2L * HugeLongArray.estimateMemoryUsage(words(n)))
+                .build();
+    }
+
+    /**
+     * compute the shortest paths
+     *
+     * @param startNode original node id of the start node
+     * @return itself for method chaining
+     */
+    public HugeShortestPathDeltaStepping compute(long startNode) {
+        long start = graph.toHugeMappedNodeId(startNode);
+        if (start == -1L) {
+            throw new IllegalArgumentException("The start node " + startNode + " is not part of the graph");
+        }
+        MemoryEstimations.assertFitsInFreeHeap(
+                memoryEstimation().estimate(GraphDimensions.of(nodeCount, 0L), concurrency),
+                "DeltaStepping");
+        prepare();
+
+        distances.set(start, Double.doubleToLongBits(0.0));
+        workers[0].insert(0L, start);
+
+        List<Runnable> tasks = new ArrayList<>(concurrency);
+        long bucket;
+        while (running() && (bucket = nextBucket()) != NO_BUCKET) {
+            // light relationships may lower distances into the current bucket again
+            List<LongArrayList> frontier;
+            while (running() && !(frontier = takeBucket(bucket)).isEmpty()) {
+                long size = 0L;
+                for (LongArrayList list : frontier) {
+                    size += list.size();
+                }
+                int activeWorkers = (int) Math.max(1L, Math.min(concurrency, size / MIN_FRONTIER_PER_WORKER));
+                tasks.clear();
+                for (int i = 0; i < activeWorkers; i++) {
+                    Worker worker = workers[i];
+                    long currentBucket = bucket;
+                    List<LongArrayList> currentFrontier = frontier;
+                    int index = i;
+                    tasks.add(() -> worker.relaxLight(currentFrontier, index, activeWorkers, currentBucket));
+                }
+                run(tasks);
+                recycle();
+            }
+            tasks.clear();
+            for (Worker worker : workers) {
+                if (!worker.settled.isEmpty()) {
+                    tasks.add(worker::relaxHeavy);
+                }
+            }
+            run(tasks);
+        }
+        workers = null;
+        return this;
+    }
+
+    /**
+     * @param nodeId mapped node id
+     * @return the distance from the start node, or infinity if the node is not reachable
+     */
+    public double distance(long nodeId) {
+        return Double.longBitsToDouble(distances.get(nodeId));
+    }
+
+    /**
+     * stream the results
+     *
+     * @return Stream of results containing neo4j-NodeId and Sum of Costs of the shortest path
+     */
+    public Stream<ShortestPathDeltaStepping.DeltaSteppingResult> resultStream() {
+        return LongStream.range(0L, nodeCount)
+                .mapToObj(node -> new ShortestPathDeltaStepping.DeltaSteppingResult(
+                        graph.toOriginalNodeId(node),
+                        distance(node)));
+    }
+
+    @Override
+    public HugeShortestPathDeltaStepping me() {
+        return this;
+    }
+
+    @Override
+    public HugeShortestPathDeltaStepping release() {
+        graph = null;
+        distances = null;
+        noLight = null;
+        noHeavy = null;
+        workers = null;
+        return this;
+    }
+
+    private void prepare() {
+        distances = PagedAtomicLongArray.newArray(nodeCount, tracker);
+        noLight = HugeLongArray.newArray(words(nodeCount), tracker);
+        noHeavy = HugeLongArray.newArray(words(nodeCount), tracker);
+        // batches cover whole words of the bit sets, so that no word is shared by two tasks
+        long batchSize = ParallelUtil.adjustBatchSize(nodeCount, concurrency, MIN_BATCH_SIZE);
+        batchSize = words(batchSize) * Long.SIZE;
+        List<Runnable> tasks = new ArrayList<>();
+        for (long start = 0L; start < nodeCount; start += batchSize) {
+            long end = Math.min(nodeCount, start + batchSize);
+            long from = start;
+            tasks.add(() -> classify(graph.concurrentCopy(), from, end));
+        }
+        run(tasks);
+
+        workers = new Worker[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            workers[i] = new Worker(graph.concurrentCopy());
+        }
+    }
+
+    private void classify(HugeGraph graph, long start, long end) {
+        boolean[] kinds = new boolean[2];
+        for (long node = start; node < end; node++) {
+            distances.set(node, INFINITY);
+            kinds[0] = false;
+            kinds[1] = false;
+            // every relationship is checked, a negative weight would break the order of the buckets
+            graph.forEachRelationship(node, direction, (source, target, weight) -> {
+                if (!(weight >= 0.0)) {
+                    throw new IllegalArgumentException(String.format(
+                            "Delta-stepping requires non-negative weights, but the relationship from %d to %d has a weight of %s",
+                            graph.toOriginalNodeId(source),
+                            graph.toOriginalNodeId(target),
+                            weight));
+                }
+                kinds[weight <= delta ? 0 : 1] = true;
+                return true;
+            });
+            if (!kinds[0]) {
+                setBit(noLight, node);
+            }
+            if (!kinds[1]) {
+                setBit(noHeavy, node);
+            }
+        }
+    }
+
+    private long nextBucket() {
+        long next = NO_BUCKET;
+        for (Worker worker : workers) {
+            for (LongCursor cursor : worker.buckets.keys()) {
+                next = Math.min(next, cursor.value);
+            }
+        }
+        return next;
+    }
+
+    private List<LongArrayList> takeBucket(long bucket) {
+        List<LongArrayList> frontier = new ArrayList<>(concurrency);
+        for (Worker worker : workers) {
+            LongArrayList nodes = worker.buckets.remove(bucket);
+            if (nodes != null) {
+                worker.taken = nodes;
+                frontier.add(nodes);
+            }
+        }
+        return frontier;
+    }
+
+    private void recycle() {
+        for (Worker worker : workers) {
+            if (worker.taken != null) {
+                worker.taken.elementsCount = 0;
+                worker.pool.add(worker.taken);
+                worker.taken = null;
+            }
+        }
+    }
+
+    private void run(List<Runnable> tasks) {
+        ParallelUtil.runWithConcurrency(
+                concurrency,
+                tasks,
+                Integer.MAX_VALUE,
+                10L,
+                TimeUnit.MICROSECONDS,
+                terminationFlag,
+                executor);
+    }
+
+    private long bucketOf(double distance) {
+        return (long) (distance / delta);
+    }
+
+    private static long words(long bits) {
+        return (bits + Long.SIZE - 1L) / Long.SIZE;
+    }
+
+    private static void setBit(HugeLongArray bits, long index) {
+        long word = index >>> 6;
+        bits.set(word, bits.get(word) | (1L << index));
+    }
+
+    private static boolean isSet(HugeLongArray bits, long index) {
+        return (bits.get(index >>> 6) & (1L << index)) != 0L;
+    }
+
+    private final class Worker {
+        private final HugeGraph graph;
+        private final LongObjectHashMap<LongArrayList> buckets = new LongObjectHashMap<>();
+        private final ArrayDeque<LongArrayList> pool = new ArrayDeque<>();
+        // the list of the bucket that is currently relaxed, reused once it is done
+        private LongArrayList taken;
+        // nodes of the current bucket whose heavy relationships are relaxed after the bucket is empty
+        private final LongArrayList settled = new LongArrayList();
+
+        private Worker(HugeGraph graph) {
+            this.graph = graph;
+        }
+
+        private void relaxLight(List<LongArrayList> frontier, int index, int workerCount, long bucket) {
+            for (LongArrayList nodes : frontier) {
+                int size = nodes.size();
+                int end = (int) ((long) size * (index + 1) / workerCount);
+                long[] buffer = nodes.buffer;
+                for (int i = (int) ((long) size * index / workerCount); i < end; i++) {
+                    long node = buffer[i];
+                    double distance = distance(node);
+                    if (bucketOf(distance) != bucket) {
+                        // the distance has been lowered into an earlier bucket
+                        continue;
+                    }
+                    settled.add(node);
+                    if (isSet(noLight, node)) {
+                        continue;
+                    }
+                    graph.forEachRelationship(node, direction, (source, target, weight) -> {
+                        if (weight <= delta) {
+                            relax(target, distance + weight);
+                        }
+                        return true;
+                    });
+                }
+            }
+        }
+
+        private void relaxHeavy() {
+            long[] buffer = settled.buffer;
+            for (int i = 0; i < settled.size(); i++) {
+                long node = buffer[i];
+                if (isSet(noHeavy, node)) {
+                    continue;
+                }
+                double distance = distance(node);
+                graph.forEachRelationship(node, direction, (source, target, weight) -> {
+                    if (weight > delta) {
+                        relax(target, distance + weight);
+                    }
+                    return true;
+                });
+            }
+            settled.elementsCount = 0;
+        }
+
+        private void relax(long node, double distance) {
+            long bits = Double.doubleToLongBits(distance);
+            long current;
+            do {
+                current = distances.get(node);
+                if (bits >= current) {
+                    return;
+                }
+            } while (!distances.cas(node, current, bits));
+            insert(bucketOf(distance), node);
+        }
+
+        private void insert(long bucket, long node) {
+            LongArrayList nodes = buckets.get(bucket);
+            if (nodes == null) {
+                nodes = pool.isEmpty() ? new LongArrayList() : pool.poll();
+                buckets.put(bucket, nodes);
+            }
+            nodes.add(node);
+        }
+    }
+
+    public static final class Translator implements PropertyTranslator.OfDouble<HugeShortestPathDeltaStepping> {
+
+        public static final Translator INSTANCE = new Translator();
+
+        @Override
+        public double toDouble(HugeShortestPathDeltaStepping data, long nodeId) {
+            return data.distance(nodeId);
+        }
+    }
+}
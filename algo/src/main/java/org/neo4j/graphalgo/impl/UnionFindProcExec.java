@@ -18,11 +18,11 @@
  */
 package org.neo4j.graphalgo.impl;
 
-import com.carrotsearch.hppc.LongLongMap;
 import org.HdrHistogram.Histogram;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.ImportDirectory;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
@@ -31,6 +31,7 @@ import org.neo4j.graphalgo.core.utils.dss.DisjointSetStruct;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.PagedDisjointSetStruct;
 import org.neo4j.graphalgo.core.write.Exporter;
+import org.neo4j.graphalgo.core.write.FileExporter;
 import org.neo4j.graphalgo.results.AbstractCommunityResultBuilder;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.KernelTransaction;
@@ -86,18 +87,19 @@ public final class UnionFindProcExec implements BiConsumer<String, Algorithm<?>>
                 tracker);
         graph.release();
 
+        String writeProperty = configuration.get(CONFIG_CLUSTER_PROPERTY, CONFIG_OLD_CLUSTER_PROPERTY, DEFAULT_CLUSTER_PROPERTY);
         if (configuration.isWriteFlag()) {
-            String writeProperty = configuration.get(CONFIG_CLUSTER_PROPERTY, CONFIG_OLD_CLUSTER_PROPERTY, DEFAULT_CLUSTER_PROPERTY);
             builder.withWrite(true);
             builder.withPartitionProperty(writeProperty).withWriteProperty(writeProperty);
-
+        }
+        if (configuration.isWriteFlag() || configuration.getExportPath() != null) {
             uf.write(builder::timeWrite, graph, dssResult, configuration, writeProperty);
         }
 
         if (dssResult.isHuge) {
-            return Stream.of(builder.build(graph.nodeCount(), dssResult.hugeStruct::find));
+            return Stream.of(builder.build(graph.nodeCount(), configuration.getConcurrency(), dssResult.hugeStruct::find));
         } else {
-            return Stream.of(builder.build(graph.nodeCount(), l -> (long) dssResult.struct.find((int) l)));
+            return Stream.of(builder.build(graph.nodeCount(), configuration.getConcurrency(), l -> dssResult.struct.find((int) l)));
         }
     }
 
@@ -174,7 +176,7 @@ public final class UnionFindProcExec implements BiConsumer<String, Algorithm<?>>
         private String writeProperty;
 
         @Override
-        protected UnionFindResult build(long loadMillis, long computeMillis, long writeMillis, long postProcessingMillis, long nodeCount, long communityCount, LongLongMap communitySizeMap, Histogram communityHistogram, boolean write) {
+        protected UnionFindResult build(long loadMillis, long computeMillis, long writeMillis, long postProcessingMillis, long nodeCount, long communityCount, Histogram communityHistogram, boolean write) {
             return new UnionFindResult(
                     loadMillis,
                     computeMillis,
@@ -304,7 +306,31 @@ public final class UnionFindProcExec implements BiConsumer<String, Algorithm<?>>
             DSSResult struct,
             ProcedureConfiguration configuration, String writeProperty) {
         try (ProgressTimer ignored = timer.get()) {
-            write(graph, struct, configuration, writeProperty);
+            if (configuration.getExportPath() != null) {
+                export(graph, struct, configuration, writeProperty);
+            }
+            if (configuration.isWriteFlag()) {
+                write(graph, struct, configuration, writeProperty);
+            }
+        }
+    }
+
+    private void export(
+            Graph graph,
+            DSSResult struct,
+            ProcedureConfiguration configuration, String writeProperty) {
+        log.debug("Exporting results");
+        FileExporter exporter = FileExporter.of(graph)
+                .withFormat(configuration.getExportFormat())
+                .parallel(
+                        Pools.DEFAULT,
+                        configuration.getConcurrency(),
+                        TerminationFlag.wrap(transaction))
+                .build(ImportDirectory.resolveExport(api, configuration.getExportPath()));
+        if (struct.hugeStruct != null) {
+            exporter.write(writeProperty, struct.hugeStruct, PagedDisjointSetStruct.Translator.INSTANCE);
+        } else {
+            exporter.write(writeProperty, struct.struct, DisjointSetStruct.Translator.INSTANCE);
         }
     }
 
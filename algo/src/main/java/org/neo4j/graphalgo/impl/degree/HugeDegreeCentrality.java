@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.degree;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.impl.Algorithm;
+import org.neo4j.graphalgo.impl.pagerank.DegreeCentralityAlgorithm;
+import org.neo4j.graphalgo.impl.results.CentralityResult;
+import org.neo4j.graphalgo.impl.results.HugeDoubleArrayResult;
+import org.neo4j.graphalgo.impl.results.PrecomputedNormsCentralityResult;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Degree and weighted degree centrality for huge graphs.
+ * <p>
+ * Degrees are read from the adjacency offsets without decoding any adjacency list.
+ * Outgoing weighted degrees are summed from the weights stored per source node,
+ * other directions visit the relationships of a node.
+ * The norms of the result are collected in the same parallel pass.
+ */
+public final class HugeDegreeCentrality extends Algorithm<HugeDegreeCentrality> implements DegreeCentralityAlgorithm {
+
+    private static final long MIN_BATCH_SIZE = 10_000L;
+
+    private final long nodeCount;
+    private final boolean weighted;
+    private final Direction direction;
+    private HugeGraph graph;
+    private final ExecutorService executor;
+    private final int concurrency;
+    private final AllocationTracker tracker;
+
+    private DoubleArray degrees;
+    private double max;
+    private double sum;
+    private double squaredSum;
+
+    public HugeDegreeCentrality(
+            HugeGraph graph,
+            ExecutorService executor,
+            int concurrency,
+            Direction direction,
+            boolean weighted,
+            AllocationTracker tracker) {
+        this.graph = graph;
+        this.executor = executor;
+        this.concurrency = concurrency;
+        this.direction = direction;
+        this.weighted = weighted;
+        this.tracker = tracker;
+        this.nodeCount = graph.nodeCount();
+    }
+
+    public static MemoryEstimation memoryEstimation() {
+        return MemoryEstimations.builder(HugeDegreeCentrality.class)
+                .perNode("degrees", DoubleArray::estimateMemoryUsage)
+                .build();
+    }
+
+    @Override
+    public void compute() {
+        MemoryEstimations.assertFitsInFreeHeap(
+                memoryEstimation().estimate(GraphDimensions.of(nodeCount, 0L), concurrency),
+                "DegreeCentrality");
+        degrees = DoubleArray.newArray(nodeCount, tracker);
+        long batchSize = ParallelUtil.adjustBatchSize(nodeCount, concurrency, MIN_BATCH_SIZE);
+        List<DegreeTask> tasks = new ArrayList<>();
+        for (long start = 0L; start < nodeCount; start += batchSize) {
+            tasks.add(new DegreeTask(graph.concurrentCopy(), start, Math.min(nodeCount, start + batchSize)));
+        }
+        ParallelUtil.runWithConcurrency(
+                concurrency,
+                tasks,
+                Integer.MAX_VALUE,
+                10L,
+                TimeUnit.MICROSECONDS,
+                terminationFlag,
+                executor);
+
+        max = 0.0;
+        sum = 0.0;
+        squaredSum = 0.0;
+        for (DegreeTask task : tasks) {
+            max = Math.max(max, task.max);
+            sum += task.sum;
+            squaredSum += task.squaredSum;
+        }
+    }
+
+    public DoubleArray degrees() {
+        return degrees;
+    }
+
+    public double average() {
+        return nodeCount > 0L ? sum / nodeCount : 0.0;
+    }
+
+    @Override
+    public CentralityResult result() {
+        return new PrecomputedNormsCentralityResult(
+                new HugeDoubleArrayResult(degrees),
+                max,
+                sum,
+                Math.sqrt(squaredSum));
+    }
+
+    @Override
+    public Algorithm<?> algorithm() {
+        return this;
+    }
+
+    @Override
+    public HugeDegreeCentrality me() {
+        return this;
+    }
+
+    @Override
+    public HugeDegreeCentrality release() {
+        graph = null;
+        return this;
+    }
+
+    private final class DegreeTask implements Runnable {
+        private final HugeGraph graph;
+        private final long startNodeId;
+        private final long endNodeId;
+
+        private double max;
+        private double sum;
+        private double squaredSum;
+
+        private DegreeTask(HugeGraph graph, long startNodeId, long endNodeId) {
+            this.graph = graph;
+            this.startNodeId = startNodeId;
+            this.endNodeId = endNodeId;
+        }
+
+        @Override
+        public void run() {
+            for (long nodeId = startNodeId; nodeId < endNodeId && running(); nodeId++) {
+                double degree = weighted
+                        ? graph.weightedDegree(nodeId, direction)
+                        : graph.degree(nodeId, direction);
+                degrees.set(nodeId, degree);
+                max = Math.max(max, degree);
+                sum += degree;
+                squaredSum += degree * degree;
+            }
+        }
+    }
+}
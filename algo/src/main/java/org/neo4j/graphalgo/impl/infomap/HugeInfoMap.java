@@ -0,0 +1,795 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.infomap;
+
+import com.carrotsearch.hppc.LongDoubleHashMap;
+import com.carrotsearch.hppc.cursors.LongDoubleCursor;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphBuilder;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicDoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicLongArray;
+import org.neo4j.graphalgo.impl.Algorithm;
+import org.neo4j.graphalgo.impl.pagerank.PageRankAlgorithm;
+import org.neo4j.graphalgo.impl.results.CentralityResult;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.LongToDoubleFunction;
+import java.util.stream.LongStream;
+
+/**
+ * Infomap for huge graphs, minimizes the two-level map equation by local moving and aggregation.
+ * <p>
+ * The visit rates of the nodes are their normalized PageRanks, a random walker leaves a node along
+ * its relationships proportional to their weights and teleports with probability {@code tau}.
+ * Every level moves the nodes in parallel into the neighbouring module that reduces the codelength
+ * the most, updating the flows of both modules with atomic deltas. The exit flows are recomputed
+ * exactly after every iteration, since concurrent moves may have been based on outdated modules.
+ * The modules then become the nodes of a coarser graph, as in Louvain, until a level moves no node.
+ * <p>
+ * The relationships are treated as undirected, the graph is expected to be loaded as undirected.
+ *
+ * @see <a href="https://arxiv.org/abs/0906.1405">The map equation</a>
+ */
+public final class HugeInfoMap extends Algorithm<HugeInfoMap> {
+
+    public static final int DEFAULT_MAX_LEVELS = 10;
+    public static final int DEFAULT_MAX_ITERATIONS = 10;
+
+    private static final long MIN_BATCH_SIZE = 10_000L;
+    private static final int PAGE_RANK_BATCH_SIZE = 10_000;
+    // moves that improve the codelength by less are not worth the concurrent updates
+    private static final double MIN_DELTA = 1e-10;
+    private static final double LOG2 = Math.log(2.0);
+
+    private final HugeGraph graph;
+    private final long nodeCount;
+    private final boolean weighted;
+    private final DoubleArray visitRates;
+    private final double tau;
+    private final double threshold;
+    private final ExecutorService executor;
+    private final int concurrency;
+    private final AllocationTracker tracker;
+    // entropy of the node visit rates, the same on every level
+    private final double nodeEntropy;
+
+    private HugeLongArray communities;
+    private long communityCount;
+    private double[] codeLengths = new double[0];
+    private int iterations;
+
+    /**
+     * Infomap with the PageRanks of a weighted graph as visit rates.
+     */
+    public static HugeInfoMap weighted(
+            HugeGraph graph,
+            int pageRankIterations,
+            double threshold,
+            double tau,
+            ExecutorService executor,
+            int concurrency,
+            AllocationTracker tracker) {
+        CentralityResult pageRanks = PageRankAlgorithm.weightedOf(
+                tracker,
+                graph,
+                1.0 - tau,
+                LongStream.empty(),
+                executor,
+                concurrency,
+                PAGE_RANK_BATCH_SIZE,
+                false)
+                .compute(pageRankIterations)
+                .result();
+        return new HugeInfoMap(graph, true, pageRanks::score, threshold, tau, executor, concurrency, tracker);
+    }
+
+    /**
+     * Infomap with predefined visit rates of a weighted graph, they don't have to be normalized.
+     */
+    public static HugeInfoMap weighted(
+            HugeGraph graph,
+            LongToDoubleFunction pageRanks,
+            double threshold,
+            double tau,
+            ExecutorService executor,
+            int concurrency,
+            AllocationTracker tracker) {
+        return new HugeInfoMap(graph, true, pageRanks, threshold, tau, executor, concurrency, tracker);
+    }
+
+    /**
+     * Infomap with the PageRanks of an unweighted graph as visit rates.
+     */
+    public static HugeInfoMap unweighted(
+            HugeGraph graph,
+            int pageRankIterations,
+            double threshold,
+            double tau,
+            ExecutorService executor,
+            int concurrency,
+            AllocationTracker tracker) {
+        CentralityResult pageRanks = PageRankAlgorithm.of(
+                tracker,
+                graph,
+                1.0 - tau,
+                LongStream.empty(),
+                executor,
+                concurrency,
+                PAGE_RANK_BATCH_SIZE)
+                .compute(pageRankIterations)
+                .result();
+        return new HugeInfoMap(graph, false, pageRanks::score, threshold, tau, executor, concurrency, tracker);
+    }
+
+    /**
+     * Infomap with predefined visit rates of an unweighted graph, they don't have to be normalized.
+     */
+    public static HugeInfoMap unweighted(
+            HugeGraph graph,
+            LongToDoubleFunction pageRanks,
+            double threshold,
+            double tau,
+            ExecutorService executor,
+            int concurrency,
+            AllocationTracker tracker) {
+        return new HugeInfoMap(graph, false, pageRanks, threshold, tau, executor, concurrency, tracker);
+    }
+
+    private HugeInfoMap(
+            HugeGraph graph,
+            boolean weighted,
+            LongToDoubleFunction pageRanks,
+            double threshold,
+            double tau,
+            ExecutorService executor,
+            int concurrency,
+            AllocationTracker tracker) {
+        this.graph = graph;
+        this.nodeCount = graph.nodeCount();
+        this.weighted = weighted;
+        this.tau = tau;
+        this.threshold = threshold;
+        this.executor = executor;
+        this.concurrency = concurrency;
+        this.tracker = tracker;
+        this.visitRates = DoubleArray.newArray(nodeCount, tracker);
+        double total = 0.0;
+        for (long node = 0L; node < nodeCount; node++) {
+            double rank = Math.max(0.0, pageRanks.applyAsDouble(node));
+            visitRates.set(node, rank);
+            total += rank;
+        }
+        double entropy = 0.0;
+        for (long node = 0L; node < nodeCount; node++) {
+            double p = total > 0.0 ? visitRates.get(node) / total : 1.0 / nodeCount;
+            visitRates.set(node, p);
+            entropy -= plogp(p);
+        }
+        this.nodeEntropy = entropy;
+    }
+
+    /**
+     * Optimizes at most {@code maxLevels} levels with at most {@code maxIterations} local moving iterations each.
+     */
+    public HugeInfoMap compute(int maxLevels, int maxIterations) {
+        communities = HugeLongArray.newArray(nodeCount, tracker);
+        communities.setAll(node -> node);
+        communityCount = nodeCount;
+        iterations = 0;
+
+        double[] codeLengths = new double[Math.max(0, maxLevels)];
+        int levels = 0;
+        Level level = new RootLevel();
+        while (levels < maxLevels && running()) {
+            Modules modules = new Modules(level);
+            double codeLength = modules.codeLength();
+            for (int iteration = 0; iteration < maxIterations && running(); iteration++) {
+                long moves = modules.moveNodes();
+                iterations++;
+                double improved = modules.recompute();
+                double gain = codeLength - improved;
+                codeLength = improved;
+                if (moves == 0L || gain < threshold) {
+                    break;
+                }
+            }
+            codeLengths[levels++] = codeLength;
+
+            long moduleCount = modules.renumber();
+            int levelNumber = levels;
+            double levelCodeLength = codeLength;
+            progressLogger.logProgress(levels, maxLevels, () -> String.format(
+                    "Level %d: %d modules, codelength %.6f bits",
+                    levelNumber,
+                    moduleCount,
+                    levelCodeLength));
+            if (moduleCount == level.nodeCount) {
+                modules.release();
+                break;
+            }
+            updateCommunities(modules);
+            Level next = modules.aggregate(moduleCount);
+            modules.release();
+            level.release();
+            level = next;
+            communityCount = moduleCount;
+        }
+        level.release();
+        this.codeLengths = Arrays.copyOf(codeLengths, levels);
+        return this;
+    }
+
+    /**
+     * @return the module of every node, from {@code 0} to {@link #getCommunityCount()} - 1
+     */
+    public HugeLongArray getCommunities() {
+        return communities;
+    }
+
+    public long getCommunityCount() {
+        return communityCount;
+    }
+
+    /**
+     * @return the codelength in bits after every level
+     */
+    public double[] getCodeLengths() {
+        return codeLengths;
+    }
+
+    /**
+     * @return the number of local moving iterations of all levels
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public HugeInfoMap me() {
+        return this;
+    }
+
+    @Override
+    public HugeInfoMap release() {
+        visitRates.release();
+        communities = null;
+        return this;
+    }
+
+    private void updateCommunities(Modules modules) {
+        run(nodeCount, (start, end) -> {
+            for (long node = start; node < end; node++) {
+                communities.set(node, modules.moduleOf(communities.get(node)));
+            }
+        });
+    }
+
+    private void run(long count, RangeTask task) {
+        long batchSize = ParallelUtil.adjustBatchSize(count, concurrency, MIN_BATCH_SIZE);
+        List<Runnable> tasks = new ArrayList<>();
+        for (long start = 0L; start < count; start += batchSize) {
+            long from = start;
+            long to = Math.min(count, start + batchSize);
+            tasks.add(() -> task.run(from, to));
+        }
+        run(tasks);
+    }
+
+    private void run(List<Runnable> tasks) {
+        ParallelUtil.runWithConcurrency(
+                concurrency,
+                tasks,
+                Integer.MAX_VALUE,
+                10L,
+                TimeUnit.MICROSECONDS,
+                terminationFlag,
+                executor);
+    }
+
+    // the exit flow of a module, including teleportation to nodes outside of it
+    private double exitFlow(double flow, long size, double linkFlow) {
+        double others = nodeCount > 1L ? (nodeCount - size) / (nodeCount - 1.0) : 0.0;
+        return tau * flow * others + (1.0 - tau) * linkFlow;
+    }
+
+    private static double plogp(double p) {
+        return p > 0.0 ? p * Math.log(p) / LOG2 : 0.0;
+    }
+
+    @FunctionalInterface
+    private interface RangeTask {
+        void run(long start, long end);
+    }
+
+    @FunctionalInterface
+    private interface FlowConsumer {
+        /**
+         * @param outFlow the flow from the node to the target
+         * @param inFlow  the flow from the target to the node
+         */
+        void accept(long target, double outFlow, double inFlow);
+    }
+
+    /**
+     * The nodes of one level with their flows, modules of the previous level on all but the first.
+     */
+    private abstract static class Level {
+        final long nodeCount;
+
+        Level(long nodeCount) {
+            this.nodeCount = nodeCount;
+        }
+
+        abstract double flow(long node);
+
+        // the number of root nodes of the node
+        abstract long size(long node);
+
+        // the flow along all relationships that leave the node
+        abstract double linkFlow(long node);
+
+        /**
+         * @return a view of the relationships that can be used by one thread
+         */
+        abstract Relationships concurrentCopy();
+
+        abstract void release();
+    }
+
+    @FunctionalInterface
+    private interface Relationships {
+        void forEachFlow(long node, FlowConsumer consumer);
+    }
+
+    /**
+     * The nodes of the graph, with relationship flows derived from the visit rates and relationship weights.
+     */
+    private final class RootLevel extends Level {
+        // visit rate of a node divided by the sum of its relationship weights
+        private final DoubleArray flowPerWeight;
+
+        RootLevel() {
+            super(HugeInfoMap.this.nodeCount);
+            flowPerWeight = DoubleArray.newArray(nodeCount, tracker);
+            run(nodeCount, (start, end) -> {
+                HugeGraph graph = HugeInfoMap.this.graph.concurrentCopy();
+                double[] sum = new double[1];
+                for (long node = start; node < end; node++) {
+                    sum[0] = 0.0;
+                    forEachRelationship(graph, node, (target, weight) -> sum[0] += weight);
+                    flowPerWeight.set(node, sum[0] > 0.0 ? visitRates.get(node) / sum[0] : 0.0);
+                }
+            });
+        }
+
+        @Override
+        double flow(long node) {
+            return visitRates.get(node);
+        }
+
+        @Override
+        long size(long node) {
+            return 1L;
+        }
+
+        @Override
+        double linkFlow(long node) {
+            return flowPerWeight.get(node) > 0.0 ? visitRates.get(node) : 0.0;
+        }
+
+        @Override
+        Relationships concurrentCopy() {
+            HugeGraph graph = HugeInfoMap.this.graph.concurrentCopy();
+            return (node, consumer) -> {
+                double outFactor = flowPerWeight.get(node);
+                forEachRelationship(graph, node, (target, weight) ->
+                        consumer.accept(target, outFactor * weight, flowPerWeight.get(target) * weight));
+            };
+        }
+
+        private void forEachRelationship(HugeGraph graph, long node, WeightConsumer consumer) {
+            if (weighted) {
+                graph.forEachRelationship(node, Direction.OUTGOING, (source, target, weight) -> {
+                    if (source != target) {
+                        consumer.accept(target, weight);
+                    }
+                    return true;
+                });
+            } else {
+                graph.forEachRelationship(node, Direction.OUTGOING, (source, target) -> {
+                    if (source != target) {
+                        consumer.accept(target, 1.0);
+                    }
+                    return true;
+                });
+            }
+        }
+
+        @Override
+        void release() {
+            flowPerWeight.release();
+        }
+    }
+
+    @FunctionalInterface
+    private interface WeightConsumer {
+        void accept(long target, double weight);
+    }
+
+    /**
+     * The modules of the previous level, their relationships carry the flow from source to target module.
+     */
+    private static final class ModuleLevel extends Level {
+        private final HugeGraph graph;
+        private final DoubleArray flows;
+        private final HugeLongArray sizes;
+        private final DoubleArray linkFlows;
+
+        ModuleLevel(HugeGraph graph, DoubleArray flows, HugeLongArray sizes, DoubleArray linkFlows) {
+            super(graph.nodeCount());
+            this.graph = graph;
+            this.flows = flows;
+            this.sizes = sizes;
+            this.linkFlows = linkFlows;
+        }
+
+        @Override
+        double flow(long node) {
+            return flows.get(node);
+        }
+
+        @Override
+        long size(long node) {
+            return sizes.get(node);
+        }
+
+        @Override
+        double linkFlow(long node) {
+            return linkFlows.get(node);
+        }
+
+        @Override
+        Relationships concurrentCopy() {
+            HugeGraph graph = this.graph.concurrentCopy();
+            return (node, consumer) -> graph.forEachRelationship(node, Direction.OUTGOING, (source, target, flow) -> {
+                consumer.accept(target, flow, graph.weightOf(target, source));
+                return true;
+            });
+        }
+
+        @Override
+        void release() {
+            graph.release();
+            flows.release();
+            sizes.release();
+            linkFlows.release();
+        }
+    }
+
+    /**
+     * The module of every node of a level and the flows of the modules, which are updated concurrently.
+     */
+    private final class Modules {
+        private final Level level;
+        private final long nodeCount;
+        private final HugeLongArray modules;
+        private final PagedAtomicDoubleArray flows;
+        private final PagedAtomicLongArray sizes;
+        private final PagedAtomicDoubleArray linkFlows;
+        private final DoubleAdder exitFlowSum = new DoubleAdder();
+
+        Modules(Level level) {
+            this.level = level;
+            this.nodeCount = level.nodeCount;
+            this.modules = HugeLongArray.newArray(nodeCount, tracker);
+            this.flows = PagedAtomicDoubleArray.newArray(nodeCount, tracker);
+            this.sizes = PagedAtomicLongArray.newArray(nodeCount, tracker);
+            this.linkFlows = PagedAtomicDoubleArray.newArray(nodeCount, tracker);
+            run(nodeCount, (start, end) -> {
+                double exitFlows = 0.0;
+                for (long node = start; node < end; node++) {
+                    modules.set(node, node);
+                    flows.set(node, level.flow(node));
+                    sizes.set(node, level.size(node));
+                    linkFlows.set(node, level.linkFlow(node));
+                    exitFlows += exitFlow(node);
+                }
+                exitFlowSum.add(exitFlows);
+            });
+        }
+
+        long moduleOf(long node) {
+            return modules.get(node);
+        }
+
+        private double exitFlow(long module) {
+            return HugeInfoMap.this.exitFlow(flows.get(module), sizes.get(module), linkFlows.get(module));
+        }
+
+        /**
+         * Moves every node into the neighbouring module that reduces the codelength the most.
+         *
+         * @return the number of nodes that moved
+         */
+        long moveNodes() {
+            AtomicLong moves = new AtomicLong();
+            run(nodeCount, (start, end) -> {
+                Relationships relationships = level.concurrentCopy();
+                LongDoubleHashMap outFlows = new LongDoubleHashMap();
+                LongDoubleHashMap inFlows = new LongDoubleHashMap();
+                long moved = 0L;
+                for (long node = start; node < end; node++) {
+                    outFlows.clear();
+                    inFlows.clear();
+                    relationships.forEachFlow(node, (target, outFlow, inFlow) -> {
+                        long module = modules.get(target);
+                        outFlows.addTo(module, outFlow);
+                        inFlows.addTo(module, inFlow);
+                    });
+                    if (moveNode(node, outFlows, inFlows)) {
+                        moved++;
+                    }
+                }
+                moves.addAndGet(moved);
+            });
+            return moves.get();
+        }
+
+        private boolean moveNode(long node, LongDoubleHashMap outFlows, LongDoubleHashMap inFlows) {
+            long current = modules.get(node);
+            double nodeFlow = level.flow(node);
+            long nodeSize = level.size(node);
+            double nodeLinkFlow = level.linkFlow(node);
+            double exitFlowSum = this.exitFlowSum.sum();
+
+            // the current module without the node
+            double oldFlow = flows.get(current);
+            double oldExit = exitFlow(current);
+            double leftFlow = oldFlow - nodeFlow;
+            long leftSize = sizes.get(current) - nodeSize;
+            // the relationships of the node leave the module, those from the module to the node start to
+            double leftLinkFlowDelta = inFlows.getOrDefault(current, 0.0)
+                    - (nodeLinkFlow - outFlows.getOrDefault(current, 0.0));
+            double leftLinkFlow = linkFlows.get(current) + leftLinkFlowDelta;
+            double leftExit = HugeInfoMap.this.exitFlow(leftFlow, leftSize, leftLinkFlow);
+            double removed = moduleCodeLength(leftFlow, leftExit) - moduleCodeLength(oldFlow, oldExit);
+
+            long best = current;
+            double bestDelta = -MIN_DELTA;
+            double bestExitDelta = 0.0;
+            double bestLinkFlowDelta = 0.0;
+            for (LongDoubleCursor cursor : outFlows) {
+                long module = cursor.key;
+                if (module == current) {
+                    continue;
+                }
+                double flow = flows.get(module);
+                double exit = exitFlow(module);
+                double joinedFlow = flow + nodeFlow;
+                double linkFlowDelta = (nodeLinkFlow - cursor.value) - inFlows.get(module);
+                double joinedLinkFlow = linkFlows.get(module) + linkFlowDelta;
+                double joinedExit = HugeInfoMap.this.exitFlow(joinedFlow, sizes.get(module) + nodeSize, joinedLinkFlow);
+                double newExitFlowSum = exitFlowSum - oldExit + leftExit - exit + joinedExit;
+                double delta = plogp(newExitFlowSum) - plogp(exitFlowSum)
+                        + removed
+                        + moduleCodeLength(joinedFlow, joinedExit) - moduleCodeLength(flow, exit);
+                if (delta < bestDelta) {
+                    best = module;
+                    bestDelta = delta;
+                    bestExitDelta = joinedExit - exit;
+                    bestLinkFlowDelta = linkFlowDelta;
+                }
+            }
+            if (best == current) {
+                return false;
+            }
+
+            modules.set(node, best);
+            flows.add(current, -nodeFlow);
+            flows.add(best, nodeFlow);
+            sizes.add(current, -nodeSize);
+            sizes.add(best, nodeSize);
+            linkFlows.add(current, leftLinkFlowDelta);
+            linkFlows.add(best, bestLinkFlowDelta);
+            this.exitFlowSum.add(leftExit - oldExit + bestExitDelta);
+            return true;
+        }
+
+        // the terms of the map equation that depend on a single module
+        private double moduleCodeLength(double flow, double exit) {
+            return plogp(exit + flow) - 2.0 * plogp(exit);
+        }
+
+        /**
+         * Recomputes the link flows of the modules from the relationships
+         * and the exit flow sum from the modules.
+         *
+         * @return the codelength of the current modules
+         */
+        double recompute() {
+            run(nodeCount, (start, end) -> {
+                for (long module = start; module < end; module++) {
+                    linkFlows.set(module, 0.0);
+                }
+            });
+            run(nodeCount, (start, end) -> {
+                Relationships relationships = level.concurrentCopy();
+                double[] leaving = new double[1];
+                for (long node = start; node < end; node++) {
+                    long module = modules.get(node);
+                    leaving[0] = 0.0;
+                    relationships.forEachFlow(node, (target, outFlow, inFlow) -> {
+                        if (modules.get(target) != module) {
+                            leaving[0] += outFlow;
+                        }
+                    });
+                    if (leaving[0] != 0.0) {
+                        linkFlows.add(module, leaving[0]);
+                    }
+                }
+            });
+            exitFlowSum.reset();
+            return codeLength();
+        }
+
+        /**
+         * @return the codelength of the current modules, also resets the exit flow sum
+         */
+        double codeLength() {
+            DoubleAdder exitFlows = new DoubleAdder();
+            DoubleAdder moduleCodeLengths = new DoubleAdder();
+            run(nodeCount, (start, end) -> {
+                double exitFlowSum = 0.0;
+                double moduleCodeLength = 0.0;
+                for (long module = start; module < end; module++) {
+                    if (sizes.get(module) > 0L) {
+                        double exit = exitFlow(module);
+                        exitFlowSum += exit;
+                        moduleCodeLength += moduleCodeLength(flows.get(module), exit);
+                    }
+                }
+                exitFlows.add(exitFlowSum);
+                moduleCodeLengths.add(moduleCodeLength);
+            });
+            double exitFlowSum = exitFlows.sum();
+            this.exitFlowSum.reset();
+            this.exitFlowSum.add(exitFlowSum);
+            return plogp(exitFlowSum) + moduleCodeLengths.sum() + nodeEntropy;
+        }
+
+        /**
+         * Numbers the non-empty modules consecutively, {@link #moduleOf(long)} returns the new numbers afterwards.
+         *
+         * @return the number of modules
+         */
+        long renumber() {
+            // sizes become the new number of every module
+            long count = 0L;
+            for (long module = 0L; module < nodeCount; module++) {
+                sizes.set(module, sizes.get(module) > 0L ? count++ : -1L);
+            }
+            run(nodeCount, (start, end) -> {
+                for (long node = start; node < end; node++) {
+                    modules.set(node, sizes.get(modules.get(node)));
+                }
+            });
+            return count;
+        }
+
+        /**
+         * Builds the next level with one node per module, must be called after {@link #renumber()}.
+         */
+        Level aggregate(long moduleCount) {
+            DoubleArray moduleFlows = DoubleArray.newArray(moduleCount, tracker);
+            HugeLongArray moduleSizes = HugeLongArray.newArray(moduleCount, tracker);
+            DoubleArray moduleLinkFlows = DoubleArray.newArray(moduleCount, tracker);
+            for (long module = 0L; module < nodeCount; module++) {
+                long renumbered = sizes.get(module);
+                if (renumbered != -1L) {
+                    moduleFlows.set(renumbered, flows.get(module));
+                    moduleLinkFlows.set(renumbered, linkFlows.get(module));
+                }
+            }
+
+            // the nodes sorted by their module, so that every module is aggregated by a single thread
+            HugeLongArray offsets = HugeLongArray.newArray(moduleCount + 1L, tracker);
+            for (long node = 0L; node < nodeCount; node++) {
+                long module = modules.get(node);
+                offsets.addTo(module + 1L, 1L);
+                moduleSizes.addTo(module, level.size(node));
+            }
+            for (long module = 1L; module <= moduleCount; module++) {
+                offsets.addTo(module, offsets.get(module - 1L));
+            }
+            HugeLongArray members = HugeLongArray.newArray(nodeCount, tracker);
+            HugeLongArray next = HugeLongArray.newArray(moduleCount, tracker);
+            offsets.copyTo(next, moduleCount);
+            for (long node = 0L; node < nodeCount; node++) {
+                long module = modules.get(node);
+                members.set(next.get(module), node);
+                next.addTo(module, 1L);
+            }
+            next.release();
+
+            HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes(moduleCount)
+                    .withDirection(Direction.OUTGOING)
+                    .withRelationshipWeights(0.0)
+                    .withConcurrency(concurrency)
+                    .withExecutorService(executor)
+                    .withAllocationTracker(tracker)
+                    .importer();
+            long batchSize = ParallelUtil.adjustBatchSize(nodeCount, concurrency, MIN_BATCH_SIZE);
+            List<Runnable> tasks = new ArrayList<>();
+            long from = 0L;
+            while (from < moduleCount) {
+                long to = from;
+                // modules are not split, a batch ends after the module that fills it
+                while (to < moduleCount && offsets.get(to) - offsets.get(from) < batchSize) {
+                    to++;
+                }
+                long start = from;
+                long end = to;
+                tasks.add(() -> {
+                    Relationships relationships = level.concurrentCopy();
+                    HugeGraphBuilder.Batch batch = importer.newBatch();
+                    LongDoubleHashMap outFlows = new LongDoubleHashMap();
+                    for (long m = start; m < end; m++) {
+                        long module = m;
+                        outFlows.clear();
+                        for (long i = offsets.get(module); i < offsets.get(module + 1L); i++) {
+                            relationships.forEachFlow(members.get(i), (target, outFlow, inFlow) -> {
+                                long targetModule = modules.get(target);
+                                if (targetModule != module) {
+                                    outFlows.addTo(targetModule, outFlow);
+                                }
+                            });
+                        }
+                        for (LongDoubleCursor cursor : outFlows) {
+                            batch.add(module, cursor.key, cursor.value);
+                        }
+                    }
+                    batch.flush();
+                });
+                from = to;
+            }
+            run(tasks);
+            offsets.release();
+            members.release();
+            return new ModuleLevel(importer.build(), moduleFlows, moduleSizes, moduleLinkFlows);
+        }
+
+        void release() {
+            modules.release();
+            flows.release();
+            sizes.release();
+            linkFlows.release();
+        }
+    }
+}
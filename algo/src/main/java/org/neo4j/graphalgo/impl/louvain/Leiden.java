@@ -0,0 +1,788 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.louvain;
+
+import com.carrotsearch.hppc.LongDoubleHashMap;
+import com.carrotsearch.hppc.cursors.LongDoubleCursor;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphBuilder;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicDoubleArray;
+import org.neo4j.graphalgo.impl.Algorithm;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import java.util.function.LongConsumer;
+
+/**
+ * Leiden community detection for huge graphs, modularity optimization as in {@link Louvain}
+ * with a refinement phase that guarantees well-connected communities.
+ * <p>
+ * Every level consists of three phases:
+ * <ol>
+ * <li>Fast local moving: the nodes move into the neighbouring community with the highest modularity gain.
+ * Only the neighbours of moved nodes that are now outside of its community are visited again,
+ * so every round processes the queue of unstable nodes of the previous one. The rounds run in
+ * parallel and update the community weights with atomic deltas.</li>
+ * <li>Refinement: every community is split into singletons, which merge again within the community,
+ * but only into sub-communities that are well connected to the rest of the community.
+ * The communities are independent and are refined in parallel.</li>
+ * <li>Aggregation: the refined sub-communities become the nodes of the next level, which start
+ * in the community of the local moving phase.</li>
+ * </ol>
+ * The levels end once the refinement leaves every node on its own.
+ * The relationships are treated as undirected, the graph is expected to be loaded as undirected.
+ *
+ * @see <a href="https://arxiv.org/abs/1810.08473">From Louvain to Leiden: guaranteeing well-connected communities</a>
+ */
+public final class Leiden extends Algorithm<Leiden> {
+
+    public static final int DEFAULT_MAX_LEVELS = 10;
+    public static final int DEFAULT_MAX_ITERATIONS = 10;
+    public static final double DEFAULT_RESOLUTION = 1.0;
+    public static final double DEFAULT_RANDOMNESS = 0.01;
+
+    private static final long MIN_BATCH_SIZE = 10_000L;
+    // moves that gain less are not worth it and let nodes oscillate between communities
+    private static final double MIN_GAIN = 1e-10;
+
+    private final HugeGraph graph;
+    private final long nodeCount;
+    private final double resolution;
+    private final double randomness;
+    private final long seed;
+    private final ExecutorService executor;
+    private final int concurrency;
+    private final AllocationTracker tracker;
+    private long minBatchSize = MIN_BATCH_SIZE;
+
+    private HugeLongArray communities;
+    private long communityCount;
+    private double[] modularities = new double[0];
+    private int iterations;
+
+    /**
+     * @param resolution higher resolutions lead to more and smaller communities
+     * @param randomness how random the refinement merges nodes, {@code 0} always merges into the best sub-community
+     */
+    public Leiden(
+            HugeGraph graph,
+            double resolution,
+            double randomness,
+            long seed,
+            ExecutorService executor,
+            int concurrency,
+            AllocationTracker tracker) {
+        this.graph = graph;
+        this.nodeCount = graph.nodeCount();
+        this.resolution = resolution;
+        this.randomness = randomness;
+        this.seed = seed;
+        this.executor = executor;
+        this.concurrency = concurrency;
+        this.tracker = tracker;
+    }
+
+    // smaller batches let tests run the phases in parallel on small graphs
+    Leiden withMinBatchSize(long minBatchSize) {
+        if (minBatchSize < 1L) {
+            throw new IllegalArgumentException("minBatchSize must be at least 1, but was " + minBatchSize);
+        }
+        this.minBatchSize = minBatchSize;
+        return this;
+    }
+
+    /**
+     * Optimizes at most {@code maxLevels} levels with at most {@code maxIterations} local moving rounds each.
+     */
+    public Leiden compute(int maxLevels, int maxIterations) {
+        // the node of the current level that every node of the graph belongs to
+        HugeLongArray nodes = HugeLongArray.newArray(nodeCount, tracker);
+        nodes.setAll(node -> node);
+        iterations = 0;
+
+        double[] modularities = new double[Math.max(0, maxLevels)];
+        int levels = 0;
+        Level level = rootLevel();
+        Partition partition = null;
+        while (levels < maxLevels && running()) {
+            if (partition != null) {
+                partition.release();
+            }
+            partition = new Partition(level);
+            iterations += partition.moveNodes(maxIterations);
+            double modularity = partition.modularity();
+            modularities[levels++] = modularity;
+
+            long communityCount = partition.renumber(partition.communities);
+            int levelNumber = levels;
+            progressLogger.logProgress(levels, maxLevels, () -> String.format(
+                    "Level %d: %d communities, modularity %.6f",
+                    levelNumber,
+                    communityCount,
+                    modularity));
+            if (levels == maxLevels) {
+                break;
+            }
+
+            HugeLongArray refined = partition.refine();
+            long refinedCount = partition.renumber(refined);
+            if (refinedCount == level.nodeCount) {
+                refined.release();
+                break;
+            }
+            run(nodeCount, (start, end) -> {
+                for (long node = start; node < end; node++) {
+                    nodes.set(node, refined.get(nodes.get(node)));
+                }
+            });
+            Level next = partition.aggregate(refined, refinedCount);
+            refined.release();
+            level.release();
+            level = next;
+        }
+
+        if (partition == null) {
+            communities = nodes;
+            communityCount = nodeCount;
+        } else {
+            Partition last = partition;
+            run(nodeCount, (start, end) -> {
+                for (long node = start; node < end; node++) {
+                    nodes.set(node, last.communities.get(nodes.get(node)));
+                }
+            });
+            communities = nodes;
+            communityCount = partition.communityCount;
+            partition.release();
+        }
+        level.release();
+        this.modularities = Arrays.copyOf(modularities, levels);
+        return this;
+    }
+
+    /**
+     * @return the community of every node, from {@code 0} to {@link #getCommunityCount()} - 1
+     */
+    public HugeLongArray getCommunities() {
+        return communities;
+    }
+
+    public long getCommunityCount() {
+        return communityCount;
+    }
+
+    /**
+     * @return the modularity after the local moving phase of every level
+     */
+    public double[] getModularities() {
+        return modularities;
+    }
+
+    public double getModularity() {
+        return modularities.length == 0 ? 0.0 : modularities[modularities.length - 1];
+    }
+
+    /**
+     * @return the number of local moving rounds of all levels
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    @Override
+    public Leiden me() {
+        return this;
+    }
+
+    @Override
+    public Leiden release() {
+        communities = null;
+        return this;
+    }
+
+    private Level rootLevel() {
+        DoubleArray degrees = DoubleArray.newArray(nodeCount, tracker);
+        DoubleArray selfWeights = DoubleArray.newArray(nodeCount, tracker);
+        run(nodeCount, (start, end) -> {
+            HugeGraph graph = this.graph.concurrentCopy();
+            double[] sums = new double[2];
+            for (long node = start; node < end; node++) {
+                sums[0] = 0.0;
+                sums[1] = 0.0;
+                graph.forEachRelationship(node, Direction.OUTGOING, (source, target, weight) -> {
+                    sums[source == target ? 1 : 0] += weight;
+                    return true;
+                });
+                degrees.set(node, sums[0] + sums[1]);
+                selfWeights.set(node, sums[1]);
+            }
+        });
+        // the graph is released by the caller
+        return new Level(graph, degrees, selfWeights, null, false);
+    }
+
+    private void run(long count, RangeTask task) {
+        long batchSize = ParallelUtil.adjustBatchSize(count, concurrency, minBatchSize);
+        List<Runnable> tasks = new ArrayList<>();
+        for (long start = 0L; start < count; start += batchSize) {
+            long from = start;
+            long to = Math.min(count, start + batchSize);
+            tasks.add(() -> task.run(from, to));
+        }
+        run(tasks);
+    }
+
+    private void run(List<Runnable> tasks) {
+        ParallelUtil.runWithConcurrency(
+                concurrency,
+                tasks,
+                Integer.MAX_VALUE,
+                10L,
+                TimeUnit.MICROSECONDS,
+                terminationFlag,
+                executor);
+    }
+
+    @FunctionalInterface
+    private interface RangeTask {
+        void run(long start, long end);
+    }
+
+    /**
+     * The nodes of one level, sub-communities of the previous level on all but the first.
+     */
+    private static final class Level {
+        final HugeGraph graph;
+        final long nodeCount;
+        // weighted degree, including the self weight
+        final DoubleArray degrees;
+        // weight of the relationships within the node, counted from both ends
+        final DoubleArray selfWeights;
+        // the community every node starts in, null to start on its own
+        final HugeLongArray communities;
+        final boolean ownsGraph;
+        final double totalWeight;
+
+        Level(HugeGraph graph, DoubleArray degrees, DoubleArray selfWeights, HugeLongArray communities, boolean ownsGraph) {
+            this.graph = graph;
+            this.nodeCount = graph.nodeCount();
+            this.degrees = degrees;
+            this.selfWeights = selfWeights;
+            this.communities = communities;
+            this.ownsGraph = ownsGraph;
+            double totalWeight = 0.0;
+            for (long node = 0L; node < nodeCount; node++) {
+                totalWeight += degrees.get(node);
+            }
+            this.totalWeight = totalWeight;
+        }
+
+        void release() {
+            if (ownsGraph) {
+                graph.release();
+            }
+            degrees.release();
+            selfWeights.release();
+            if (communities != null) {
+                communities.release();
+            }
+        }
+    }
+
+    /**
+     * The community of every node of a level and the weights of the communities, which are updated concurrently.
+     */
+    private final class Partition {
+        private final Level level;
+        private final long nodeCount;
+        private final HugeLongArray communities;
+        private final PagedAtomicDoubleArray communityWeights;
+        // resolution divided by the total weight, scales the expected weight between a node and a community
+        private final double scale;
+        private long communityCount;
+
+        Partition(Level level) {
+            this.level = level;
+            this.nodeCount = level.nodeCount;
+            this.communities = HugeLongArray.newArray(nodeCount, tracker);
+            this.communityWeights = PagedAtomicDoubleArray.newArray(nodeCount, tracker);
+            this.scale = level.totalWeight > 0.0 ? resolution / level.totalWeight : 0.0;
+            run(nodeCount, (start, end) -> {
+                for (long node = start; node < end; node++) {
+                    communities.set(node, level.communities == null ? node : level.communities.get(node));
+                }
+            });
+            for (long node = 0L; node < nodeCount; node++) {
+                communityWeights.add(communities.get(node), level.degrees.get(node));
+            }
+        }
+
+        /**
+         * Moves the nodes in rounds, the first round visits every node,
+         * the following ones the nodes whose neighbours changed their community.
+         *
+         * @return the number of rounds
+         */
+        int moveNodes(int maxIterations) {
+            // the round in which a node is visited next, -1 once it has been visited
+            HugeLongArray queued = HugeLongArray.newArray(nodeCount, tracker);
+            int round = 0;
+            long moves = 1L;
+            while (moves > 0L && round < maxIterations && running()) {
+                long current = round;
+                AtomicLong moved = new AtomicLong();
+                run(nodeCount, (start, end) -> {
+                    HugeGraph graph = level.graph.concurrentCopy();
+                    LongDoubleHashMap weights = new LongDoubleHashMap();
+                    long taskMoves = 0L;
+                    for (long node = start; node < end; node++) {
+                        if (queued.get(node) == current && moveNode(graph, node, weights, queued, current)) {
+                            taskMoves++;
+                        }
+                    }
+                    moved.addAndGet(taskMoves);
+                });
+                moves = moved.get();
+                round++;
+            }
+            queued.release();
+            return round;
+        }
+
+        private boolean moveNode(HugeGraph graph, long node, LongDoubleHashMap weights, HugeLongArray queued, long round) {
+            queued.set(node, -1L);
+            weights.clear();
+            graph.forEachRelationship(node, Direction.OUTGOING, (source, target, weight) -> {
+                if (source != target) {
+                    weights.addTo(communities.get(target), weight);
+                }
+                return true;
+            });
+
+            long current = communities.get(node);
+            double degree = level.degrees.get(node);
+            double expected = degree * scale;
+            double bestGain = weights.getOrDefault(current, 0.0)
+                    - expected * (communityWeights.get(current) - degree)
+                    + MIN_GAIN;
+            long best = current;
+            for (LongDoubleCursor cursor : weights) {
+                if (cursor.key == current) {
+                    continue;
+                }
+                double gain = cursor.value - expected * communityWeights.get(cursor.key);
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    best = cursor.key;
+                }
+            }
+            if (best == current) {
+                return false;
+            }
+
+            communities.set(node, best);
+            communityWeights.add(current, -degree);
+            communityWeights.add(best, degree);
+            long community = best;
+            // the neighbours outside of the new community may want to follow,
+            // those that still wait for the current round are visited anyway
+            graph.forEachRelationship(node, Direction.OUTGOING, (source, target) -> {
+                if (communities.get(target) != community && queued.get(target) != round) {
+                    queued.set(target, round + 1L);
+                }
+                return true;
+            });
+            return true;
+        }
+
+        /**
+         * @return the modularity of the current communities
+         */
+        double modularity() {
+            if (level.totalWeight <= 0.0) {
+                return 0.0;
+            }
+            DoubleAdder internal = new DoubleAdder();
+            DoubleAdder expected = new DoubleAdder();
+            run(nodeCount, (start, end) -> {
+                HugeGraph graph = level.graph.concurrentCopy();
+                double[] weight = new double[1];
+                double communityWeightSquares = 0.0;
+                for (long node = start; node < end; node++) {
+                    long community = communities.get(node);
+                    weight[0] += level.selfWeights.get(node);
+                    graph.forEachRelationship(node, Direction.OUTGOING, (source, target, w) -> {
+                        if (source != target && communities.get(target) == community) {
+                            weight[0] += w;
+                        }
+                        return true;
+                    });
+                    double communityWeight = communityWeights.get(node);
+                    communityWeightSquares += communityWeight * communityWeight;
+                }
+                internal.add(weight[0]);
+                expected.add(communityWeightSquares);
+            });
+            return (internal.sum() - expected.sum() * scale) / level.totalWeight;
+        }
+
+        /**
+         * Numbers the communities of the given array consecutively, in place.
+         *
+         * @return the number of communities
+         */
+        long renumber(HugeLongArray communities) {
+            HugeLongArray numbers = HugeLongArray.newArray(nodeCount, tracker);
+            numbers.fill(-1L);
+            long count = 0L;
+            for (long node = 0L; node < nodeCount; node++) {
+                long community = communities.get(node);
+                long number = numbers.get(community);
+                if (number == -1L) {
+                    number = count++;
+                    numbers.set(community, number);
+                }
+                communities.set(node, number);
+            }
+            numbers.release();
+            if (communities == this.communities) {
+                // the weights follow the new numbers
+                DoubleArray renumbered = DoubleArray.newArray(count, tracker);
+                for (long node = 0L; node < nodeCount; node++) {
+                    renumbered.set(communities.get(node), 0.0);
+                }
+                for (long node = 0L; node < nodeCount; node++) {
+                    renumbered.add(communities.get(node), level.degrees.get(node));
+                }
+                for (long community = 0L; community < nodeCount; community++) {
+                    communityWeights.set(community, community < count ? renumbered.get(community) : 0.0);
+                }
+                renumbered.release();
+                communityCount = count;
+            }
+            return count;
+        }
+
+        /**
+         * Splits every community into well-connected sub-communities, must be called after
+         * the communities have been renumbered.
+         *
+         * @return the sub-community of every node, a node id of its community
+         */
+        HugeLongArray refine() {
+            HugeLongArray refined = HugeLongArray.newArray(nodeCount, tracker);
+            DoubleArray refinedWeights = DoubleArray.newArray(nodeCount, tracker);
+            // weight of the relationships between a sub-community and the rest of its community
+            DoubleArray externalWeights = DoubleArray.newArray(nodeCount, tracker);
+            HugeLongArray refinedSizes = HugeLongArray.newArray(nodeCount, tracker);
+            Members members = new Members(communities, communityCount);
+
+            List<Runnable> tasks = new ArrayList<>();
+            members.forEachBatch((start, end) -> tasks.add(() -> {
+                HugeGraph graph = level.graph.concurrentCopy();
+                Candidates candidates = new Candidates();
+                SplittableRandom random = new SplittableRandom(seed ^ start);
+                for (long community = start; community < end; community++) {
+                    long[] nodes = members.of(community);
+                    for (long node : nodes) {
+                        refined.set(node, node);
+                        refinedWeights.set(node, level.degrees.get(node));
+                        externalWeights.set(node, weightWithin(graph, node, community));
+                        refinedSizes.set(node, 1L);
+                    }
+                    shuffle(nodes, random);
+                    double communityWeight = communityWeights.get(community);
+                    for (long node : nodes) {
+                        double degree = level.degrees.get(node);
+                        // only singletons that are well connected to their community merge
+                        if (refinedSizes.get(node) != 1L
+                                || externalWeights.get(node) < degree * (communityWeight - degree) * scale) {
+                            continue;
+                        }
+                        candidates.collect(graph, node, community, refined);
+                        int chosen = candidates.choose(degree, communityWeight, refinedWeights, externalWeights, random);
+                        if (chosen == -1) {
+                            continue;
+                        }
+                        long subCommunity = candidates.subCommunities[chosen];
+                        refined.set(node, subCommunity);
+                        refinedSizes.set(node, 0L);
+                        refinedSizes.addTo(subCommunity, 1L);
+                        refinedWeights.add(subCommunity, degree);
+                        externalWeights.add(subCommunity, externalWeights.get(node) - 2.0 * candidates.weights[chosen]);
+                    }
+                }
+            }));
+            run(tasks);
+
+            refinedWeights.release();
+            externalWeights.release();
+            refinedSizes.release();
+            members.release();
+            return refined;
+        }
+
+        private double weightWithin(HugeGraph graph, long node, long community) {
+            double[] weight = {0.0};
+            graph.forEachRelationship(node, Direction.OUTGOING, (source, target, w) -> {
+                if (source != target && communities.get(target) == community) {
+                    weight[0] += w;
+                }
+                return true;
+            });
+            return weight[0];
+        }
+
+        /**
+         * Builds the next level with one node per sub-community, which starts in the community it is part of.
+         */
+        Level aggregate(HugeLongArray refined, long refinedCount) {
+            DoubleArray degrees = DoubleArray.newArray(refinedCount, tracker);
+            DoubleArray selfWeights = DoubleArray.newArray(refinedCount, tracker);
+            HugeLongArray initialCommunities = HugeLongArray.newArray(refinedCount, tracker);
+            Members members = new Members(refined, refinedCount);
+
+            HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes(refinedCount)
+                    .withDirection(Direction.OUTGOING)
+                    .withRelationshipWeights(0.0)
+                    .withConcurrency(concurrency)
+                    .withExecutorService(executor)
+                    .withAllocationTracker(tracker)
+                    .importer();
+            List<Runnable> tasks = new ArrayList<>();
+            members.forEachBatch((start, end) -> tasks.add(() -> {
+                HugeGraph graph = level.graph.concurrentCopy();
+                HugeGraphBuilder.Batch batch = importer.newBatch();
+                LongDoubleHashMap weights = new LongDoubleHashMap();
+                for (long subCommunity = start; subCommunity < end; subCommunity++) {
+                    long source = subCommunity;
+                    double[] sums = {0.0, 0.0};
+                    weights.clear();
+                    members.forEach(subCommunity, node -> {
+                        sums[0] += level.degrees.get(node);
+                        sums[1] += level.selfWeights.get(node);
+                        initialCommunities.set(source, communities.get(node));
+                        graph.forEachRelationship(node, Direction.OUTGOING, (s, target, weight) -> {
+                            long targetCommunity = refined.get(target);
+                            if (targetCommunity == source) {
+                                if (s != target) {
+                                    sums[1] += weight;
+                                }
+                            } else {
+                                weights.addTo(targetCommunity, weight);
+                            }
+                            return true;
+                        });
+                    });
+                    degrees.set(source, sums[0]);
+                    selfWeights.set(source, sums[1]);
+                    for (LongDoubleCursor cursor : weights) {
+                        batch.add(source, cursor.key, cursor.value);
+                    }
+                }
+                batch.flush();
+            }));
+            run(tasks);
+            members.release();
+            return new Level(importer.build(), degrees, selfWeights, initialCommunities, true);
+        }
+
+        void release() {
+            communities.release();
+            communityWeights.release();
+        }
+
+        /**
+         * The sub-communities a node can merge into, with the weight of its relationships to them.
+         */
+        private final class Candidates {
+            private final LongDoubleHashMap weightsTo = new LongDoubleHashMap();
+            private long[] subCommunities = new long[16];
+            private double[] weights = new double[16];
+            private double[] gains = new double[16];
+            private int size;
+
+            void collect(HugeGraph graph, long node, long community, HugeLongArray refined) {
+                weightsTo.clear();
+                graph.forEachRelationship(node, Direction.OUTGOING, (source, target, weight) -> {
+                    if (source != target && communities.get(target) == community) {
+                        weightsTo.addTo(refined.get(target), weight);
+                    }
+                    return true;
+                });
+            }
+
+            /**
+             * @return the index of the chosen sub-community or -1 to stay alone
+             */
+            int choose(
+                    double degree,
+                    double communityWeight,
+                    DoubleArray refinedWeights,
+                    DoubleArray externalWeights,
+                    SplittableRandom random) {
+                size = 0;
+                double maxGain = 0.0;
+                double expected = degree * scale;
+                for (LongDoubleCursor cursor : weightsTo) {
+                    double weight = refinedWeights.get(cursor.key);
+                    // the sub-community has to be well connected as well
+                    if (externalWeights.get(cursor.key) < weight * (communityWeight - weight) * scale) {
+                        continue;
+                    }
+                    double gain = cursor.value - expected * weight;
+                    if (gain < 0.0) {
+                        continue;
+                    }
+                    add(cursor.key, cursor.value, gain);
+                    maxGain = Math.max(maxGain, gain);
+                }
+                if (size == 0 || maxGain <= 0.0) {
+                    return -1;
+                }
+                if (randomness <= 0.0) {
+                    int best = 0;
+                    for (int i = 1; i < size; i++) {
+                        if (gains[i] > gains[best]) {
+                            best = i;
+                        }
+                    }
+                    return best;
+                }
+                // proportional to exp(modularity gain / randomness), staying alone gains nothing
+                double norm = randomness * level.totalWeight * 0.5;
+                double stay = Math.exp(-maxGain / norm);
+                double total = stay;
+                for (int i = 0; i < size; i++) {
+                    gains[i] = Math.exp((gains[i] - maxGain) / norm);
+                    total += gains[i];
+                }
+                double pick = random.nextDouble() * total - stay;
+                if (pick < 0.0) {
+                    return -1;
+                }
+                for (int i = 0; i < size; i++) {
+                    pick -= gains[i];
+                    if (pick < 0.0) {
+                        return i;
+                    }
+                }
+                return size - 1;
+            }
+
+            private void add(long subCommunity, double weight, double gain) {
+                if (size == subCommunities.length) {
+                    subCommunities = Arrays.copyOf(subCommunities, size * 2);
+                    weights = Arrays.copyOf(weights, size * 2);
+                    gains = Arrays.copyOf(gains, size * 2);
+                }
+                subCommunities[size] = subCommunity;
+                weights[size] = weight;
+                gains[size] = gain;
+                size++;
+            }
+        }
+    }
+
+    private static void shuffle(long[] nodes, SplittableRandom random) {
+        for (int i = nodes.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            long node = nodes[i];
+            nodes[i] = nodes[j];
+            nodes[j] = node;
+        }
+    }
+
+    /**
+     * The nodes sorted by their community, so that a community can be processed by a single thread.
+     */
+    private final class Members {
+        private final long communityCount;
+        private final HugeLongArray offsets;
+        private final HugeLongArray nodes;
+
+        Members(HugeLongArray communities, long communityCount) {
+            long nodeCount = communities.size();
+            this.communityCount = communityCount;
+            this.offsets = HugeLongArray.newArray(communityCount + 1L, tracker);
+            this.nodes = HugeLongArray.newArray(nodeCount, tracker);
+            for (long node = 0L; node < nodeCount; node++) {
+                offsets.addTo(communities.get(node) + 1L, 1L);
+            }
+            for (long community = 1L; community <= communityCount; community++) {
+                offsets.addTo(community, offsets.get(community - 1L));
+            }
+            HugeLongArray next = HugeLongArray.newArray(communityCount, tracker);
+            offsets.copyTo(next, communityCount);
+            for (long node = 0L; node < nodeCount; node++) {
+                long community = communities.get(node);
+                nodes.set(next.get(community), node);
+                next.addTo(community, 1L);
+            }
+            next.release();
+        }
+
+        long[] of(long community) {
+            long start = offsets.get(community);
+            long[] members = new long[Math.toIntExact(offsets.get(community + 1L) - start)];
+            for (int i = 0; i < members.length; i++) {
+                members[i] = nodes.get(start + i);
+            }
+            return members;
+        }
+
+        void forEach(long community, LongConsumer consumer) {
+            for (long i = offsets.get(community); i < offsets.get(community + 1L); i++) {
+                consumer.accept(nodes.get(i));
+            }
+        }
+
+        /**
+         * Batches of consecutive communities with about the same number of nodes, communities are not split.
+         */
+        void forEachBatch(RangeTask batch) {
+            long batchSize = ParallelUtil.adjustBatchSize(nodes.size(), concurrency, minBatchSize);
+            long from = 0L;
+            while (from < communityCount) {
+                long to = from;
+                while (to < communityCount && offsets.get(to) - offsets.get(from) < batchSize) {
+                    to++;
+                }
+                batch.run(from, to);
+                from = to;
+            }
+        }
+
+        void release() {
+            offsets.release();
+            nodes.release();
+        }
+    }
+}
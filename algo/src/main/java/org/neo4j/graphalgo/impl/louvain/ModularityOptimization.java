@@ -28,6 +28,7 @@ import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.Pointer;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.metrics.IterationMetrics;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.impl.Algorithm;
 import org.neo4j.graphdb.Direction;
@@ -55,6 +56,7 @@ public class ModularityOptimization extends Algorithm<ModularityOptimization> {
      */
     private static final Direction D = Direction.OUTGOING;
     private static final int NONE = -1;
+    private static final IterationMetrics METRICS = IterationMetrics.of("Louvain");
     private final int nodeCount;
     private final int concurrency;
     private final AllocationTracker tracker;
@@ -197,12 +199,15 @@ public class ModularityOptimization extends Algorithm<ModularityOptimization> {
         tracker.add(20 * nodeCount * concurrency);
         // as long as maxIterations is not reached
         for (iterations = 0; iterations < maxIterations && terminationFlag.running(); iterations++) {
+            long start = System.nanoTime();
             // reset node counter (for logging)
             counter.set(0);
             // run all tasks
             ParallelUtil.runWithConcurrency(concurrency, tasks, pool);
             // take the best candidate
             Task candidate = best(tasks);
+            // the residual is the gain in modularity
+            METRICS.iterationDone(start, null == candidate ? 0.0 : candidate.q - this.q);
             if (null == candidate || candidate.q <= this.q) {
                 // best candidate's modularity did not improve
                 break;
@@ -19,7 +19,10 @@
 package org.neo4j.graphalgo.impl.pagerank;
 
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.impl.AverageDegreeCentrality;
+import org.neo4j.graphalgo.impl.degree.HugeDegreeCentrality;
 import org.neo4j.graphdb.Direction;
 
 import java.util.concurrent.ExecutorService;
@@ -33,6 +36,17 @@ public class BasicDegreeComputer implements DegreeComputer {
 
     @Override
     public DegreeCache degree(ExecutorService executor, int concurrency) {
+        if (graph instanceof HugeGraph) {
+            HugeDegreeCentrality degreeCentrality = new HugeDegreeCentrality(
+                    (HugeGraph) graph,
+                    executor,
+                    concurrency,
+                    Direction.OUTGOING,
+                    false,
+                    AllocationTracker.EMPTY);
+            degreeCentrality.compute();
+            return new DegreeCache(new double[0], new double[0][], degreeCentrality.average());
+        }
         AverageDegreeCentrality degreeCentrality = new AverageDegreeCentrality(graph, executor, concurrency, Direction.OUTGOING);
         degreeCentrality.compute();
         return new DegreeCache(new double[0], new double[0][], degreeCentrality.average());
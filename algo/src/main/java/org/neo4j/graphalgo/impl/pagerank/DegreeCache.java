@@ -18,12 +18,15 @@
  */
 package org.neo4j.graphalgo.impl.pagerank;
 
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+
 public class DegreeCache {
 
     public final static DegreeCache EMPTY = new DegreeCache(new double[0], new double[0][0], 0.0);
 
     private double[] aggregatedDegrees;
     private double[][] weights;
+    private DoubleArray hugeAggregatedDegrees;
     private double averageDegree;
 
     public DegreeCache(double[] aggregatedDegrees, double[][] weights, double averageDegree) {
@@ -32,10 +35,19 @@ public class DegreeCache {
         this.averageDegree = averageDegree;
     }
 
+    public DegreeCache(DoubleArray hugeAggregatedDegrees, double averageDegree) {
+        this(new double[0], new double[0][0], averageDegree);
+        this.hugeAggregatedDegrees = hugeAggregatedDegrees;
+    }
+
     double[] aggregatedDegrees() {
         return aggregatedDegrees;
     }
 
+    DoubleArray hugeAggregatedDegrees() {
+        return hugeAggregatedDegrees;
+    }
+
     double[][] weights() {
         return weights;
     }
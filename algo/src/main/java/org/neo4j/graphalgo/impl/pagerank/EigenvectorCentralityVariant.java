@@ -61,4 +61,9 @@ public class EigenvectorCentralityVariant implements PageRankVariant {
     public DegreeComputer degreeComputer(Graph graph) {
             return new BasicDegreeComputer(graph);
     }
+
+    @Override
+    public boolean normalizesDeltas() {
+        return true;
+    }
 }
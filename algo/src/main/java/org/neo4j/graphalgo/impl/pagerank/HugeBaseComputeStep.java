@@ -35,7 +35,6 @@ public abstract class HugeBaseComputeStep implements HugeComputeStep {
     private static final int S_INIT = 0;
     private static final int S_CALC = 1;
     private static final int S_SYNC = 2;
-    private static final int S_NORM = 3;
 
     private int state;
 
@@ -57,7 +56,14 @@ public abstract class HugeBaseComputeStep implements HugeComputeStep {
     final long startNode;
     final long endNode;
     private final int partitionSize;
-    double l2Norm;
+    double l2Norm = 1.0;
+
+    private double squaredDeltaSum;
+    private double squaredPreviousDeltaSum;
+    private double deltaProductSum;
+    private double maxScore;
+    private double scoreSum;
+    private double squaredScoreSum;
 
     HugeBaseComputeStep(
             double dampingFactor,
@@ -91,9 +97,6 @@ public abstract class HugeBaseComputeStep implements HugeComputeStep {
             state = S_SYNC;
         } else if (state == S_SYNC) {
             combineScores();
-            state = S_NORM;
-        } else if(state == S_NORM) {
-            normalizeDeltas();
             state = S_CALC;
         } else if (state == S_INIT) {
             initialize();
@@ -101,8 +104,6 @@ public abstract class HugeBaseComputeStep implements HugeComputeStep {
         }
     }
 
-    void normalizeDeltas() {}
-
     private void initialize() {
         this.nextScores = new int[starts.length][];
         Arrays.setAll(nextScores, i -> {
@@ -131,6 +132,17 @@ public abstract class HugeBaseComputeStep implements HugeComputeStep {
 
         this.pageRank = partitionRank;
         this.deltas = Arrays.copyOf(partitionRank, partitionSize);
+
+        double max = 0.0, sum = 0.0, squaredSum = 0.0;
+        for (double score : partitionRank) {
+            max = Math.max(max, score);
+            sum += score;
+            squaredSum += score * score;
+        }
+        this.maxScore = max;
+        this.scoreSum = sum;
+        this.squaredScoreSum = squaredSum;
+        this.squaredDeltaSum = squaredSum;
     }
 
     double initialValue() {
@@ -155,6 +167,11 @@ public abstract class HugeBaseComputeStep implements HugeComputeStep {
         int scoreDim = prevScores.length;
         int[][] prevScores = this.prevScores;
 
+        // the norms of the deltas and the scores are collected in the same pass,
+        // so that convergence and normalization don't need to look at every score again
+        double squaredDeltaSum = 0.0, squaredPreviousDeltaSum = 0.0, deltaProductSum = 0.0;
+        double maxScore = 0.0, scoreSum = 0.0, squaredScoreSum = 0.0;
+
         int length = prevScores[0].length;
         for (int i = 0; i < length; i++) {
             int sum = 0;
@@ -164,9 +181,25 @@ public abstract class HugeBaseComputeStep implements HugeComputeStep {
                 scores[i] = 0;
             }
             double delta = dampingFactor * (sum / 100_000.0);
-            pageRank[i] += delta;
+            double previousDelta = deltas[i];
+            double score = pageRank[i] + delta;
+            pageRank[i] = score;
             deltas[i] = delta;
+
+            squaredDeltaSum += delta * delta;
+            squaredPreviousDeltaSum += previousDelta * previousDelta;
+            deltaProductSum += delta * previousDelta;
+            maxScore = Math.max(maxScore, score);
+            scoreSum += score;
+            squaredScoreSum += score * score;
         }
+
+        this.squaredDeltaSum = squaredDeltaSum;
+        this.squaredPreviousDeltaSum = squaredPreviousDeltaSum;
+        this.deltaProductSum = deltaProductSum;
+        this.maxScore = maxScore;
+        this.scoreSum = scoreSum;
+        this.squaredScoreSum = squaredScoreSum;
     }
 
     public int[][] nextScores() {
@@ -182,4 +215,34 @@ public abstract class HugeBaseComputeStep implements HugeComputeStep {
     }
 
     public double[] deltas() { return deltas;}
+
+    @Override
+    public double squaredDeltaSum() {
+        return squaredDeltaSum;
+    }
+
+    @Override
+    public double squaredPreviousDeltaSum() {
+        return squaredPreviousDeltaSum;
+    }
+
+    @Override
+    public double deltaProductSum() {
+        return deltaProductSum;
+    }
+
+    @Override
+    public double maxScore() {
+        return maxScore;
+    }
+
+    @Override
+    public double scoreSum() {
+        return scoreSum;
+    }
+
+    @Override
+    public double squaredScoreSum() {
+        return squaredScoreSum;
+    }
 }
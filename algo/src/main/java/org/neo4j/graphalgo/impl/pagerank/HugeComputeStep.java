@@ -32,4 +32,25 @@ public interface HugeComputeStep extends Runnable {
     double[] deltas();
 
     void prepareNormalizeDeltas(double l2Norm);
+
+    /**
+     * @return sum of the squared deltas of the last iteration
+     */
+    double squaredDeltaSum();
+
+    /**
+     * @return sum of the squared deltas of the iteration before the last one
+     */
+    double squaredPreviousDeltaSum();
+
+    /**
+     * @return dot product of the deltas of the last two iterations
+     */
+    double deltaProductSum();
+
+    double maxScore();
+
+    double scoreSum();
+
+    double squaredScoreSum();
 }
@@ -61,7 +61,8 @@ final class HugeEigenvectorCentralityComputeStep extends HugeBaseComputeStep imp
         long endNode = this.endNode;
         HugeRelationshipIterator rels = this.relationshipIterator;
         for (long nodeId = startNode; nodeId < endNode; ++nodeId) {
-            double delta = deltas[(int) (nodeId - startNode)];
+            // deltas are normalized on the fly to keep the scores from growing
+            double delta = deltas[(int) (nodeId - startNode)] / l2Norm;
             if (delta > 0) {
                 int degree = degrees.degree(nodeId, Direction.OUTGOING);
                 if (degree > 0) {
@@ -80,12 +81,4 @@ final class HugeEigenvectorCentralityComputeStep extends HugeBaseComputeStep imp
         }
         return true;
     }
-
-    @Override
-    void normalizeDeltas() {
-        for (int i = 0; i < deltas.length; i++) {
-            deltas[i] = deltas[i] / l2Norm;
-        }
-    }
-
 }
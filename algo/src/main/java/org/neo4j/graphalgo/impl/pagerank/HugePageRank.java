@@ -22,20 +22,26 @@ import com.carrotsearch.hppc.IntArrayList;
 import com.carrotsearch.hppc.LongArrayList;
 import org.neo4j.collection.primitive.PrimitiveLongIterator;
 import org.neo4j.graphalgo.api.*;
+import org.neo4j.graphalgo.core.GraphDimensions;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+import org.neo4j.graphalgo.core.utils.metrics.IterationMetrics;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.impl.Algorithm;
 import org.neo4j.graphalgo.impl.results.CentralityResult;
 import org.neo4j.graphalgo.impl.results.DoubleArrayResult;
 import org.neo4j.graphalgo.impl.results.PartitionedDoubleArrayResult;
+import org.neo4j.graphalgo.impl.results.PrecomputedNormsCentralityResult;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.logging.Log;
 
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.LongStream;
 
 import static org.neo4j.graphalgo.core.utils.ArrayUtil.binaryLookup;
@@ -112,6 +118,7 @@ public class HugePageRank extends Algorithm<HugePageRank> implements PageRankAlg
 
     private Log log;
     private ComputeSteps computeSteps;
+    private int iterations;
 
     /**
      * Forces sequential use. If you want parallelism, prefer
@@ -163,17 +170,48 @@ public class HugePageRank extends Algorithm<HugePageRank> implements PageRankAlg
         this.pageRankVariant = pageRankVariant;
     }
 
+    /**
+     * Scores and deltas are shared, every compute step keeps the scores it received from all other steps.
+     * At least a single step is needed, the concurrency is throttled to the available memory.
+     */
+    public static MemoryEstimation memoryEstimation() {
+        return MemoryEstimations.builder(HugePageRank.class)
+                .perNode("scores", nodeCount -> nodeCount * (Double.BYTES << 1))
+                .perGraphDimension("computeSteps", (dimensions, concurrency) -> {
+                    long perStep = shallowSizeOfInstance(HugeBaseComputeStep.class) +
+                            dimensions.hugeNodeCount() * Integer.BYTES;
+                    return MemoryRange.of(perStep, Math.max(1, concurrency) * perStep);
+                })
+                .build();
+    }
+
     /**
      * compute pageRank for n iterations
      */
     @Override
     public HugePageRank compute(int iterations) {
-        assert iterations >= 1;
+        return compute(iterations, 0.0);
+    }
+
+    /**
+     * compute pageRank for at most n iterations, stopping once the
+     * L2 norm of the change between two iterations falls below the tolerance.
+     * For variants that normalize their deltas, the change of the normalized
+     * deltas is used instead.
+     */
+    @Override
+    public HugePageRank compute(int maxIterations, double tolerance) {
+        assert maxIterations >= 1;
         initializeSteps();
-        computeSteps.run(iterations);
+        iterations = computeSteps.run(maxIterations, tolerance);
         return this;
     }
 
+    @Override
+    public int iterations() {
+        return iterations;
+    }
+
     @Override
     public CentralityResult result() {
         return computeSteps.getPageRank();
@@ -197,6 +235,9 @@ public class HugePageRank extends Algorithm<HugePageRank> implements PageRankAlg
         if (computeSteps != null) {
             return;
         }
+        MemoryEstimations.assertFitsInFreeHeap(
+                memoryEstimation().estimate(GraphDimensions.of(idMapping.nodeCount(), 0L), concurrency),
+                "PageRank");
         List<Partition> partitions = partitionGraph(
                 adjustBatchSize(batchSize),
                 nodeIterator,
@@ -480,58 +521,95 @@ public class HugePageRank extends Algorithm<HugePageRank> implements PageRankAlg
 
         CentralityResult getPageRank() {
             HugeComputeStep firstStep = steps.get(0);
+            double max = 0.0, l1Norm = 0.0, l2Norm = 0.0;
+            for (HugeComputeStep step : steps) {
+                max = Math.max(max, step.maxScore());
+                l1Norm += step.scoreSum();
+                l2Norm += step.squaredScoreSum();
+            }
+            l2Norm = Math.sqrt(l2Norm);
+
+            final CentralityResult result;
             if (steps.size() > 1) {
                 double[][] results = new double[steps.size()][];
                 int i = 0;
                 for (HugeComputeStep step : steps) {
                     results[i++] = step.pageRank();
                 }
-                return new PartitionedDoubleArrayResult(results, firstStep.starts());
+                result = new PartitionedDoubleArrayResult(results, firstStep.starts());
             } else {
-                return new DoubleArrayResult(firstStep.pageRank());
+                result = new DoubleArrayResult(firstStep.pageRank());
             }
+            return new PrecomputedNormsCentralityResult(result, max, l1Norm, l2Norm);
         }
 
-        private void run(int iterations) {
+        private int run(int iterations, double tolerance) {
             final int operations = (iterations << 1) + 1;
+            final IterationMetrics metrics = IterationMetrics.of(
+                    pageRankVariant.getClass().getSimpleName().replace("Variant", ""));
             int op = 0;
-            ParallelUtil.runWithConcurrency(concurrency, steps, pool);
+            runSteps();
             getProgressLogger().logProgress(++op, operations, tracker);
-            for (int i = 0; i < iterations && running(); i++) {
+            int i;
+            for (i = 0; i < iterations && running(); i++) {
+                long start = System.nanoTime();
                 // calculate scores
-                ParallelUtil.runWithConcurrency(concurrency, steps, pool);
+                runSteps();
                 getProgressLogger().logProgress(++op, operations, tracker);
 
                 // sync scores
                 synchronizeScores();
-                ParallelUtil.runWithConcurrency(concurrency, steps, pool);
+                runSteps();
                 getProgressLogger().logProgress(++op, operations, tracker);
 
-                // normalize deltas
-                normalizeDeltas();
-                ParallelUtil.runWithConcurrency(concurrency, steps, pool);
-                getProgressLogger().logProgress(++op, operations, tracker);
+                double change = change();
+                metrics.iterationDone(start, change);
+                if (change < tolerance) {
+                    i++;
+                    break;
+                }
             }
+            return i;
         }
 
-        private void normalizeDeltas() {
-            double l2Norm = computeNorm();
+        private void runSteps() {
+            ParallelUtil.runWithConcurrency(
+                    concurrency,
+                    steps,
+                    Integer.MAX_VALUE,
+                    10L,
+                    TimeUnit.MICROSECONDS,
+                    pool);
+        }
 
+        /**
+         * Sums up the norms that every step collected during synchronization,
+         * hands the l2 norm of the deltas to the steps for the next iteration
+         * and returns the change between the last two iterations.
+         */
+        private double change() {
+            double squaredDeltaSum = 0.0, squaredPreviousDeltaSum = 0.0, deltaProductSum = 0.0;
             for (HugeComputeStep step : steps) {
-                step.prepareNormalizeDeltas(l2Norm);
+                squaredDeltaSum += step.squaredDeltaSum();
+                squaredPreviousDeltaSum += step.squaredPreviousDeltaSum();
+                deltaProductSum += step.deltaProductSum();
             }
-        }
+            double l2Norm = Math.sqrt(squaredDeltaSum);
 
-        private double computeNorm() {
-            double l2Norm = 0.0;
-            for (HugeComputeStep step : steps) {
-                double[] deltas = step.deltas();
-                l2Norm += Arrays.stream(deltas).parallel().map(score -> score * score).sum();
+            if (!pageRankVariant.normalizesDeltas()) {
+                return l2Norm;
             }
 
-            l2Norm = Math.sqrt(l2Norm);
-            l2Norm = l2Norm < 0 ? 1: l2Norm;
-            return l2Norm;
+            for (HugeComputeStep step : steps) {
+                step.prepareNormalizeDeltas(l2Norm > 0 ? l2Norm : 1.0);
+            }
+            double previousL2Norm = Math.sqrt(squaredPreviousDeltaSum);
+            if (l2Norm == 0.0 || previousL2Norm == 0.0) {
+                return 0.0;
+            }
+            // || d / |d| - p / |p| ||^2 == 2 - 2 * cos(d, p)
+            double cosine = deltaProductSum / (l2Norm * previousL2Norm);
+            return Math.sqrt(Math.max(0.0, 2.0 - 2.0 * cosine));
         }
 
         private void synchronizeScores() {
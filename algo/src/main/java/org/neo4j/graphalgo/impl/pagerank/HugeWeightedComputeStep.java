@@ -23,13 +23,14 @@ import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
 import org.neo4j.graphalgo.api.HugeRelationshipIterator;
 import org.neo4j.graphalgo.api.HugeRelationshipWeights;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
 import org.neo4j.graphdb.Direction;
 
 import static org.neo4j.graphalgo.core.utils.ArrayUtil.binaryLookup;
 
 public class HugeWeightedComputeStep extends HugeBaseComputeStep implements HugeRelationshipConsumer {
     private final HugeRelationshipWeights relationshipWeights;
-    private final double[] aggregatedDegrees;
+    private final DoubleArray aggregatedDegrees;
     private double sumOfWeights;
     private double delta;
 
@@ -51,7 +52,7 @@ public class HugeWeightedComputeStep extends HugeBaseComputeStep implements Huge
                 partitionSize,
                 startNode);
         this.relationshipWeights = relationshipWeights;
-        this.aggregatedDegrees = degreeCache.aggregatedDegrees();
+        this.aggregatedDegrees = degreeCache.hugeAggregatedDegrees();
     }
 
     void singleIteration() {
@@ -63,7 +64,7 @@ public class HugeWeightedComputeStep extends HugeBaseComputeStep implements Huge
             if (delta > 0) {
                 int degree = degrees.degree(nodeId, Direction.OUTGOING);
                 if (degree > 0) {
-                    sumOfWeights = aggregatedDegrees[(int) nodeId];
+                    sumOfWeights = aggregatedDegrees.get(nodeId);
                     rels.forEachRelationship(nodeId, Direction.OUTGOING, this);
                 }
             }
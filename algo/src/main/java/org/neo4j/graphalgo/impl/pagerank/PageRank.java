@@ -27,6 +27,7 @@ import org.neo4j.graphalgo.impl.Algorithm;
 import org.neo4j.graphalgo.impl.results.CentralityResult;
 import org.neo4j.graphalgo.impl.results.DoubleArrayResult;
 import org.neo4j.graphalgo.impl.results.PartitionedPrimitiveDoubleArrayResult;
+import org.neo4j.graphalgo.impl.results.PrecomputedNormsCentralityResult;
 import org.neo4j.graphdb.Direction;
 
 import java.util.*;
@@ -89,6 +90,7 @@ import java.util.stream.LongStream;
 public class PageRank extends Algorithm<PageRank> implements PageRankAlgorithm {
 
     private final ComputeSteps computeSteps;
+    private int iterations;
 
     /**
      * Forces sequential use. If you want parallelism, prefer
@@ -155,11 +157,27 @@ public class PageRank extends Algorithm<PageRank> implements PageRankAlgorithm {
      */
     @Override
     public PageRank compute(int iterations) {
-        assert iterations >= 1;
-        computeSteps.run(iterations);
+        return compute(iterations, 0.0);
+    }
+
+    /**
+     * compute pageRank for at most n iterations, stopping once the
+     * L2 norm of the change between two iterations falls below the tolerance.
+     * For variants that normalize their deltas, the change of the normalized
+     * deltas is used instead.
+     */
+    @Override
+    public PageRank compute(int maxIterations, double tolerance) {
+        assert maxIterations >= 1;
+        this.iterations = computeSteps.run(maxIterations, tolerance);
         return this;
     }
 
+    @Override
+    public int iterations() {
+        return iterations;
+    }
+
     @Override
     public CentralityResult result() {
         return computeSteps.getPageRank();
@@ -272,7 +290,7 @@ public class PageRank extends Algorithm<PageRank> implements PageRankAlgorithm {
         for (ComputeStep computeStep : computeSteps) {
             computeStep.setStarts(startArray, lengthArray);
         }
-        return new ComputeSteps(concurrency, computeSteps, pool);
+        return new ComputeSteps(concurrency, computeSteps, pool, pageRankVariant.normalizesDeltas());
     }
 
     @Override
@@ -320,50 +338,118 @@ public class PageRank extends Algorithm<PageRank> implements PageRankAlgorithm {
         private final int concurrency;
         private List<ComputeStep> steps;
         private final ExecutorService pool;
+        private final boolean normalizesDeltas;
         private int[][][] scores;
 
         private ComputeSteps(
                 int concurrency,
                 List<ComputeStep> steps,
-                ExecutorService pool) {
+                ExecutorService pool,
+                boolean normalizesDeltas) {
             assert !steps.isEmpty();
             this.concurrency = concurrency;
             this.steps = steps;
             this.pool = pool;
+            this.normalizesDeltas = normalizesDeltas;
             int stepSize = steps.size();
             scores = new int[stepSize][][];
             Arrays.setAll(scores, i -> new int[stepSize][]);
         }
 
         CentralityResult getPageRank() {
+            // the norms are collected in a single pass, so that normalizing the result needs no further one
+            double max = 0.0, l1Norm = 0.0, l2Norm = 0.0;
+            for (ComputeStep step : steps) {
+                for (double score : step.pageRank()) {
+                    max = Math.max(max, score);
+                    l1Norm += score;
+                    l2Norm += score * score;
+                }
+            }
+            l2Norm = Math.sqrt(l2Norm);
+
             ComputeStep firstStep = steps.get(0);
+            final CentralityResult result;
             if (steps.size() == 1) {
-                return new DoubleArrayResult(firstStep.pageRank());
-            }
-            double[][] results = new double[steps.size()][];
-            Iterator<ComputeStep> iterator = steps.iterator();
-            int i = 0;
-            while (iterator.hasNext()) {
-                results[i++] = iterator.next().pageRank();
+                result = new DoubleArrayResult(firstStep.pageRank());
+            } else {
+                double[][] results = new double[steps.size()][];
+                Iterator<ComputeStep> iterator = steps.iterator();
+                int i = 0;
+                while (iterator.hasNext()) {
+                    results[i++] = iterator.next().pageRank();
+                }
+                result = new PartitionedPrimitiveDoubleArrayResult(results, firstStep.starts());
             }
-            return new PartitionedPrimitiveDoubleArrayResult(results, firstStep.starts());
+            return new PrecomputedNormsCentralityResult(result, max, l1Norm, l2Norm);
         }
 
-        private void run(int iterations) {
+        private int run(int iterations, double tolerance) {
+            // normalized deltas are compared against those of the previous iteration, which are copied only if needed
+            boolean comparesDeltas = normalizesDeltas && tolerance > 0.0;
             // initialize data structures
-            ParallelUtil.runWithConcurrency(concurrency, steps, pool);
-            for (int iteration = 0; iteration < iterations && running(); iteration++) {
+            ParallelUtil.runWithConcurrency(concurrency, steps, 3, 1, TimeUnit.SECONDS, pool);
+            int iteration;
+            for (iteration = 0; iteration < iterations && running(); iteration++) {
                 // calculate scores
                 ParallelUtil.runWithConcurrency(concurrency, steps, 3, 1, TimeUnit.SECONDS, pool);
+                double[][] previousDeltas = comparesDeltas ? copyDeltas() : null;
 
                 // sync scores
                 synchronizeScores();
                 ParallelUtil.runWithConcurrency(concurrency, steps, 3, 1, TimeUnit.SECONDS, pool);
+                double change = change(previousDeltas);
 
                 // normalize deltas
                 normalizeDeltas(iteration);
                 ParallelUtil.runWithConcurrency(concurrency, steps, 3, 1, TimeUnit.SECONDS, pool);
+
+                if (change < tolerance) {
+                    iteration++;
+                    break;
+                }
+            }
+            return iteration;
+        }
+
+        private double[][] copyDeltas() {
+            double[][] deltas = new double[steps.size()][];
+            for (int i = 0; i < deltas.length; i++) {
+                double[] stepDeltas = steps.get(i).deltas();
+                deltas[i] = Arrays.copyOf(stepDeltas, stepDeltas.length);
+            }
+            return deltas;
+        }
+
+        /**
+         * @param previousDeltas the normalized deltas of the previous iteration, or {@code null}
+         *                       to return the L2 norm of the deltas
+         * @return the change between the last two iterations
+         */
+        private double change(double[][] previousDeltas) {
+            double squaredDeltaSum = 0.0, squaredPreviousDeltaSum = 0.0, deltaProductSum = 0.0;
+            for (int i = 0; i < steps.size(); i++) {
+                double[] deltas = steps.get(i).deltas();
+                double[] previous = previousDeltas == null ? null : previousDeltas[i];
+                for (int j = 0; j < deltas.length; j++) {
+                    squaredDeltaSum += deltas[j] * deltas[j];
+                    if (previous != null) {
+                        squaredPreviousDeltaSum += previous[j] * previous[j];
+                        deltaProductSum += deltas[j] * previous[j];
+                    }
+                }
+            }
+            double l2Norm = Math.sqrt(squaredDeltaSum);
+            if (previousDeltas == null) {
+                return l2Norm;
+            }
+            double previousL2Norm = Math.sqrt(squaredPreviousDeltaSum);
+            if (l2Norm == 0.0 || previousL2Norm == 0.0) {
+                return 0.0;
             }
+            // || d / |d| - p / |p| ||^2 == 2 - 2 * cos(d, p)
+            double cosine = deltaProductSum / (l2Norm * previousL2Norm);
+            return Math.sqrt(Math.max(0.0, 2.0 - 2.0 * cosine));
         }
 
         private void normalizeDeltas(int iteration) {
@@ -42,6 +42,17 @@ public interface PageRankAlgorithm {
 
     PageRankAlgorithm compute(int iterations);
 
+    /**
+     * Computes at most {@code maxIterations} iterations and stops early
+     * once the change between two iterations drops below {@code tolerance}.
+     */
+    PageRankAlgorithm compute(int maxIterations, double tolerance);
+
+    /**
+     * @return number of iterations that were actually computed
+     */
+    int iterations();
+
     CentralityResult result();
 
     Algorithm<?> algorithm();
@@ -36,6 +36,13 @@ public interface PageRankVariant {
 
     DegreeComputer degreeComputer(Graph graph);
 
+    /**
+     * @return true if the deltas are l2-normalized between iterations
+     */
+    default boolean normalizesDeltas() {
+        return false;
+    }
+
 }
 
 
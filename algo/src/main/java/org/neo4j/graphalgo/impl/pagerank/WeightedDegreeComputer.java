@@ -19,6 +19,9 @@
 package org.neo4j.graphalgo.impl.pagerank;
 
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.impl.degree.HugeDegreeCentrality;
 import org.neo4j.graphalgo.impl.degree.WeightedDegreeCentrality;
 import org.neo4j.graphdb.Direction;
 
@@ -36,6 +39,17 @@ public class WeightedDegreeComputer implements DegreeComputer {
 
     @Override
     public DegreeCache degree(ExecutorService executor, int concurrency) {
+        if (graph instanceof HugeGraph) {
+            HugeDegreeCentrality degreeCentrality = new HugeDegreeCentrality(
+                    (HugeGraph) graph,
+                    executor,
+                    concurrency,
+                    Direction.OUTGOING,
+                    true,
+                    AllocationTracker.EMPTY);
+            degreeCentrality.compute();
+            return new DegreeCache(degreeCentrality.degrees(), -1D);
+        }
         WeightedDegreeCentrality degreeCentrality = new WeightedDegreeCentrality(graph, executor, concurrency, Direction.OUTGOING);
         degreeCentrality.compute(cacheWeights);
         return new DegreeCache(degreeCentrality.degrees(), degreeCentrality.weights(), -1D);
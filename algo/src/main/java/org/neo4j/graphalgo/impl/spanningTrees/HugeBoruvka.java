@@ -0,0 +1,251 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.spanningTrees;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeRelationshipIterator;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicDisjointSetStruct;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicLongArray;
+import org.neo4j.graphalgo.impl.Algorithm;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Parallel minimum/maximum weight spanning forest algorithm (Borůvka) for huge graphs.
+ * <p>
+ * Every round each node looks for its cheapest edge leaving its component,
+ * the cheapest of those per component is selected with a CAS and all selected
+ * edges are contracted through a lock-free disjoint set struct.
+ * Ties are broken by the node ids of the edge, so that the selected edges never form a cycle.
+ * The number of components at least halves every round.
+ */
+public final class HugeBoruvka extends Algorithm<HugeBoruvka> {
+
+    private static final long MIN_BATCH_SIZE = 10_000L;
+
+    private final HugeGraph graph;
+    private final long nodeCount;
+    private final int concurrency;
+    private final ExecutorService executor;
+    private final AllocationTracker tracker;
+
+    private HugeSpanningForest spanningForest;
+
+    public HugeBoruvka(
+            HugeGraph graph,
+            int concurrency,
+            ExecutorService executor,
+            AllocationTracker tracker) {
+        this.graph = graph;
+        this.nodeCount = graph.nodeCount();
+        this.concurrency = concurrency;
+        this.executor = executor;
+        this.tracker = tracker;
+    }
+
+    public HugeBoruvka computeMinimumSpanningForest() {
+        spanningForest = boruvka(false);
+        return this;
+    }
+
+    public HugeBoruvka computeMaximumSpanningForest() {
+        spanningForest = boruvka(true);
+        return this;
+    }
+
+    public HugeSpanningForest getSpanningForest() {
+        return spanningForest;
+    }
+
+    private HugeSpanningForest boruvka(boolean max) {
+        final long maxEdges = Math.max(0L, nodeCount - 1L);
+        final HugeLongArray sources = HugeLongArray.newArray(maxEdges, tracker);
+        final HugeLongArray targets = HugeLongArray.newArray(maxEdges, tracker);
+        final DoubleArray weights = DoubleArray.newArray(maxEdges, tracker);
+        final AtomicLong edgeCount = new AtomicLong();
+
+        final PagedAtomicDisjointSetStruct components = new PagedAtomicDisjointSetStruct(nodeCount, tracker);
+        final HugeLongArray component = HugeLongArray.newArray(nodeCount, tracker);
+        final DoubleArray bestCost = DoubleArray.newArray(nodeCount, tracker);
+        final HugeLongArray bestTarget = HugeLongArray.newArray(nodeCount, tracker);
+        final PagedAtomicLongArray componentBest = PagedAtomicLongArray.newArray(nodeCount, tracker);
+
+        final Edges edges = new Edges(bestCost, bestTarget);
+
+        long addedEdges;
+        do {
+            // label every node with its current component, reset the selection
+            run((iterator, start, end) -> {
+                for (long node = start; node < end; node++) {
+                    component.set(node, components.find(node));
+                    componentBest.set(node, -1L);
+                }
+            });
+
+            // cheapest outgoing edge per node, merged into the cheapest per component
+            run((iterator, start, end) -> {
+                for (long node = start; node < end; node++) {
+                    final long nodeComponent = component.get(node);
+                    bestTarget.set(node, -1L);
+                    iterator.forEachRelationship(node, Direction.OUTGOING, (s, t, w) -> {
+                        if (component.get(t) == nodeComponent) {
+                            return true;
+                        }
+                        // invert weight to calculate maximum
+                        final double cost = max ? -w : w;
+                        if (edges.isCheaper(cost, s, t, s)) {
+                            bestCost.set(s, cost);
+                            bestTarget.set(s, t);
+                        }
+                        return true;
+                    });
+                    if (bestTarget.get(node) == -1L) {
+                        continue;
+                    }
+                    while (true) {
+                        final long current = componentBest.get(nodeComponent);
+                        if (current != -1L && !edges.isCheaper(node, current)) {
+                            break;
+                        }
+                        if (componentBest.cas(nodeComponent, current, node)) {
+                            break;
+                        }
+                    }
+                }
+            });
+
+            // contract the selected edges, mutual selections are added only once
+            final long before = edgeCount.get();
+            run((iterator, start, end) -> {
+                for (long node = start; node < end; node++) {
+                    final long source = componentBest.get(node);
+                    if (source == -1L) {
+                        continue;
+                    }
+                    final long target = bestTarget.get(source);
+                    if (components.union(source, target)) {
+                        final long index = edgeCount.getAndIncrement();
+                        final double cost = bestCost.get(source);
+                        sources.set(index, source);
+                        targets.set(index, target);
+                        weights.set(index, max ? -cost : cost);
+                    }
+                }
+            });
+            addedEdges = edgeCount.get() - before;
+            getProgressLogger().logProgress(edgeCount.get(), maxEdges);
+        } while (addedEdges > 0L && running());
+
+        return new HugeSpanningForest(
+                nodeCount,
+                max,
+                sources,
+                targets,
+                weights,
+                edgeCount.get(),
+                components,
+                tracker);
+    }
+
+    private void run(NodeTask task) {
+        final long batchSize = ParallelUtil.adjustBatchSize(nodeCount, concurrency, MIN_BATCH_SIZE);
+        final List<Runnable> tasks = new ArrayList<>();
+        for (long start = 0L; start < nodeCount; start += batchSize) {
+            final long from = start;
+            final long to = Math.min(nodeCount, start + batchSize);
+            final HugeRelationshipIterator iterator = graph.concurrentCopy();
+            tasks.add(() -> task.run(iterator, from, to));
+        }
+        ParallelUtil.runWithConcurrency(
+                concurrency,
+                tasks,
+                Integer.MAX_VALUE,
+                10L,
+                TimeUnit.MICROSECONDS,
+                terminationFlag,
+                executor);
+    }
+
+    @Override
+    public HugeBoruvka me() {
+        return this;
+    }
+
+    @Override
+    public HugeBoruvka release() {
+        spanningForest = null;
+        return this;
+    }
+
+    @FunctionalInterface
+    private interface NodeTask {
+        void run(HugeRelationshipIterator iterator, long start, long end);
+    }
+
+    /**
+     * Total order of edges by cost and then by their (unordered) node ids.
+     */
+    private static final class Edges {
+        private final DoubleArray bestCost;
+        private final HugeLongArray bestTarget;
+
+        private Edges(DoubleArray bestCost, HugeLongArray bestTarget) {
+            this.bestCost = bestCost;
+            this.bestTarget = bestTarget;
+        }
+
+        /**
+         * @return true if the edge (s, t) is cheaper than the best edge of {@code node}
+         */
+        boolean isCheaper(double cost, long s, long t, long node) {
+            final long target = bestTarget.get(node);
+            return target == -1L || compare(cost, s, t, bestCost.get(node), node, target) < 0;
+        }
+
+        /**
+         * @return true if the best edge of {@code node} is cheaper than the best edge of {@code other}
+         */
+        boolean isCheaper(long node, long other) {
+            return compare(
+                    bestCost.get(node), node, bestTarget.get(node),
+                    bestCost.get(other), other, bestTarget.get(other)) < 0;
+        }
+
+        private static int compare(double cost1, long s1, long t1, double cost2, long s2, long t2) {
+            int result = Double.compare(cost1, cost2);
+            if (result != 0) {
+                return result;
+            }
+            result = Long.compare(Math.min(s1, t1), Math.min(s2, t2));
+            if (result != 0) {
+                return result;
+            }
+            return Long.compare(Math.max(s1, t1), Math.max(s2, t2));
+        }
+    }
+}
@@ -0,0 +1,231 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.spanningTrees;
+
+import org.neo4j.graphalgo.api.HugeWeightedRelationshipConsumer;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicDisjointSetStruct;
+import org.neo4j.graphalgo.core.write.PropertyTranslator;
+
+import java.util.Arrays;
+
+/**
+ * Minimum (or maximum) spanning forest as a list of edges in paged arrays,
+ * together with the components that the edges span.
+ */
+public final class HugeSpanningForest {
+
+    private final long nodeCount;
+    private final boolean max;
+    private final HugeLongArray sources;
+    private final HugeLongArray targets;
+    private final DoubleArray weights;
+    private final long edgeCount;
+    private final PagedAtomicDisjointSetStruct components;
+    private final AllocationTracker tracker;
+
+    // number of edges per tree, indexed by the component, counted on first use
+    private HugeLongArray treeEdges;
+
+    HugeSpanningForest(
+            long nodeCount,
+            boolean max,
+            HugeLongArray sources,
+            HugeLongArray targets,
+            DoubleArray weights,
+            long edgeCount,
+            PagedAtomicDisjointSetStruct components,
+            AllocationTracker tracker) {
+        this.nodeCount = nodeCount;
+        this.max = max;
+        this.sources = sources;
+        this.targets = targets;
+        this.weights = weights;
+        this.edgeCount = edgeCount;
+        this.components = components;
+        this.tracker = tracker;
+    }
+
+    public long edgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * @return the smallest node id of the tree that contains the given node
+     */
+    public long component(long nodeId) {
+        return components.find(nodeId);
+    }
+
+    /**
+     * @return number of nodes in the tree that contains the given node
+     */
+    public long treeSize(long nodeId) {
+        return treeEdges().get(component(nodeId)) + 1L;
+    }
+
+    private HugeLongArray treeEdges() {
+        if (treeEdges == null) {
+            HugeLongArray counts = HugeLongArray.newArray(nodeCount, tracker);
+            for (long i = 0L; i < edgeCount; i++) {
+                counts.addTo(component(sources.get(i)), 1L);
+            }
+            treeEdges = counts;
+        }
+        return treeEdges;
+    }
+
+    public void forEach(HugeWeightedRelationshipConsumer consumer) {
+        for (long i = 0L; i < edgeCount; i++) {
+            if (!consumer.accept(sources.get(i), targets.get(i), weights.get(i))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * iterates the edges of the tree that contains the given node
+     */
+    public void forEachInTree(long nodeId, HugeWeightedRelationshipConsumer consumer) {
+        final long component = component(nodeId);
+        forEach((source, target, weight) ->
+                component(source) != component || consumer.accept(source, target, weight));
+    }
+
+    /**
+     * Extracts the tree that contains {@code root} and cuts it into {@code k}
+     * trees by removing its {@code k - 1} heaviest edges (the lightest ones
+     * for a maximum spanning forest). All other nodes become single node trees.
+     */
+    public HugeSpanningForest kSpanningTree(long root, int k, AllocationTracker tracker) {
+        long rootComponent = component(root);
+        long treeEdges = treeEdges().get(rootComponent);
+
+        // collect the edges of the tree once instead of searching them again for every step
+        HugeLongArray edges = HugeLongArray.newArray(treeEdges, tracker);
+        for (long i = 0L, edge = 0L; edge < treeEdges; i++) {
+            if (component(sources.get(i)) == rootComponent) {
+                edges.set(edge++, i);
+            }
+        }
+
+        long cut = Math.max(0L, Math.min(k - 1L, treeEdges));
+        long[] cutEdges = heaviestEdges(edges, treeEdges, (int) cut);
+        Arrays.sort(cutEdges);
+
+        HugeLongArray newSources = HugeLongArray.newArray(Math.max(0L, treeEdges - cut), tracker);
+        HugeLongArray newTargets = HugeLongArray.newArray(Math.max(0L, treeEdges - cut), tracker);
+        DoubleArray newWeights = DoubleArray.newArray(Math.max(0L, treeEdges - cut), tracker);
+        PagedAtomicDisjointSetStruct newComponents = new PagedAtomicDisjointSetStruct(nodeCount, tracker);
+        long newEdgeCount = 0L;
+        for (long edge = 0L; edge < treeEdges; edge++) {
+            long i = edges.get(edge);
+            if (Arrays.binarySearch(cutEdges, i) >= 0) {
+                continue;
+            }
+            long source = sources.get(i);
+            long target = targets.get(i);
+            newSources.set(newEdgeCount, source);
+            newTargets.set(newEdgeCount, target);
+            newWeights.set(newEdgeCount, weights.get(i));
+            newComponents.union(source, target);
+            newEdgeCount++;
+        }
+        tracker.remove(edges.release());
+
+        return new HugeSpanningForest(
+                nodeCount,
+                max,
+                newSources,
+                newTargets,
+                newWeights,
+                newEdgeCount,
+                newComponents,
+                tracker);
+    }
+
+    // bounded min-heap of the `count` heaviest edge indices
+    private long[] heaviestEdges(HugeLongArray edges, long edgeCount, int count) {
+        long[] heap = new long[count];
+        int size = 0;
+        for (long edge = 0L; edge < edgeCount && count > 0; edge++) {
+            long i = edges.get(edge);
+            if (size < count) {
+                heap[size] = i;
+                siftUp(heap, size++);
+            } else if (cost(i) > cost(heap[0])) {
+                heap[0] = i;
+                siftDown(heap, size);
+            }
+        }
+        return heap;
+    }
+
+    private double cost(long edge) {
+        return max ? -weights.get(edge) : weights.get(edge);
+    }
+
+    private void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (cost(heap[parent]) <= cost(heap[index])) {
+                return;
+            }
+            swap(heap, parent, index);
+            index = parent;
+        }
+    }
+
+    private void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            int left = 2 * index + 1;
+            int right = left + 1;
+            if (left < size && cost(heap[left]) < cost(heap[smallest])) {
+                smallest = left;
+            }
+            if (right < size && cost(heap[right]) < cost(heap[smallest])) {
+                smallest = right;
+            }
+            if (smallest == index) {
+                return;
+            }
+            swap(heap, smallest, index);
+            index = smallest;
+        }
+    }
+
+    private static void swap(long[] heap, int a, int b) {
+        long tmp = heap[a];
+        heap[a] = heap[b];
+        heap[b] = tmp;
+    }
+
+    public static final PropertyTranslator<HugeSpanningForest> TRANSLATOR = new ComponentTranslator();
+
+    public static class ComponentTranslator implements PropertyTranslator.OfLong<HugeSpanningForest> {
+        @Override
+        public long toLong(final HugeSpanningForest data, final long nodeId) {
+            return data.component(nodeId);
+        }
+    }
+}
@@ -133,7 +133,7 @@ public class Prim extends Algorithm<Prim> {
         public Result(long loadMillis,
                       long computeMillis,
                       long writeMillis,
-                      int effectiveNodeCount) {
+                      long effectiveNodeCount) {
             this.loadMillis = loadMillis;
             this.computeMillis = computeMillis;
             this.writeMillis = writeMillis;
@@ -143,9 +143,9 @@ public class Prim extends Algorithm<Prim> {
 
     public static class Builder extends AbstractResultBuilder<Result> {
 
-        protected int effectiveNodeCount;
+        protected long effectiveNodeCount;
 
-        public Builder withEffectiveNodeCount(int effectiveNodeCount) {
+        public Builder withEffectiveNodeCount(long effectiveNodeCount) {
             this.effectiveNodeCount = effectiveNodeCount;
             return this;
         }
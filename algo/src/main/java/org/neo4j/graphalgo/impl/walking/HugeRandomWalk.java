@@ -0,0 +1,511 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.walking;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeRelationshipIterator;
+import org.neo4j.graphalgo.core.utils.AsyncStream;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.DoubleArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.impl.Algorithm;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Random walk engine for the {@link HugeGraph}.
+ * <p>
+ * The adjacency of the graph is flattened once into paged arrays, sorted by
+ * target per node. For weighted graphs, an alias table (Vose's method) is
+ * built for every node, so that a first-order step is O(1) regardless
+ * of the degree. Second-order (node2vec) steps use rejection sampling on top
+ * of the first-order distribution and only need a binary search into the
+ * neighbours of the previous node to check adjacency.
+ * <p>
+ * Walkers run in parallel and write walks into primitive {@link Walks} buffers
+ * that are either handed to a {@link Consumer} for bulk export or streamed.
+ * <p>
+ * The flattened adjacency takes 8 bytes per relationship, plus 16 bytes for
+ * the alias table if the walk is weighted.
+ */
+public final class HugeRandomWalk extends Algorithm<HugeRandomWalk> {
+
+    private static final long MIN_BATCH_SIZE = 1_000L;
+    private static final int WALKS_PER_BUFFER = 1_000;
+    private static final int QUEUE_SIZE = 100;
+
+    private final HugeGraph graph;
+    private final Direction direction;
+    private final boolean weighted;
+    private final double returnParam;
+    private final double inOutParam;
+    private final int concurrency;
+    private final ExecutorService executor;
+    private final AllocationTracker tracker;
+
+    private HugeLongArray offsets;
+    private HugeLongArray targets;
+    private DoubleArray probabilities;
+    private HugeLongArray aliases;
+
+    /**
+     * @param weighted    whether relationship weights are used as transition probabilities
+     * @param returnParam the node2vec return parameter {@code p}
+     * @param inOutParam  the node2vec in-out parameter {@code q}; a walk with {@code p == q == 1} is first-order
+     */
+    public HugeRandomWalk(
+            HugeGraph graph,
+            Direction direction,
+            boolean weighted,
+            double returnParam,
+            double inOutParam,
+            int concurrency,
+            ExecutorService executor,
+            AllocationTracker tracker) {
+        this.graph = graph;
+        this.direction = direction;
+        this.weighted = weighted;
+        this.returnParam = returnParam;
+        this.inOutParam = inOutParam;
+        this.concurrency = concurrency;
+        this.executor = executor;
+        this.tracker = tracker;
+    }
+
+    /**
+     * Flattens the adjacency and builds the alias tables.
+     * Must be called once before any walks are computed.
+     */
+    public HugeRandomWalk prepare() {
+        long nodeCount = graph.nodeCount();
+        offsets = HugeLongArray.newArray(nodeCount + 1, tracker);
+        long relationshipCount = 0L;
+        for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+            offsets.set(nodeId, relationshipCount);
+            relationshipCount += graph.degree(nodeId, direction);
+        }
+        offsets.set(nodeCount, relationshipCount);
+
+        targets = HugeLongArray.newArray(relationshipCount, tracker);
+        if (weighted) {
+            probabilities = DoubleArray.newArray(relationshipCount, tracker);
+            aliases = HugeLongArray.newArray(relationshipCount, tracker);
+        }
+
+        long batchSize = ParallelUtil.adjustBatchSize(nodeCount, concurrency, MIN_BATCH_SIZE);
+        List<Runnable> tasks = new ArrayList<>();
+        for (long start = 0L; start < nodeCount; start += batchSize) {
+            tasks.add(new PrepareTask(start, Math.min(nodeCount, start + batchSize)));
+        }
+        ParallelUtil.runWithConcurrency(
+                concurrency,
+                tasks,
+                Integer.MAX_VALUE,
+                10L,
+                TimeUnit.MICROSECONDS,
+                terminationFlag,
+                executor);
+        return this;
+    }
+
+    /**
+     * Computes {@code walkCount} walks of {@code steps} steps in parallel.
+     * Filled buffers are passed to the consumer from the walker threads.
+     *
+     * @param startNode maps the walk index to the mapped node id where the walk starts
+     */
+    public void compute(long walkCount, LongUnaryOperator startNode, int steps, Consumer<Walks> consumer) {
+        long batchSize = ParallelUtil.adjustBatchSize(walkCount, concurrency, MIN_BATCH_SIZE);
+        List<Runnable> tasks = new ArrayList<>();
+        for (long start = 0L; start < walkCount; start += batchSize) {
+            tasks.add(new WalkTask(start, Math.min(walkCount, start + batchSize), startNode, steps, walks -> {
+                consumer.accept(walks);
+                return true;
+            }));
+        }
+        ParallelUtil.runWithConcurrency(
+                concurrency,
+                tasks,
+                Integer.MAX_VALUE,
+                10L,
+                TimeUnit.MICROSECONDS,
+                terminationFlag,
+                executor);
+    }
+
+    /**
+     * Computes walks in the background and streams them as arrays of original node ids.
+     * The walkers wait for the consumer, they run on the stream pool instead of the executor.
+     */
+    public Stream<long[]> stream(long walkCount, LongUnaryOperator startNode, int steps) {
+        long batchSize = ParallelUtil.adjustBatchSize(walkCount, concurrency, MIN_BATCH_SIZE);
+        List<AsyncStream.Producer<Walks>> producers = new ArrayList<>();
+        for (long start = 0L; start < walkCount; start += batchSize) {
+            long from = start;
+            long to = Math.min(walkCount, start + batchSize);
+            // the buffers of walks are batches already
+            producers.add(sink -> new WalkTask(from, to, startNode, steps, sink::emit).run());
+        }
+        return AsyncStream.<Walks>builder()
+                .withConcurrency(concurrency)
+                .withTerminationFlag(terminationFlag)
+                .withBatchSize(1)
+                .withCapacity(QUEUE_SIZE)
+                .stream(producers)
+                .flatMap(Walks::stream);
+    }
+
+    @Override
+    public HugeRandomWalk me() {
+        return this;
+    }
+
+    @Override
+    public HugeRandomWalk release() {
+        offsets = null;
+        targets = null;
+        probabilities = null;
+        aliases = null;
+        return this;
+    }
+
+    /**
+     * A batch of walks in a flat primitive buffer. Every walk occupies
+     * {@code steps + 1} slots, walks that hit a dead end are shorter.
+     */
+    public static final class Walks {
+        private final int stride;
+        private final long[] nodes;
+        private final int[] lengths;
+        private int size;
+
+        Walks(int capacity, int steps) {
+            this.stride = steps + 1;
+            this.nodes = new long[capacity * stride];
+            this.lengths = new int[capacity];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        /**
+         * @return the number of nodes in the walk at the given index
+         */
+        public int length(int index) {
+            return lengths[index];
+        }
+
+        /**
+         * @return the original node id at the given position of the walk at the given index
+         */
+        public long nodeAt(int index, int position) {
+            return nodes[index * stride + position];
+        }
+
+        public long[] walk(int index) {
+            int offset = index * stride;
+            return Arrays.copyOfRange(nodes, offset, offset + lengths[index]);
+        }
+
+        public Stream<long[]> stream() {
+            Stream.Builder<long[]> builder = Stream.builder();
+            for (int i = 0; i < size; i++) {
+                builder.add(walk(i));
+            }
+            return builder.build();
+        }
+
+        private boolean isFull() {
+            return size == lengths.length;
+        }
+    }
+
+    private final class PrepareTask implements Runnable {
+        private final long start;
+        private final long end;
+        private final HugeRelationshipIterator iterator;
+        private long[] outTargets = new long[0];
+        private double[] outWeights = new double[0];
+        private long[] inTargets = new long[0];
+        private double[] inWeights = new double[0];
+        private double[] scaled = new double[0];
+        private int[] small = new int[0];
+        private int[] large = new int[0];
+        private int outCount;
+        private int inCount;
+
+        private PrepareTask(long start, long end) {
+            this.start = start;
+            this.end = end;
+            this.iterator = graph.concurrentCopy();
+        }
+
+        @Override
+        public void run() {
+            for (long nodeId = start; nodeId < end && running(); nodeId++) {
+                long offset = offsets.get(nodeId);
+                int degree = (int) (offsets.get(nodeId + 1) - offset);
+                if (degree == 0) {
+                    continue;
+                }
+                collect(nodeId, degree);
+                merge(offset);
+                if (weighted) {
+                    buildAliasTable(offset, degree);
+                }
+            }
+        }
+
+        private void collect(long nodeId, int degree) {
+            outCount = 0;
+            inCount = 0;
+            if (outTargets.length < degree) {
+                outTargets = new long[degree];
+                outWeights = new double[degree];
+                inTargets = new long[degree];
+                inWeights = new double[degree];
+            }
+            if (direction != Direction.INCOMING) {
+                if (weighted) {
+                    iterator.forEachRelationship(nodeId, Direction.OUTGOING, (source, target, weight) -> {
+                        outWeights[outCount] = weight;
+                        outTargets[outCount++] = target;
+                        return true;
+                    });
+                } else {
+                    iterator.forEachRelationship(nodeId, Direction.OUTGOING, (source, target) -> {
+                        outTargets[outCount++] = target;
+                        return true;
+                    });
+                }
+            }
+            if (direction != Direction.OUTGOING) {
+                if (weighted) {
+                    iterator.forEachRelationship(nodeId, Direction.INCOMING, (source, target, weight) -> {
+                        inWeights[inCount] = weight;
+                        inTargets[inCount++] = target;
+                        return true;
+                    });
+                } else {
+                    iterator.forEachRelationship(nodeId, Direction.INCOMING, (source, target) -> {
+                        inTargets[inCount++] = target;
+                        return true;
+                    });
+                }
+            }
+        }
+
+        // both adjacency lists are sorted, merging keeps the targets of a node sorted
+        private void merge(long offset) {
+            int o = 0, i = 0;
+            long index = offset;
+            while (o < outCount || i < inCount) {
+                boolean takeOut = i == inCount || (o < outCount && outTargets[o] <= inTargets[i]);
+                if (takeOut) {
+                    targets.set(index, outTargets[o]);
+                    if (weighted) {
+                        probabilities.set(index, outWeights[o]);
+                    }
+                    o++;
+                } else {
+                    targets.set(index, inTargets[i]);
+                    if (weighted) {
+                        probabilities.set(index, inWeights[i]);
+                    }
+                    i++;
+                }
+                index++;
+            }
+        }
+
+        // Vose's alias method, weights are read from and probabilities written back to the same slots
+        private void buildAliasTable(long offset, int degree) {
+            if (scaled.length < degree) {
+                scaled = new double[degree];
+                small = new int[degree];
+                large = new int[degree];
+            }
+            double sum = 0.0;
+            for (int i = 0; i < degree; i++) {
+                sum += Math.max(0.0, probabilities.get(offset + i));
+            }
+            int smallCount = 0, largeCount = 0;
+            for (int i = 0; i < degree; i++) {
+                double weight = Math.max(0.0, probabilities.get(offset + i));
+                scaled[i] = sum > 0.0 ? weight * degree / sum : 1.0;
+                if (scaled[i] < 1.0) {
+                    small[smallCount++] = i;
+                } else {
+                    large[largeCount++] = i;
+                }
+            }
+            while (smallCount > 0 && largeCount > 0) {
+                int less = small[--smallCount];
+                int more = large[--largeCount];
+                probabilities.set(offset + less, scaled[less]);
+                aliases.set(offset + less, more);
+                scaled[more] = (scaled[more] + scaled[less]) - 1.0;
+                if (scaled[more] < 1.0) {
+                    small[smallCount++] = more;
+                } else {
+                    large[largeCount++] = more;
+                }
+            }
+            while (largeCount > 0) {
+                int index = large[--largeCount];
+                probabilities.set(offset + index, 1.0);
+                aliases.set(offset + index, index);
+            }
+            while (smallCount > 0) {
+                int index = small[--smallCount];
+                probabilities.set(offset + index, 1.0);
+                aliases.set(offset + index, index);
+            }
+        }
+    }
+
+    private final class WalkTask implements Runnable {
+        private final long start;
+        private final long end;
+        private final LongUnaryOperator startNode;
+        private final int steps;
+        private final Predicate<Walks> consumer;
+        private final boolean secondOrder;
+        private final double maxBias;
+        private final double returnBias;
+        private final double inOutBias;
+
+        /**
+         * @param consumer receives the full buffers and returns false to stop the task
+         */
+        private WalkTask(long start, long end, LongUnaryOperator startNode, int steps, Predicate<Walks> consumer) {
+            this.start = start;
+            this.end = end;
+            this.startNode = startNode;
+            this.steps = steps;
+            this.consumer = consumer;
+            this.secondOrder = returnParam != 1.0 || inOutParam != 1.0;
+            this.returnBias = 1.0 / returnParam;
+            this.inOutBias = 1.0 / inOutParam;
+            this.maxBias = Math.max(1.0, Math.max(returnBias, inOutBias));
+        }
+
+        @Override
+        public void run() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            Walks walks = new Walks((int) Math.min(WALKS_PER_BUFFER, end - start), steps);
+            for (long walkIndex = start; walkIndex < end && running(); walkIndex++) {
+                walk(startNode.applyAsLong(walkIndex), walks, random);
+                if (walks.isFull()) {
+                    if (!consumer.test(walks)) {
+                        return;
+                    }
+                    walks = new Walks((int) Math.min(WALKS_PER_BUFFER, end - walkIndex - 1), steps);
+                }
+            }
+            if (walks.size > 0) {
+                consumer.test(walks);
+            }
+        }
+
+        private void walk(long startNodeId, Walks walks, ThreadLocalRandom random) {
+            int offset = walks.size * walks.stride;
+            long[] nodes = walks.nodes;
+            nodes[offset] = graph.toOriginalNodeId(startNodeId);
+            int length = 1;
+            long previous = startNodeId;
+            long current = startNodeId;
+            for (int i = 1; i <= steps; i++) {
+                long next = length == 1 || !secondOrder
+                        ? firstOrderStep(current, random)
+                        : secondOrderStep(previous, current, random);
+                if (next == -1L) {
+                    // end walk when there is no way out and return only the start node
+                    length = 1;
+                    break;
+                }
+                nodes[offset + length++] = graph.toOriginalNodeId(next);
+                previous = current;
+                current = next;
+            }
+            walks.lengths[walks.size++] = length;
+        }
+
+        private long firstOrderStep(long nodeId, ThreadLocalRandom random) {
+            long offset = offsets.get(nodeId);
+            long degree = offsets.get(nodeId + 1) - offset;
+            if (degree == 0L) {
+                return -1L;
+            }
+            long index = offset + random.nextLong(degree);
+            if (weighted && random.nextDouble() >= probabilities.get(index)) {
+                index = offset + aliases.get(index);
+            }
+            return targets.get(index);
+        }
+
+        private long secondOrderStep(long previous, long current, ThreadLocalRandom random) {
+            while (true) {
+                long candidate = firstOrderStep(current, random);
+                if (candidate == -1L) {
+                    return -1L;
+                }
+                double bias = random.nextDouble() * maxBias;
+                if (candidate == previous) {
+                    if (bias < returnBias) {
+                        return candidate;
+                    }
+                } else if (bias < Math.min(1.0, inOutBias)) {
+                    return candidate;
+                } else if (bias < (isNeighbour(previous, candidate) ? 1.0 : inOutBias)) {
+                    return candidate;
+                }
+            }
+        }
+
+        private boolean isNeighbour(long nodeId, long candidate) {
+            long low = offsets.get(nodeId);
+            long high = offsets.get(nodeId + 1) - 1L;
+            while (low <= high) {
+                long mid = (low + high) >>> 1;
+                long target = targets.get(mid);
+                if (target < candidate) {
+                    low = mid + 1L;
+                } else if (target > candidate) {
+                    high = mid - 1L;
+                } else {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
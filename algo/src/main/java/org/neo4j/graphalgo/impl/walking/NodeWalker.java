@@ -21,9 +21,8 @@ package org.neo4j.graphalgo.impl.walking;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.Degrees;
 import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.core.utils.AsyncStream;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
-import org.neo4j.graphalgo.core.utils.Pools;
-import org.neo4j.graphalgo.core.utils.QueueBasedSpliterator;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphdb.*;
 import org.neo4j.logging.Log;
@@ -33,20 +32,15 @@ import java.util.*;
 import java.util.concurrent.*;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 public class NodeWalker {
 
+    // walks are up to steps + 1 ids long, so they are handed over in smaller batches than plain results
+    private static final int WALKS_PER_BATCH = 100;
 
     public Stream<long[]> randomWalk(Graph graph, @Name(value = "steps", defaultValue = "80") int steps, NodeWalker.NextNodeStrategy strategy, TerminationFlag terminationFlag, int concurrency, int limit, PrimitiveIterator.OfInt idStream) {
-        int timeout = 100;
-        int queueSize = 1000;
-
         int batchSize = ParallelUtil.adjustBatchSize(limit, concurrency, 100);
-        Collection<Runnable> tasks = new ArrayList<>((limit / batchSize) + 1);
-
-        ArrayBlockingQueue<long[]> queue = new ArrayBlockingQueue<>(queueSize);
-        long[] TOMB = new long[0];
+        Collection<AsyncStream.Producer<long[]>> producers = new ArrayList<>((limit / batchSize) + 1);
 
         while (idStream.hasNext()) {
             int[] ids = new int[batchSize];
@@ -55,27 +49,20 @@ public class NodeWalker {
                 ids[i++]=idStream.nextInt();
             }
             int size = i;
-            tasks.add(() -> {
+            producers.add(sink -> {
                 for (int j = 0; j < size; j++) {
-                    put(queue,doWalk(ids[j], steps, strategy, graph, terminationFlag));
+                    if (!sink.emit(doWalk(ids[j], steps, strategy, graph, terminationFlag))) {
+                        return;
+                    }
                 }
             });
         }
-        new Thread(() -> {
-            ParallelUtil.runWithConcurrency(concurrency, tasks, terminationFlag, Pools.DEFAULT);
-            put(queue,TOMB);
-        }).start();
-
-        QueueBasedSpliterator<long[]> spliterator = new QueueBasedSpliterator<>(queue, TOMB, terminationFlag, timeout);
-        return StreamSupport.stream(spliterator, false);
-    }
 
-    private static <T> void put(BlockingQueue<T> queue, T items) {
-        try {
-            queue.put(items);
-        } catch (InterruptedException e) {
-            // ignore
-        }
+        return AsyncStream.<long[]>builder()
+                .withConcurrency(concurrency)
+                .withTerminationFlag(terminationFlag)
+                .withBatchSize(WALKS_PER_BATCH)
+                .stream(producers);
     }
 
     private long[] doWalk(int startNodeId, int steps, NodeWalker.NextNodeStrategy nextNodeStrategy, Graph graph, TerminationFlag terminationFlag) {
@@ -18,12 +18,12 @@
  */
 package org.neo4j.graphalgo.impl.yens;
 
-import com.carrotsearch.hppc.*;
+import com.carrotsearch.hppc.BitSet;
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.cursors.IntCursor;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.RelationshipConsumer;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
-import org.neo4j.graphalgo.core.utils.queue.IntPriorityQueue;
-import org.neo4j.graphalgo.core.utils.queue.SharedIntPriorityQueue;
 import org.neo4j.graphdb.Direction;
 
 import java.util.Arrays;
@@ -31,6 +31,11 @@ import java.util.Optional;
 
 /**
  * specialized dijkstra impl. for YensKShortestPath
+ * <p>
+ * The search state is kept in arrays of node count size. Only the entries of the
+ * nodes that have been reached are reset between two searches, so that the many
+ * short spur searches of Yen's algorithm don't pay for the size of the graph.
+ * An instance must not be used by more than one thread at a time.
  *
  * @author mknblch
  */
@@ -43,29 +48,32 @@ public class Dijkstra {
     private final int nodeCount;
     private TerminationFlag terminationFlag = TerminationFlag.RUNNING_TRUE;
     // node to cost map
-    private final IntDoubleMap costs;
+    private final double[] costs;
     // next node priority queue
-    private final IntPriorityQueue queue;
+    private final CostQueue queue;
     // auxiliary path map
-    private final IntIntMap path;
+    private final int[] path;
     // visited set
     private final BitSet visited;
+    // nodes whose state has to be reset before the next search
+    private final IntArrayList touched;
     // visited filter
     private RelationshipConsumer filter = (sourceNodeId, targetNodeId, relationId) -> true;
     // traverse direction
     private Direction direction = Direction.BOTH;
     // iteration depth
-    private int[] depth;
+    private final int[] depth;
 
     public Dijkstra(Graph graph) {
         this.graph = graph;
         nodeCount = Math.toIntExact(graph.nodeCount());
-        costs = new IntDoubleScatterMap(nodeCount);
-        queue = SharedIntPriorityQueue.min(nodeCount,
-                costs,
-                Double.MAX_VALUE);
-        path = new IntIntScatterMap(nodeCount);
+        costs = new double[nodeCount];
+        Arrays.fill(costs, Double.MAX_VALUE);
+        queue = new CostQueue();
+        path = new int[nodeCount];
+        Arrays.fill(path, PATH_END);
         visited = new BitSet(nodeCount);
+        touched = new IntArrayList();
         depth = new int[nodeCount];
     }
 
@@ -126,17 +134,29 @@ public class Dijkstra {
      * @return an optional path
      */
     public Optional<WeightedPath> compute(int sourceNode, int targetNode, int maxDepth) {
-        if (!dijkstra(sourceNode, targetNode, direction, maxDepth)) {
+        return compute(sourceNode, targetNode, maxDepth, Double.MAX_VALUE);
+    }
+
+    /**
+     * compute shortest path from sourceNode to targetNode
+     * @param sourceNode mapped source node id
+     * @param targetNode mapped target node id
+     * @param maxDepth maximum traversal depth
+     * @param maxCost paths that cost more are not of interest, the search stops when it can only find such paths
+     * @return an optional path
+     */
+    public Optional<WeightedPath> compute(int sourceNode, int targetNode, int maxDepth, double maxCost) {
+        if (!dijkstra(sourceNode, targetNode, direction, maxDepth, maxCost)) {
             return Optional.empty();
         }
         int last = targetNode;
         final WeightedPath resultPath = new WeightedPath(INITIAL_CAPACITY);
         while (last != PATH_END) {
             resultPath.append(last);
-            last = path.getOrDefault(last, PATH_END);
+            last = path[last];
         }
         return Optional.of(resultPath
-                .withWeight(costs.get(targetNode))
+                .withWeight(costs[targetNode])
                 .reverse());
     }
 
@@ -144,17 +164,23 @@ public class Dijkstra {
      * calc path
      * @return true if a path has been found, false otherwise
      */
-    private boolean dijkstra(int source, int target, Direction direction, int maxDepth) {
-        costs.clear();
-        queue.clear();
-        path.clear();
-        visited.clear();
-        costs.put(source, 0.0);
+    private boolean dijkstra(int source, int target, Direction direction, int maxDepth, double maxCost) {
+        reset();
+        touched.add(source);
+        costs[source] = 0.0;
         queue.add(source, 0.0);
-        Arrays.fill(depth, 0);
         depth[source] = 1;
         while (!queue.isEmpty() && terminationFlag.running()) {
+            final double cost = queue.topCost();
             int node = queue.pop();
+            if (cost > maxCost) {
+                // all remaining paths are more expensive
+                return false;
+            }
+            if (visited.get(node) || cost > costs[node]) {
+                // outdated entry of a node that has been queued again with lower costs
+                continue;
+            }
             final int d = depth[node];
             if (d >= maxDepth) {
                 continue;
@@ -163,25 +189,24 @@ public class Dijkstra {
                 return true;
             }
             visited.set(node);
-            double costs = this.costs.getOrDefault(node, Double.MAX_VALUE);
             graph.forEachRelationship(
                     node,
                     direction, (s, t, relId) -> {
                         if (!filter.accept(s, t, relId)) {
                             return true;
                         }
-                        final double w = graph.weightOf(s, t);
-                        final UpdateResult updateCosts = updateCosts(s, t, w + costs);
                         if (!visited.get(t)) {
-                            switch (updateCosts) {
-                                case NO_PREVIOUS_COSTS:
-                                    queue.add(t, w);
-                                    break;
-                                case UPDATED_COST:
-                                    queue.update(t);
-                                    break;
-                                default:
-                                    break;
+                            final double newCosts = cost + graph.weightOf(s, t);
+                            // a depth of 0 marks nodes that have not been reached yet
+                            if (depth[t] == 0) {
+                                touched.add(t);
+                                costs[t] = newCosts;
+                                path[t] = s;
+                                queue.add(t, newCosts);
+                            } else if (newCosts < costs[t]) {
+                                costs[t] = newCosts;
+                                path[t] = s;
+                                queue.add(t, newCosts);
                             }
                             depth[t] = depth[s] + 1;
                         }
@@ -191,29 +216,78 @@ public class Dijkstra {
         return false;
     }
 
+    private void reset() {
+        for (IntCursor cursor : touched) {
+            costs[cursor.value] = Double.MAX_VALUE;
+            path[cursor.value] = PATH_END;
+            depth[cursor.value] = 0;
+            visited.clear(cursor.value);
+        }
+        touched.elementsCount = 0;
+        queue.clear();
+    }
 
     /**
-     * update cost map
+     * binary min heap of nodes and their costs. Instead of updating the position of a node
+     * whose costs decrease it is added again and the outdated entry is skipped when popped.
      */
-    private UpdateResult updateCosts(int source, int target, double newCosts) {
-        double oldCosts = costs.getOrDefault(target, Double.MAX_VALUE);
-        if (oldCosts == Double.MAX_VALUE) {
-            if (!costs.containsKey(target)) {
-                costs.put(target, newCosts);
-                path.put(target, source);
-                return UpdateResult.NO_PREVIOUS_COSTS;
-            }
+    private static final class CostQueue {
+        private int[] nodes = new int[INITIAL_CAPACITY];
+        private double[] keys = new double[INITIAL_CAPACITY];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
         }
-        if (newCosts < oldCosts) {
-            costs.put(target, newCosts);
-            path.put(target, source);
-            return UpdateResult.UPDATED_COST;
+
+        double topCost() {
+            return keys[0];
         }
-        return UpdateResult.COST_NOT_COMPETITIVE;
-    }
 
-    private enum UpdateResult {
-        NO_PREVIOUS_COSTS, UPDATED_COST, COST_NOT_COMPETITIVE;
-    }
+        void clear() {
+            size = 0;
+        }
 
+        void add(int node, double cost) {
+            if (size == nodes.length) {
+                nodes = Arrays.copyOf(nodes, size << 1);
+                keys = Arrays.copyOf(keys, size << 1);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (keys[parent] <= cost) {
+                    break;
+                }
+                nodes[i] = nodes[parent];
+                keys[i] = keys[parent];
+                i = parent;
+            }
+            nodes[i] = node;
+            keys[i] = cost;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            int node = nodes[--size];
+            double cost = keys[size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = (i << 1) + 1;
+                if (child + 1 < size && keys[child + 1] < keys[child]) {
+                    child++;
+                }
+                if (cost <= keys[child]) {
+                    break;
+                }
+                nodes[i] = nodes[child];
+                keys[i] = keys[child];
+                i = child;
+            }
+            nodes[i] = node;
+            keys[i] = cost;
+            return top;
+        }
+    }
 }
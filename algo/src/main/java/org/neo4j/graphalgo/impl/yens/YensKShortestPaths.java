@@ -18,14 +18,18 @@
  */
 package org.neo4j.graphalgo.impl.yens;
 
-import com.carrotsearch.hppc.*;
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.RelationshipConsumer;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
-import org.neo4j.graphalgo.core.utils.RawValues;
 import org.neo4j.graphalgo.impl.Algorithm;
 import org.neo4j.graphdb.Direction;
 
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Yen's k-shortest-paths Algorithm.
@@ -35,19 +39,31 @@ import java.util.*;
  * traverse incoming or outgoing directions or load it as undirected and traverse
  * outgoing relationships only. Direction.BOTH leads to incorrect results and is
  * therefore not supported.
+ * <p>
+ * The spur paths of one iteration are independent of each other and are searched
+ * in parallel. Every thread keeps its own {@link Dijkstra} and blacklists in arrays
+ * that are reused for all of its searches. Once there are enough candidates to fill
+ * up the k paths, spur searches stop at the cost of the worst candidate that could
+ * still make it into the result.
  *
  * @author mknblch
  */
 public class YensKShortestPaths extends Algorithm<YensKShortestPaths> {
 
-    private Dijkstra dijkstra;
     private Graph graph;
+    private final ExecutorService executor;
+    private final int concurrency;
     private List<WeightedPath> shortestPaths;
     private PriorityQueue<WeightedPath> candidates;
 
     public YensKShortestPaths(Graph graph) {
+        this(graph, null, 1);
+    }
+
+    public YensKShortestPaths(Graph graph, ExecutorService executor, int concurrency) {
         this.graph = graph;
-        dijkstra = new Dijkstra(graph);
+        this.executor = executor;
+        this.concurrency = ParallelUtil.canRunInParallel(executor) ? Math.max(1, concurrency) : 1;
         shortestPaths = new ArrayList<>();
         candidates = new PriorityQueue<>(WeightedPath.comparator());
     }
@@ -77,20 +93,15 @@ public class YensKShortestPaths extends Algorithm<YensKShortestPaths> {
 
     private void yens(int k, int start, int goal, Direction direction, int maxDepth) {
         final ProgressLogger progressLogger = getProgressLogger();
-        // blacklist container for dijkstra
-        final IntScatterSet nodeBlackList = new IntScatterSet();
-        final LongScatterSet edgeBlackList = new LongScatterSet();
         // clear result of previous execution
         shortestPaths.clear();
-        // equip dijkstra with a node and edge filter and set its traversal direction
-        final Optional<WeightedPath> shortestPathOpt = dijkstra.withTerminationFlag(getTerminationFlag())
-                .withDirection(direction)
-                .withFilter((s, t, r) ->
-                        // set custom node filter
-                        !nodeBlackList.contains(t) &&
-                        // and edge filter by combining the nodeIds into a long
-                        !edgeBlackList.contains(RawValues.combineIntInt(s, t)))
-                .compute(start, goal, maxDepth);// compute the best shortest path first
+        candidates.clear();
+        final SpurSearch[] searches = new SpurSearch[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            searches[i] = new SpurSearch(i == 0 ? graph : concurrentCopy(graph), direction, goal, maxDepth);
+        }
+        // compute the best shortest path first
+        final Optional<WeightedPath> shortestPathOpt = searches[0].dijkstra.compute(start, goal, maxDepth);
         if (!shortestPathOpt.isPresent()) {
             // not a single path found
             return;
@@ -101,46 +112,34 @@ public class YensKShortestPaths extends Algorithm<YensKShortestPaths> {
                 shortestPath.size(),
                 shortestPath.getCost()));
         // keep running until k paths have been found or no further shortest path is possible
-        for (int n = 1; n < k; n++) {
+        for (int n = 1; n < k && running(); n++) {
             // retrieve the last best shortest path
             final WeightedPath basePath = shortestPaths.get(shortestPaths.size() - 1);
-            for (int i = basePath.size() - 2; i >= 0; i--) {
-                // we don't alter the graph therefore we clear the filters at the beginning of each iteration.
-                nodeBlackList.clear();
-                edgeBlackList.clear();
-                // Spur node is retrieved from the previous k-shortest path.
-                final int spurNode = basePath.node(i);
-                // The sequence of nodes from the source to the spur node of the previous k-shortest path.
-                final WeightedPath rootPath = basePath
-                        .pathTo(i)
-                        .evaluateAndSetCost(graph);
-                // check each of the known shortest paths
-                for (Iterator<WeightedPath> iterator = shortestPaths.iterator(); iterator.hasNext(); ) {
-                    final WeightedPath p = iterator.next();
-                    if (rootPath.elementWiseEquals(p, i + 1)) {
-                        // blacklist the rels that are part of the previous shortest paths with the same root path.
-                        edgeBlackList.add(p.edge(i));
-                    }
-                }
-                // blacklist nodes in rootPath if not spurNode to avoid cycles
-                rootPath.forEachDo(rootPathNode -> {
-                    if (rootPathNode != spurNode) {
-                        nodeBlackList.add(rootPathNode);
+            final WeightedPath[] spurPaths = new WeightedPath[basePath.size() - 1];
+            final double maxCost = worstUsefulCost(k - shortestPaths.size());
+            final AtomicInteger nextSpur = new AtomicInteger();
+            final List<Runnable> tasks = new ArrayList<>(concurrency);
+            for (SpurSearch search : searches) {
+                tasks.add(() -> {
+                    int i;
+                    while ((i = nextSpur.getAndIncrement()) < spurPaths.length && running()) {
+                        spurPaths[i] = search.spurPath(basePath, i, maxCost);
                     }
                 });
-                // Calculate the spur path from the spur node to the goal node.
-                int spurPathMaxDepth = maxDepth - rootPath.size() + 1; // + 1 is for dropped tail of root path
-                final Optional<WeightedPath> spurPathOpt = dijkstra.compute(spurNode, goal, spurPathMaxDepth);
-                // no path found, continue
-                if (!spurPathOpt.isPresent()) {
-                    continue;
-                }
-                // new candidate is the concatenation of rootPath and the spurPath.
-                final WeightedPath concatenation = rootPath
-                        .dropTail()
-                        .concat(spurPathOpt.get());
-                // already found?
-                if (!candidates.contains(concatenation)) {
+            }
+            ParallelUtil.runWithConcurrency(
+                    concurrency,
+                    tasks,
+                    Integer.MAX_VALUE,
+                    10L,
+                    TimeUnit.MICROSECONDS,
+                    getTerminationFlag(),
+                    executor);
+            // add the candidates in the order of the sequential algorithm, starting at the last spur node
+            for (int i = spurPaths.length - 1; i >= 0; i--) {
+                final WeightedPath concatenation = spurPaths[i];
+                // no path found or already found?
+                if (concatenation != null && !candidates.contains(concatenation)) {
                     progressLogger.log(String.format("found candidate: %d nodes / %.2f weight",
                             concatenation.size(),
                             concatenation.getCost()));
@@ -160,6 +159,120 @@ public class YensKShortestPaths extends Algorithm<YensKShortestPaths> {
         }
     }
 
+    /**
+     * @param missing the number of paths that are still missing
+     * @return the cost of the most expensive new candidate that can still be one of the k paths
+     */
+    private double worstUsefulCost(int missing) {
+        if (candidates.size() < missing) {
+            return Double.MAX_VALUE;
+        }
+        final PriorityQueue<WeightedPath> best = new PriorityQueue<>(missing, WeightedPath.comparator().reversed());
+        for (WeightedPath candidate : candidates) {
+            best.add(candidate);
+            if (best.size() > missing) {
+                best.remove();
+            }
+        }
+        return best.peek().getCost();
+    }
+
+    private static Graph concurrentCopy(Graph graph) {
+        // huge graphs share their cursors, every other graph can be read concurrently
+        return graph instanceof HugeGraph ? ((HugeGraph) graph).concurrentCopy() : graph;
+    }
+
+    /**
+     * Searches spur paths with a dijkstra whose state and blacklists are reused from search to search.
+     */
+    private final class SpurSearch implements RelationshipConsumer {
+        private final Graph graph;
+        private final Dijkstra dijkstra;
+        private final int goal;
+        private final int maxDepth;
+        // nodes of the root path are blacklisted if their entry matches the current search
+        private final int[] blacklistedIn;
+        private int search;
+        // relationships from the spur node that are part of the known paths with the same root path
+        private int spurNode;
+        private int[] blacklistedTargets = new int[8];
+        private int blacklistedTargetCount;
+
+        private SpurSearch(Graph graph, Direction direction, int goal, int maxDepth) {
+            this.graph = graph;
+            this.goal = goal;
+            this.maxDepth = maxDepth;
+            this.blacklistedIn = new int[Math.toIntExact(graph.nodeCount())];
+            // no node is blacklisted for the initial search
+            Arrays.fill(blacklistedIn, -1);
+            this.dijkstra = new Dijkstra(graph)
+                    .withTerminationFlag(getTerminationFlag())
+                    .withDirection(direction)
+                    .withFilter(this);
+        }
+
+        /**
+         * @return the concatenation of the root path and the spur path that deviates from the base path at the given index
+         */
+        WeightedPath spurPath(WeightedPath basePath, int index, double maxCost) {
+            // a fresh search id clears the node blacklist of the previous search
+            search++;
+            blacklistedTargetCount = 0;
+            // Spur node is retrieved from the previous k-shortest path.
+            spurNode = basePath.node(index);
+            // The sequence of nodes from the source to the spur node of the previous k-shortest path.
+            final WeightedPath rootPath = basePath
+                    .pathTo(index)
+                    .evaluateAndSetCost(graph);
+            // check each of the known shortest paths
+            for (WeightedPath p : shortestPaths) {
+                if (rootPath.elementWiseEquals(p, index + 1)) {
+                    // blacklist the rels that are part of the previous shortest paths with the same root path.
+                    blacklistTarget(p.node(index + 1));
+                }
+            }
+            // blacklist nodes in rootPath if not spurNode to avoid cycles
+            rootPath.forEachDo(rootPathNode -> {
+                if (rootPathNode != spurNode) {
+                    blacklistedIn[rootPathNode] = search;
+                }
+            });
+            // Calculate the spur path from the spur node to the goal node.
+            int spurPathMaxDepth = maxDepth - rootPath.size() + 1; // + 1 is for dropped tail of root path
+            final Optional<WeightedPath> spurPathOpt = dijkstra.compute(
+                    spurNode,
+                    goal,
+                    spurPathMaxDepth,
+                    maxCost - rootPath.getCost());
+            // new candidate is the concatenation of rootPath and the spurPath.
+            return spurPathOpt
+                    .map(spurPath -> rootPath.dropTail().concat(spurPath))
+                    .orElse(null);
+        }
+
+        private void blacklistTarget(int target) {
+            if (blacklistedTargetCount == blacklistedTargets.length) {
+                blacklistedTargets = Arrays.copyOf(blacklistedTargets, blacklistedTargetCount << 1);
+            }
+            blacklistedTargets[blacklistedTargetCount++] = target;
+        }
+
+        @Override
+        public boolean accept(int sourceNodeId, int targetNodeId, long relationId) {
+            if (blacklistedIn[targetNodeId] == search) {
+                return false;
+            }
+            if (sourceNodeId == spurNode) {
+                for (int i = 0; i < blacklistedTargetCount; i++) {
+                    if (blacklistedTargets[i] == targetNodeId) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
     @Override
     public YensKShortestPaths me() {
         return this;
@@ -168,7 +281,6 @@ public class YensKShortestPaths extends Algorithm<YensKShortestPaths> {
     @Override
     public YensKShortestPaths release() {
         graph = null;
-        dijkstra = null;
         shortestPaths = null;
         candidates = null;
         return this;
@@ -18,14 +18,14 @@
  */
 package org.neo4j.graphalgo.results;
 
-import com.carrotsearch.hppc.LongLongMap;
-import com.carrotsearch.hppc.LongLongScatterMap;
 import org.HdrHistogram.Histogram;
+import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressTimer;
 
 import java.util.function.IntFunction;
 import java.util.function.LongFunction;
 import java.util.function.LongToIntFunction;
+import java.util.function.LongUnaryOperator;
 
 /**
  * @author mknblch
@@ -132,14 +132,12 @@ public abstract class AbstractCommunityResultBuilder<T> {
 
         timer.stop();
 
-        final LongLongMap communitySizeMap = new LongLongScatterMap();
         return build(loadDuration,
                 evalDuration,
                 writeDuration,
                 timer.getDuration(),
                 nodeCount,
-                communitySizeMap.size(),
-                communitySizeMap,
+                0,
                 histogram,
                 write
         );
@@ -158,14 +156,12 @@ public abstract class AbstractCommunityResultBuilder<T> {
 
         timer.stop();
 
-        final LongLongMap communitySizeMap = new LongLongScatterMap();
         return build(loadDuration,
                 evalDuration,
                 writeDuration,
                 timer.getDuration(),
                 nodeCount,
-                communitySizeMap.size(),
-                communitySizeMap,
+                0,
                 histogram,
                 write
         );
@@ -175,15 +171,23 @@ public abstract class AbstractCommunityResultBuilder<T> {
      * build result
      */
     public T build(long nodeCount, LongFunction<Long> fun) {
+        return build(nodeCount, 1, fun::apply);
+    }
 
-        final LongLongMap communitySizeMap = new LongLongScatterMap();
-        final ProgressTimer timer = ProgressTimer.start();
-        for (int nodeId = 0; nodeId < nodeCount; nodeId++) {
-            final long communityId = fun.apply(nodeId);
-            communitySizeMap.addTo(communityId, 1);
-        }
+    /**
+     * build result, counting community sizes and recording
+     * the size histogram in {@code concurrency} parallel partitions
+     *
+     * @param fun maps a node id to its community id
+     */
+    public T build(long nodeCount, int concurrency, LongUnaryOperator fun) {
 
-        Histogram histogram = CommunityHistogram.buildFrom(communitySizeMap);
+        final ProgressTimer timer = ProgressTimer.start();
+        final CommunitySizes sizes = CommunitySizes.compute(
+                nodeCount,
+                concurrency,
+                Pools.DEFAULT,
+                fun);
 
         timer.stop();
 
@@ -192,9 +196,8 @@ public abstract class AbstractCommunityResultBuilder<T> {
                 writeDuration,
                 timer.getDuration(),
                 nodeCount,
-                communitySizeMap.size(),
-                communitySizeMap,
-                histogram,
+                sizes.communityCount,
+                sizes.histogram,
                 write
         );
     }
@@ -206,7 +209,6 @@ public abstract class AbstractCommunityResultBuilder<T> {
             long postProcessingMillis,
             long nodeCount,
             long communityCount,
-            LongLongMap communitySizeMap,
             Histogram communityHistogram,
             boolean write);
 
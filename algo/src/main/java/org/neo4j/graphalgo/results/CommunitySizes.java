@@ -0,0 +1,179 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.results;
+
+import com.carrotsearch.hppc.LongLongMap;
+import com.carrotsearch.hppc.LongLongScatterMap;
+import com.carrotsearch.hppc.cursors.LongLongCursor;
+import org.HdrHistogram.Histogram;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicLongArray;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Counts the size of every community and builds the size histogram in parallel.
+ * <p>
+ * Community ids within {@code [0, nodeCount)} (e.g. set ids of union find or
+ * SCC, louvain community ids) are counted in a paged atomic array. Any other id
+ * (e.g. label propagation labels taken from a node property) is counted in a
+ * per-partition map that is merged afterwards. Histograms are recorded per
+ * partition and added together at the end.
+ */
+final class CommunitySizes {
+
+    private static final long MIN_BATCH_SIZE = 10_000L;
+
+    final long communityCount;
+    final Histogram histogram;
+
+    private CommunitySizes(long communityCount, Histogram histogram) {
+        this.communityCount = communityCount;
+        this.histogram = histogram;
+    }
+
+    static CommunitySizes compute(
+            long nodeCount,
+            int concurrency,
+            ExecutorService executor,
+            LongUnaryOperator communityOf) {
+        PagedAtomicLongArray sizes = PagedAtomicLongArray.newArray(nodeCount, AllocationTracker.EMPTY);
+        long batchSize = ParallelUtil.adjustBatchSize(nodeCount, concurrency, MIN_BATCH_SIZE);
+
+        List<CountTask> countTasks = new ArrayList<>();
+        List<HistogramTask> histogramTasks = new ArrayList<>();
+        for (long start = 0L; start < nodeCount; start += batchSize) {
+            long end = Math.min(nodeCount, start + batchSize);
+            countTasks.add(new CountTask(start, end, nodeCount, sizes, communityOf));
+            histogramTasks.add(new HistogramTask(start, end, sizes));
+        }
+
+        ParallelUtil.runWithConcurrency(
+                concurrency,
+                countTasks,
+                Integer.MAX_VALUE,
+                10L,
+                TimeUnit.MICROSECONDS,
+                executor);
+        ParallelUtil.runWithConcurrency(
+                concurrency,
+                histogramTasks,
+                Integer.MAX_VALUE,
+                10L,
+                TimeUnit.MICROSECONDS,
+                executor);
+
+        Histogram histogram = new Histogram(2);
+        long communityCount = 0L;
+        for (HistogramTask task : histogramTasks) {
+            histogram.add(task.histogram);
+            communityCount += task.communityCount;
+        }
+
+        LongLongMap outOfRange = null;
+        for (CountTask task : countTasks) {
+            if (task.outOfRange == null) {
+                continue;
+            }
+            if (outOfRange == null) {
+                outOfRange = task.outOfRange;
+            } else {
+                for (LongLongCursor cursor : task.outOfRange) {
+                    outOfRange.addTo(cursor.key, cursor.value);
+                }
+            }
+        }
+        if (outOfRange != null) {
+            for (LongLongCursor cursor : outOfRange) {
+                histogram.recordValue(cursor.value);
+            }
+            communityCount += outOfRange.size();
+        }
+
+        return new CommunitySizes(communityCount, histogram);
+    }
+
+    private static final class CountTask implements Runnable {
+        private final long start;
+        private final long end;
+        private final long nodeCount;
+        private final PagedAtomicLongArray sizes;
+        private final LongUnaryOperator communityOf;
+        private LongLongMap outOfRange;
+
+        private CountTask(
+                long start,
+                long end,
+                long nodeCount,
+                PagedAtomicLongArray sizes,
+                LongUnaryOperator communityOf) {
+            this.start = start;
+            this.end = end;
+            this.nodeCount = nodeCount;
+            this.sizes = sizes;
+            this.communityOf = communityOf;
+        }
+
+        @Override
+        public void run() {
+            for (long nodeId = start; nodeId < end; nodeId++) {
+                long communityId = communityOf.applyAsLong(nodeId);
+                if (communityId >= 0L && communityId < nodeCount) {
+                    sizes.add(communityId, 1L);
+                } else {
+                    if (outOfRange == null) {
+                        outOfRange = new LongLongScatterMap();
+                    }
+                    outOfRange.addTo(communityId, 1L);
+                }
+            }
+        }
+    }
+
+    private static final class HistogramTask implements Runnable {
+        private final long start;
+        private final long end;
+        private final PagedAtomicLongArray sizes;
+        private final Histogram histogram;
+        private long communityCount;
+
+        private HistogramTask(long start, long end, PagedAtomicLongArray sizes) {
+            this.start = start;
+            this.end = end;
+            this.sizes = sizes;
+            this.histogram = new Histogram(2);
+        }
+
+        @Override
+        public void run() {
+            for (long communityId = start; communityId < end; communityId++) {
+                long size = sizes.get(communityId);
+                if (size > 0L) {
+                    histogram.recordValue(size);
+                    communityCount++;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.similarity;
+
+import com.carrotsearch.hppc.LongIntHashMap;
+import com.carrotsearch.hppc.LongIntMap;
+import com.carrotsearch.hppc.cursors.LongIntCursor;
+
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+/**
+ * Inverted index from categories to the {@link CategoricalInput}s that contain them.
+ * <p>
+ * Only pairs that share at least one category become candidates. For jaccard,
+ * categories are ordered by ascending frequency and only the prefix of every input
+ * that has to overlap with any input of similarity {@code >= cutoff} is indexed
+ * (AllPairs prefix filtering). Candidates whose sizes cannot reach the cutoff are
+ * dropped as well. Candidates still have to be verified by the similarity computer.
+ */
+final class CategoricalCandidates implements Supplier<SimilarityStreamGenerator.CandidateTargets> {
+
+    enum Kind {
+        JACCARD,
+        OVERLAP
+    }
+
+    // slack for the floating point bounds, filtering a pair too little is fine, too much is not
+    private static final double EPSILON = 1e-9;
+
+    private final Kind kind;
+    private final double cutoff;
+    private final int length;
+    private final int[] sizes;
+    private final int[][] prefixes;
+    private final int[] postingOffsets;
+    private final int[] postings;
+
+    private CategoricalCandidates(
+            Kind kind,
+            double cutoff,
+            int[] sizes,
+            int[][] prefixes,
+            int[] postingOffsets,
+            int[] postings) {
+        this.kind = kind;
+        this.cutoff = cutoff;
+        this.length = sizes.length;
+        this.sizes = sizes;
+        this.prefixes = prefixes;
+        this.postingOffsets = postingOffsets;
+        this.postings = postings;
+    }
+
+    /**
+     * Pairs without any shared category are only reported for a negative cutoff,
+     * the index can be used for all other cutoffs.
+     */
+    static boolean applicable(double cutoff) {
+        return cutoff >= 0d;
+    }
+
+    static CategoricalCandidates of(Kind kind, CategoricalInput[] inputs, double cutoff) {
+        int length = inputs.length;
+
+        LongIntMap frequencies = new LongIntHashMap();
+        for (CategoricalInput input : inputs) {
+            for (long category : input.targets) {
+                frequencies.addTo(category, 1);
+            }
+        }
+
+        // rank categories by ascending frequency, rare categories make the best prefixes
+        long[] categories = new long[frequencies.size()];
+        int[] counts = new int[frequencies.size()];
+        int c = 0;
+        for (LongIntCursor cursor : frequencies) {
+            categories[c] = cursor.key;
+            counts[c++] = cursor.value;
+        }
+        Integer[] order = new Integer[categories.length];
+        for (int i = 0; i < order.length; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, (a, b) -> counts[a] != counts[b]
+                ? Integer.compare(counts[a], counts[b])
+                : Long.compare(categories[a], categories[b]));
+        LongIntMap ranks = new LongIntHashMap(categories.length);
+        for (int rank = 0; rank < order.length; rank++) {
+            ranks.put(categories[order[rank]], rank);
+        }
+
+        int[] sizes = new int[length];
+        int[][] prefixes = new int[length][];
+        int[] postingOffsets = new int[categories.length + 1];
+        for (int i = 0; i < length; i++) {
+            long[] targets = inputs[i].targets;
+            int[] ranked = new int[targets.length];
+            for (int j = 0; j < targets.length; j++) {
+                ranked[j] = ranks.get(targets[j]);
+            }
+            Arrays.sort(ranked);
+            int prefixLength = prefixLength(kind, ranked.length, cutoff);
+            int[] prefix = prefixLength == ranked.length ? ranked : Arrays.copyOf(ranked, prefixLength);
+            sizes[i] = targets.length;
+            prefixes[i] = prefix;
+            for (int rank : prefix) {
+                postingOffsets[rank + 1]++;
+            }
+        }
+        for (int rank = 0; rank < categories.length; rank++) {
+            postingOffsets[rank + 1] += postingOffsets[rank];
+        }
+
+        // items are added in ascending order, so every posting list is sorted
+        int[] postings = new int[postingOffsets[categories.length]];
+        int[] fill = Arrays.copyOf(postingOffsets, categories.length);
+        for (int i = 0; i < length; i++) {
+            for (int rank : prefixes[i]) {
+                postings[fill[rank]++] = i;
+            }
+        }
+
+        return new CategoricalCandidates(kind, cutoff, sizes, prefixes, postingOffsets, postings);
+    }
+
+    private static int prefixLength(Kind kind, int size, double cutoff) {
+        if (kind != Kind.JACCARD || cutoff <= 0d) {
+            return size;
+        }
+        // jaccard >= cutoff requires an intersection of at least ceil(cutoff * size)
+        int minOverlap = Math.max(1, (int) Math.ceil(cutoff * size - EPSILON));
+        return Math.max(0, Math.min(size, size - minOverlap + 1));
+    }
+
+    private boolean sizesMatch(int size1, int size2) {
+        if (kind != Kind.JACCARD || cutoff <= 0d) {
+            return true;
+        }
+        int min = Math.min(size1, size2);
+        int max = Math.max(size1, size2);
+        return min >= cutoff * max - EPSILON;
+    }
+
+    @Override
+    public SimilarityStreamGenerator.CandidateTargets get() {
+        return new Cursor();
+    }
+
+    /**
+     * Collects the candidates of one source at a time, not thread-safe.
+     */
+    private final class Cursor implements SimilarityStreamGenerator.CandidateTargets {
+        private final int[] seen = new int[length];
+        private int[] buffer = new int[16];
+
+        private Cursor() {
+            Arrays.fill(seen, -1);
+        }
+
+        @Override
+        public int[] targets(int sourceId) {
+            int count = 0;
+            int size = sizes[sourceId];
+            for (int rank : prefixes[sourceId]) {
+                int end = postingOffsets[rank + 1];
+                int start = Arrays.binarySearch(postings, postingOffsets[rank], end, sourceId + 1);
+                if (start < 0) {
+                    start = -start - 1;
+                }
+                for (int p = start; p < end; p++) {
+                    int target = postings[p];
+                    if (seen[target] != sourceId && sizesMatch(size, sizes[target])) {
+                        seen[target] = sourceId;
+                        if (count == buffer.length) {
+                            buffer = Arrays.copyOf(buffer, count * 2);
+                        }
+                        buffer[count++] = target;
+                    }
+                }
+            }
+            int[] targets = Arrays.copyOf(buffer, count);
+            Arrays.sort(targets);
+            return targets;
+        }
+    }
+}
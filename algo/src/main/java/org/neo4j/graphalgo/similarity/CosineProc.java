@@ -111,7 +111,7 @@ public class CosineProc extends SimilarityProc {
                                                     int[] sourceIndexIds, int[] targetIndexIds, double similarityCutoff, int topN, int topK,
                                                     SimilarityComputer<WeightedInput> computer) {
         Supplier<RleDecoder> decoderFactory = createDecoderFactory(configuration, inputs[0]);
-        return topN(similarityStream(inputs, sourceIndexIds, targetIndexIds, computer, configuration, decoderFactory, similarityCutoff, topK), topN)
+        return topN(weightedSimilarityStream(inputs, sourceIndexIds, targetIndexIds, computer, configuration, decoderFactory, similarityCutoff, topK, DenseSimilarityKernel.Metric.COSINE_SQUARES), topN)
                 .map(SimilarityResult::squareRooted);
     }
 
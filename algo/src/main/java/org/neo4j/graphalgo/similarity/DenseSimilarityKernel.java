@@ -0,0 +1,407 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.similarity;
+
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * All pairs top-k similarity for dense vectors of equal length.
+ * <p>
+ * The vectors are copied into one contiguous slab, norms and means are computed once
+ * per vector, and the pairs are visited tile by tile so that a block of target vectors
+ * stays in cache while a block of source vectors is compared against it.
+ * Every worker collects its candidates into primitive top-k heaps and
+ * {@link SimilarityResult}s are only created when the heaps are streamed.
+ * <p>
+ * The scores are computed with the same summation order as {@link WeightedInput} and
+ * are therefore identical to the scores of the generic path.
+ */
+final class DenseSimilarityKernel {
+
+    enum Metric {
+        COSINE_SQUARES,
+        SQUARED_EUCLIDEAN,
+        PEARSON
+    }
+
+    // bytes of one tile of vectors, two tiles should fit into the L2 cache
+    private static final int TILE_BYTES = 1 << 17;
+
+    private final Metric metric;
+    private final long[] ids;
+    private final int[] counts;
+    private final int length;
+    private final int dimensions;
+    private final double[] slab;
+    private final double[] norms;
+    private final int tileSize;
+
+    private DenseSimilarityKernel(
+            Metric metric,
+            long[] ids,
+            int[] counts,
+            int dimensions,
+            double[] slab,
+            double[] norms) {
+        this.metric = metric;
+        this.ids = ids;
+        this.counts = counts;
+        this.length = ids.length;
+        this.dimensions = dimensions;
+        this.slab = slab;
+        this.norms = norms;
+        this.tileSize = Math.max(1, TILE_BYTES / (Math.max(1, dimensions) * Double.BYTES));
+    }
+
+    /**
+     * @return a kernel for the inputs or {@code null} if the inputs are not dense
+     * vectors of equal length without any skipped or missing values
+     */
+    static DenseSimilarityKernel of(Metric metric, WeightedInput[] inputs) {
+        if (inputs.length == 0) {
+            return null;
+        }
+        int dimensions = inputs[0].weights().length;
+        if ((long) dimensions * inputs.length > Integer.MAX_VALUE - 8) {
+            return null;
+        }
+        for (WeightedInput input : inputs) {
+            if (input.weights().length != dimensions || input.initialSize != dimensions || input.itemCount() != dimensions) {
+                return null;
+            }
+        }
+
+        int length = inputs.length;
+        long[] ids = new long[length];
+        int[] counts = new int[length];
+        double[] slab = new double[length * dimensions];
+        double[] norms = new double[length];
+        for (int i = 0; i < length; i++) {
+            WeightedInput input = inputs[i];
+            double[] weights = input.weights();
+            ids[i] = input.getId();
+            counts[i] = input.itemCount();
+            int offset = i * dimensions;
+            for (double weight : weights) {
+                if (Double.isNaN(weight)) {
+                    return null;
+                }
+            }
+            if (metric == Metric.PEARSON) {
+                double sum = 0.0;
+                for (double weight : weights) {
+                    sum += weight;
+                }
+                double mean = sum / dimensions;
+                double norm = 0.0;
+                for (int d = 0; d < dimensions; d++) {
+                    double delta = weights[d] - mean;
+                    slab[offset + d] = delta;
+                    norm += delta * delta;
+                }
+                norms[i] = norm;
+            } else {
+                double norm = 0.0;
+                for (int d = 0; d < dimensions; d++) {
+                    double weight = weights[d];
+                    slab[offset + d] = weight;
+                    norm += weight * weight;
+                }
+                norms[i] = norm;
+            }
+        }
+        return new DenseSimilarityKernel(metric, ids, counts, dimensions, slab, norms);
+    }
+
+    /**
+     * @return number of pairwise computations done by {@link #topK}
+     */
+    long computations() {
+        return (long) length * (length - 1) / 2;
+    }
+
+    /**
+     * Computes the {@code |topK|} most similar vectors for every vector, the largest
+     * scores for a positive {@code topK} and the smallest ones for a negative {@code topK}.
+     */
+    Stream<SimilarityResult> topK(
+            int topK,
+            double cutoff,
+            int concurrency,
+            TerminationFlag terminationFlag,
+            ExecutorService executor,
+            TaskTimings taskTimings) {
+        boolean largest = topK > 0;
+        int k = Math.abs(topK);
+        int blockCount = ParallelUtil.threadSize(tileSize, length);
+        int workerCount = Math.max(1, Math.min(concurrency, blockCount));
+
+        AtomicInteger nextBlock = new AtomicInteger();
+        List<TileWorker> workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            workers.add(new TileWorker(new TopKHeaps(length, k, largest), nextBlock, blockCount, cutoff, terminationFlag));
+        }
+        ParallelUtil.runWithConcurrency(
+                concurrency,
+                taskTimings.timed(workers),
+                Integer.MAX_VALUE,
+                10L,
+                TimeUnit.MICROSECONDS,
+                terminationFlag,
+                executor);
+
+        TopKHeaps heaps = workers.get(0).heaps;
+        for (int i = 1; i < workers.size(); i++) {
+            heaps.merge(workers.get(i).heaps);
+        }
+        return IntStream.range(0, length).boxed().flatMap(node -> heaps.results(node, this));
+    }
+
+    private double score(int source, int target) {
+        int sourceOffset = source * dimensions;
+        int targetOffset = target * dimensions;
+        double[] slab = this.slab;
+        switch (metric) {
+            case COSINE_SQUARES: {
+                double dotProduct = 0.0;
+                for (int d = 0; d < dimensions; d++) {
+                    dotProduct += slab[sourceOffset + d] * slab[targetOffset + d];
+                }
+                double xLength = norms[source];
+                double yLength = norms[target];
+                if (xLength == 0d || yLength == 0d) return 0d;
+                return dotProduct * dotProduct / xLength / yLength;
+            }
+            case PEARSON: {
+                double dotProductMinusMean = 0.0;
+                for (int d = 0; d < dimensions; d++) {
+                    dotProductMinusMean += slab[sourceOffset + d] * slab[targetOffset + d];
+                }
+                double result = dotProductMinusMean / Math.sqrt(norms[source] * norms[target]);
+                return Double.isNaN(result) ? 0 : result;
+            }
+            case SQUARED_EUCLIDEAN: {
+                double result = 0.0;
+                for (int d = 0; d < dimensions; d++) {
+                    double delta = slab[sourceOffset + d] - slab[targetOffset + d];
+                    result += delta * delta;
+                }
+                return result;
+            }
+            default:
+                throw new IllegalArgumentException("Unknown metric " + metric);
+        }
+    }
+
+    private boolean passes(double score, double cutoff) {
+        if (cutoff < 0d) {
+            return true;
+        }
+        return metric == Metric.SQUARED_EUCLIDEAN
+                ? score <= cutoff
+                : score != 0 && score >= cutoff;
+    }
+
+    private SimilarityResult result(int source, int target, double score) {
+        return new SimilarityResult(
+                ids[source],
+                ids[target],
+                counts[source],
+                counts[target],
+                0,
+                score,
+                true,
+                target < source);
+    }
+
+    private final class TileWorker implements Runnable {
+        private final TopKHeaps heaps;
+        private final AtomicInteger nextBlock;
+        private final int blockCount;
+        private final double cutoff;
+        private final TerminationFlag terminationFlag;
+
+        private TileWorker(
+                TopKHeaps heaps,
+                AtomicInteger nextBlock,
+                int blockCount,
+                double cutoff,
+                TerminationFlag terminationFlag) {
+            this.heaps = heaps;
+            this.nextBlock = nextBlock;
+            this.blockCount = blockCount;
+            this.cutoff = cutoff;
+            this.terminationFlag = terminationFlag;
+        }
+
+        @Override
+        public void run() {
+            int block;
+            while ((block = nextBlock.getAndIncrement()) < blockCount && terminationFlag.running()) {
+                int sourceStart = block * tileSize;
+                int sourceEnd = Math.min(length, sourceStart + tileSize);
+                for (int targetStart = sourceStart; targetStart < length; targetStart += tileSize) {
+                    int targetEnd = Math.min(length, targetStart + tileSize);
+                    for (int source = sourceStart; source < sourceEnd; source++) {
+                        for (int target = Math.max(targetStart, source + 1); target < targetEnd; target++) {
+                            double score = score(source, target);
+                            if (passes(score, cutoff)) {
+                                heaps.offer(source, target, score);
+                                heaps.offer(target, source, score);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * One bounded binary heap of (target, score) pairs per node, stored in flat arrays.
+     * The root of every heap is its worst entry, ties are broken in favour of the lower target.
+     */
+    static final class TopKHeaps {
+        private final int k;
+        private final boolean largest;
+        private final int[] targets;
+        private final double[] scores;
+        private final int[] sizes;
+
+        TopKHeaps(int length, int k, boolean largest) {
+            this.k = k;
+            this.largest = largest;
+            this.targets = new int[length * k];
+            this.scores = new double[length * k];
+            this.sizes = new int[length];
+        }
+
+        void offer(int node, int target, double score) {
+            if (k == 0) {
+                return;
+            }
+            int offset = node * k;
+            int size = sizes[node];
+            if (size < k) {
+                targets[offset + size] = target;
+                scores[offset + size] = score;
+                sizes[node] = size + 1;
+                siftUp(offset, size);
+            } else if (worse(scores[offset], targets[offset], score, target)) {
+                targets[offset] = target;
+                scores[offset] = score;
+                siftDown(offset, size);
+            }
+        }
+
+        void merge(TopKHeaps other) {
+            for (int node = 0; node < sizes.length; node++) {
+                int offset = node * k;
+                for (int i = 0; i < other.sizes[node]; i++) {
+                    offer(node, other.targets[offset + i], other.scores[offset + i]);
+                }
+            }
+        }
+
+        // slots of the node's entries, best first
+        private int[] sortedSlots(int node) {
+            int offset = node * k;
+            int size = sizes[node];
+            int[] order = new int[size];
+            for (int i = 0; i < size; i++) {
+                int j = i;
+                while (j > 0 && worse(
+                        scores[offset + order[j - 1]],
+                        targets[offset + order[j - 1]],
+                        scores[offset + i],
+                        targets[offset + i])) {
+                    order[j] = order[j - 1];
+                    j--;
+                }
+                order[j] = i;
+            }
+            int[] sorted = new int[size];
+            for (int i = 0; i < size; i++) {
+                sorted[i] = offset + order[i];
+            }
+            return sorted;
+        }
+
+        private Stream<SimilarityResult> results(int node, DenseSimilarityKernel kernel) {
+            int[] slots = sortedSlots(node);
+            return IntStream.of(slots).mapToObj(slot -> kernel.result(node, targets[slot], scores[slot]));
+        }
+
+        // is (scoreA, targetA) a worse entry than (scoreB, targetB)
+        private boolean worse(double scoreA, int targetA, double scoreB, int targetB) {
+            if (scoreA != scoreB) {
+                return largest ? scoreA < scoreB : scoreA > scoreB;
+            }
+            return targetA > targetB;
+        }
+
+        private void siftUp(int offset, int index) {
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (!worse(scores[offset + index], targets[offset + index], scores[offset + parent], targets[offset + parent])) {
+                    return;
+                }
+                swap(offset + parent, offset + index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int offset, int size) {
+            int index = 0;
+            while (true) {
+                int worst = index;
+                int left = 2 * index + 1;
+                int right = left + 1;
+                if (left < size && worse(scores[offset + left], targets[offset + left], scores[offset + worst], targets[offset + worst])) {
+                    worst = left;
+                }
+                if (right < size && worse(scores[offset + right], targets[offset + right], scores[offset + worst], targets[offset + worst])) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(offset + worst, offset + index);
+                index = worst;
+            }
+        }
+
+        private void swap(int a, int b) {
+            int target = targets[a];
+            targets[a] = targets[b];
+            targets[b] = target;
+            double score = scores[a];
+            scores[a] = scores[b];
+            scores[b] = score;
+        }
+    }
+}
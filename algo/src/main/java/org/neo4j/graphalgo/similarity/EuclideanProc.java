@@ -100,7 +100,7 @@ public class EuclideanProc extends SimilarityProc {
                                                     int[] sourceIndexIds, int[] targetIndexIds, double similarityCutoff, int topN, int topK,
                                                     SimilarityComputer<WeightedInput> computer) {
         Supplier<RleDecoder> decoderFactory = createDecoderFactory(configuration, inputs[0]);
-        return topN(similarityStream(inputs, sourceIndexIds, targetIndexIds, computer, configuration, decoderFactory, similarityCutoff, topK), topN)
+        return topN(weightedSimilarityStream(inputs, sourceIndexIds, targetIndexIds, computer, configuration, decoderFactory, similarityCutoff, topK, DenseSimilarityKernel.Metric.SQUARED_EUCLIDEAN), topN)
                 .map(SimilarityResult::squareRooted);
     }
 
@@ -0,0 +1,189 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.similarity;
+
+import com.carrotsearch.hppc.sorting.IndirectSort;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeWeightedRelationshipConsumer;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads the neighbourhoods of all nodes of a {@link HugeGraph} into {@link NeighbourhoodInput}s.
+ * <p>
+ * Neighbours are stored as sorted internal node ids, the inputs are identified
+ * by their original node ids. Parallel relationships count once.
+ */
+final class GraphNeighbourhoods {
+
+    private static final int MIN_BATCH_SIZE = 10_000;
+
+    private GraphNeighbourhoods() {}
+
+    static NeighbourhoodInput[] of(
+            HugeGraph graph,
+            Direction direction,
+            boolean weighted,
+            long degreeCutoff,
+            int concurrency,
+            TerminationFlag terminationFlag,
+            ExecutorService executor) {
+        long nodeCount = graph.nodeCount();
+        if (nodeCount > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Node similarity supports at most " + Integer.MAX_VALUE + " nodes, but the graph has " + nodeCount);
+        }
+        int length = (int) nodeCount;
+        NeighbourhoodInput[] inputs = new NeighbourhoodInput[length];
+
+        int batchSize = ParallelUtil.adjustBatchSize(length, concurrency, MIN_BATCH_SIZE);
+        List<ReadTask> tasks = new ArrayList<>();
+        for (int start = 0; start < length; start += batchSize) {
+            tasks.add(new ReadTask(graph.concurrentCopy(), direction, weighted, degreeCutoff, start, Math.min(length, start + batchSize), inputs));
+        }
+        ParallelUtil.runWithConcurrency(concurrency, tasks, Integer.MAX_VALUE, 10L, TimeUnit.MICROSECONDS, terminationFlag, executor);
+
+        int idx = 0;
+        for (NeighbourhoodInput input : inputs) {
+            if (input != null) {
+                inputs[idx++] = input;
+            }
+        }
+        if (idx != inputs.length) inputs = Arrays.copyOf(inputs, idx);
+        Arrays.sort(inputs);
+        return inputs;
+    }
+
+    private static final class ReadTask implements Runnable, HugeWeightedRelationshipConsumer {
+        private final HugeGraph graph;
+        private final Direction direction;
+        private final boolean weighted;
+        private final long degreeCutoff;
+        private final int startNode;
+        private final int endNode;
+        private final NeighbourhoodInput[] inputs;
+
+        private long[] targets = new long[64];
+        private double[] weights;
+        private int count;
+
+        private ReadTask(
+                HugeGraph graph,
+                Direction direction,
+                boolean weighted,
+                long degreeCutoff,
+                int startNode,
+                int endNode,
+                NeighbourhoodInput[] inputs) {
+            this.graph = graph;
+            this.direction = direction;
+            this.weighted = weighted;
+            this.degreeCutoff = degreeCutoff;
+            this.startNode = startNode;
+            this.endNode = endNode;
+            this.inputs = inputs;
+            this.weights = weighted ? new double[targets.length] : null;
+        }
+
+        @Override
+        public void run() {
+            for (int node = startNode; node < endNode; node++) {
+                count = 0;
+                graph.forEachRelationship((long) node, direction, this);
+                int size = weighted ? sortWeighted() : sort();
+                if (size > degreeCutoff) {
+                    inputs[node] = new NeighbourhoodInput(
+                            graph.toOriginalNodeId((long) node),
+                            Arrays.copyOf(targets, size),
+                            weighted ? Arrays.copyOf(weights, size) : null);
+                }
+            }
+        }
+
+        @Override
+        public boolean accept(long sourceNodeId, long targetNodeId, double weight) {
+            if (count == targets.length) {
+                targets = Arrays.copyOf(targets, count * 2);
+                if (weighted) {
+                    weights = Arrays.copyOf(weights, count * 2);
+                }
+            }
+            targets[count] = targetNodeId;
+            if (weighted) {
+                weights[count] = weight;
+            }
+            count++;
+            return true;
+        }
+
+        private int sort() {
+            Arrays.sort(targets, 0, count);
+            return dedup(null);
+        }
+
+        private int sortWeighted() {
+            if (!sorted()) {
+                long[] ts = targets;
+                int[] order = IndirectSort.mergesort(0, count, (a, b) -> Long.compare(ts[a], ts[b]));
+                long[] sortedTargets = new long[targets.length];
+                double[] sortedWeights = new double[weights.length];
+                for (int i = 0; i < count; i++) {
+                    sortedTargets[i] = targets[order[i]];
+                    sortedWeights[i] = weights[order[i]];
+                }
+                targets = sortedTargets;
+                weights = sortedWeights;
+            }
+            return dedup(weights);
+        }
+
+        private boolean sorted() {
+            for (int i = 1; i < count; i++) {
+                if (targets[i - 1] > targets[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        // keeps the first of equal targets, the merge sort is stable
+        private int dedup(double[] weights) {
+            if (count == 0) {
+                return 0;
+            }
+            int size = 1;
+            for (int i = 1; i < count; i++) {
+                if (targets[i] != targets[size - 1]) {
+                    targets[size] = targets[i];
+                    if (weights != null) {
+                        weights[size] = weights[i];
+                    }
+                    size++;
+                }
+            }
+            return size;
+        }
+    }
+}
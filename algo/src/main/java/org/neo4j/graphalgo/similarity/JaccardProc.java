@@ -52,8 +52,7 @@ public class JaccardProc extends SimilarityProc {
 
         SimilarityComputer<CategoricalInput> computer = similarityComputer(sourceIndexIds, targetIndexIds);
 
-        return topN(similarityStream(inputs, sourceIndexIds, targetIndexIds, computer, configuration, () -> null,
-                getSimilarityCutoff(configuration), getTopK(configuration)), getTopN(configuration));
+        return topN(categoricalSimilarityStream(inputs, sourceIndexIds, targetIndexIds, computer, configuration, getSimilarityCutoff(configuration), getTopK(configuration), CategoricalCandidates.Kind.JACCARD), getTopN(configuration));
     }
 
     @Procedure(name = "algo.similarity.jaccard", mode = Mode.WRITE)
@@ -79,9 +78,7 @@ public class JaccardProc extends SimilarityProc {
         SimilarityRecorder<CategoricalInput> recorder = categoricalSimilarityRecorder(computer, configuration);
 
         double similarityCutoff = getSimilarityCutoff(configuration);
-        Stream<SimilarityResult> stream = topN(similarityStream(inputs,sourceIndexIds, targetIndexIds, recorder, configuration, () -> null,
-
-                similarityCutoff, getTopK(configuration)), getTopN(configuration));
+        Stream<SimilarityResult> stream = topN(categoricalSimilarityStream(inputs, sourceIndexIds, targetIndexIds, recorder, configuration, similarityCutoff, getTopK(configuration), CategoricalCandidates.Kind.JACCARD), getTopN(configuration));
 
         boolean write = configuration.isWriteFlag(false) && similarityCutoff > 0.0;
         return writeAndAggregateResults(stream, inputs.length, sourceIndexIds.length, targetIndexIds.length, configuration, write, writeRelationshipType, writeProperty, recorder);
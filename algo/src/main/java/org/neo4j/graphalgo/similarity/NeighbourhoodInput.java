@@ -0,0 +1,77 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.similarity;
+
+/**
+ * The neighbourhood of a node as sorted node ids, optionally
+ * with the relationship weights as the components of its vector.
+ */
+final class NeighbourhoodInput extends CategoricalInput {
+
+    // null if unweighted, every neighbour then counts as 1
+    final double[] weights;
+    private final double norm;
+
+    NeighbourhoodInput(long id, long[] targets, double[] weights) {
+        super(id, targets);
+        this.weights = weights;
+        this.norm = norm(targets, weights);
+    }
+
+    private static double norm(long[] targets, double[] weights) {
+        if (weights == null) {
+            return Math.sqrt(targets.length);
+        }
+        double squares = 0d;
+        for (double weight : weights) {
+            squares += weight * weight;
+        }
+        return Math.sqrt(squares);
+    }
+
+    SimilarityResult cosine(double similarityCutoff, NeighbourhoodInput other, boolean bidirectional) {
+        long[] targets1 = targets;
+        long[] targets2 = other.targets;
+        int len1 = targets1.length;
+        int len2 = targets2.length;
+        int i = 0, j = 0;
+        long intersection = 0;
+        double dot = 0d;
+        while (i < len1 && j < len2) {
+            long t1 = targets1[i];
+            long t2 = targets2[j];
+            if (t1 < t2) {
+                i++;
+            } else if (t1 > t2) {
+                j++;
+            } else {
+                intersection++;
+                dot += weight(i++) * other.weight(j++);
+            }
+        }
+        double denominator = norm * other.norm;
+        double cosine = denominator == 0d ? 0d : dot / denominator;
+        if (similarityCutoff >= 0d && (cosine == 0d || cosine < similarityCutoff)) return null;
+        return new SimilarityResult(id, other.id, len1, len2, intersection, cosine, bidirectional, false);
+    }
+
+    private double weight(int index) {
+        return weights == null ? 1d : weights[index];
+    }
+}
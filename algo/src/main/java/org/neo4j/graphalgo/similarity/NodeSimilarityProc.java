@@ -0,0 +1,178 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.similarity;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.similarity.recorder.NonRecordingSimilarityRecorder;
+import org.neo4j.graphalgo.similarity.recorder.RecordingSimilarityRecorder;
+import org.neo4j.graphalgo.similarity.recorder.SimilarityRecorder;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.procedure.Description;
+import org.neo4j.procedure.Mode;
+import org.neo4j.procedure.Name;
+import org.neo4j.procedure.Procedure;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Similarity of the neighbourhoods of the nodes of a loaded graph.
+ * <p>
+ * Instead of item lists from Cypher, the neighbours of every node are read from
+ * a {@link HugeGraph} (or a named huge graph) and compared with jaccard, overlap
+ * or cosine similarity. Cosine uses the relationship weights as vector components.
+ */
+public class NodeSimilarityProc extends SimilarityProc {
+
+    private static final int[] ALL = new int[0];
+
+    @Procedure(name = "algo.nodeSimilarity.stream", mode = Mode.READ)
+    @Description("CALL algo.nodeSimilarity.stream(label, relationship, {similarity:'jaccard', direction:'OUTGOING', weightProperty:null, similarityCutoff:-1, degreeCutoff:0, topK:0}) " +
+            "YIELD item1, item2, count1, count2, intersection, similarity - computes the similarities of node neighbourhoods")
+    public Stream<SimilarityResult> nodeSimilarityStream(
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+        ProcedureConfiguration configuration = ProcedureConfiguration.create(config)
+                .overrideNodeLabelOrQuery(label)
+                .overrideRelationshipTypeOrQuery(relationship);
+        Similarity similarity = similarity(configuration);
+
+        NeighbourhoodInput[] inputs = neighbourhoods(configuration, similarity);
+        if (inputs.length == 0) {
+            return Stream.empty();
+        }
+
+        return topN(similarityStream(inputs, similarity.computer(), configuration, similarity), getTopN(configuration));
+    }
+
+    @Procedure(name = "algo.nodeSimilarity", mode = Mode.WRITE)
+    @Description("CALL algo.nodeSimilarity(label, relationship, {similarity:'jaccard', direction:'OUTGOING', weightProperty:null, similarityCutoff:-1, degreeCutoff:0, topK:0, write:false, writeRelationshipType:'SIMILAR', writeProperty:'score'}) " +
+            "YIELD p50, p75, p90, p99, p999, p100 - computes the similarities of node neighbourhoods")
+    public Stream<SimilaritySummaryResult> nodeSimilarity(
+            @Name(value = "label", defaultValue = "") String label,
+            @Name(value = "relationship", defaultValue = "") String relationship,
+            @Name(value = "config", defaultValue = "{}") Map<String, Object> config) {
+        ProcedureConfiguration configuration = ProcedureConfiguration.create(config)
+                .overrideNodeLabelOrQuery(label)
+                .overrideRelationshipTypeOrQuery(relationship);
+        Similarity similarity = similarity(configuration);
+
+        String writeRelationshipType = configuration.get("writeRelationshipType", "SIMILAR");
+        String writeProperty = configuration.getWriteProperty("score");
+
+        NeighbourhoodInput[] inputs = neighbourhoods(configuration, similarity);
+        if (inputs.length == 0) {
+            return emptyStream(writeRelationshipType, writeProperty);
+        }
+
+        boolean showComputations = configuration.get("showComputations", false);
+        SimilarityRecorder<NeighbourhoodInput> recorder = showComputations
+                ? new RecordingSimilarityRecorder<>(similarity.computer())
+                : new NonRecordingSimilarityRecorder<>(similarity.computer());
+
+        double similarityCutoff = getSimilarityCutoff(configuration);
+        Stream<SimilarityResult> stream = topN(similarityStream(inputs, recorder, configuration, similarity), getTopN(configuration));
+
+        boolean write = configuration.isWriteFlag(false) && similarityCutoff > 0.0;
+        return writeAndAggregateResults(stream, inputs.length, 0, 0, configuration, write, writeRelationshipType, writeProperty, recorder);
+    }
+
+    private NeighbourhoodInput[] neighbourhoods(ProcedureConfiguration configuration, Similarity similarity) {
+        Direction direction = configuration.getDirection(Direction.OUTGOING);
+        String weightProperty = similarity == Similarity.COSINE ? configuration.getWeightProperty() : null;
+
+        HugeGraph graph = (HugeGraph) new GraphLoader(api, Pools.DEFAULT)
+                .init(log, configuration.getNodeLabelOrQuery(), configuration.getRelationshipOrQuery(), configuration)
+                .withAllocationTracker(AllocationTracker.create())
+                .withOptionalRelationshipWeightsFromProperty(weightProperty, configuration.getWeightPropertyDefaultValue(1.0))
+                .withoutNodeWeights()
+                .direction(direction)
+                .load(configuration.getGraphImpl(HugeGraph.TYPE, HugeGraph.TYPE));
+
+        try {
+            // undirected graphs keep both directions in the outgoing adjacency
+            return GraphNeighbourhoods.of(
+                    graph,
+                    direction == Direction.BOTH ? Direction.OUTGOING : direction,
+                    weightProperty != null,
+                    getDegreeCutoff(configuration),
+                    configuration.getConcurrency(),
+                    TerminationFlag.wrap(transaction),
+                    Pools.DEFAULT);
+        } finally {
+            graph.release();
+        }
+    }
+
+    private Stream<SimilarityResult> similarityStream(NeighbourhoodInput[] inputs, SimilarityComputer<NeighbourhoodInput> computer, ProcedureConfiguration configuration, Similarity similarity) {
+        double cutoff = getSimilarityCutoff(configuration);
+        int topK = getTopK(configuration);
+        if (CategoricalCandidates.applicable(cutoff) && configuration.get("sparse", true)) {
+            CategoricalCandidates candidates = CategoricalCandidates.of(similarity.candidates, inputs, cutoff);
+            return similarityStream(inputs, ALL, ALL, computer, configuration, () -> null, candidates, cutoff, topK);
+        }
+        return similarityStream(inputs, ALL, ALL, computer, configuration, () -> null, cutoff, topK);
+    }
+
+    private static Similarity similarity(ProcedureConfiguration configuration) {
+        String name = configuration.getString("similarity", "jaccard");
+        try {
+            return Similarity.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown similarity '" + name + "', expected one of jaccard, overlap or cosine");
+        }
+    }
+
+    private enum Similarity {
+        JACCARD(CategoricalCandidates.Kind.JACCARD) {
+            @Override
+            SimilarityComputer<NeighbourhoodInput> computer() {
+                return (decoder, s, t, cutoff) -> s.jaccard(cutoff, t, true);
+            }
+        },
+        OVERLAP(CategoricalCandidates.Kind.OVERLAP) {
+            @Override
+            SimilarityComputer<NeighbourhoodInput> computer() {
+                return (decoder, s, t, cutoff) -> s.overlap(cutoff, t);
+            }
+        },
+        // the dot product is zero for neighbourhoods without shared neighbours, same candidates as overlap
+        COSINE(CategoricalCandidates.Kind.OVERLAP) {
+            @Override
+            SimilarityComputer<NeighbourhoodInput> computer() {
+                return (decoder, s, t, cutoff) -> s.cosine(cutoff, t, true);
+            }
+        };
+
+        final CategoricalCandidates.Kind candidates;
+
+        Similarity(CategoricalCandidates.Kind candidates) {
+            this.candidates = candidates;
+        }
+
+        abstract SimilarityComputer<NeighbourhoodInput> computer();
+    }
+}
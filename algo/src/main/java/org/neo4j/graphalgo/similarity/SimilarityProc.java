@@ -25,6 +25,7 @@ import com.carrotsearch.hppc.LongSet;
 import org.HdrHistogram.DoubleHistogram;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.ProcedureConstants;
+import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.graphalgo.similarity.recorder.NonRecordingSimilarityRecorder;
 import org.neo4j.graphalgo.similarity.recorder.RecordingSimilarityRecorder;
@@ -53,12 +54,7 @@ public class SimilarityProc {
     public KernelTransaction transaction;
 
     static TopKConsumer<SimilarityResult>[] initializeTopKConsumers(int length, int topK) {
-        Comparator<SimilarityResult> comparator = topK > 0 ? SimilarityResult.DESCENDING : SimilarityResult.ASCENDING;
-        topK = Math.abs(topK);
-
-        TopKConsumer<SimilarityResult>[] results = new TopKConsumer[length];
-        for (int i = 0; i < results.length; i++) results[i] = new TopKConsumer<>(topK, comparator);
-        return results;
+        return TopKConsumer.initializeTopKConsumers(length, topK);
     }
 
     static Stream<SimilarityResult> topN(Stream<SimilarityResult> stream, int topN) {
@@ -91,7 +87,7 @@ public class SimilarityProc {
     Long getWriteBatchSize(ProcedureConfiguration configuration) {
         return configuration.get("writeBatchSize", 10000L);
     }
-    Stream<SimilaritySummaryResult> writeAndAggregateResults(Stream<SimilarityResult> stream, int length, int sourceIdsLength, int targetIdsLength, ProcedureConfiguration configuration, boolean write, String writeRelationshipType, String writeProperty, Computations computations) {
+    Stream<SimilaritySummaryResult> writeAndAggregateResults(Stream<SimilarityResult> stream, int length, int sourceIdsLength, int targetIdsLength, ProcedureConfiguration configuration, boolean write, String writeRelationshipType, String writeProperty, SimilarityRecorder<?> similarityRecorder) {
         long writeBatchSize = getWriteBatchSize(configuration);
         AtomicLong similarityPairs = new AtomicLong();
         DoubleHistogram histogram = new DoubleHistogram(5);
@@ -107,12 +103,16 @@ public class SimilarityProc {
             stream.forEach(recorder);
         }
 
-        return Stream.of(SimilaritySummaryResult.from(length, sourceIdsLength, targetIdsLength, similarityPairs, computations.count(), writeRelationshipType, writeProperty, write, histogram));
+        return Stream.of(SimilaritySummaryResult.from(length, sourceIdsLength, targetIdsLength, similarityPairs, similarityRecorder.count(), writeRelationshipType, writeProperty, write, histogram, similarityRecorder.taskTimings().millis()));
+    }
+
+    private static TaskTimings taskTimings(SimilarityComputer<?> computer) {
+        return computer instanceof SimilarityRecorder ? ((SimilarityRecorder<?>) computer).taskTimings() : new TaskTimings();
     }
 
     Stream<SimilaritySummaryResult> emptyStream(String writeRelationshipType, String writeProperty) {
         return Stream.of(SimilaritySummaryResult.from(0, 0,0, new AtomicLong(0), -1, writeRelationshipType,
-                writeProperty, false, new DoubleHistogram(5)));
+                writeProperty, false, new DoubleHistogram(5), Collections.emptyList()));
     }
 
     Double getSimilarityCutoff(ProcedureConfiguration configuration) {
@@ -120,9 +120,13 @@ public class SimilarityProc {
     }
 
     <T> Stream<SimilarityResult> similarityStream(T[] inputs, int[] sourceIndexIds, int[] targetIndexIds, SimilarityComputer<T> computer, ProcedureConfiguration configuration, Supplier<RleDecoder> decoderFactory, double cutoff, int topK) {
+        return similarityStream(inputs, sourceIndexIds, targetIndexIds, computer, configuration, decoderFactory, () -> null, cutoff, topK);
+    }
+
+    <T> Stream<SimilarityResult> similarityStream(T[] inputs, int[] sourceIndexIds, int[] targetIndexIds, SimilarityComputer<T> computer, ProcedureConfiguration configuration, Supplier<RleDecoder> decoderFactory, Supplier<? extends SimilarityStreamGenerator.CandidateTargets> candidatesFactory, double cutoff, int topK) {
         TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
 
-        SimilarityStreamGenerator<T> generator = new SimilarityStreamGenerator<>(terminationFlag, configuration, decoderFactory, computer);
+        SimilarityStreamGenerator<T> generator = new SimilarityStreamGenerator<>(terminationFlag, configuration, decoderFactory, computer, candidatesFactory, taskTimings(computer));
         if (sourceIndexIds.length == 0 && targetIndexIds.length == 0) {
             return generator.stream(inputs, cutoff, topK);
         } else {
@@ -130,6 +134,36 @@ public class SimilarityProc {
         }
     }
 
+    /**
+     * Uses the {@link DenseSimilarityKernel} for all pairs top-k queries on dense vectors
+     * and falls back to the {@link SimilarityStreamGenerator} for everything else.
+     */
+    Stream<SimilarityResult> weightedSimilarityStream(WeightedInput[] inputs, int[] sourceIndexIds, int[] targetIndexIds, SimilarityComputer<WeightedInput> computer, ProcedureConfiguration configuration, Supplier<RleDecoder> decoderFactory, double cutoff, int topK, DenseSimilarityKernel.Metric metric) {
+        if (topK != 0 && sourceIndexIds.length == 0 && targetIndexIds.length == 0 && decoderFactory.get() == null) {
+            DenseSimilarityKernel kernel = DenseSimilarityKernel.of(metric, inputs);
+            if (kernel != null) {
+                if (computer instanceof SimilarityRecorder) {
+                    ((SimilarityRecorder<WeightedInput>) computer).recordComputations(kernel.computations());
+                }
+                TerminationFlag terminationFlag = TerminationFlag.wrap(transaction);
+                return kernel.topK(topK, cutoff, configuration.getConcurrency(), terminationFlag, Pools.DEFAULT, taskTimings(computer));
+            }
+        }
+        return similarityStream(inputs, sourceIndexIds, targetIndexIds, computer, configuration, decoderFactory, cutoff, topK);
+    }
+
+    /**
+     * All pairs of categorical inputs are only compared if they share a category,
+     * as long as the cutoff excludes pairs without any shared category.
+     */
+    Stream<SimilarityResult> categoricalSimilarityStream(CategoricalInput[] inputs, int[] sourceIndexIds, int[] targetIndexIds, SimilarityComputer<CategoricalInput> computer, ProcedureConfiguration configuration, double cutoff, int topK, CategoricalCandidates.Kind kind) {
+        Supplier<? extends SimilarityStreamGenerator.CandidateTargets> candidatesFactory = () -> null;
+        if (sourceIndexIds.length == 0 && targetIndexIds.length == 0 && CategoricalCandidates.applicable(cutoff) && configuration.get("sparse", true)) {
+            candidatesFactory = CategoricalCandidates.of(kind, inputs, cutoff);
+        }
+        return similarityStream(inputs, sourceIndexIds, targetIndexIds, computer, configuration, () -> null, candidatesFactory, cutoff, topK);
+    }
+
     CategoricalInput[] prepareCategories(List<Map<String, Object>> data, long degreeCutoff) {
         CategoricalInput[] ids = new CategoricalInput[data.size()];
         int idx = 0;
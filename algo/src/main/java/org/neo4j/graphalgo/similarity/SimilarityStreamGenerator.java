@@ -1,31 +1,60 @@
 package org.neo4j.graphalgo.similarity;
 
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.AsyncStream;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.Pools;
-import org.neo4j.graphalgo.core.utils.QueueBasedSpliterator;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
 
 import java.util.*;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
+import java.util.function.IntConsumer;
 import java.util.function.Supplier;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
-import java.util.stream.StreamSupport;
 
 public class SimilarityStreamGenerator<T> {
+
+    /**
+     * Selects the targets that a source has to be compared with when computing all pairs.
+     * Every task uses its own instance.
+     */
+    public interface CandidateTargets {
+        /**
+         * @return indexes greater than {@code sourceId} in ascending order
+         */
+        int[] targets(int sourceId);
+    }
+
     private final TerminationFlag terminationFlag;
     private final ProcedureConfiguration configuration;
     private final Supplier<RleDecoder> decoderFactory;
     private final SimilarityComputer<T> computer;
+    private final Supplier<? extends CandidateTargets> candidatesFactory;
+    private final TaskTimings taskTimings;
 
     public SimilarityStreamGenerator(TerminationFlag terminationFlag, ProcedureConfiguration configuration, Supplier<RleDecoder> decoderFactory, SimilarityComputer<T> computer) {
+        this(terminationFlag, configuration, decoderFactory, computer, () -> null);
+    }
+
+    public SimilarityStreamGenerator(TerminationFlag terminationFlag, ProcedureConfiguration configuration, Supplier<RleDecoder> decoderFactory, SimilarityComputer<T> computer, Supplier<? extends CandidateTargets> candidatesFactory) {
+        this(terminationFlag, configuration, decoderFactory, computer, candidatesFactory, new TaskTimings());
+    }
+
+    /**
+     * @param candidatesFactory creates the {@link CandidateTargets} for all pairs computations,
+     *                          every index after the source is compared if it supplies {@code null}
+     * @param taskTimings       records the time of every parallel task
+     */
+    public SimilarityStreamGenerator(TerminationFlag terminationFlag, ProcedureConfiguration configuration, Supplier<RleDecoder> decoderFactory, SimilarityComputer<T> computer, Supplier<? extends CandidateTargets> candidatesFactory, TaskTimings taskTimings) {
         this.terminationFlag = terminationFlag;
         this.configuration = configuration;
         this.decoderFactory = decoderFactory;
         this.computer = computer;
+        this.candidatesFactory = candidatesFactory;
+        this.taskTimings = taskTimings;
     }
 
     public Stream<SimilarityResult> stream(T[] inputs, int[] sourceIndexIds, int[] targetIndexIds, double cutoff, int topK) {
@@ -72,65 +101,51 @@ public class SimilarityStreamGenerator<T> {
         TopKConsumer<SimilarityResult>[] topKHolder = TopKConsumer.initializeTopKConsumers(length, topK);
         RleDecoder decoder = decoderFactory.get();
 
+        CandidateTargets candidates = candidatesFactory.get();
+
         SimilarityConsumer consumer = TopKConsumer.assignSimilarityPairs(topKHolder);
         for (int sourceId = 0; sourceId < length; sourceId++) {
-            computeSimilarityForSourceIndex(sourceId, inputs, length, cutoff, consumer, computer, decoder);
+            computeSimilarityForSourceIndex(sourceId, inputs, length, cutoff, consumer, computer, decoder, candidates);
         }
         return Arrays.stream(topKHolder).flatMap(TopKConsumer::stream);
     }
 
     private Stream<SimilarityResult> similarityStream(T[] inputs, int length, double cutoff, SimilarityComputer<T> computer, Supplier<RleDecoder> decoderFactory) {
         RleDecoder decoder = decoderFactory.get();
+        CandidateTargets candidates = candidatesFactory.get();
         return IntStream.range(0, length)
-                .boxed().flatMap(sourceId -> IntStream.range(sourceId + 1, length)
+                .boxed().flatMap(sourceId -> targets(sourceId, length, candidates)
                         .mapToObj(targetId -> computer.similarity(decoder, inputs[sourceId], inputs[targetId], cutoff)).filter(Objects::nonNull));
     }
 
     private Stream<SimilarityResult> similarityParallelStream(T[] inputs, int length, TerminationFlag terminationFlag, int concurrency, double cutoff, SimilarityComputer<T> computer, Supplier<RleDecoder> decoderFactory) {
-        int timeout = 100;
-        int queueSize = 1000;
-
-        int batchSize = ParallelUtil.adjustBatchSize(length, concurrency, 1);
-        int taskCount = (length / batchSize) + (length % batchSize > 0 ? 1 : 0);
-        Collection<Runnable> tasks = new ArrayList<>(taskCount);
-
-        ArrayBlockingQueue<SimilarityResult> queue = new ArrayBlockingQueue<>(queueSize);
+        FoldedRows rows = new FoldedRows(length, concurrency);
+        int taskCount = rows.taskCount();
+        Collection<AsyncStream.Producer<SimilarityResult>> producers = new ArrayList<>(taskCount);
 
-        int multiplier = batchSize < length ? batchSize : 1;
         for (int taskId = 0; taskId < taskCount; taskId++) {
-            int taskOffset = taskId;
-            tasks.add(() -> {
+            producers.add(sink -> taskTimings.timed(() -> {
                 RleDecoder decoder = decoderFactory.get();
-                for (int offset = 0; offset < batchSize; offset++) {
-                    int sourceId = taskOffset * multiplier + offset;
-                    if (sourceId < length)
-                        computeSimilarityForSourceIndex(sourceId, inputs, length, cutoff, (s, t, result) -> put(queue, result), computer, decoder);
+                CandidateTargets candidates = candidatesFactory.get();
+                SimilarityConsumer consumer = (s, t, result) -> sink.emit(result);
+                while (terminationFlag.running() && !sink.isCancelled() && rows.forEachRowOfNextChunk(sourceId ->
+                        computeSimilarityForSourceIndex(sourceId, inputs, length, cutoff, consumer, computer, decoder, candidates))) {
                 }
-            });
+            }).run());
         }
 
-        new Thread(() -> {
-            try {
-                ParallelUtil.runWithConcurrency(concurrency, tasks, terminationFlag, Pools.DEFAULT);
-            } finally {
-                put(queue, SimilarityResult.TOMB);
-            }
-        }).start();
-
-        QueueBasedSpliterator<SimilarityResult> spliterator = new QueueBasedSpliterator<>(queue, SimilarityResult.TOMB, terminationFlag, timeout);
-        return StreamSupport.stream(spliterator, false);
+        return asyncStream(producers, terminationFlag, concurrency);
     }
 
     private  Stream<SimilarityResult> similarityParallelStreamTopK(T[] inputs, int length, TerminationFlag terminationFlag, int concurrency, double cutoff, int topK, SimilarityComputer<T> computer, Supplier<RleDecoder> decoderFactory) {
-        int batchSize = ParallelUtil.adjustBatchSize(length, concurrency, 1);
-        int taskCount = (length / batchSize) + (length % batchSize > 0 ? 1 : 0);
+        FoldedRows rows = new FoldedRows(length, concurrency);
+        int taskCount = rows.taskCount();
         Collection<TopKTask> tasks = new ArrayList<>(taskCount);
 
-        int multiplier = batchSize < length ? batchSize : 1;
         for (int taskId = 0; taskId < taskCount; taskId++) {
-            tasks.add(new TopKTask<>(batchSize, taskId, multiplier, length, inputs, cutoff, topK, computer, decoderFactory.get()));
+            tasks.add(new TopKTask<>(rows, length, inputs, cutoff, topK, computer, decoderFactory.get(), candidatesFactory.get(), terminationFlag));
         }
-        ParallelUtil.runWithConcurrency(concurrency, tasks, terminationFlag, Pools.DEFAULT);
+        ParallelUtil.runWithConcurrency(concurrency, taskTimings.timed(tasks), Integer.MAX_VALUE, 10L, TimeUnit.MICROSECONDS, terminationFlag, Pools.DEFAULT);
 
         TopKConsumer<SimilarityResult>[] topKConsumers = TopKConsumer.initializeTopKConsumers(length, topK);
         for (Runnable task : tasks) ((TopKTask) task).mergeInto(topKConsumers);
@@ -146,6 +161,23 @@ public class SimilarityStreamGenerator<T> {
         }
     }
 
+    public static <T> void computeSimilarityForSourceIndex(int sourceId, T[] inputs, int length, double cutoff, SimilarityConsumer consumer, SimilarityComputer<T> computer, RleDecoder decoder, CandidateTargets candidates) {
+        if (candidates == null) {
+            computeSimilarityForSourceIndex(sourceId, inputs, length, cutoff, consumer, computer, decoder);
+            return;
+        }
+        for (int targetId : candidates.targets(sourceId)) {
+            SimilarityResult similarity = computer.similarity(decoder, inputs[sourceId], inputs[targetId], cutoff);
+            if (similarity != null) {
+                consumer.accept(sourceId, targetId, similarity);
+            }
+        }
+    }
+
+    private static IntStream targets(int sourceId, int length, CandidateTargets candidates) {
+        return candidates == null ? IntStream.range(sourceId + 1, length) : IntStream.of(candidates.targets(sourceId));
+    }
+
     // All Pairs
 
     private Stream<SimilarityResult> similarityStream(T[] inputs, int[] sourceIndexIds, int[] targetIndexIds, int length, double cutoff, SimilarityComputer<T> computer, Supplier<RleDecoder> decoderFactory) {
@@ -199,45 +231,37 @@ public class SimilarityStreamGenerator<T> {
 
         int sourceIdsLength = sourceIndexIds.length > 0 ? sourceIndexIds.length : length;
 
-        int timeout = 100;
-        int queueSize = 1000;
-
         int batchSize = ParallelUtil.adjustBatchSize(sourceIdsLength, concurrency, 1);
         int taskCount = (sourceIdsLength / batchSize) + (sourceIdsLength % batchSize > 0 ? 1 : 0);
-        Collection<Runnable> tasks = new ArrayList<>(taskCount);
-
-        ArrayBlockingQueue<SimilarityResult> queue = new ArrayBlockingQueue<>(queueSize);
+        Collection<AsyncStream.Producer<SimilarityResult>> producers = new ArrayList<>(taskCount);
 
         int multiplier = batchSize < length ? batchSize : 1;
         for (int taskId = 0; taskId < taskCount; taskId++) {
             int taskOffset = taskId;
-            tasks.add(() -> {
+            producers.add(sink -> taskTimings.timed(() -> {
                 RleDecoder decoder = decoderFactory.get();
-                sourceRange.get().skip(taskOffset * multiplier).limit(batchSize).forEach(sourceId ->
-                        computeSimilarityForSourceIndex(sourceId, inputs, cutoff, (s, t, result) -> put(queue, result), computer, decoder, targetRange));
+                sourceRange.get().skip(taskOffset * multiplier).limit(batchSize)
+                        .filter(sourceId -> !sink.isCancelled())
+                        .forEach(sourceId -> computeSimilarityForSourceIndex(sourceId, inputs, cutoff, (s, t, result) -> sink.emit(result), computer, decoder, targetRange));
 
-            });
+            }).run());
         }
 
-        new Thread(() -> {
-            try {
-                ParallelUtil.runWithConcurrency(concurrency, tasks, terminationFlag, Pools.DEFAULT);
-            } finally {
-                put(queue, SimilarityResult.TOMB);
-            }
-        }).start();
-
-        QueueBasedSpliterator<SimilarityResult> spliterator = new QueueBasedSpliterator<>(queue, SimilarityResult.TOMB, terminationFlag, timeout);
-        return StreamSupport.stream(spliterator, false);
+        return asyncStream(producers, terminationFlag, concurrency);
     }
 
-
-    private  void put(BlockingQueue<SimilarityResult> queue, SimilarityResult items) {
-        try {
-            queue.put(items);
-        } catch (InterruptedException e) {
-            // ignore
-        }
+    /**
+     * Streams the similarities of all tasks in parallel, the tasks wait when the consumer falls behind
+     * and stop when the result stream is closed.
+     */
+    private static Stream<SimilarityResult> asyncStream(
+            Collection<AsyncStream.Producer<SimilarityResult>> producers,
+            TerminationFlag terminationFlag,
+            int concurrency) {
+        return AsyncStream.<SimilarityResult>builder()
+                .withConcurrency(concurrency)
+                .withTerminationFlag(terminationFlag)
+                .stream(producers);
     }
 
     private Stream<SimilarityResult> similarityParallelStreamTopK(T[] inputs, int[] sourceIndexIds, int[] targetIndexIds, int length, TerminationFlag terminationFlag, int concurrency, double cutoff, int topK, SimilarityComputer<T> computer, Supplier<RleDecoder> decoderFactory) {
@@ -254,10 +278,57 @@ public class SimilarityStreamGenerator<T> {
         for (int taskId = 0; taskId < taskCount; taskId++) {
             tasks.add(new SourceTargetTopKTask<>(batchSize, taskId, multiplier, length, inputs, cutoff, topK, computer, decoderFactory.get(), sourceRange, targetRange));
         }
-        ParallelUtil.runWithConcurrency(concurrency, tasks, terminationFlag, Pools.DEFAULT);
+        ParallelUtil.runWithConcurrency(concurrency, taskTimings.timed(tasks), Integer.MAX_VALUE, 10L, TimeUnit.MICROSECONDS, terminationFlag, Pools.DEFAULT);
 
         TopKConsumer<SimilarityResult>[] topKConsumers = TopKConsumer.initializeTopKConsumers(length, topK);
         for (Runnable task : tasks) ((SourceTargetTopKTask) task).mergeInto(topKConsumers);
         return Arrays.stream(topKConsumers).flatMap(TopKConsumer::stream);
     }
+
+    /**
+     * Hands out the source rows of the upper triangle in chunks of equal cost.
+     * Row {@code i} is compared with {@code length - i - 1} targets, so every row is paired
+     * with its mirror row {@code length - 1 - i} and both are handed out in the same chunk.
+     * Tasks pull chunks until none are left, which evens out differences between the tasks.
+     */
+    static final class FoldedRows {
+        private static final int CHUNKS_PER_TASK = 16;
+
+        private final int length;
+        private final int taskCount;
+        private final int chunkSize;
+        private final AtomicInteger nextIndex = new AtomicInteger();
+
+        FoldedRows(int length, int concurrency) {
+            this.length = length;
+            this.taskCount = Math.max(1, Math.min(concurrency, (length + 1) / 2));
+            // an even chunk size keeps every row together with its mirror row
+            this.chunkSize = Math.max(2, (length / (taskCount * CHUNKS_PER_TASK)) & ~1);
+        }
+
+        int taskCount() {
+            return taskCount;
+        }
+
+        /**
+         * Calls the consumer for every row of the next chunk.
+         *
+         * @return {@code false} if all rows have been handed out
+         */
+        boolean forEachRowOfNextChunk(IntConsumer consumer) {
+            int start = nextIndex.getAndAdd(chunkSize);
+            if (start >= length) {
+                return false;
+            }
+            int end = Math.min(length, start + chunkSize);
+            for (int index = start; index < end; index++) {
+                consumer.accept(row(index));
+            }
+            return true;
+        }
+
+        int row(int index) {
+            return (index & 1) == 0 ? index >>> 1 : length - 1 - (index >>> 1);
+        }
+    }
 }
@@ -20,6 +20,7 @@ package org.neo4j.graphalgo.similarity;
 
 import org.HdrHistogram.DoubleHistogram;
 
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class SimilaritySummaryResult {
@@ -44,12 +45,13 @@ public class SimilaritySummaryResult {
     public final double p99;
     public final double p999;
     public final double p100;
+    public final List<Long> taskMillis;
 
     public SimilaritySummaryResult(long nodes, long sourceNodes, long targetNodes, long similarityPairs,
                                    long computations, boolean write, String writeRelationshipType, String writeProperty,
                                    double min, double max, double mean, double stdDev,
                                    double p25, double p50, double p75, double p90, double p95,
-                                   double p99, double p999, double p100) {
+                                   double p99, double p999, double p100, List<Long> taskMillis) {
         this.nodes = nodes;
         this.sourceNodes = sourceNodes;
         this.targetNodes = targetNodes;
@@ -70,9 +72,10 @@ public class SimilaritySummaryResult {
         this.p99 = p99;
         this.p999 = p999;
         this.p100 = p100;
+        this.taskMillis = taskMillis;
     }
 
-    static SimilaritySummaryResult from(long length, long sourceIdsLength, long targetIdsLength, AtomicLong similarityPairs, long computations, String writeRelationshipType, String writeProperty, boolean write, DoubleHistogram histogram) {
+    static SimilaritySummaryResult from(long length, long sourceIdsLength, long targetIdsLength, AtomicLong similarityPairs, long computations, String writeRelationshipType, String writeProperty, boolean write, DoubleHistogram histogram, List<Long> taskMillis) {
         long sourceNodes = sourceIdsLength == 0 ? length : sourceIdsLength;
         long targetNodes = targetIdsLength == 0 ? length : targetIdsLength;
 
@@ -96,7 +99,8 @@ public class SimilaritySummaryResult {
                 histogram.getValueAtPercentile(95D),
                 histogram.getValueAtPercentile(99D),
                 histogram.getValueAtPercentile(99.9D),
-                histogram.getValueAtPercentile(100D)
+                histogram.getValueAtPercentile(100D),
+                taskMillis
         );
     }
 }
@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.similarity;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Wall clock time of every task of a similarity computation.
+ */
+public final class TaskTimings {
+
+    private final List<Long> millis = new ArrayList<>();
+
+    public <T extends Runnable> Collection<Runnable> timed(Collection<T> tasks) {
+        List<Runnable> timed = new ArrayList<>(tasks.size());
+        for (Runnable task : tasks) {
+            timed.add(timed(task));
+        }
+        return timed;
+    }
+
+    public Runnable timed(Runnable task) {
+        return () -> {
+            long start = System.nanoTime();
+            try {
+                task.run();
+            } finally {
+                record(System.nanoTime() - start);
+            }
+        };
+    }
+
+    private synchronized void record(long nanos) {
+        millis.add(TimeUnit.NANOSECONDS.toMillis(nanos));
+    }
+
+    /**
+     * @return the time of every finished task in milliseconds, in order of completion
+     */
+    public synchronized List<Long> millis() {
+        return new ArrayList<>(millis);
+    }
+}
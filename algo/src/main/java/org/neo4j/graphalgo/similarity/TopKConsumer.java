@@ -52,7 +52,9 @@ public class TopKConsumer<T> implements Consumer<T> {
     }
 
     static TopKConsumer<SimilarityResult>[] initializeTopKConsumers(int length, int topK) {
-        Comparator<SimilarityResult> comparator = topK > 0 ? SimilarityResult.DESCENDING : SimilarityResult.ASCENDING;
+        // rows are not visited in a fixed order, so equal similarities must not be decided by arrival
+        Comparator<SimilarityResult> comparator = (topK > 0 ? SimilarityResult.DESCENDING : SimilarityResult.ASCENDING)
+                .thenComparingLong(result -> result.item2);
         topK = Math.abs(topK);
 
         TopKConsumer<SimilarityResult>[] results = new TopKConsumer[length];
@@ -96,7 +98,7 @@ public class TopKConsumer<T> implements Consumer<T> {
     }
 
     public void accept(TopKConsumer<T> other) {
-        if (minValue == null || count < topK || other.minValue != null && comparator.compare(other.minValue,minValue) < 0) {
+        if (minValue == null || count < topK || other.count > 0 && comparator.compare(other.heap[0],minValue) < 0) {
             for (int i=0;i<other.count;i++) {
                 accept(other.heap[i]);
             }
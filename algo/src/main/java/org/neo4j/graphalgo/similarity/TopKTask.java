@@ -1,27 +1,29 @@
 package org.neo4j.graphalgo.similarity;
 
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+
 import static org.neo4j.graphalgo.similarity.SimilarityStreamGenerator.computeSimilarityForSourceIndex;
 
 class TopKTask<T> implements Runnable {
-    private final int batchSize;
-    private final int taskOffset;
-    private final int multiplier;
+    private final SimilarityStreamGenerator.FoldedRows rows;
     private final int length;
     private final T[] ids;
     private final double similiarityCutoff;
     private final SimilarityComputer<T> computer;
     private RleDecoder decoder;
+    private final SimilarityStreamGenerator.CandidateTargets candidates;
+    private final TerminationFlag terminationFlag;
     private final TopKConsumer<SimilarityResult>[] topKConsumers;
 
-    TopKTask(int batchSize, int taskOffset, int multiplier, int length, T[] ids, double similiarityCutoff, int topK, SimilarityComputer<T> computer, RleDecoder decoder) {
-        this.batchSize = batchSize;
-        this.taskOffset = taskOffset;
-        this.multiplier = multiplier;
+    TopKTask(SimilarityStreamGenerator.FoldedRows rows, int length, T[] ids, double similiarityCutoff, int topK, SimilarityComputer<T> computer, RleDecoder decoder, SimilarityStreamGenerator.CandidateTargets candidates, TerminationFlag terminationFlag) {
+        this.rows = rows;
         this.length = length;
         this.ids = ids;
         this.similiarityCutoff = similiarityCutoff;
         this.computer = computer;
         this.decoder = decoder;
+        this.candidates = candidates;
+        this.terminationFlag = terminationFlag;
         topKConsumers = SimilarityProc.initializeTopKConsumers(length, topK);
     }
 
@@ -29,12 +31,8 @@ class TopKTask<T> implements Runnable {
     public void run() {
         SimilarityConsumer consumer = assignSimilarityPairs(topKConsumers);
 
-        for (int offset = 0; offset < batchSize; offset++) {
-            int sourceId = taskOffset * multiplier + offset;
-            if (sourceId < length) {
-
-                computeSimilarityForSourceIndex(sourceId, ids, length, similiarityCutoff, consumer, computer, decoder);
-            }
+        while (terminationFlag.running() && rows.forEachRowOfNextChunk(sourceId ->
+                computeSimilarityForSourceIndex(sourceId, ids, length, similiarityCutoff, consumer, computer, decoder, candidates))) {
         }
     }
 
@@ -62,6 +62,14 @@ class WeightedInput implements Comparable<WeightedInput>, SimilarityInput {
         return new WeightedInput(id, weights);
     }
 
+    double[] weights() {
+        return weights;
+    }
+
+    int itemCount() {
+        return itemCount;
+    }
+
     public int compareTo(WeightedInput o) {
         return Long.compare(id, o.id);
     }
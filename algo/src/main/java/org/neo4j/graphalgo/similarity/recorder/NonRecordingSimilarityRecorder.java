@@ -3,9 +3,11 @@ package org.neo4j.graphalgo.similarity.recorder;
 import org.neo4j.graphalgo.similarity.RleDecoder;
 import org.neo4j.graphalgo.similarity.SimilarityComputer;
 import org.neo4j.graphalgo.similarity.SimilarityResult;
+import org.neo4j.graphalgo.similarity.TaskTimings;
 
 public class NonRecordingSimilarityRecorder<T> implements SimilarityRecorder<T> {
     private final SimilarityComputer<T> computer;
+    private final TaskTimings taskTimings = new TaskTimings();
 
     public NonRecordingSimilarityRecorder(SimilarityComputer computer) {
         this.computer = computer;
@@ -15,6 +17,15 @@ public class NonRecordingSimilarityRecorder<T> implements SimilarityRecorder<T>
         return -1;
     }
 
+    @Override
+    public TaskTimings taskTimings() {
+        return taskTimings;
+    }
+
+    @Override
+    public void recordComputations(long computations) {
+    }
+
 
     @Override
     public SimilarityResult similarity(RleDecoder decoder, T source, T target, double cutoff) {
@@ -3,6 +3,7 @@ package org.neo4j.graphalgo.similarity.recorder;
 import org.neo4j.graphalgo.similarity.RleDecoder;
 import org.neo4j.graphalgo.similarity.SimilarityComputer;
 import org.neo4j.graphalgo.similarity.SimilarityResult;
+import org.neo4j.graphalgo.similarity.TaskTimings;
 
 import java.util.concurrent.atomic.LongAdder;
 
@@ -10,6 +11,7 @@ public class RecordingSimilarityRecorder<T> implements SimilarityRecorder<T> {
 
     private final SimilarityComputer<T> computer;
     private final LongAdder computations = new LongAdder();
+    private final TaskTimings taskTimings = new TaskTimings();
 
     public RecordingSimilarityRecorder(SimilarityComputer computer) {
         this.computer = computer;
@@ -19,6 +21,16 @@ public class RecordingSimilarityRecorder<T> implements SimilarityRecorder<T> {
         return computations.longValue();
     }
 
+    @Override
+    public TaskTimings taskTimings() {
+        return taskTimings;
+    }
+
+    @Override
+    public void recordComputations(long computations) {
+        this.computations.add(computations);
+    }
+
 
     @Override
     public SimilarityResult similarity(RleDecoder decoder, T source, T target, double cutoff) {
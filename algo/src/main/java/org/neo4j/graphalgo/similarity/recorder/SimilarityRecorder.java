@@ -3,6 +3,10 @@ package org.neo4j.graphalgo.similarity.recorder;
 import org.neo4j.graphalgo.similarity.Computations;
 import org.neo4j.graphalgo.similarity.SimilarityComputer;
 import org.neo4j.graphalgo.similarity.SimilarityProc;
+import org.neo4j.graphalgo.similarity.TaskTimings;
 
 public interface SimilarityRecorder<T> extends Computations, SimilarityComputer<T> {
+    void recordComputations(long computations);
+
+    TaskTimings taskTimings();
 }
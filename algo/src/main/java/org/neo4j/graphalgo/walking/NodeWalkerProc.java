@@ -19,17 +19,20 @@
 package org.neo4j.graphalgo.walking;
 
 import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.utils.*;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.impl.walking.HugeRandomWalk;
 import org.neo4j.graphalgo.impl.walking.NodeWalker;
 import org.neo4j.graphalgo.impl.walking.WalkPath;
 import org.neo4j.graphalgo.impl.walking.WalkResult;
 import org.neo4j.graphalgo.results.PageRankScore;
 import org.neo4j.graphdb.*;
 import org.neo4j.internal.kernel.api.NodeLabelIndexCursor;
+import org.neo4j.internal.kernel.api.TokenRead;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
@@ -37,6 +40,7 @@ import org.neo4j.procedure.*;
 
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.function.LongUnaryOperator;
 import java.util.stream.*;
 
 public class NodeWalkerProc  {
@@ -73,9 +77,7 @@ public class NodeWalkerProc  {
 
         final Graph graph = load(label, relationship, tracker, configuration.getGraphImpl(), statsBuilder, configuration);
 
-        int nodeCount = Math.toIntExact(graph.nodeCount());
-
-        if(nodeCount == 0) {
+        if(graph.nodeCount() == 0) {
             graph.release();
             return Stream.empty();
         }
@@ -83,7 +85,35 @@ public class NodeWalkerProc  {
 
         Number returnParam = configuration.get("return", 1d);
         Number inOut = configuration.get("inOut", 1d);
-        NodeWalker.NextNodeStrategy strategy = configuration.get("mode","random").equalsIgnoreCase("random") ?
+        boolean node2vec = !configuration.get("mode","random").equalsIgnoreCase("random");
+
+        if (graph instanceof HugeGraph) {
+            HugeRandomWalk randomWalk = new HugeRandomWalk(
+                    (HugeGraph) graph,
+                    direction,
+                    configuration.hasWeightProperty(),
+                    node2vec ? returnParam.doubleValue() : 1d,
+                    node2vec ? inOut.doubleValue() : 1d,
+                    configuration.getConcurrency(),
+                    Pools.DEFAULT,
+                    tracker)
+                    .withTerminationFlag(TerminationFlag.wrap(transaction))
+                    .prepare();
+
+            Boolean returnPath = configuration.get("path", false);
+            long limit = (walks == -1) ? graph.nodeCount() : walks;
+            LongUnaryOperator startNodes = hugeStartNodes(start, (HugeGraph) graph, limit);
+            if (startNodes == null) {
+                graph.release();
+                return Stream.empty();
+            }
+            return randomWalk.stream(limit, startNodes, (int) steps)
+                    .map(nodes -> new WalkResult(nodes, returnPath ? WalkPath.toPath(api, nodes) : null));
+        }
+
+        int nodeCount = Math.toIntExact(graph.nodeCount());
+
+        NodeWalker.NextNodeStrategy strategy = !node2vec ?
                 new NodeWalker.RandomNextNodeStrategy(graph, graph) :
                 new NodeWalker.Node2VecStrategy(graph,graph, returnParam.doubleValue(), inOut.doubleValue());
 
@@ -104,11 +134,50 @@ public class NodeWalkerProc  {
 
 
     private IntStream idStream(@Name(value = "start", defaultValue = "null") Object start, Graph graph, int limit) {
-        int nodeCount = Math.toIntExact(graph.nodeCount());
+        if (start instanceof String || start instanceof Collection || start instanceof Number) {
+            return originalIdStream(start, limit).mapToInt(graph::toMappedNodeId);
+        } else {
+            int nodeCount = Math.toIntExact(graph.nodeCount());
+            if (nodeCount < limit) {
+                return IntStream.range(0,nodeCount).limit(limit);
+            } else {
+                return IntStream.generate(() -> ThreadLocalRandom.current().nextInt(nodeCount)).limit(limit);
+            }
+        }
+    }
+
+    /**
+     * @return the start node of each walk or {@code null} if none of the given start nodes has been loaded
+     */
+    private LongUnaryOperator hugeStartNodes(Object start, HugeGraph graph, long limit) {
+        long nodeCount = graph.nodeCount();
+        if (start instanceof String || start instanceof Collection || start instanceof Number) {
+            long[] startNodes = originalIdStream(start, (int) Math.min(limit, Integer.MAX_VALUE))
+                    .map(graph::toHugeMappedNodeId)
+                    .filter(nodeId -> nodeId != -1L)
+                    .toArray();
+            if (startNodes.length == 0) {
+                return null;
+            }
+            return walkIndex -> startNodes[(int) (walkIndex % startNodes.length)];
+        } else if (nodeCount <= limit) {
+            return walkIndex -> walkIndex % nodeCount;
+        } else {
+            return walkIndex -> ThreadLocalRandom.current().nextLong(nodeCount);
+        }
+    }
+
+    private LongStream originalIdStream(Object start, int limit) {
         if (start instanceof String) {
             String label = start.toString();
             int labelId = transaction.tokenRead().nodeLabel(label);
+            if (labelId == TokenRead.NO_TOKEN) {
+                return LongStream.empty();
+            }
             int countWithLabel = Math.toIntExact(transaction.dataRead().countsForNodeWithoutTxState(labelId));
+            if (countWithLabel == 0) {
+                return LongStream.empty();
+            }
             NodeLabelIndexCursor cursor = transaction.cursors().allocateNodeLabelIndexCursor();
             transaction.dataRead().nodeLabelScan(labelId, cursor);
             cursor.next();
@@ -120,17 +189,11 @@ public class NodeWalkerProc  {
                 IntStream deltas = IntStream.range(0, limit).map(i -> indexes[i + 1] - indexes[i]);
                 ids = deltas.mapToLong(delta -> { while (delta > 0 && cursor.next()) delta--;return cursor.nodeReference(); });
             }
-            return ids.mapToInt(graph::toMappedNodeId).onClose(cursor::close);
+            return ids.onClose(cursor::close);
         } else if (start instanceof Collection) {
-            return ((Collection)start).stream().mapToLong(e -> ((Number)e).longValue()).mapToInt(graph::toMappedNodeId);
-        } else if (start instanceof Number) {
-            return LongStream.of(((Number)start).longValue()).mapToInt(graph::toMappedNodeId);
+            return ((Collection)start).stream().mapToLong(e -> ((Number)e).longValue());
         } else {
-            if (nodeCount < limit) {
-                return IntStream.range(0,nodeCount).limit(limit);
-            } else {
-                return IntStream.generate(() -> ThreadLocalRandom.current().nextInt(nodeCount)).limit(limit);
-            }
+            return LongStream.of(((Number)start).longValue());
         }
     }
 
@@ -147,7 +210,9 @@ public class NodeWalkerProc  {
                 .withDirection(configuration.getDirection(Direction.BOTH))
                 .withoutNodeProperties()
                 .withoutNodeWeights()
-                .withoutRelationshipWeights();
+                .withOptionalRelationshipWeightsFromProperty(
+                        configuration.getWeightProperty(),
+                        configuration.getWeightPropertyDefaultValue(1.0));
 
 
         try (ProgressTimer timer = ProgressTimer.start()) {
@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.results;
+
+import org.junit.Test;
+import org.neo4j.graphalgo.core.utils.Pools;
+
+import static org.junit.Assert.assertEquals;
+
+public class CommunitySizesTest {
+
+    @Test
+    public void countsCommunitiesWithinNodeIdRange() {
+        long[] communities = {0, 0, 0, 3, 3, 5, 5, 5, 5, 9};
+
+        CommunitySizes sizes = CommunitySizes.compute(communities.length, 1, Pools.DEFAULT, n -> communities[(int) n]);
+
+        assertEquals(4L, sizes.communityCount);
+        assertEquals(4L, sizes.histogram.getMaxValue());
+        assertEquals(1L, sizes.histogram.getMinValue());
+        assertEquals(4L, sizes.histogram.getTotalCount());
+    }
+
+    @Test
+    public void countsCommunitiesOutsideOfNodeIdRange() {
+        long[] communities = {42, 42, -1, 1337, 1337, 1337, 1};
+
+        CommunitySizes sizes = CommunitySizes.compute(communities.length, 1, Pools.DEFAULT, n -> communities[(int) n]);
+
+        assertEquals(4L, sizes.communityCount);
+        assertEquals(3L, sizes.histogram.getMaxValue());
+        assertEquals(1L, sizes.histogram.getMinValue());
+    }
+
+    @Test
+    public void parallelCountsEqualSequentialCounts() {
+        int nodeCount = 100_000;
+
+        CommunitySizes sequential = CommunitySizes.compute(nodeCount, 1, Pools.DEFAULT, n -> n % 1000);
+        CommunitySizes parallel = CommunitySizes.compute(nodeCount, 4, Pools.DEFAULT, n -> n % 1000);
+
+        assertEquals(1000L, sequential.communityCount);
+        assertEquals(sequential.communityCount, parallel.communityCount);
+        assertEquals(sequential.histogram, parallel.histogram);
+        assertEquals(100L, parallel.histogram.getValueAtPercentile(50));
+    }
+}
@@ -0,0 +1,121 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.similarity;
+
+import org.junit.Test;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.similarity.CategoricalCandidates.Kind;
+import org.neo4j.helpers.collection.MapUtil;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CategoricalCandidatesTest {
+
+    private static final SimilarityComputer<CategoricalInput> JACCARD = (decoder, s, t, cutoff) -> s.jaccard(cutoff, t, true);
+    private static final SimilarityComputer<CategoricalInput> OVERLAP = (decoder, s, t, cutoff) -> s.overlap(cutoff, t);
+
+    @Test
+    public void onlyPairsSharingACategory() {
+        CategoricalInput[] inputs = {
+                new CategoricalInput(0, new long[]{1, 2}),
+                new CategoricalInput(1, new long[]{3}),
+                new CategoricalInput(2, new long[]{2, 4}),
+                new CategoricalInput(3, new long[]{3, 5}),
+        };
+        SimilarityStreamGenerator.CandidateTargets candidates = CategoricalCandidates.of(Kind.OVERLAP, inputs, 0.0).get();
+
+        assertArrayEquals(new int[]{2}, candidates.targets(0));
+        assertArrayEquals(new int[]{3}, candidates.targets(1));
+        assertArrayEquals(new int[]{}, candidates.targets(2));
+        assertArrayEquals(new int[]{}, candidates.targets(3));
+    }
+
+    @Test
+    public void prefixAndSizeFilter() {
+        CategoricalInput[] inputs = {
+                new CategoricalInput(0, new long[]{1, 2, 3, 4}),
+                new CategoricalInput(1, new long[]{1, 2, 3, 5}),
+                new CategoricalInput(2, new long[]{1}),
+        };
+
+        // 2 is too small to reach 0.5 with any other input
+        assertArrayEquals(new int[]{1}, CategoricalCandidates.of(Kind.JACCARD, inputs, 0.5).get().targets(0));
+        assertArrayEquals(new int[]{1, 2}, CategoricalCandidates.of(Kind.JACCARD, inputs, 0.0).get().targets(0));
+    }
+
+    @Test
+    public void applicableForNonNegativeCutoffs() {
+        assertTrue(CategoricalCandidates.applicable(0.0));
+        assertTrue(CategoricalCandidates.applicable(0.5));
+        assertFalse(CategoricalCandidates.applicable(-1.0));
+    }
+
+    @Test
+    public void sameResultsAsAllPairs() {
+        CategoricalInput[] inputs = randomInputs();
+        for (double cutoff : new double[]{0.0, 0.1, 0.3, 0.6, 1.0}) {
+            for (int topK : new int[]{0, 3}) {
+                for (int concurrency : new int[]{1, 4}) {
+                    assertSameResults(inputs, Kind.JACCARD, JACCARD, cutoff, topK, concurrency);
+                    assertSameResults(inputs, Kind.OVERLAP, OVERLAP, cutoff, topK, concurrency);
+                }
+            }
+        }
+    }
+
+    private static void assertSameResults(CategoricalInput[] inputs, Kind kind, SimilarityComputer<CategoricalInput> computer, double cutoff, int topK, int concurrency) {
+        ProcedureConfiguration configuration = ProcedureConfiguration.create(MapUtil.map("concurrency", concurrency));
+        List<String> expected = new SimilarityStreamGenerator<>(TerminationFlag.RUNNING_TRUE, configuration, () -> null, computer)
+                .stream(inputs, cutoff, topK)
+                .map(CategoricalCandidatesTest::format)
+                .sorted()
+                .collect(Collectors.toList());
+        List<String> actual = new SimilarityStreamGenerator<>(TerminationFlag.RUNNING_TRUE, configuration, () -> null, computer, CategoricalCandidates.of(kind, inputs, cutoff))
+                .stream(inputs, cutoff, topK)
+                .map(CategoricalCandidatesTest::format)
+                .sorted()
+                .collect(Collectors.toList());
+
+        assertEquals(kind + " cutoff=" + cutoff + " topK=" + topK, expected, actual);
+    }
+
+    private static String format(SimilarityResult result) {
+        return result.item1 + "-" + result.item2 + ":" + result.intersection + ":" + result.similarity;
+    }
+
+    private static CategoricalInput[] randomInputs() {
+        Random random = new Random(42L);
+        CategoricalInput[] inputs = new CategoricalInput[200];
+        for (int i = 0; i < inputs.length; i++) {
+            int size = random.nextInt(8);
+            long[] targets = random.longs(size, 0, 60).distinct().sorted().toArray();
+            inputs[i] = new CategoricalInput(i, targets);
+        }
+        return inputs;
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.similarity;
+
+import org.junit.Test;
+import org.neo4j.graphalgo.core.ProcedureConfiguration;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.similarity.DenseSimilarityKernel.Metric;
+import org.neo4j.helpers.collection.MapUtil;
+
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class DenseSimilarityKernelTest {
+
+    private static final int LENGTH = 300;
+    private static final int DIMENSIONS = 17;
+
+    @Test
+    public void cosineSameAsWeightedInput() {
+        SimilarityComputer<WeightedInput> computer = (decoder, s, t, cutoff) -> s.cosineSquares(decoder, cutoff, t, true);
+        assertSameResults(Metric.COSINE_SQUARES, computer, 3, -1.0);
+        assertSameResults(Metric.COSINE_SQUARES, computer, 5, 0.25);
+        assertSameResults(Metric.COSINE_SQUARES, computer, -2, -1.0);
+    }
+
+    @Test
+    public void euclideanSameAsWeightedInput() {
+        SimilarityComputer<WeightedInput> computer = (decoder, s, t, cutoff) -> s.sumSquareDelta(decoder, cutoff, t, true);
+        assertSameResults(Metric.SQUARED_EUCLIDEAN, computer, -3, -1.0);
+        assertSameResults(Metric.SQUARED_EUCLIDEAN, computer, -5, 2.0);
+        assertSameResults(Metric.SQUARED_EUCLIDEAN, computer, 2, -1.0);
+    }
+
+    @Test
+    public void pearsonSameAsWeightedInput() {
+        SimilarityComputer<WeightedInput> computer = (decoder, s, t, cutoff) -> s.pearson(decoder, cutoff, t, true);
+        assertSameResults(Metric.PEARSON, computer, 3, -1.0);
+        assertSameResults(Metric.PEARSON, computer, 4, 0.1);
+    }
+
+    @Test
+    public void tiesPreferLowerIds() {
+        WeightedInput[] inputs = new WeightedInput[4];
+        for (int i = 0; i < inputs.length; i++) {
+            inputs[i] = WeightedInput.dense(i, new double[]{1.0, 2.0, 3.0});
+        }
+        List<SimilarityResult> results = DenseSimilarityKernel.of(Metric.COSINE_SQUARES, inputs)
+                .topK(2, -1.0, 1, TerminationFlag.RUNNING_TRUE, Pools.DEFAULT, new TaskTimings())
+                .collect(Collectors.toList());
+
+        assertEquals(8, results.size());
+        assertEquals(1L, results.get(0).item2);
+        assertEquals(2L, results.get(1).item2);
+        assertEquals(0L, results.get(6).item2);
+        assertEquals(1L, results.get(7).item2);
+    }
+
+    @Test
+    public void onlyDenseVectorsOfEqualLength() {
+        assertNotNull(DenseSimilarityKernel.of(Metric.COSINE_SQUARES, new WeightedInput[]{
+                WeightedInput.dense(0, new double[]{1.0, 2.0}, Double.NaN),
+                WeightedInput.dense(1, new double[]{2.0, 1.0}, Double.NaN)}));
+        assertNull(DenseSimilarityKernel.of(Metric.COSINE_SQUARES, new WeightedInput[]{
+                WeightedInput.dense(0, new double[]{1.0, 2.0}),
+                WeightedInput.dense(1, new double[]{2.0, 1.0, 3.0})}));
+        assertNull(DenseSimilarityKernel.of(Metric.COSINE_SQUARES, new WeightedInput[]{
+                WeightedInput.dense(0, new double[]{1.0, Double.NaN}, Double.NaN),
+                WeightedInput.dense(1, new double[]{2.0, 1.0}, Double.NaN)}));
+        assertNull(DenseSimilarityKernel.of(Metric.COSINE_SQUARES, new WeightedInput[]{
+                WeightedInput.dense(0, new double[]{1.0, 0.0}, 0.0),
+                WeightedInput.dense(1, new double[]{2.0, 1.0}, 0.0)}));
+    }
+
+    private static void assertSameResults(Metric metric, SimilarityComputer<WeightedInput> computer, int topK, double cutoff) {
+        WeightedInput[] inputs = randomInputs();
+        for (int concurrency : new int[]{1, 4}) {
+            ProcedureConfiguration configuration = ProcedureConfiguration.create(MapUtil.map("concurrency", concurrency));
+            List<SimilarityResult> expected = new SimilarityStreamGenerator<>(TerminationFlag.RUNNING_TRUE, configuration, () -> null, computer)
+                    .stream(inputs, cutoff, topK)
+                    .collect(Collectors.toList());
+            List<SimilarityResult> actual = DenseSimilarityKernel.of(metric, inputs)
+                    .topK(topK, cutoff, concurrency, TerminationFlag.RUNNING_TRUE, Pools.DEFAULT, new TaskTimings())
+                    .collect(Collectors.toList());
+
+            assertEquals(expected.size(), actual.size());
+            for (int i = 0; i < expected.size(); i++) {
+                SimilarityResult e = expected.get(i);
+                SimilarityResult a = actual.get(i);
+                assertEquals(e.item1, a.item1);
+                assertEquals(e.item2, a.item2);
+                assertEquals(e.count1, a.count1);
+                assertEquals(e.count2, a.count2);
+                assertEquals(e.similarity, a.similarity, 0.0);
+            }
+        }
+    }
+
+    private static WeightedInput[] randomInputs() {
+        Random random = new Random(42L);
+        WeightedInput[] inputs = new WeightedInput[LENGTH];
+        for (int i = 0; i < LENGTH; i++) {
+            double[] weights = new double[DIMENSIONS];
+            for (int d = 0; d < DIMENSIONS; d++) {
+                weights[d] = random.nextDouble() * 10.0 - 3.0;
+            }
+            inputs[i] = WeightedInput.dense(i, weights);
+        }
+        return inputs;
+    }
+}
@@ -7,6 +7,7 @@ import org.neo4j.graphalgo.core.ProcedureConfiguration;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.helpers.collection.MapUtil;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
@@ -17,6 +18,8 @@ import java.util.stream.Stream;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.hasItems;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -312,6 +315,50 @@ public class SimilarityStreamGeneratorTest {
         assertThat(rows, hasItems(similarityResult(7, 6, false, false)));
     }
 
+    @Test
+    public void foldedRowsHaveEqualCost() {
+        int length = 1001;
+        SimilarityStreamGenerator.FoldedRows rows = new SimilarityStreamGenerator.FoldedRows(length, concurrency);
+
+        boolean[] seen = new boolean[length];
+        List<Long> chunkCosts = new ArrayList<>();
+        long[] cost = new long[1];
+        while (rows.forEachRowOfNextChunk(row -> {
+            assertFalse(seen[row]);
+            seen[row] = true;
+            cost[0] += length - row - 1;
+        })) {
+            chunkCosts.add(cost[0]);
+            cost[0] = 0;
+        }
+
+        for (boolean row : seen) {
+            assertTrue(row);
+        }
+        // every full chunk consists of mirrored rows and compares the same number of pairs
+        long fullChunkCost = chunkCosts.get(0);
+        for (int i = 0; i < chunkCosts.size() - 1; i++) {
+            assertEquals(fullChunkCost, (long) chunkCosts.get(i));
+        }
+    }
+
+    @Test
+    public void recordsTaskTimings() {
+        ProcedureConfiguration configuration = ProcedureConfiguration.create(MapUtil.map("concurrency", concurrency));
+        TaskTimings taskTimings = new TaskTimings();
+
+        SimilarityStreamGenerator<CategoricalInput> generator = new SimilarityStreamGenerator<>(terminationFlag(), configuration, DECODER, ALL_PAIRS_COMPUTER, () -> null, taskTimings);
+
+        CategoricalInput[] ids = new CategoricalInput[10];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = new CategoricalInput(i, new long[]{});
+        }
+
+        assertEquals(10, generator.stream(ids, -1.0, 1).count());
+        int expectedTasks = concurrency == 1 ? 0 : new SimilarityStreamGenerator.FoldedRows(ids.length, concurrency).taskCount();
+        assertEquals(expectedTasks, taskTimings.millis().size());
+    }
+
     private TerminationFlag terminationFlag() {
         TerminationFlag terminationFlag = mock(TerminationFlag.class);
         when(terminationFlag.running()).thenReturn(true);
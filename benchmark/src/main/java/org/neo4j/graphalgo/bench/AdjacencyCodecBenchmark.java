@@ -0,0 +1,175 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.bench;
+
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodecs;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodes about one million relationships, stored in adjacency lists of the same degree,
+ * with every codec. The bytes per relationship of each codec are printed during setup.
+ */
+@Threads(1)
+@Fork(value = 1, jvmArgs = {"-Xms2g", "-Xmx2g"})
+@Warmup(iterations = 10, time = 1)
+@Measurement(iterations = 10, time = 1)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AdjacencyCodecBenchmark {
+
+    private static final int RELATIONSHIPS = 1 << 20;
+    private static final long NODE_COUNT = 1L << 24;
+
+    @Param({"VLONG", "GROUP_VARINT", "PFOR"})
+    AdjacencyCodecs codecs;
+
+    /**
+     * uniform: targets are spread over all nodes
+     * local: targets are close to the source node, as after reordering the nodes by locality
+     * skewed: mostly close targets with a few far away ones
+     */
+    @Param({"uniform", "local", "skewed"})
+    String distribution;
+
+    @Param({"32", "256", "4096"})
+    int degree;
+
+    private byte[] data;
+    private int[] offsets;
+    private long[] block;
+
+    @Setup
+    public void setup() {
+        SplittableRandom random = new SplittableRandom(1337L);
+        int lists = RELATIONSHIPS / degree;
+        AdjacencyCodec codec = codecs.forDegree(degree);
+        long[][] deltas = new long[lists][];
+        int size = 0;
+        for (int i = 0; i < lists; i++) {
+            deltas[i] = deltas(targets(random, random.nextLong(NODE_COUNT)));
+            size += 4 + codec.encodedSize(deltas[i], degree);
+        }
+
+        data = new byte[size];
+        offsets = new int[lists];
+        int offset = 0;
+        for (int i = 0; i < lists; i++) {
+            offsets[i] = offset;
+            offset = writeInt(data, offset, degree);
+            offset = codec.encode(deltas[i], degree, data, offset);
+        }
+        block = new long[AdjacencyCodec.BLOCK_SIZE];
+
+        System.out.printf(
+                "%n%s %s degree=%d: %.3f bytes per relationship%n",
+                codecs, distribution, degree, (double) size / (lists * degree));
+    }
+
+    @Benchmark
+    public long decode() {
+        AdjacencyCodec codec = codecs.forDegree(degree);
+        long[] block = this.block;
+        long sum = 0L;
+        for (int offset : offsets) {
+            int remaining = readInt(data, offset);
+            offset += 4;
+            long last = 0L;
+            while (remaining > 0) {
+                int limit = Math.min(remaining, AdjacencyCodec.BLOCK_SIZE);
+                offset = codec.decode(last, data, offset, limit, block);
+                last = block[limit - 1];
+                remaining -= limit;
+            }
+            sum += last;
+        }
+        return sum;
+    }
+
+    private long[] targets(SplittableRandom random, long source) {
+        long[] targets = new long[degree];
+        switch (distribution) {
+            case "uniform":
+                for (int i = 0; i < degree; i++) {
+                    targets[i] = random.nextLong(NODE_COUNT);
+                }
+                break;
+            case "local":
+                for (int i = 0; i < degree; i++) {
+                    targets[i] = Math.floorMod(source + random.nextLong(-4L * degree, 4L * degree), NODE_COUNT);
+                }
+                break;
+            case "skewed":
+                for (int i = 0; i < degree; i++) {
+                    targets[i] = random.nextInt(10) == 0
+                            ? random.nextLong(NODE_COUNT)
+                            : Math.floorMod(source + random.nextLong(-4L * degree, 4L * degree), NODE_COUNT);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown distribution " + distribution);
+        }
+        return targets;
+    }
+
+    // sorted deltas as stored by the loader, duplicates are replaced by the next larger unused id
+    private static long[] deltas(long[] targets) {
+        Arrays.sort(targets);
+        for (int i = 1; i < targets.length; i++) {
+            targets[i] = Math.max(targets[i], 1L + targets[i - 1]);
+        }
+        for (int i = targets.length - 1; i > 0; i--) {
+            targets[i] -= targets[i - 1];
+        }
+        return targets;
+    }
+
+    //@formatter:off
+    private static int writeInt(byte[] out, int offset, int value) {
+        out[    offset] = (byte) (value);
+        out[1 + offset] = (byte) (value >>> 8);
+        out[2 + offset] = (byte) (value >>> 16);
+        out[3 + offset] = (byte) (value >>> 24);
+        return 4 + offset;
+    }
+
+    private static int readInt(byte[] array, int offset) {
+        return   array[    offset] & 255        |
+                (array[1 + offset] & 255) <<  8 |
+                (array[2 + offset] & 255) << 16 |
+                (array[3 + offset] & 255) << 24;
+    }
+    //@formatter:on
+}
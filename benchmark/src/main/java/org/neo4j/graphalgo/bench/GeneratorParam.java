@@ -0,0 +1,83 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.bench;
+
+import org.neo4j.graphalgo.helper.generator.BarabasiAlbertGenerator;
+import org.neo4j.graphalgo.helper.generator.ErdosRenyiGenerator;
+import org.neo4j.graphalgo.helper.generator.GeneratedGraphs;
+import org.neo4j.graphalgo.helper.generator.GraphGenerator;
+import org.neo4j.graphalgo.helper.generator.PlantedPartitionGenerator;
+import org.neo4j.graphalgo.helper.generator.RMatGenerator;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.io.IOException;
+
+/**
+ * Generated benchmark graphs with {@code 2^scale} nodes and an average degree of {@link #EDGE_FACTOR}.
+ * The meaning of {@code skew} depends on the generator.
+ */
+public enum GeneratorParam {
+    /**
+     * skew is the probability of the top left quadrant, 0.57 for Graph500
+     */
+    RMAT {
+        @Override
+        GraphGenerator generator(int scale, double skew) {
+            return RMatGenerator.withSkew(scale, EDGE_FACTOR, skew, SEED);
+        }
+    },
+    /**
+     * skew is ignored, preferential attachment always leads to a power law
+     */
+    BARABASI_ALBERT {
+        @Override
+        GraphGenerator generator(int scale, double skew) {
+            return new BarabasiAlbertGenerator(1L << scale, EDGE_FACTOR, SEED);
+        }
+    },
+    /**
+     * skew is ignored, degrees are binomially distributed
+     */
+    ERDOS_RENYI {
+        @Override
+        GraphGenerator generator(int scale, double skew) {
+            return new ErdosRenyiGenerator(1L << scale, (1L << scale) * EDGE_FACTOR, SEED);
+        }
+    },
+    /**
+     * skew is the share of relationships within a community, with communities of about 1000 nodes
+     */
+    PLANTED_PARTITION {
+        @Override
+        GraphGenerator generator(int scale, double skew) {
+            long nodeCount = 1L << scale;
+            int communities = (int) Math.max(1L, nodeCount / 1000L);
+            return new PlantedPartitionGenerator(nodeCount, communities, EDGE_FACTOR, 1.0 - skew, SEED);
+        }
+    };
+
+    static final int EDGE_FACTOR = 16;
+    static final long SEED = 42L;
+
+    abstract GraphGenerator generator(int scale, double skew);
+
+    GraphDatabaseAPI openDb(int scale, double skew) throws IOException {
+        return GeneratedGraphs.openDb(generator(scale, skew), "2G");
+    }
+}
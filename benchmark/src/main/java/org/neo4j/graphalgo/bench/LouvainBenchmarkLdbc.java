@@ -20,7 +20,6 @@ package org.neo4j.graphalgo.bench;
 
 import org.neo4j.graphalgo.LouvainProc;
 import org.neo4j.graphalgo.core.utils.Pools;
-import org.neo4j.graphalgo.helper.ldbc.LdbcDownloader;
 import org.neo4j.graphdb.Result;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
@@ -52,9 +51,18 @@ public class LouvainBenchmarkLdbc {
     @Param({"4", "8"})
     int threads;
 
+    @Param({"PLANTED_PARTITION"})
+    GeneratorParam generator;
+
+    @Param({"20"})
+    int scale;
+
+    @Param({"0.7", "0.9"})
+    double skew;
+
     @Setup
     public void setup() throws KernelException, IOException {
-        db = LdbcDownloader.openDb();
+        db = generator.openDb(scale, skew);
 
         Procedures procedures = db.getDependencyResolver().resolveDependency(Procedures.class);
         procedures.registerProcedure(LouvainProc.class);
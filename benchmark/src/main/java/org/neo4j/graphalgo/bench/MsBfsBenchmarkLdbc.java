@@ -21,7 +21,6 @@ package org.neo4j.graphalgo.bench;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.utils.Pools;
-import org.neo4j.graphalgo.helper.ldbc.LdbcDownloader;
 import org.neo4j.graphalgo.impl.msbfs.MultiSourceBFS;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
@@ -60,15 +59,21 @@ public class MsBfsBenchmarkLdbc {
     @Param({"HEAVY", "HUGE"})
     GraphImpl graph;
 
-    @Param({"L01", "L10"})
-    String graphId;
+    @Param({"RMAT", "ERDOS_RENYI"})
+    GeneratorParam generator;
+
+    @Param({"20", "24"})
+    int scale;
+
+    @Param({"0.57"})
+    double skew;
 
     private GraphDatabaseAPI db;
     private Graph grph;
 
     @Setup
     public void setup() throws IOException {
-        db = LdbcDownloader.openDb(graphId);
+        db = generator.openDb(scale, skew);
         grph = new GraphLoader(db, Pools.DEFAULT)
                 .withDirection(Direction.OUTGOING)
                 .withoutRelationshipWeights()
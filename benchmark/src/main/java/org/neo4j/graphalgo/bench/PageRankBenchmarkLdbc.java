@@ -22,7 +22,6 @@ import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
-import org.neo4j.graphalgo.helper.ldbc.LdbcDownloader;
 import org.neo4j.graphalgo.impl.pagerank.PageRankAlgorithm;
 import org.neo4j.graphalgo.impl.results.CentralityResult;
 import org.neo4j.graphdb.Direction;
@@ -51,9 +50,16 @@ public class PageRankBenchmarkLdbc {
     @Param({"false"})
     boolean parallel;
 
-//    @Param({"L01", "L10"})
-    @Param({"L01"})
-    String graphId;
+    @Param({"RMAT"})
+    GeneratorParam generator;
+
+//    @Param({"20", "24"})
+    @Param({"20"})
+    int scale;
+
+//    @Param({"0.45", "0.57"})
+    @Param({"0.57"})
+    double skew;
 
     @Param({"5"})
 //    @Param({"5", "20"})
@@ -65,7 +71,7 @@ public class PageRankBenchmarkLdbc {
 
     @Setup
     public void setup() throws KernelException, IOException {
-        db = LdbcDownloader.openDb(graphId);
+        db = generator.openDb(scale, skew);
         grph = new GraphLoader(db, Pools.DEFAULT)
                 .withDirection(Direction.OUTGOING)
                 .withoutRelationshipWeights()
@@ -26,6 +26,8 @@ import org.neo4j.graphalgo.core.WeightMap;
 import org.neo4j.graphalgo.core.utils.ApproximatedImportProgress;
 import org.neo4j.graphalgo.core.utils.ImportProgress;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.jobs.Job;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.kernel.api.StatementConstants;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 import org.neo4j.logging.Log;
@@ -62,6 +64,23 @@ public abstract class GraphFactory {
 
     public abstract Graph build();
 
+    /**
+     * @return the heap that {@link #build()} needs for the configured setup
+     * @throws UnsupportedOperationException if {@link #canEstimateMemory()} is {@code false}
+     */
+    public abstract MemoryEstimation memoryEstimation();
+
+    /**
+     * @return {@code false} if the memory usage is unknown before the graph is built
+     */
+    public boolean canEstimateMemory() {
+        return true;
+    }
+
+    public GraphDimensions dimensions() {
+        return dimensions;
+    }
+
     protected ImportProgress importProgress(
             ProgressLogger progressLogger,
             GraphDimensions dimensions,
@@ -98,6 +117,6 @@ public abstract class GraphFactory {
     }
 
     private static ProgressLogger progressLogger(Log log, long time) {
-        return ProgressLogger.wrap(log, TASK_LOADING, time, TimeUnit.MILLISECONDS);
+        return ProgressLogger.wrap(log, TASK_LOADING, time, TimeUnit.MILLISECONDS, Job.Phase.LOAD);
     }
 }
@@ -20,6 +20,8 @@ package org.neo4j.graphalgo.api;
 
 import org.neo4j.graphalgo.PropertyMapping;
 import org.neo4j.graphalgo.core.DuplicateRelationshipsStrategy;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodecs;
+import org.neo4j.graphalgo.core.huge.loader.NodeOrdering;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphdb.Direction;
@@ -85,6 +87,10 @@ public class GraphSetup {
 
     public final PropertyMapping[] nodePropertyMappings;
     public final DuplicateRelationshipsStrategy duplicateRelationshipsStrategy;
+    // codecs for the adjacency lists of huge graphs
+    public final AdjacencyCodecs adjacencyCodecs;
+    // order of the mapped node ids of huge graphs
+    public final NodeOrdering nodeOrdering;
 
     /**
      * main ctor
@@ -129,6 +135,62 @@ public class GraphSetup {
             AllocationTracker tracker,
             String name,
             PropertyMapping[] nodePropertyMappings) {
+        this(
+                startLabel,
+                endLabel,
+                relationshipType,
+                direction,
+                relationWeightPropertyName,
+                relationDefaultWeight,
+                nodeWeightPropertyName,
+                nodeDefaultWeight,
+                nodePropertyName,
+                nodeDefaultPropertyValue,
+                params,
+                executor,
+                concurrency,
+                batchSize,
+                duplicateRelationshipsStrategy,
+                log,
+                logMillis,
+                sort,
+                loadAsUndirected,
+                tracker,
+                name,
+                nodePropertyMappings,
+                AdjacencyCodecs.VLONG,
+                NodeOrdering.NONE);
+    }
+
+    /**
+     * main ctor with the codecs to compress the adjacency lists of huge graphs
+     * and the order in which their nodes are mapped
+     */
+    public GraphSetup(
+            String startLabel,
+            String endLabel,
+            String relationshipType,
+            Direction direction,
+            String relationWeightPropertyName,
+            double relationDefaultWeight,
+            String nodeWeightPropertyName,
+            double nodeDefaultWeight,
+            String nodePropertyName,
+            double nodeDefaultPropertyValue,
+            Map<String, Object> params,
+            ExecutorService executor,
+            int concurrency,
+            int batchSize,
+            DuplicateRelationshipsStrategy duplicateRelationshipsStrategy,
+            Log log,
+            long logMillis,
+            boolean sort,
+            boolean loadAsUndirected,
+            AllocationTracker tracker,
+            String name,
+            PropertyMapping[] nodePropertyMappings,
+            AdjacencyCodecs adjacencyCodecs,
+            NodeOrdering nodeOrdering) {
 
         this.startLabel = startLabel;
         this.endLabel = endLabel;
@@ -153,6 +215,8 @@ public class GraphSetup {
         this.tracker = tracker;
         this.name = name;
         this.nodePropertyMappings = nodePropertyMappings;
+        this.adjacencyCodecs = adjacencyCodecs;
+        this.nodeOrdering = nodeOrdering;
     }
 
     /**
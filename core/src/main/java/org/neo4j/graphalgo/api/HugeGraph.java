@@ -49,6 +49,25 @@ public interface HugeGraph extends HugeIdMapping, HugeDegrees, HugeNodeIterator,
         return TYPE;
     }
 
+    @Override
+    default HugeGraph concurrentCopy() {
+        return this;
+    }
+
+    /**
+     * @return the sum of the positive weights of all relationships of the node in the given direction
+     */
+    default double weightedDegree(long nodeId, Direction direction) {
+        final double[] sum = {0.0};
+        forEachRelationship(nodeId, direction, (sourceNodeId, targetNodeId, weight) -> {
+            if (weight > 0) {
+                sum[0] += weight;
+            }
+            return true;
+        });
+        return sum[0];
+    }
+
     @Override
     default Collection<PrimitiveIntIterable> batchIterables(int batchSize) {
         return hugeBatchIterables(batchSize)
@@ -25,6 +25,17 @@ public interface HugeWeightMapping {
      */
     double weight(long source, long target);
 
+    /**
+     * returns the weight of relationships that have no explicit weight
+     */
+    double defaultValue();
+
+    /**
+     * returns true if any relationship that starts at the given node has
+     * an explicit weight, false if all of them have the default weight.
+     */
+    boolean hasExplicitWeights(long source);
+
     /**
      * release internal data structures and return an estimate how many
      * bytes were freed.
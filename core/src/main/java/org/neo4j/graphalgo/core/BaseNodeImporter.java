@@ -24,7 +24,10 @@ import org.neo4j.graphalgo.core.utils.StatementFunction;
 import org.neo4j.kernel.api.KernelTransaction;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
-public abstract class BaseNodeImporter<T> extends StatementFunction<T> {
+/**
+ * Scans the nodes of a label into a builder of type {@code B} that is finished into the mapping {@code T}.
+ */
+public abstract class BaseNodeImporter<B, T> extends StatementFunction<T> {
 
     private final ImportProgress progress;
     private final long nodeCount;
@@ -39,13 +42,12 @@ public abstract class BaseNodeImporter<T> extends StatementFunction<T> {
 
     @Override
     public final T apply(final KernelTransaction transaction) {
-        final T mapping = newNodeMap(nodeCount);
+        final B builder = newNodeMap(nodeCount);
         ReadHelper.readNodes(transaction.cursors(), transaction.dataRead(), labelId, (nodeId) -> {
-            addNodeId(mapping, nodeId);
+            addNodeId(builder, nodeId);
             progress.nodeImported();
         });
-        finish(mapping);
-        return mapping;
+        return finish(builder);
     }
 
     @Override
@@ -53,9 +55,9 @@ public abstract class BaseNodeImporter<T> extends StatementFunction<T> {
         return "node-importer";
     }
 
-    protected abstract T newNodeMap(long nodeCount);
+    protected abstract B newNodeMap(long nodeCount);
 
-    protected abstract void addNodeId(T map, long nodeId);
+    protected abstract void addNodeId(B builder, long nodeId);
 
-    protected abstract void finish(T map);
+    protected abstract T finish(B builder);
 }
@@ -49,6 +49,24 @@ public final class GraphDimensions extends StatementFunction<GraphDimensions> {
         this.setup = setup;
     }
 
+    /**
+     * Dimensions that are not read from a database, e.g. to estimate the memory
+     * requirements of a graph that does not exist yet.
+     */
+    public static GraphDimensions of(long nodeCount, long maxRelCount) {
+        GraphDimensions dimensions = new GraphDimensions(null, null);
+        dimensions.nodeCount = nodeCount;
+        dimensions.allNodesCount = nodeCount;
+        dimensions.maxRelCount = maxRelCount;
+        dimensions.allRelsCount = maxRelCount;
+        dimensions.labelId = Read.ANY_LABEL;
+        dimensions.relWeightId = TokenRead.NO_TOKEN;
+        dimensions.nodeWeightId = TokenRead.NO_TOKEN;
+        dimensions.nodePropId = TokenRead.NO_TOKEN;
+        dimensions.nodePropIds = new int[0];
+        return dimensions;
+    }
+
     public long hugeNodeCount() {
         return nodeCount;
     }
@@ -22,9 +22,14 @@ import org.neo4j.graphalgo.PropertyMapping;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodecs;
+import org.neo4j.graphalgo.core.huge.loader.NodeOrdering;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLoggerAdapter;
+import org.neo4j.graphalgo.core.utils.jobs.Job;
+import org.neo4j.graphalgo.core.utils.jobs.JobRegistry;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.Label;
@@ -86,6 +91,8 @@ public class GraphLoader {
     private boolean sort = false;
     private boolean loadAsUndirected = false;
     private PropertyMapping[] nodePropertyMappings = new PropertyMapping[0];
+    private AdjacencyCodecs adjacencyCodecs = AdjacencyCodecs.VLONG;
+    private NodeOrdering nodeOrdering = NodeOrdering.NONE;
 
     /**
      * Creates a new serial GraphLoader.
@@ -145,6 +152,25 @@ public class GraphLoader {
         return this;
     }
 
+    /**
+     * Compress the adjacency lists of a {@link org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory huge graph}
+     * with the given codecs. Other graph implementations ignore this setting.
+     */
+    public GraphLoader withAdjacencyCompression(AdjacencyCodecs adjacencyCodecs) {
+        this.adjacencyCodecs = adjacencyCodecs;
+        return this;
+    }
+
+    /**
+     * Relabel the nodes of a {@link org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory huge graph}
+     * in the given order before their adjacency lists are compressed.
+     * Other graph implementations ignore this setting.
+     */
+    public GraphLoader withNodeOrdering(NodeOrdering nodeOrdering) {
+        this.nodeOrdering = nodeOrdering;
+        return this;
+    }
+
     /**
      * Use the given {@link AllocationTracker} to track memory allocations during loading.
      * Can be null, in which case no tracking happens. The same effect can be
@@ -476,11 +502,33 @@ public class GraphLoader {
      * The chosen implementation determines the performance characteristics
      * during load and usage of the Graph.
      *
+     * Loading fails before anything is allocated if the estimated memory
+     * usage does not fit into the free heap, factories that cannot estimate
+     * their memory usage are not checked.
+     *
      * @return the freshly loaded graph
      */
     public Graph load(Class<? extends GraphFactory> factoryType) {
+        Job job = JobRegistry.job(api);
+        if (job != null) {
+            job.track(tracker);
+        }
+        GraphFactory factory = build(factoryType);
+        if (factory.canEstimateMemory()) {
+            MemoryEstimations.assertFitsInFreeHeap(
+                    factory.memoryEstimation().estimate(factory.dimensions(), concurrency),
+                    "Loading the graph");
+        }
+        return factory.build();
+    }
+
+    /**
+     * Creates the factory without loading the graph, e.g. to look at its {@link GraphFactory#dimensions()}
+     * or {@link GraphFactory#memoryEstimation()}.
+     */
+    public GraphFactory build(Class<? extends GraphFactory> factoryType) {
         final MethodHandle constructor = findConstructor(factoryType);
-        return invokeConstructor(constructor).build();
+        return invokeConstructor(constructor);
     }
 
     private MethodHandle findConstructor(Class<?> factoryType) {
@@ -527,7 +575,9 @@ public class GraphLoader {
                     loadAsUndirected,
                     tracker,
                     name,
-                    nodePropertyMappings);
+                    nodePropertyMappings,
+                    adjacencyCodecs,
+                    nodeOrdering);
     }
 
     /**
@@ -571,6 +621,8 @@ public class GraphLoader {
                 .withConcurrency(config.getConcurrency())
                 .withBatchSize(config.getBatchSize())
                 .withDuplicateRelationshipsStrategy(config.getDuplicateRelationshipsStrategy())
+                .withAdjacencyCompression(config.getAdjacencyCompression())
+                .withNodeOrdering(config.getNodeOrdering())
                 .withParams(config.getParams());
     }
 
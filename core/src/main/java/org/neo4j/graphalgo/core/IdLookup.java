@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import com.carrotsearch.hppc.LongIntHashMap;
+import org.neo4j.graphalgo.core.utils.paged.MemoryUsage;
+
+import java.util.Arrays;
+
+/**
+ * Maps original node ids to graph ids, returns {@code -1} for unknown ids.
+ * <p>
+ * For ids that are scanned in ascending order, the graph id of a node is its index in the
+ * sorted array of original ids and the lookup is chosen by the density of the ids:
+ * a direct array over all ids up to the highest one, pages of such an array that are only
+ * allocated for ranges that contain ids, or an interpolation search over the sorted ids
+ * that needs no additional memory at all.
+ */
+abstract class IdLookup {
+
+    /**
+     * the most bytes per node that the direct and paged lookups may use,
+     * the hash map they replace needs between 16 and 32 bytes per node
+     */
+    static final long MAX_BYTES_PER_NODE = 8L;
+
+    static final int PAGE_SHIFT = 12;
+    static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    abstract int get(long nodeId);
+
+    abstract long memoryUsage();
+
+    /**
+     * @param ids the first {@code length} ids must be strictly ascending
+     */
+    static IdLookup of(long[] ids, int length) {
+        if (length == 0) {
+            return new Sorted(ids, 0);
+        }
+        long span = ids[length - 1] + 1L;
+        long budget = length * MAX_BYTES_PER_NODE;
+        if (span <= Integer.MAX_VALUE - 8 && MemoryUsage.sizeOfIntArray((int) span) <= budget) {
+            return new Direct(ids, length, (int) span);
+        }
+        long numPages = ((span - 1L) >>> PAGE_SHIFT) + 1L;
+        if (numPages <= Integer.MAX_VALUE - 8) {
+            long usedPages = usedPages(ids, length);
+            long bytes = MemoryUsage.sizeOfObjectArray((int) numPages) +
+                    usedPages * MemoryUsage.sizeOfIntArray(PAGE_SIZE);
+            if (bytes <= budget) {
+                return new Paged(ids, length, (int) numPages);
+            }
+        }
+        return new Sorted(ids, length);
+    }
+
+    static IdLookup hashed(LongIntHashMap nodeToGraphIds) {
+        return new Hashed(nodeToGraphIds);
+    }
+
+    static boolean isStrictlyAscending(long[] ids, int length) {
+        for (int i = 1; i < length; i++) {
+            if (ids[i] <= ids[i - 1]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static long usedPages(long[] ids, int length) {
+        long pages = 0L;
+        long lastPage = -1L;
+        for (int i = 0; i < length; i++) {
+            long page = ids[i] >>> PAGE_SHIFT;
+            if (page != lastPage) {
+                pages++;
+                lastPage = page;
+            }
+        }
+        return pages;
+    }
+
+    static final class Direct extends IdLookup {
+        private final int[] graphIds;
+
+        private Direct(long[] ids, int length, int span) {
+            graphIds = new int[span];
+            Arrays.fill(graphIds, -1);
+            for (int i = 0; i < length; i++) {
+                graphIds[(int) ids[i]] = i;
+            }
+        }
+
+        @Override
+        int get(long nodeId) {
+            return nodeId >= 0L && nodeId < graphIds.length ? graphIds[(int) nodeId] : -1;
+        }
+
+        @Override
+        long memoryUsage() {
+            return MemoryUsage.sizeOfIntArray(graphIds.length);
+        }
+    }
+
+    static final class Paged extends IdLookup {
+        private final int[][] pages;
+        private final long memoryUsage;
+
+        private Paged(long[] ids, int length, int numPages) {
+            pages = new int[numPages][];
+            long memoryUsage = MemoryUsage.sizeOfObjectArray(numPages);
+            for (int i = 0; i < length; i++) {
+                int pageIndex = (int) (ids[i] >>> PAGE_SHIFT);
+                int[] page = pages[pageIndex];
+                if (page == null) {
+                    page = pages[pageIndex] = new int[PAGE_SIZE];
+                    Arrays.fill(page, -1);
+                    memoryUsage += MemoryUsage.sizeOfIntArray(PAGE_SIZE);
+                }
+                page[(int) ids[i] & PAGE_MASK] = i;
+            }
+            this.memoryUsage = memoryUsage;
+        }
+
+        @Override
+        int get(long nodeId) {
+            long pageIndex = nodeId >>> PAGE_SHIFT;
+            if (nodeId < 0L || pageIndex >= pages.length) {
+                return -1;
+            }
+            int[] page = pages[(int) pageIndex];
+            return page == null ? -1 : page[(int) nodeId & PAGE_MASK];
+        }
+
+        @Override
+        long memoryUsage() {
+            return memoryUsage;
+        }
+    }
+
+    /**
+     * Interpolation search over the sorted ids, which takes {@code O(log log n)} probes
+     * for evenly spread ids. Skewed ranges fall back to a binary search after a few probes.
+     */
+    static final class Sorted extends IdLookup {
+        private static final int MAX_INTERPOLATION_STEPS = 8;
+
+        private final long[] ids;
+        private final int length;
+
+        private Sorted(long[] ids, int length) {
+            this.ids = ids;
+            this.length = length;
+        }
+
+        @Override
+        int get(long nodeId) {
+            int low = 0;
+            int high = length - 1;
+            for (int step = 0; step < MAX_INTERPOLATION_STEPS; step++) {
+                if (low > high || nodeId < ids[low] || nodeId > ids[high]) {
+                    return -1;
+                }
+                long lowId = ids[low];
+                long range = ids[high] - lowId;
+                int pos = range == 0L
+                        ? low
+                        : low + (int) ((double) (nodeId - lowId) / range * (high - low));
+                long id = ids[pos];
+                if (id == nodeId) {
+                    return pos;
+                }
+                if (id < nodeId) {
+                    low = pos + 1;
+                } else {
+                    high = pos - 1;
+                }
+            }
+            int index = Arrays.binarySearch(ids, low, high + 1, nodeId);
+            return index >= 0 ? index : -1;
+        }
+
+        @Override
+        long memoryUsage() {
+            return 0L;
+        }
+    }
+
+    static final class Hashed extends IdLookup {
+        private final LongIntHashMap nodeToGraphIds;
+
+        private Hashed(LongIntHashMap nodeToGraphIds) {
+            this.nodeToGraphIds = nodeToGraphIds;
+        }
+
+        @Override
+        int get(long nodeId) {
+            return nodeToGraphIds.getOrDefault(nodeId, -1);
+        }
+
+        @Override
+        long memoryUsage() {
+            return MemoryUsage.sizeOfLongArray(nodeToGraphIds.keys.length) +
+                    MemoryUsage.sizeOfIntArray(nodeToGraphIds.values.length);
+        }
+    }
+}
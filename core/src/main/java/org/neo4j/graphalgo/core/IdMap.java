@@ -27,6 +27,9 @@ import org.neo4j.graphalgo.api.BatchNodeIterable;
 import org.neo4j.graphalgo.api.IdMapping;
 import org.neo4j.graphalgo.api.NodeIterator;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.MemoryUsage;
 
@@ -38,6 +41,10 @@ import java.util.function.IntPredicate;
 /**
  * This is basically a long to int mapper. It sorts the id's in ascending order so its
  * guaranteed that there is no ID greater then nextGraphId / capacity
+ * <p>
+ * Maps built from ascending ids by an {@link IdMapBuilder} are immutable and translate ids
+ * with a lookup that is chosen by the density of the ids, see {@link IdLookup}.
+ * Maps that are filled with {@link #add(long)} or {@link #mapOrGet(long)} use a hash map.
  */
 public final class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
 
@@ -45,13 +52,34 @@ public final class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
     private int nextGraphId;
     private long[] graphIds;
     private LongIntHashMap nodeToGraphIds;
+    private IdLookup lookup;
+
+    /**
+     * The original ids are always stored, scanned ids are looked up in them or in
+     * a direct or paged array of at most {@link IdLookup#MAX_BYTES_PER_NODE} per node.
+     */
+    public static MemoryEstimation memoryEstimation() {
+        return MemoryEstimations.builder(IdMap.class)
+                .perNode("graphIds", nodeCount -> MemoryUsage.sizeOfLongArray(Math.toIntExact(nodeCount)))
+                .perGraphDimension("nodeToGraphIds", (dimensions, concurrency) ->
+                        MemoryRange.of(0L, dimensions.hugeNodeCount() * IdLookup.MAX_BYTES_PER_NODE))
+                .build();
+    }
+
+    /**
+     * HPPC hash maps keep their load factor between 0.375 and 0.75.
+     */
+    public static MemoryRange hashMapEstimation(long entries, long bytesPerEntry) {
+        return MemoryRange.of(
+                (long) (entries * bytesPerEntry / 0.75),
+                (long) (entries * bytesPerEntry / 0.375));
+    }
 
     /**
      * initialize the map with maximum node capacity
      */
     public IdMap(final int capacity) {
-        nodeToGraphIds = new LongIntHashMap(capacity);
-        iter = new IdIterator();
+        this(null, new LongIntHashMap(capacity));
     }
 
     /**
@@ -60,17 +88,34 @@ public final class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
     public IdMap(
             long[] graphIds,
             LongIntHashMap nodeToGraphIds) {
-        this.nextGraphId = graphIds.length;
+        this.nextGraphId = graphIds == null ? 0 : graphIds.length;
         this.graphIds = graphIds;
         this.nodeToGraphIds = nodeToGraphIds;
+        this.lookup = IdLookup.hashed(nodeToGraphIds);
         iter = new IdIterator();
     }
 
+    /**
+     * @param graphIds strictly ascending original ids, the graph id of a node is its index
+     */
+    IdMap(long[] graphIds, AllocationTracker tracker) {
+        this.nextGraphId = graphIds.length;
+        this.graphIds = graphIds;
+        this.lookup = IdLookup.of(graphIds, graphIds.length);
+        iter = new IdIterator();
+        tracker.add(MemoryUsage.shallowSizeOfInstance(IdMap.class));
+        tracker.add(MemoryUsage.sizeOfLongArray(graphIds.length));
+        tracker.add(lookup.memoryUsage());
+    }
+
     public PrimitiveIntIterator iterator() {
         return iter.reset(nextGraphId);
     }
 
     public int mapOrGet(long longValue) {
+        if (nodeToGraphIds == null) {
+            return lookup.get(longValue);
+        }
         int intValue = nodeToGraphIds.getOrDefault(longValue, -1);
         if (intValue == -1) {
             intValue = nextGraphId++;
@@ -80,18 +125,23 @@ public final class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
     }
 
     public void add(long longValue) {
+        if (nodeToGraphIds == null) {
+            throw new UnsupportedOperationException("IdMaps built from ascending ids are immutable");
+        }
         int intValue = nextGraphId++;
         nodeToGraphIds.put(longValue, intValue);
     }
 
     public int get(long longValue) {
-        return nodeToGraphIds.getOrDefault(longValue, -1);
+        return lookup.get(longValue);
     }
 
     public void buildMappedIds(AllocationTracker tracker) {
+        if (nodeToGraphIds == null) {
+            return;
+        }
         tracker.add(MemoryUsage.shallowSizeOfInstance(IdMap.class));
-        tracker.add(MemoryUsage.sizeOfLongArray(nodeToGraphIds.keys.length));
-        tracker.add(MemoryUsage.sizeOfIntArray(nodeToGraphIds.values.length));
+        tracker.add(lookup.memoryUsage());
         tracker.add(MemoryUsage.sizeOfLongArray(size()));
         graphIds = new long[size()];
         for (final LongIntCursor cursor : nodeToGraphIds) {
@@ -107,8 +157,18 @@ public final class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
         return graphIds;
     }
 
+    /**
+     * Maps built from ascending ids create the hash map on every call.
+     */
     public LongIntMap nodeToGraphIds() {
-        return nodeToGraphIds;
+        if (nodeToGraphIds != null) {
+            return nodeToGraphIds;
+        }
+        LongIntHashMap map = new LongIntHashMap(nextGraphId);
+        for (int i = 0; i < nextGraphId; i++) {
+            map.put(graphIds[i], i);
+        }
+        return map;
     }
 
     public void forEach(IntPredicate consumer) {
@@ -132,7 +192,7 @@ public final class IdMap implements IdMapping, NodeIterator, BatchNodeIterable {
 
     @Override
     public boolean contains(final long nodeId) {
-        return nodeToGraphIds.containsKey(nodeId);
+        return lookup.get(nodeId) != -1;
     }
 
     @Override
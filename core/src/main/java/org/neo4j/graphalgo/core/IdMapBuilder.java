@@ -0,0 +1,63 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import com.carrotsearch.hppc.LongIntHashMap;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.MemoryUsage;
+
+import java.util.Arrays;
+
+/**
+ * Collects the original ids of the nodes in the order they are scanned.
+ * Ascending ids, as they come from label and node scans, are mapped without a hash map.
+ */
+public final class IdMapBuilder {
+
+    private long[] ids;
+    private int length;
+
+    public IdMapBuilder(int expectedNodeCount) {
+        ids = new long[Math.max(expectedNodeCount, 0)];
+    }
+
+    public void add(long nodeId) {
+        if (length == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(16, length + (length >> 1)));
+        }
+        ids[length++] = nodeId;
+    }
+
+    public IdMap build(AllocationTracker tracker) {
+        long[] graphIds = length == ids.length ? ids : Arrays.copyOf(ids, length);
+        ids = null;
+        if (IdLookup.isStrictlyAscending(graphIds, graphIds.length)) {
+            return new IdMap(graphIds, tracker);
+        }
+        LongIntHashMap nodeToGraphIds = new LongIntHashMap(graphIds.length);
+        for (int i = 0; i < graphIds.length; i++) {
+            nodeToGraphIds.put(graphIds[i], i);
+        }
+        tracker.add(MemoryUsage.shallowSizeOfInstance(IdMap.class));
+        tracker.add(MemoryUsage.sizeOfLongArray(nodeToGraphIds.keys.length));
+        tracker.add(MemoryUsage.sizeOfIntArray(nodeToGraphIds.values.length));
+        tracker.add(MemoryUsage.sizeOfLongArray(graphIds.length));
+        return new IdMap(graphIds, nodeToGraphIds);
+    }
+}
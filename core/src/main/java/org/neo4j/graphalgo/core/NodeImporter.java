@@ -22,7 +22,7 @@ import org.neo4j.graphalgo.core.utils.ImportProgress;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
-public final class NodeImporter extends BaseNodeImporter<IdMap> {
+public final class NodeImporter extends BaseNodeImporter<IdMapBuilder, IdMap> {
 
     private final AllocationTracker tracker;
 
@@ -37,17 +37,17 @@ public final class NodeImporter extends BaseNodeImporter<IdMap> {
     }
 
     @Override
-    protected IdMap newNodeMap(final long nodeCount) {
-        return new IdMap((int) nodeCount);
+    protected IdMapBuilder newNodeMap(final long nodeCount) {
+        return new IdMapBuilder((int) nodeCount);
     }
 
     @Override
-    protected void addNodeId(final IdMap map, final long nodeId) {
-        map.add(nodeId);
+    protected void addNodeId(final IdMapBuilder builder, final long nodeId) {
+        builder.add(nodeId);
     }
 
     @Override
-    protected void finish(final IdMap map) {
-        map.buildMappedIds(tracker);
+    protected IdMap finish(final IdMapBuilder builder) {
+        return builder.build(tracker);
     }
 }
@@ -23,7 +23,9 @@ import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.core.heavyweight.HeavyCypherGraphFactory;
 import org.neo4j.graphalgo.core.heavyweight.HeavyGraph;
 import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodecs;
 import org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory;
+import org.neo4j.graphalgo.core.huge.loader.NodeOrdering;
 import org.neo4j.graphalgo.core.lightweight.LightGraph;
 import org.neo4j.graphalgo.core.loading.LoadGraphFactory;
 import org.neo4j.graphalgo.core.neo4jview.GraphView;
@@ -31,6 +33,7 @@ import org.neo4j.graphalgo.core.neo4jview.GraphViewFactory;
 import org.neo4j.graphalgo.core.utils.Directions;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.write.FileExporter;
 import org.neo4j.graphdb.Direction;
 import org.neo4j.graphdb.RelationshipType;
 
@@ -209,6 +212,19 @@ public class ProcedureConfiguration {
         return get(ProcedureConstants.WRITE_FLAG, defaultValue);
     }
 
+    /**
+     * return the directory to export the results into, or null if they should not be exported
+     *
+     * @return directory within the export root or null
+     */
+    public String getExportPath() {
+        return getString(ProcedureConstants.EXPORT_PATH, null);
+    }
+
+    public FileExporter.Format getExportFormat() {
+        return FileExporter.Format.parse(getString(ProcedureConstants.EXPORT_FORMAT, ProcedureConstants.EXPORT_FORMAT_DEFAULT));
+    }
+
     public boolean isCypherFlag(boolean defaultValue) {
         return (boolean) config.getOrDefault(ProcedureConstants.CYPHER_QUERY, defaultValue);
     }
@@ -239,6 +255,17 @@ public class ProcedureConfiguration {
         return getNumber(ProcedureConstants.ITERATIONS_PARAM, defaultValue).intValue();
     }
 
+    /**
+     * return the change between two iterations below which an iterative
+     * algorithm is considered converged, 0 to always compute all iterations
+     *
+     * @param defaultValue a default value
+     * @return
+     */
+    public double getTolerance(double defaultValue) {
+        return getNumber(ProcedureConstants.TOLERANCE_PARAM, defaultValue).doubleValue();
+    }
+
     /**
      * get the batchSize for parallel evaluation
      *
@@ -427,5 +454,23 @@ public class ProcedureConfiguration {
         return strategy != null ? DuplicateRelationshipsStrategy.valueOf(strategy.toUpperCase()) : DuplicateRelationshipsStrategy.NONE;
     }
 
+    /**
+     * return the codecs to compress the adjacency lists of huge graphs
+     *
+     * @return the adjacency codecs, vlong if not set
+     */
+    public AdjacencyCodecs getAdjacencyCompression() {
+        return AdjacencyCodecs.parse(getString(ProcedureConstants.COMPRESSION, ProcedureConstants.COMPRESSION_DEFAULT));
+    }
+
+    /**
+     * return the order in which the nodes of huge graphs are mapped
+     *
+     * @return the node ordering, none if not set
+     */
+    public NodeOrdering getNodeOrdering() {
+        return NodeOrdering.parse(getString(ProcedureConstants.REORDER, ProcedureConstants.REORDER_DEFAULT));
+    }
+
 
 }
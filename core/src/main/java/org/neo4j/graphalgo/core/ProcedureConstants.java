@@ -41,6 +41,20 @@ public class ProcedureConstants {
 
     public static final String WRITE_PROPERTY_DEFAULT = "writeValue";
 
+    public static final String EXPORT_PATH = "exportPath";
+
+    public static final String EXPORT_FORMAT = "exportFormat";
+
+    public static final String EXPORT_FORMAT_DEFAULT = "csv";
+
+    public static final String COMPRESSION = "compression";
+
+    public static final String COMPRESSION_DEFAULT = "vlong";
+
+    public static final String REORDER = "reorder";
+
+    public static final String REORDER_DEFAULT = "none";
+
     public static final String STATS_FLAG = "stats";
 
     public static final double DEFAULT_PROPERTY_VALUE_DEFAULT = 1.0;
@@ -49,6 +63,10 @@ public class ProcedureConstants {
 
     public static final int ITERATIONS_DEFAULT = 1;
 
+    public static final String TOLERANCE_PARAM = "tolerance";
+
+    public static final double TOLERANCE_DEFAULT = 0.0;
+
     public static final String BATCH_SIZE_PARAM = "batchSize";
 
     public static final String DIRECTION = "direction";
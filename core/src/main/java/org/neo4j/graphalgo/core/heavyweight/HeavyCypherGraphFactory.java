@@ -24,6 +24,7 @@ import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.api.GraphSetup;
 import org.neo4j.graphalgo.api.WeightMapping;
 import org.neo4j.graphalgo.core.WeightMap;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
 import java.util.HashMap;
@@ -51,6 +52,20 @@ public class HeavyCypherGraphFactory extends GraphFactory {
         this.relationshipLoader = new CypherRelationshipLoader(api, setup);
     }
 
+    /**
+     * The dimensions of a graph loaded from queries are only known once the queries ran,
+     * there is nothing to estimate ahead of loading.
+     */
+    @Override
+    public boolean canEstimateMemory() {
+        return false;
+    }
+
+    @Override
+    public MemoryEstimation memoryEstimation() {
+        throw new UnsupportedOperationException("The memory usage of a graph loaded with Cypher queries cannot be estimated");
+    }
+
     public Graph build() {
         Nodes nodes = nodeLoader.load();
         Relationships relationships = relationshipLoader.load(nodes);
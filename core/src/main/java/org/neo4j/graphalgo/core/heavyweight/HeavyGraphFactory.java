@@ -25,11 +25,18 @@ import org.neo4j.graphalgo.api.GraphSetup;
 import org.neo4j.graphalgo.api.WeightMapping;
 import org.neo4j.graphalgo.core.IdMap;
 import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+import org.neo4j.kernel.api.StatementConstants;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
 import java.util.*;
 import java.util.function.Supplier;
 
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.sizeOfIntArray;
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.sizeOfObjectArray;
+
 /**
  * @author mknblch
  */
@@ -41,6 +48,53 @@ public class HeavyGraphFactory extends GraphFactory {
         super(api, setup);
     }
 
+    @Override
+    public MemoryEstimation memoryEstimation() {
+        return memoryEstimation(setup);
+    }
+
+    /**
+     * The id map, an int array per node and loaded direction and a single hash map
+     * from relationship to weight, if a weight property exists.
+     */
+    public static MemoryEstimation memoryEstimation(GraphSetup setup) {
+        boolean incoming = setup.loadIncoming && !setup.loadAsUndirected;
+        boolean outgoing = setup.loadOutgoing || setup.loadAsUndirected;
+        long relationshipsPerRecord = setup.loadAsUndirected ? 2L : 1L;
+        MemoryEstimations.Builder builder = MemoryEstimations.builder(HeavyGraph.class)
+                .field("nodeIdMap", IdMap.memoryEstimation());
+        if (outgoing) {
+            builder.field("outgoing", adjacencyEstimation(relationshipsPerRecord));
+        }
+        if (incoming) {
+            builder.field("incoming", adjacencyEstimation(1L));
+        }
+        return builder
+                .perGraphDimension("weights", (dimensions, concurrency) ->
+                        dimensions.relWeightId() == StatementConstants.NO_SUCH_PROPERTY_KEY
+                                ? MemoryRange.empty()
+                                : IdMap.hashMapEstimation(
+                                        dimensions.maxRelCount() * relationshipsPerRecord,
+                                        Long.BYTES + Double.BYTES))
+                .build();
+    }
+
+    // arrays are armed with the expected degree but may grow by half for duplicates and undirected loading
+    private static MemoryEstimation adjacencyEstimation(long relationshipsPerRecord) {
+        return MemoryEstimations.builder("AdjacencyMatrix")
+                .perNode("offsets", nodeCount -> sizeOfIntArray(Math.toIntExact(nodeCount)))
+                .perGraphDimension("adjacency", (dimensions, concurrency) -> {
+                    int nodeCount = dimensions.nodeCount();
+                    long relationships = dimensions.maxRelCount() * relationshipsPerRecord;
+                    long fixed = sizeOfObjectArray(nodeCount) + nodeCount * sizeOfIntArray(0);
+                    return MemoryRange.of(
+                            fixed + relationships * Integer.BYTES,
+                            fixed + relationships * Integer.BYTES * 3L / 2L);
+                })
+                .build();
+    }
+
+
     @Override
     public Graph build() {
         return importGraph(setup.batchSize);
@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+/**
+ * Encodes and decodes the target ids of one adjacency list.
+ * <p>
+ * The input to {@link #encode(long[], int, byte[], int)} are the sorted and delta encoded targets,
+ * where the first value is the absolute id of the first target.
+ * The decoder is always asked for blocks of at most {@link #BLOCK_SIZE} values,
+ * aligned at the beginning of the list, so that a codec can store its data in blocks of that size.
+ */
+public interface AdjacencyCodec {
+
+    /**
+     * The number of values that are decoded at once.
+     */
+    int BLOCK_SIZE = 64;
+
+    /**
+     * Return the number of bytes that {@link #encode(long[], int, byte[], int)} will write for the given deltas.
+     */
+    int encodedSize(long[] deltas, int length);
+
+    /**
+     * Encode the first {@code length} deltas into {@code out}, starting at {@code into}.
+     *
+     * @return the offset after the last written byte
+     */
+    int encode(long[] deltas, int length, byte[] out, int into);
+
+    /**
+     * Decode {@code limit} values from {@code array}, starting at {@code offset}, and write them into {@code out}.
+     * The deltas are added up on top of {@code startValue}, so that {@code out} contains the target ids.
+     *
+     * @return the offset of the next block
+     */
+    int decode(long startValue, byte[] array, int offset, int limit, long[] out);
+}
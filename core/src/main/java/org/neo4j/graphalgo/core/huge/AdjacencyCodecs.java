@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Selects the {@link AdjacencyCodec} for an adjacency list by its degree.
+ * <p>
+ * Lists with fewer than {@link #MIN_BLOCK_DEGREE} targets are always stored as variable length longs,
+ * the block headers of the other codecs would cost more than they save for those.
+ * Since the degree is stored in front of every list, the codec does not need to be recorded.
+ */
+public enum AdjacencyCodecs {
+    /**
+     * Variable length longs for every list, the original format.
+     */
+    VLONG {
+        @Override
+        public AdjacencyCodec forDegree(int degree) {
+            return VarLongCodec.INSTANCE;
+        }
+    },
+    /**
+     * Group varint in the stream-vbyte layout, two bits per value to store the length in bytes.
+     */
+    GROUP_VARINT {
+        @Override
+        public AdjacencyCodec forDegree(int degree) {
+            return degree < MIN_BLOCK_DEGREE ? VarLongCodec.INSTANCE : GroupVarIntCodec.INSTANCE;
+        }
+    },
+    /**
+     * Bit packed frame of reference with patched exceptions.
+     */
+    PFOR {
+        @Override
+        public AdjacencyCodec forDegree(int degree) {
+            return degree < MIN_BLOCK_DEGREE ? VarLongCodec.INSTANCE : PForCodec.INSTANCE;
+        }
+    },
+    /**
+     * Group varint for medium sized lists and PFor for lists that span several full blocks,
+     * whose small deltas pack best into few bits.
+     */
+    AUTO {
+        @Override
+        public AdjacencyCodec forDegree(int degree) {
+            if (degree < MIN_BLOCK_DEGREE) {
+                return VarLongCodec.INSTANCE;
+            }
+            return degree < MIN_PFOR_DEGREE ? GroupVarIntCodec.INSTANCE : PForCodec.INSTANCE;
+        }
+    };
+
+    static final int MIN_BLOCK_DEGREE = 16;
+    static final int MIN_PFOR_DEGREE = 4 * AdjacencyCodec.BLOCK_SIZE;
+
+    public abstract AdjacencyCodec forDegree(int degree);
+
+    public static AdjacencyCodecs parse(String name) {
+        try {
+            return valueOf(name.toUpperCase().replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format(
+                    "Unknown compression '%s', expected one of %s",
+                    name,
+                    Arrays.stream(values()).map(c -> c.name().toLowerCase()).collect(Collectors.joining(", "))));
+        }
+    }
+}
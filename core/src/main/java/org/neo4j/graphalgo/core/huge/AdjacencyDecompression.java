@@ -22,24 +22,26 @@ import org.neo4j.graphalgo.core.huge.loader.MutableIntValue;
 
 import java.util.Arrays;
 
-import static org.neo4j.graphalgo.core.huge.VarLongDecoding.decodeDeltaVLongs;
-
 final class AdjacencyDecompression {
 
-    private static final int CHUNK_SIZE = 64;
+    private static final int CHUNK_SIZE = AdjacencyCodec.BLOCK_SIZE;
 
+    private final AdjacencyCodecs codecs;
     private final long[] block;
+    private AdjacencyCodec codec;
     private int pos;
     private byte[] array;
     private int offset;
 
-    AdjacencyDecompression() {
+    AdjacencyDecompression(AdjacencyCodecs codecs) {
+        this.codecs = codecs;
         this.block = new long[CHUNK_SIZE];
     }
 
     void copyFrom(AdjacencyDecompression other) {
         System.arraycopy(other.block, 0, block, 0, CHUNK_SIZE);
         pos = other.pos;
+        codec = other.codec;
         array = other.array;
         offset = other.offset;
     }
@@ -47,7 +49,8 @@ final class AdjacencyDecompression {
     int reset(byte[] array, int offset) {
         this.array = array;
         int remaining = readInt(array, offset);
-        this.offset = decodeDeltaVLongs(0L, array, 4 + offset, Math.min(remaining, CHUNK_SIZE), block);
+        this.codec = codecs.forDegree(remaining);
+        this.offset = codec.decode(0L, array, 4 + offset, Math.min(remaining, CHUNK_SIZE), block);
         pos = 0;
         return remaining;
     }
@@ -71,7 +74,7 @@ final class AdjacencyDecompression {
 
     private long readNextBlock(int remaining) {
         pos = 1;
-        offset = decodeDeltaVLongs(block[CHUNK_SIZE - 1], array, offset, Math.min(remaining, CHUNK_SIZE), block);
+        offset = codec.decode(block[CHUNK_SIZE - 1], array, offset, Math.min(remaining, CHUNK_SIZE), block);
         return block[0];
     }
 
@@ -84,7 +87,7 @@ final class AdjacencyDecompression {
         while (available > CHUNK_SIZE - pos && block[CHUNK_SIZE - 1] <= target) {
             int skippedInThisBlock = CHUNK_SIZE - pos;
             int needToDecode = Math.min(CHUNK_SIZE, available - skippedInThisBlock);
-            offset = decodeDeltaVLongs(block[CHUNK_SIZE - 1], array, offset, needToDecode, block);
+            offset = codec.decode(block[CHUNK_SIZE - 1], array, offset, needToDecode, block);
             available -= skippedInThisBlock;
             pos = 0;
         }
@@ -107,7 +110,7 @@ final class AdjacencyDecompression {
         while (available > CHUNK_SIZE - pos && block[CHUNK_SIZE - 1] < target) {
             int skippedInThisBlock = CHUNK_SIZE - pos;
             int needToDecode = Math.min(CHUNK_SIZE, available - skippedInThisBlock);
-            offset = decodeDeltaVLongs(block[CHUNK_SIZE - 1], array, offset, needToDecode, block);
+            offset = codec.decode(block[CHUNK_SIZE - 1], array, offset, needToDecode, block);
             available -= skippedInThisBlock;
             pos = 0;
         }
@@ -0,0 +1,46 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+/**
+ * Base class for codecs that encode every block of {@link #BLOCK_SIZE} deltas on its own.
+ */
+abstract class BlockCodec implements AdjacencyCodec {
+
+    @Override
+    public final int encodedSize(long[] deltas, int length) {
+        int size = 0;
+        for (int from = 0; from < length; from += BLOCK_SIZE) {
+            size += blockSize(deltas, from, Math.min(length, from + BLOCK_SIZE));
+        }
+        return size;
+    }
+
+    @Override
+    public final int encode(long[] deltas, int length, byte[] out, int into) {
+        for (int from = 0; from < length; from += BLOCK_SIZE) {
+            into = encodeBlock(deltas, from, Math.min(length, from + BLOCK_SIZE), out, into);
+        }
+        return into;
+    }
+
+    abstract int blockSize(long[] deltas, int from, int to);
+
+    abstract int encodeBlock(long[] deltas, int from, int to, byte[] out, int into);
+}
@@ -0,0 +1,140 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.graphalgo.core.huge.loader.VarLongEncoding;
+
+/**
+ * Group varint in the stream-vbyte layout.
+ * <p>
+ * Every block starts with a mode byte, followed by one control byte for every four values
+ * and the data bytes of all values.
+ * A control byte holds the number of bytes minus one of four values, two bits each, starting
+ * with the lowest bits. The data bytes are stored in little endian order.
+ * Keeping the control bytes apart from the data avoids the branch per byte of the
+ * variable length longs, every value is read with a single switch on its length.
+ * <p>
+ * Deltas that don't fit into 4 bytes can only occur for graphs with more than 2^32 nodes,
+ * blocks that contain such a delta are stored as variable length longs instead.
+ */
+final class GroupVarIntCodec extends BlockCodec {
+
+    static final AdjacencyCodec INSTANCE = new GroupVarIntCodec();
+
+    private static final byte GROUPED = 0;
+    private static final byte VLONG = 1;
+    private static final long MAX_VALUE = 0xFFFF_FFFFL;
+
+    @Override
+    int blockSize(long[] deltas, int from, int to) {
+        int size = 1 + ((to - from + 3) >>> 2);
+        for (int i = from; i < to; i++) {
+            long value = deltas[i];
+            if (value > MAX_VALUE) {
+                return 1 + vlongSize(deltas, from, to);
+            }
+            size += byteLength(value);
+        }
+        return size;
+    }
+
+    @Override
+    int encodeBlock(long[] deltas, int from, int to, byte[] out, int into) {
+        for (int i = from; i < to; i++) {
+            if (deltas[i] > MAX_VALUE) {
+                out[into] = VLONG;
+                return VarLongEncoding.encodeVLongs(deltas, from, to, out, 1 + into);
+            }
+        }
+        out[into++] = GROUPED;
+        int control = into;
+        int data = into + ((to - from + 3) >>> 2);
+        for (int i = from, pos = 0; i < to; i++, pos++) {
+            long value = deltas[i];
+            int length = byteLength(value);
+            if ((pos & 3) == 0) {
+                out[control + (pos >>> 2)] = 0;
+            }
+            out[control + (pos >>> 2)] |= (length - 1) << ((pos & 3) << 1);
+            for (int b = 0; b < length; b++) {
+                out[data++] = (byte) (value >>> (b << 3));
+            }
+        }
+        return data;
+    }
+
+    //@formatter:off
+    @Override
+    public int decode(long startValue, byte[] array, int offset, int limit, long[] out) {
+        if (array[offset] == VLONG) {
+            return VarLongDecoding.decodeDeltaVLongs(startValue, array, 1 + offset, limit, out);
+        }
+        int control = 1 + offset;
+        int data = control + ((limit + 3) >>> 2);
+        int controlBits = 0;
+        for (int i = 0; i < limit; i++) {
+            if ((i & 3) == 0) {
+                controlBits = array[control++];
+            }
+            switch (controlBits & 3) {
+                case 0:
+                    startValue +=   array[    data] & 255L;
+                    data += 1;
+                    break;
+                case 1:
+                    startValue +=   array[    data] & 255L       |
+                                  (array[1 + data] & 255L) <<  8;
+                    data += 2;
+                    break;
+                case 2:
+                    startValue +=   array[    data] & 255L       |
+                                  (array[1 + data] & 255L) <<  8 |
+                                  (array[2 + data] & 255L) << 16;
+                    data += 3;
+                    break;
+                default:
+                    startValue +=   array[    data] & 255L       |
+                                  (array[1 + data] & 255L) <<  8 |
+                                  (array[2 + data] & 255L) << 16 |
+                                  (array[3 + data] & 255L) << 24;
+                    data += 4;
+                    break;
+            }
+            out[i] = startValue;
+            controlBits >>>= 2;
+        }
+        return data;
+    }
+    //@formatter:on
+
+    private static int byteLength(long value) {
+        return Math.max(1, (71 - Long.numberOfLeadingZeros(value)) >>> 3);
+    }
+
+    private static int vlongSize(long[] deltas, int from, int to) {
+        int size = 0;
+        for (int i = from; i < to; i++) {
+            size += VarLongEncoding.encodedVLongSize(deltas[i]);
+        }
+        return size;
+    }
+
+    private GroupVarIntCodec() {
+    }
+}
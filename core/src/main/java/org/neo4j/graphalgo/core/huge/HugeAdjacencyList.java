@@ -31,10 +31,16 @@ public final class HugeAdjacencyList {
     public static final long PAGE_MASK = 262143L; // PAGE_SIZE - 1
 
     private final long allocatedMemory;
+    private final AdjacencyCodecs codecs;
     private byte[][] pages;
 
     public HugeAdjacencyList(byte[][] pages) {
+        this(pages, AdjacencyCodecs.VLONG);
+    }
+
+    public HugeAdjacencyList(byte[][] pages, AdjacencyCodecs codecs) {
         this.pages = pages;
+        this.codecs = codecs;
         this.allocatedMemory = memoryOfPages(pages);
     }
 
@@ -55,7 +61,7 @@ public final class HugeAdjacencyList {
     }
 
     Cursor newCursor() {
-        return new Cursor(pages);
+        return new Cursor(pages, codecs);
     }
 
     public final long release() {
@@ -79,9 +85,9 @@ public final class HugeAdjacencyList {
         private int maxTargets;
         private int currentTarget;
 
-        private Cursor(byte[][] pages) {
+        private Cursor(byte[][] pages, AdjacencyCodecs codecs) {
             this.pages = pages;
-            this.decompress = new AdjacencyDecompression();
+            this.decompress = new AdjacencyDecompression(codecs);
         }
 
         /**
@@ -208,6 +208,17 @@ public class HugeGraphImpl implements HugeGraph {
         }
     }
 
+    @Override
+    public double weightedDegree(final long nodeId, final Direction direction) {
+        // the weights are stored per source node, so a node without any explicit
+        // outgoing weight can be summed up without decoding its adjacency
+        if (direction == Direction.OUTGOING && outAdjacency != null && !weights.hasExplicitWeights(nodeId)) {
+            double defaultValue = weights.defaultValue();
+            return defaultValue > 0 ? defaultValue * degree(nodeId, outOffsets, outAdjacency) : 0.0;
+        }
+        return HugeGraph.super.weightedDegree(nodeId, direction);
+    }
+
     @Override
     public long toHugeMappedNodeId(long nodeId) {
         return idMapping.toHugeMappedNodeId(nodeId);
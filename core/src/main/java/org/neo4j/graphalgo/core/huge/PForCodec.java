@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.graphalgo.core.huge.loader.VarLongEncoding;
+
+/**
+ * Bit packed frame of reference with patched exceptions (PFor).
+ * <p>
+ * Every block starts with the bit width {@code b} and the number of exceptions, one byte each.
+ * Then follow the lowest {@code b} bits of all values, packed in little endian order, and
+ * for every exception its position in the block and the remaining high bits as a variable length long.
+ * The width is chosen per block so that the block is as small as possible,
+ * a few large deltas are stored as exceptions instead of widening every value.
+ * <p>
+ * Decoding unpacks all values with the same shifts and masks and patches the exceptions afterwards,
+ * there is no branch that depends on a single value.
+ */
+final class PForCodec extends BlockCodec {
+
+    static final AdjacencyCodec INSTANCE = new PForCodec();
+
+    // leaves room for one more byte in the bit buffer
+    private static final int MAX_BITS = 56;
+
+    @Override
+    int blockSize(long[] deltas, int from, int to) {
+        int[] bitCounts = bitCounts(deltas, from, to);
+        return size(bitCounts, to - from, bestWidth(bitCounts, to - from));
+    }
+
+    @Override
+    int encodeBlock(long[] deltas, int from, int to, byte[] out, int into) {
+        int bits = bestWidth(bitCounts(deltas, from, to), to - from);
+        long mask = (1L << bits) - 1L;
+        int exceptions = 0;
+        for (int i = from; i < to; i++) {
+            if ((deltas[i] & ~mask) != 0L) {
+                ++exceptions;
+            }
+        }
+        out[into++] = (byte) bits;
+        out[into++] = (byte) exceptions;
+
+        long buffer = 0L;
+        int buffered = 0;
+        for (int i = from; i < to; i++) {
+            buffer |= (deltas[i] & mask) << buffered;
+            buffered += bits;
+            while (buffered >= 8) {
+                out[into++] = (byte) buffer;
+                buffer >>>= 8;
+                buffered -= 8;
+            }
+        }
+        if (buffered > 0) {
+            out[into++] = (byte) buffer;
+        }
+
+        if (exceptions > 0) {
+            for (int i = from; i < to; i++) {
+                long high = deltas[i] >>> bits;
+                if (high != 0L) {
+                    out[into++] = (byte) (i - from);
+                    into = VarLongEncoding.encodeVLong(out, high, into);
+                }
+            }
+        }
+        return into;
+    }
+
+    @Override
+    public int decode(long startValue, byte[] array, int offset, int limit, long[] out) {
+        int bits = array[offset] & 255;
+        int exceptions = array[1 + offset] & 255;
+        offset += 2;
+
+        long mask = (1L << bits) - 1L;
+        long buffer = 0L;
+        int buffered = 0;
+        for (int i = 0; i < limit; i++) {
+            while (buffered < bits) {
+                buffer |= (array[offset++] & 255L) << buffered;
+                buffered += 8;
+            }
+            out[i] = buffer & mask;
+            buffer >>>= bits;
+            buffered -= bits;
+        }
+
+        for (int e = 0; e < exceptions; e++) {
+            int pos = array[offset++] & 255;
+            long high = 0L, input;
+            int shift = 0;
+            do {
+                input = array[offset++];
+                high |= (input & 127L) << shift;
+                shift += 7;
+            } while ((input & 128L) == 0L);
+            out[pos] |= high << bits;
+        }
+
+        for (int i = 0; i < limit; i++) {
+            startValue += out[i];
+            out[i] = startValue;
+        }
+        return offset;
+    }
+
+    // bitCounts[n] is the number of values that need exactly n bits
+    private static int[] bitCounts(long[] deltas, int from, int to) {
+        int[] bitCounts = new int[Long.SIZE + 1];
+        for (int i = from; i < to; i++) {
+            ++bitCounts[Long.SIZE - Long.numberOfLeadingZeros(deltas[i])];
+        }
+        return bitCounts;
+    }
+
+    private static int bestWidth(int[] bitCounts, int length) {
+        int maxBits = Long.SIZE;
+        while (maxBits > 0 && bitCounts[maxBits] == 0) {
+            --maxBits;
+        }
+        int bestBits = Math.min(maxBits, MAX_BITS);
+        int bestSize = size(bitCounts, length, bestBits);
+        for (int bits = bestBits - 1; bits >= 0; bits--) {
+            int size = size(bitCounts, length, bits);
+            if (size < bestSize) {
+                bestSize = size;
+                bestBits = bits;
+            }
+        }
+        return bestBits;
+    }
+
+    private static int size(int[] bitCounts, int length, int bits) {
+        int size = 2 + ((length * bits + 7) >>> 3);
+        for (int n = bits + 1; n <= Long.SIZE; n++) {
+            if (bitCounts[n] > 0) {
+                // position byte and the high bits as a variable length long
+                size += bitCounts[n] * (1 + (n - bits + 6) / 7);
+            }
+        }
+        return size;
+    }
+
+    private PForCodec() {
+    }
+}
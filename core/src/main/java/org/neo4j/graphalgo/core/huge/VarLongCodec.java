@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.neo4j.graphalgo.core.huge.loader.VarLongEncoding;
+
+/**
+ * Variable length longs with 7 bits per byte, where the highest bit marks the last byte of a value.
+ * The values are not split into blocks.
+ */
+final class VarLongCodec implements AdjacencyCodec {
+
+    static final AdjacencyCodec INSTANCE = new VarLongCodec();
+
+    @Override
+    public int encodedSize(long[] deltas, int length) {
+        int size = 0;
+        for (int i = 0; i < length; i++) {
+            size += VarLongEncoding.encodedVLongSize(deltas[i]);
+        }
+        return size;
+    }
+
+    @Override
+    public int encode(long[] deltas, int length, byte[] out, int into) {
+        return VarLongEncoding.encodeVLongs(deltas, length, out, into);
+    }
+
+    @Override
+    public int decode(long startValue, byte[] array, int offset, int limit, long[] out) {
+        return VarLongDecoding.decodeDeltaVLongs(startValue, array, offset, limit, out);
+    }
+
+    private VarLongCodec() {
+    }
+}
@@ -18,6 +18,8 @@
  */
 package org.neo4j.graphalgo.core.huge.loader;
 
+import org.neo4j.graphalgo.core.utils.metrics.Meter;
+import org.neo4j.graphalgo.core.utils.metrics.Metrics;
 import org.neo4j.graphalgo.core.utils.paged.PaddedAtomicLong;
 import org.neo4j.graphdb.DependencyResolver;
 import org.neo4j.io.pagecache.PageCache;
@@ -45,6 +47,10 @@ public class AbstractStorePageCacheScanner<Record extends AbstractBaseRecord> {
 
     public static final int DEFAULT_PREFETCH_SIZE = 100;
 
+    private static final Meter PAGES_SCANNED = Metrics.meter(
+            "loader.pages.scanned",
+            "Store pages read from the page cache by the graph loaders");
+
     public interface Access<Record extends AbstractBaseRecord> {
         /**
          * Return the store to use.
@@ -225,6 +231,7 @@ public class AbstractStorePageCacheScanner<Record extends AbstractBaseRecord> {
                 return loadNextPage();
             }
             if (current == lastPage) {
+                PAGES_SCANNED.mark();
                 offset = 0;
                 endOffset = lastOffset;
                 recordId = current * recordsPerPage;
@@ -247,6 +254,7 @@ public class AbstractStorePageCacheScanner<Record extends AbstractBaseRecord> {
             }
             this.currentPage = startPage;
             this.fetchedUntilPage = preFetchedPage;
+            PAGES_SCANNED.mark(preFetchedPage - startPage);
         }
 
         private void loadAtOffset(int offset) throws IOException {
@@ -22,8 +22,6 @@ import org.apache.lucene.util.LongsRef;
 
 import java.util.Arrays;
 
-import static org.neo4j.graphalgo.core.huge.loader.VarLongEncoding.encodeVLongs;
-
 final class AdjacencyCompression {
 
     private static long[] growWithDestroy(long[] values, int newLength) {
@@ -49,10 +47,6 @@ final class AdjacencyCompression {
         return data.length = applyDelta(data.longs, data.length);
     }
 
-    static int compress(LongsRef data, byte[] out) {
-        return encodeVLongs(data.longs, data.length, out, 0);
-    }
-
     //@formatter:off
     static int writeDegree(byte[] out, int offset, int degree) {
         out[    offset] = (byte) (degree);
@@ -0,0 +1,344 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge.loader;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArrayBuilder;
+import org.neo4j.graphalgo.core.utils.paged.PagedAtomicLongArray;
+import org.neo4j.graphdb.Direction;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+/**
+ * Loads a {@link HugeGraph} from a binary edge list file, without a Neo4j store.
+ * <p>
+ * Every record of the file is a pair of {@code long} node ids, optionally followed
+ * by a {@code double} weight, as written by a {@link java.io.DataOutputStream}.
+ * The file is memory mapped and split into ranges that are scanned in parallel:
+ * <ol>
+ * <li>to find the highest node id,</li>
+ * <li>to collect the node ids in ascending order, which become the mapped ids,</li>
+ * <li>to import the relationships through the {@link HugeGraphBuilder}.</li>
+ * </ol>
+ * Node ids are collected in a bit set over all ids up to the highest one, unless that bit set
+ * would be larger than the file. Very sparse ids are sorted instead, which needs 16 bytes per
+ * relationship while loading. Dense ids are mapped through a {@link org.neo4j.graphalgo.core.utils.paged.SparseLongArray},
+ * sparse ids by a binary search over the original ids.
+ */
+public final class BinaryEdgeListLoader {
+
+    // a mapped byte buffer is limited to 2 GiB
+    private static final long MAX_RANGE_SIZE = 1L << 30;
+    private static final long MIN_RANGE_RECORDS = 1L << 16;
+    // the bit set may always use a few MiB, even for small files
+    private static final long MIN_BIT_SET_BYTES = 1L << 22;
+    // the sparse long array allocates pages of 4096 ids, mapping denser ids wastes little of them
+    private static final long MAX_IDS_PER_NODE = 8L;
+
+    private final Path file;
+    private boolean weighted = false;
+    private double defaultWeight = 1.0;
+    private ByteOrder byteOrder = ByteOrder.BIG_ENDIAN;
+    private Direction direction = Direction.OUTGOING;
+    private boolean undirected = false;
+    private int concurrency = Pools.DEFAULT_CONCURRENCY;
+    private ExecutorService executor = Pools.DEFAULT;
+    private AllocationTracker tracker = AllocationTracker.EMPTY;
+
+    public BinaryEdgeListLoader(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * Every record is followed by a weight, weights that equal the default weight are not stored.
+     */
+    public BinaryEdgeListLoader withRelationshipWeights(double defaultWeight) {
+        this.weighted = true;
+        this.defaultWeight = defaultWeight;
+        return this;
+    }
+
+    public BinaryEdgeListLoader withByteOrder(ByteOrder byteOrder) {
+        this.byteOrder = byteOrder;
+        return this;
+    }
+
+    public BinaryEdgeListLoader withDirection(Direction direction) {
+        this.direction = direction;
+        return this;
+    }
+
+    public BinaryEdgeListLoader asUndirected(boolean undirected) {
+        this.undirected = undirected;
+        return this;
+    }
+
+    public BinaryEdgeListLoader withConcurrency(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency: " + concurrency);
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    public BinaryEdgeListLoader withExecutorService(ExecutorService executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    public BinaryEdgeListLoader withAllocationTracker(AllocationTracker tracker) {
+        this.tracker = tracker;
+        return this;
+    }
+
+    public int recordSize() {
+        return weighted ? 2 * Long.BYTES + Double.BYTES : 2 * Long.BYTES;
+    }
+
+    public HugeGraph load() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<ByteBuffer> ranges = mapRanges(channel);
+
+            long highestNodeId = highestNodeId(ranges);
+            HugeIdMap idMap = words(highestNodeId) * Long.BYTES <= Math.max(channel.size(), MIN_BIT_SET_BYTES)
+                    ? idMapFromBitSet(ranges, highestNodeId)
+                    : idMapFromSortedIds(ranges);
+
+            HugeGraphBuilder builder = HugeGraphBuilder.withIdMap(idMap, highestNodeId)
+                    .withDirection(direction)
+                    .asUndirected(undirected)
+                    .withConcurrency(concurrency)
+                    .withExecutorService(executor)
+                    .withAllocationTracker(tracker);
+            HugeGraphBuilder.Importer importer = weighted
+                    ? builder.withRelationshipWeights(defaultWeight).importer()
+                    : builder.withoutRelationshipWeights(defaultWeight).importer();
+            runForEachRange(ranges, range -> importRelationships(range, importer));
+            return importer.build();
+        }
+    }
+
+    private List<ByteBuffer> mapRanges(FileChannel channel) throws IOException {
+        int recordSize = recordSize();
+        long size = channel.size();
+        if (size % recordSize != 0L) {
+            throw new IllegalArgumentException(String.format(
+                    "The size of %s (%d bytes) is not a multiple of the record size (%d bytes)",
+                    file, size, recordSize));
+        }
+        long records = size / recordSize;
+        long recordsPerRange = ParallelUtil.adjustBatchSize(
+                records,
+                concurrency,
+                MIN_RANGE_RECORDS,
+                MAX_RANGE_SIZE / recordSize);
+        List<ByteBuffer> ranges = new ArrayList<>();
+        for (long start = 0L; start < records; start += recordsPerRange) {
+            long length = Math.min(recordsPerRange, records - start);
+            MappedByteBuffer range = channel.map(FileChannel.MapMode.READ_ONLY, start * recordSize, length * recordSize);
+            ranges.add(range);
+        }
+        return ranges;
+    }
+
+    private long highestNodeId(List<ByteBuffer> ranges) {
+        long[] highest = new long[ranges.size()];
+        List<Runnable> tasks = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            int index = i;
+            ByteBuffer range = ranges.get(i);
+            tasks.add(() -> highest[index] = highestNodeId(range));
+        }
+        ParallelUtil.run(tasks, executor);
+        long highestNodeId = -1L;
+        for (long nodeId : highest) {
+            highestNodeId = Math.max(highestNodeId, nodeId);
+        }
+        return highestNodeId;
+    }
+
+    private long highestNodeId(ByteBuffer range) {
+        ByteBuffer buffer = view(range);
+        int recordSize = recordSize();
+        long highest = -1L;
+        for (int position = 0; position < buffer.limit(); position += recordSize) {
+            long source = buffer.getLong(position);
+            long target = buffer.getLong(position + Long.BYTES);
+            if (source < 0L || target < 0L) {
+                throw new IllegalArgumentException(String.format(
+                        "Node ids must be >= 0, but the relationship (%d)->(%d) was found in %s",
+                        source, target, file));
+            }
+            highest = Math.max(highest, Math.max(source, target));
+        }
+        return highest;
+    }
+
+    private void markNodes(ByteBuffer range, PagedAtomicLongArray nodes) {
+        ByteBuffer buffer = view(range);
+        int recordSize = recordSize();
+        for (int position = 0; position < buffer.limit(); position += recordSize) {
+            mark(nodes, buffer.getLong(position));
+            mark(nodes, buffer.getLong(position + Long.BYTES));
+        }
+    }
+
+    private static void mark(PagedAtomicLongArray nodes, long nodeId) {
+        long index = nodeId >>> 6;
+        long mask = 1L << nodeId;
+        long word = nodes.get(index);
+        while ((word & mask) == 0L) {
+            if (nodes.cas(index, word, word | mask)) {
+                return;
+            }
+            word = nodes.get(index);
+        }
+    }
+
+    private HugeIdMap idMapFromBitSet(List<ByteBuffer> ranges, long highestNodeId) {
+        PagedAtomicLongArray nodes = PagedAtomicLongArray.newArray(words(highestNodeId), tracker);
+        runForEachRange(ranges, range -> markNodes(range, nodes));
+
+        long words = words(highestNodeId);
+        long nodeCount = 0L;
+        for (long index = 0L; index < words; index++) {
+            nodeCount += Long.bitCount(nodes.get(index));
+        }
+        HugeLongArrayBuilder graphIds = HugeLongArrayBuilder.of(nodeCount, tracker);
+        HugeLongArrayBuilder.BulkAdder adder = graphIds.allocate(nodeCount);
+        for (long index = 0L; index < words; index++) {
+            long word = nodes.get(index);
+            while (word != 0L) {
+                adder.add((index << 6) + Long.numberOfTrailingZeros(word));
+                word &= word - 1L;
+            }
+        }
+        nodes.release();
+        if (highestNodeId < MAX_IDS_PER_NODE * nodeCount) {
+            return HugeIdMapBuilder.build(graphIds, highestNodeId + 1L, tracker);
+        }
+        return new HugeIdMap(graphIds.build(), nodeCount);
+    }
+
+    private HugeIdMap idMapFromSortedIds(List<ByteBuffer> ranges) {
+        long[][] sortedIds = new long[ranges.size()][];
+        List<Runnable> tasks = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            int index = i;
+            ByteBuffer range = ranges.get(i);
+            tasks.add(() -> sortedIds[index] = sortedDistinctIds(range));
+        }
+        ParallelUtil.run(tasks, executor);
+
+        long maxNodeCount = 0L;
+        for (long[] ids : sortedIds) {
+            maxNodeCount += ids.length;
+        }
+        HugeLongArray graphIds = HugeLongArray.newArray(maxNodeCount, tracker);
+        int[] positions = new int[sortedIds.length];
+        long nodeCount = 0L;
+        long lastId = -1L;
+        while (true) {
+            int minIndex = -1;
+            long minId = Long.MAX_VALUE;
+            for (int i = 0; i < sortedIds.length; i++) {
+                if (positions[i] < sortedIds[i].length && sortedIds[i][positions[i]] < minId) {
+                    minId = sortedIds[i][positions[i]];
+                    minIndex = i;
+                }
+            }
+            if (minIndex == -1) {
+                break;
+            }
+            positions[minIndex]++;
+            if (minId != lastId) {
+                graphIds.set(nodeCount++, minId);
+                lastId = minId;
+            }
+        }
+        return new HugeIdMap(graphIds, nodeCount);
+    }
+
+    private long[] sortedDistinctIds(ByteBuffer range) {
+        ByteBuffer buffer = view(range);
+        int recordSize = recordSize();
+        long[] ids = new long[(buffer.limit() / recordSize) << 1];
+        int length = 0;
+        for (int position = 0; position < buffer.limit(); position += recordSize) {
+            ids[length++] = buffer.getLong(position);
+            ids[length++] = buffer.getLong(position + Long.BYTES);
+        }
+        Arrays.sort(ids);
+        int distinct = 0;
+        for (int i = 0; i < length; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+        return Arrays.copyOf(ids, distinct);
+    }
+
+    private void importRelationships(ByteBuffer range, HugeGraphBuilder.Importer importer) {
+        ByteBuffer buffer = view(range);
+        int recordSize = recordSize();
+        HugeGraphBuilder.Batch batch = importer.newBatch();
+        for (int position = 0; position < buffer.limit(); position += recordSize) {
+            long source = buffer.getLong(position);
+            long target = buffer.getLong(position + Long.BYTES);
+            if (weighted) {
+                batch.add(source, target, buffer.getDouble(position + 2 * Long.BYTES));
+            } else {
+                batch.add(source, target);
+            }
+        }
+        batch.flush();
+    }
+
+    private static long words(long highestNodeId) {
+        return (highestNodeId + Long.SIZE) >>> 6;
+    }
+
+    private void runForEachRange(List<ByteBuffer> ranges, Consumer<ByteBuffer> action) {
+        List<Runnable> tasks = new ArrayList<>(ranges.size());
+        for (ByteBuffer range : ranges) {
+            tasks.add(() -> action.accept(range));
+        }
+        ParallelUtil.run(tasks, executor);
+    }
+
+    // the position and byte order of a buffer are not thread-safe, every scan uses its own view
+    private ByteBuffer view(ByteBuffer range) {
+        return range.duplicate().order(byteOrder);
+    }
+}
@@ -85,10 +85,6 @@ final class CompressedLongArray {
         return zigZagUncompress(storage, pos, into);
     }
 
-    byte[] internalStorage() {
-        return storage;
-    }
-
     void release() {
         if (storage.length > 0) {
             tracker.remove(sizeOfByteArray(storage.length));
@@ -22,9 +22,13 @@ import org.apache.lucene.util.LongsRef;
 import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.api.HugeWeightMapping;
 
+import org.neo4j.graphalgo.core.huge.AdjacencyCodec;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodecs;
 import org.neo4j.graphalgo.core.huge.HugeAdjacencyList;
 import org.neo4j.graphalgo.core.huge.HugeAdjacencyOffsets;
 import org.neo4j.graphalgo.core.huge.HugeGraphImpl;
+import org.neo4j.graphalgo.core.utils.metrics.Meter;
+import org.neo4j.graphalgo.core.utils.metrics.Metrics;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 
 import java.util.concurrent.locks.ReentrantLock;
@@ -33,6 +37,23 @@ import static org.neo4j.graphalgo.core.huge.loader.AdjacencyCompression.writeDeg
 
 class HugeAdjacencyBuilder {
 
+    private static final Meter ADJACENCY_BYTES = Metrics.meter(
+            "loader.adjacency.bytes",
+            "Bytes of compressed adjacency lists written by the huge loader, including the degrees");
+    private static final Meter ADJACENCY_RELATIONSHIPS = Metrics.meter(
+            "loader.adjacency.relationships",
+            "Relationships written into compressed adjacency lists by the huge loader");
+
+    static {
+        Metrics.gauge(
+                "loader.adjacency.bytesPerRelationship",
+                "Average size of a relationship in the compressed adjacency lists",
+                () -> {
+                    long relationships = ADJACENCY_RELATIONSHIPS.count();
+                    return relationships == 0L ? 0.0 : ADJACENCY_BYTES.count() / (double) relationships;
+                });
+    }
+
     private final HugeAdjacencyListBuilder adjacency;
 
     private ReentrantLock lock;
@@ -42,8 +63,8 @@ class HugeAdjacencyBuilder {
 
     private final AllocationTracker tracker;
 
-    HugeAdjacencyBuilder(AllocationTracker tracker) {
-        adjacency = HugeAdjacencyListBuilder.newBuilder(tracker);
+    HugeAdjacencyBuilder(AllocationTracker tracker, AdjacencyCodecs codecs) {
+        adjacency = HugeAdjacencyListBuilder.newBuilder(tracker, codecs);
         this.tracker = tracker;
     }
 
@@ -90,22 +111,24 @@ class HugeAdjacencyBuilder {
             CompressedLongArray array,
             LongsRef buffer,
             int localId) {
-        byte[] storage = array.internalStorage();
         AdjacencyCompression.copyFrom(buffer, array);
         int degree = AdjacencyCompression.applyDeltaEncoding(buffer);
-        int requiredBytes = AdjacencyCompression.compress(buffer, storage);
-        long address = copyIds(storage, requiredBytes, degree);
+        AdjacencyCodec codec = adjacency.codecs().forDegree(degree);
+        int requiredBytes = codec.encodedSize(buffer.longs, degree);
+        long address = copyIds(codec, buffer.longs, requiredBytes, degree);
         offsets[localId] = address;
         array.release();
     }
 
-    private synchronized long copyIds(byte[] targets, int requiredBytes, int degree) {
+    private synchronized long copyIds(AdjacencyCodec codec, long[] deltas, int requiredBytes, int degree) {
         // sizeOf(degree) + compression bytes
         long address = allocator.allocate(4 + requiredBytes);
         int offset = allocator.offset;
         offset = writeDegree(allocator.page, offset, degree);
-        System.arraycopy(targets, 0, allocator.page, offset, requiredBytes);
-        allocator.offset = (offset + requiredBytes);
+        // encode directly into the page, the codecs don't share the size of the pre-compressed storage
+        allocator.offset = codec.encode(deltas, degree, allocator.page, offset);
+        ADJACENCY_BYTES.mark(4L + requiredBytes);
+        ADJACENCY_RELATIONSHIPS.mark(degree);
         return address;
     }
 
@@ -18,6 +18,7 @@
  */
 package org.neo4j.graphalgo.core.huge.loader;
 
+import org.neo4j.graphalgo.core.huge.AdjacencyCodecs;
 import org.neo4j.graphalgo.core.huge.HugeAdjacencyList;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.PageUtil;
@@ -42,6 +43,7 @@ final class HugeAdjacencyListBuilder {
     private static final long PREFETCH_ELEMENTS = ((long) PREFETCH_PAGES) << PAGE_SHIFT;
 
     private final AllocationTracker tracker;
+    private final AdjacencyCodecs codecs;
     private final ReentrantLock growLock;
 
     private final AtomicLong allocIdx;
@@ -50,12 +52,13 @@ final class HugeAdjacencyListBuilder {
 
     private byte[][] pages;
 
-    static HugeAdjacencyListBuilder newBuilder(AllocationTracker tracker) {
-        return new HugeAdjacencyListBuilder(tracker);
+    static HugeAdjacencyListBuilder newBuilder(AllocationTracker tracker, AdjacencyCodecs codecs) {
+        return new HugeAdjacencyListBuilder(tracker, codecs);
     }
 
-    private HugeAdjacencyListBuilder(AllocationTracker tracker) {
+    private HugeAdjacencyListBuilder(AllocationTracker tracker, AdjacencyCodecs codecs) {
         this.tracker = tracker;
+        this.codecs = codecs;
         growLock = new ReentrantLock(true);
         size = new AtomicLong();
         capacity = new AtomicLong();
@@ -68,8 +71,12 @@ final class HugeAdjacencyListBuilder {
         return new Allocator(this);
     }
 
+    AdjacencyCodecs codecs() {
+        return codecs;
+    }
+
     public HugeAdjacencyList build() {
-        return new HugeAdjacencyList(pages);
+        return new HugeAdjacencyList(pages, codecs);
     }
 
     private long allocateNewPages(Allocator into) {
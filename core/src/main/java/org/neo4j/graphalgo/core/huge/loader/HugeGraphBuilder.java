@@ -0,0 +1,443 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge.loader;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodecs;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArrayBuilder;
+import org.neo4j.graphdb.Direction;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Builds a {@link HugeGraph} from relationships held in memory, without reading a Neo4j store.
+ * <p>
+ * The relationships are added in batches that are sorted and compressed with the same
+ * machinery as the store scanning {@link HugeGraphFactory}, so the resulting graph is
+ * indistinguishable from a loaded one. Batches can be added from many threads at once,
+ * every thread uses its own {@link Batch}.
+ * <pre>
+ * HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes(nodeCount)
+ *         .withDirection(Direction.BOTH)
+ *         .withRelationshipWeights(1.0)
+ *         .importer();
+ * importer.addAll(sources, targets, weights, Pools.DEFAULT, concurrency);
+ * HugeGraph graph = importer.build();
+ * </pre>
+ * Relationships are given with the original node ids, relationships with nodes
+ * that are not part of the graph are ignored, as they are when loading from a store.
+ */
+public final class HugeGraphBuilder {
+
+    public static final int DEFAULT_BATCH_SIZE = 10_000;
+
+    private final long[] originalNodeIds;
+    private final long nodeCount;
+    private final HugeIdMap idMap;
+    private final long highestNodeId;
+
+    private Direction direction = Direction.OUTGOING;
+    private boolean undirected = false;
+    private boolean loadWeights = false;
+    private double defaultWeight = 1.0;
+    private int concurrency = Pools.DEFAULT_CONCURRENCY;
+    private int batchSize = DEFAULT_BATCH_SIZE;
+    private ExecutorService executor = Pools.DEFAULT;
+    private AllocationTracker tracker = AllocationTracker.EMPTY;
+    private AdjacencyCodecs codecs = AdjacencyCodecs.VLONG;
+
+    private HugeGraphBuilder(long[] originalNodeIds, long nodeCount) {
+        this.originalNodeIds = originalNodeIds;
+        this.nodeCount = nodeCount;
+        this.idMap = null;
+        this.highestNodeId = -1L;
+    }
+
+    private HugeGraphBuilder(HugeIdMap idMap, long highestNodeId) {
+        this.originalNodeIds = null;
+        this.nodeCount = idMap.nodeCount();
+        this.idMap = idMap;
+        this.highestNodeId = highestNodeId;
+    }
+
+    /**
+     * A graph of the nodes {@code 0} to {@code nodeCount - 1}, which are their own original ids.
+     */
+    public static HugeGraphBuilder withNodes(long nodeCount) {
+        if (nodeCount < 0L) {
+            throw new IllegalArgumentException("nodeCount must be >= 0, but was " + nodeCount);
+        }
+        return new HugeGraphBuilder((long[]) null, nodeCount);
+    }
+
+    /**
+     * A graph of the given nodes, the node at index {@code i} gets the mapped id {@code i}.
+     */
+    public static HugeGraphBuilder withNodeIds(long... originalNodeIds) {
+        for (long nodeId : originalNodeIds) {
+            if (nodeId < 0L) {
+                throw new IllegalArgumentException("node ids must be >= 0, but got " + nodeId);
+            }
+        }
+        return new HugeGraphBuilder(originalNodeIds, originalNodeIds.length);
+    }
+
+    /**
+     * A graph of the nodes of an already built id map, no original node id is greater than {@code highestNodeId}.
+     */
+    static HugeGraphBuilder withIdMap(HugeIdMap idMap, long highestNodeId) {
+        return new HugeGraphBuilder(idMap, highestNodeId);
+    }
+
+    /**
+     * Instructs the builder to keep relationships of the given direction,
+     * {@link Direction#BOTH} keeps the outgoing and the incoming adjacency.
+     */
+    public HugeGraphBuilder withDirection(Direction direction) {
+        this.direction = direction;
+        return this;
+    }
+
+    /**
+     * Instructs the builder to store every relationship in both directions of the outgoing adjacency.
+     */
+    public HugeGraphBuilder asUndirected(boolean undirected) {
+        this.undirected = undirected;
+        return this;
+    }
+
+    /**
+     * Instructs the builder to keep the weights of added relationships.
+     * Relationships that are added without a weight get the default weight.
+     */
+    public HugeGraphBuilder withRelationshipWeights(double defaultWeight) {
+        this.loadWeights = true;
+        this.defaultWeight = defaultWeight;
+        return this;
+    }
+
+    /**
+     * The weight of every relationship will be the given default weight.
+     */
+    public HugeGraphBuilder withoutRelationshipWeights(double defaultWeight) {
+        this.loadWeights = false;
+        this.defaultWeight = defaultWeight;
+        return this;
+    }
+
+    /**
+     * The number of threads that are expected to add relationships,
+     * it determines how the adjacency is paged to reduce lock contention.
+     */
+    public HugeGraphBuilder withConcurrency(int concurrency) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("concurrency: " + concurrency);
+        }
+        this.concurrency = concurrency;
+        return this;
+    }
+
+    /**
+     * The number of relationships that a {@link Batch} buffers before they are imported.
+     */
+    public HugeGraphBuilder withBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize must be >= 1, but was " + batchSize);
+        }
+        this.batchSize = batchSize;
+        return this;
+    }
+
+    /**
+     * The executor that compresses the remaining adjacency lists in {@link Importer#build()}.
+     */
+    public HugeGraphBuilder withExecutorService(ExecutorService executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    public HugeGraphBuilder withAllocationTracker(AllocationTracker tracker) {
+        this.tracker = tracker;
+        return this;
+    }
+
+    /**
+     * Compress the adjacency lists with the given codecs, defaults to {@link AdjacencyCodecs#VLONG}.
+     */
+    public HugeGraphBuilder withAdjacencyCompression(AdjacencyCodecs codecs) {
+        this.codecs = codecs;
+        return this;
+    }
+
+    /**
+     * Builds the id map and prepares the adjacency, the returned importer accepts relationships.
+     */
+    public Importer importer() {
+        HugeIdMap idMap = this.idMap;
+        long highestNodeId = this.highestNodeId;
+        if (idMap == null) {
+            highestNodeId = nodeCount - 1L;
+            if (originalNodeIds != null) {
+                for (long nodeId : originalNodeIds) {
+                    highestNodeId = Math.max(highestNodeId, nodeId);
+                }
+            }
+            idMap = buildIdMap(highestNodeId);
+        }
+
+        HugeAdjacencyBuilder outAdjacency = null;
+        HugeAdjacencyBuilder inAdjacency = null;
+        if (undirected || direction == Direction.OUTGOING || direction == Direction.BOTH) {
+            outAdjacency = new HugeAdjacencyBuilder(tracker, codecs);
+        }
+        if (!undirected && (direction == Direction.INCOMING || direction == Direction.BOTH)) {
+            inAdjacency = new HugeAdjacencyBuilder(tracker, codecs);
+        }
+        HugeWeightMapBuilder weights = loadWeights
+                ? new HugeWeightMapBuilder(tracker, -1, defaultWeight)
+                : new HugeWeightMapBuilder.NullBuilder(defaultWeight);
+
+        ImportSizing sizing = ImportSizing.of(concurrency, nodeCount);
+        int pageSize = sizing.pageSize();
+        int numberOfPages = sizing.numberOfPages();
+
+        WeightBuilder weightBuilder = WeightBuilder.of(weights, numberOfPages, pageSize, nodeCount, tracker);
+        AdjacencyBuilder outBuilder = AdjacencyBuilder.compressing(outAdjacency, numberOfPages, pageSize, tracker);
+        AdjacencyBuilder inBuilder = AdjacencyBuilder.compressing(inAdjacency, numberOfPages, pageSize, tracker);
+        for (int idx = 0; idx < numberOfPages; idx++) {
+            weightBuilder.addWeightImporter(idx);
+            outBuilder.addAdjacencyImporter(tracker, false, idx);
+            inBuilder.addAdjacencyImporter(tracker, false, idx);
+        }
+        weightBuilder.finish();
+        outBuilder.finishPreparation();
+        inBuilder.finishPreparation();
+
+        return new Importer(
+                idMap, highestNodeId, weights, defaultWeight, weightBuilder,
+                outAdjacency, inAdjacency, outBuilder,
+                undirected ? outBuilder : inBuilder,
+                undirected || inAdjacency != null,
+                batchSize, executor, tracker);
+    }
+
+    private HugeIdMap buildIdMap(long highestNodeId) {
+        HugeLongArrayBuilder graphIds = HugeLongArrayBuilder.of(nodeCount, tracker);
+        HugeLongArrayBuilder.BulkAdder adder = graphIds.allocate(nodeCount);
+        for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+            adder.add(originalNodeIds == null ? nodeId : originalNodeIds[(int) nodeId]);
+        }
+        return HugeIdMapBuilder.build(graphIds, highestNodeId + 1L, tracker);
+    }
+
+    /**
+     * Accepts relationships until the graph is built, can be used from multiple threads at once.
+     */
+    public static final class Importer {
+
+        private final HugeIdMap idMap;
+        private final long highestNodeId;
+        private final HugeWeightMapBuilder weights;
+        private final double defaultWeight;
+        private final WeightBuilder weightBuilder;
+        private final HugeAdjacencyBuilder outAdjacency;
+        private final HugeAdjacencyBuilder inAdjacency;
+        private final AdjacencyBuilder outBuilder;
+        private final AdjacencyBuilder inBuilder;
+        private final boolean importInverse;
+        private final int batchSize;
+        private final ExecutorService executor;
+        private final AllocationTracker tracker;
+
+        private volatile boolean built;
+
+        private Importer(
+                HugeIdMap idMap,
+                long highestNodeId,
+                HugeWeightMapBuilder weights,
+                double defaultWeight,
+                WeightBuilder weightBuilder,
+                HugeAdjacencyBuilder outAdjacency,
+                HugeAdjacencyBuilder inAdjacency,
+                AdjacencyBuilder outBuilder,
+                AdjacencyBuilder inBuilder,
+                boolean importInverse,
+                int batchSize,
+                ExecutorService executor,
+                AllocationTracker tracker) {
+            this.idMap = idMap;
+            this.highestNodeId = highestNodeId;
+            this.weights = weights;
+            this.defaultWeight = defaultWeight;
+            this.weightBuilder = weightBuilder;
+            this.outAdjacency = outAdjacency;
+            this.inAdjacency = inAdjacency;
+            this.outBuilder = outBuilder;
+            this.inBuilder = inBuilder;
+            this.importInverse = importInverse;
+            this.batchSize = batchSize;
+            this.executor = executor;
+            this.tracker = tracker;
+        }
+
+        /**
+         * A buffer for the relationships of one thread, it must be flushed before the graph is built.
+         */
+        public Batch newBatch() {
+            return new Batch(this, new RelationshipsBatchBuffer(batchSize));
+        }
+
+        private long toMappedNodeId(long nodeId) {
+            return nodeId >= 0L && nodeId <= highestNodeId ? idMap.toHugeMappedNodeId(nodeId) : -1L;
+        }
+
+        /**
+         * Adds the relationships {@code sources[i] -> targets[i]} in parallel.
+         *
+         * @param weights the weight of every relationship, or {@code null} to use the default weight
+         */
+        public void addAll(
+                long[] sources,
+                long[] targets,
+                double[] weights,
+                ExecutorService executor,
+                int concurrency) {
+            int length = sources.length;
+            if (targets.length != length || (weights != null && weights.length != length)) {
+                throw new IllegalArgumentException("sources, targets and weights must have the same length");
+            }
+            int batchSize = ParallelUtil.adjustBatchSize(length, concurrency, this.batchSize);
+            List<Runnable> tasks = new ArrayList<>();
+            for (int start = 0; start < length; start += batchSize) {
+                int from = start;
+                int to = Math.min(length, start + batchSize);
+                tasks.add(() -> {
+                    Batch batch = newBatch();
+                    for (int i = from; i < to; i++) {
+                        batch.add(sources[i], targets[i], weights == null ? defaultWeight : weights[i]);
+                    }
+                    batch.flush();
+                });
+            }
+            ParallelUtil.run(tasks, executor);
+        }
+
+        /**
+         * Compresses the remaining adjacency lists and builds the graph,
+         * no relationships can be added afterwards.
+         */
+        public HugeGraph build() {
+            if (built) {
+                throw new IllegalStateException("The graph has already been built");
+            }
+            built = true;
+            Collection<Runnable> flushTasks = new ArrayList<>(outBuilder.flushTasks());
+            if (inBuilder != outBuilder) {
+                flushTasks.addAll(inBuilder.flushTasks());
+            }
+            ParallelUtil.run(flushTasks, executor);
+            return HugeAdjacencyBuilder.apply(tracker, idMap, weights.build(), inAdjacency, outAdjacency);
+        }
+
+        private void importBatch(RelationshipsBatchBuffer buffer) {
+            if (built) {
+                throw new IllegalStateException("Cannot add relationships after the graph has been built");
+            }
+            int batchLength = buffer.length();
+            if (batchLength == 0) {
+                return;
+            }
+            long[] batch = buffer.sortBySource();
+            RelationshipsScanner.importRelationships(buffer, batch, batchLength, outBuilder, tracker);
+            importWeights(batch, batchLength);
+            if (importInverse) {
+                batch = buffer.sortByTarget();
+                RelationshipsScanner.importRelationships(buffer, batch, batchLength, inBuilder, tracker);
+                if (inBuilder == outBuilder) {
+                    importWeights(batch, batchLength);
+                }
+            }
+            buffer.reset();
+        }
+
+        private void importWeights(long[] batch, int batchLength) {
+            WeightBuilder weights = this.weightBuilder;
+            for (int i = 0; i < batchLength; i += 4) {
+                weights.addWeight(batch[i], batch[1 + i], Double.longBitsToDouble(batch[3 + i]));
+            }
+        }
+    }
+
+    /**
+     * Buffers the relationships of one thread and imports them whenever the buffer is full.
+     * A batch is not thread-safe.
+     */
+    public static final class Batch implements HugeRelationshipConsumer {
+
+        private final Importer importer;
+        private final RelationshipsBatchBuffer buffer;
+        private final double defaultWeight;
+
+        private Batch(Importer importer, RelationshipsBatchBuffer buffer) {
+            this.importer = importer;
+            this.buffer = buffer;
+            this.defaultWeight = importer.defaultWeight;
+        }
+
+        public void add(long source, long target) {
+            add(source, target, defaultWeight);
+        }
+
+        public void add(long source, long target, double weight) {
+            long mappedSource = importer.toMappedNodeId(source);
+            if (mappedSource == -1L) {
+                return;
+            }
+            long mappedTarget = importer.toMappedNodeId(target);
+            if (mappedTarget == -1L) {
+                return;
+            }
+            // the relationship reference is not used, the weight takes the place of the property reference
+            buffer.add(mappedSource, mappedTarget, -1L, Double.doubleToRawLongBits(weight));
+            if (buffer.isFull()) {
+                importer.importBatch(buffer);
+            }
+        }
+
+        @Override
+        public boolean accept(long sourceNodeId, long targetNodeId) {
+            add(sourceNodeId, targetNodeId, defaultWeight);
+            return true;
+        }
+
+        /**
+         * Imports the buffered relationships.
+         */
+        public void flush() {
+            importer.importBatch(buffer);
+        }
+    }
+}
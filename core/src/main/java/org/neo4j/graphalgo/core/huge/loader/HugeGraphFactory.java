@@ -23,17 +23,34 @@ import org.neo4j.graphalgo.api.GraphSetup;
 import org.neo4j.graphalgo.api.HugeGraph;
 import org.neo4j.graphalgo.api.HugeWeightMapping;
 import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.huge.HugeAdjacencyList;
+import org.neo4j.graphalgo.core.huge.HugeGraphImpl;
 import org.neo4j.graphalgo.core.utils.ApproximatedImportProgress;
 import org.neo4j.graphalgo.core.utils.ImportProgress;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.container.TrackingLongDoubleHashMap;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.SparseLongArray;
+import org.neo4j.graphdb.Direction;
 import org.neo4j.kernel.api.StatementConstants;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.shallowSizeOfInstance;
+import static org.neo4j.graphalgo.core.utils.paged.MemoryUsage.sizeOfLongArray;
+
 public final class HugeGraphFactory extends GraphFactory {
 
     // TODO: make this configurable from somewhere
     private static final boolean LOAD_DEGREES = false;
+    private static final long MIN_REORDER_BATCH_SIZE = 10_000L;
 
     public HugeGraphFactory(GraphDatabaseAPI api, GraphSetup setup) {
         super(api, setup);
@@ -44,6 +61,79 @@ public final class HugeGraphFactory extends GraphFactory {
         return importGraph();
     }
 
+    @Override
+    public MemoryEstimation memoryEstimation() {
+        return memoryEstimation(setup);
+    }
+
+    /**
+     * The id map, one compressed adjacency list with its offsets for every loaded direction
+     * and the relationship weights, if a weight property exists.
+     * Undirected graphs store every relationship twice in the outgoing adjacency.
+     * A {@link GraphSetup#nodeOrdering node ordering} builds a second graph while the graph
+     * in scan order is still alive.
+     */
+    public static MemoryEstimation memoryEstimation(GraphSetup setup) {
+        MemoryEstimations.Builder builder = graphEstimation(setup);
+        if (setup.nodeOrdering != NodeOrdering.NONE) {
+            builder.field("reordered", graphEstimation(setup).build());
+        }
+        return builder.build();
+    }
+
+    private static MemoryEstimations.Builder graphEstimation(GraphSetup setup) {
+        MemoryEstimations.Builder builder = MemoryEstimations.builder(HugeGraphImpl.class)
+                .field("nodeIdMap", MemoryEstimations.builder(HugeIdMap.class)
+                        .perNode("graphIds", HugeLongArray::estimateMemoryUsage)
+                        .perGraphDimension("nodeToGraphIds", (dimensions, concurrency) ->
+                                SparseLongArray.memoryEstimation(
+                                        dimensions.allNodesCount(),
+                                        dimensions.hugeNodeCount()))
+                        .build());
+        if (setup.loadAsUndirected) {
+            builder.field("outgoing", adjacencyEstimation(2L));
+        } else {
+            if (setup.loadOutgoing) {
+                builder.field("outgoing", adjacencyEstimation(1L));
+            }
+            if (setup.loadIncoming) {
+                builder.field("incoming", adjacencyEstimation(1L));
+            }
+        }
+        long relationshipsPerRecord = setup.loadAsUndirected ? 2L : 1L;
+        return builder
+                .perGraphDimension("weights", (dimensions, concurrency) ->
+                        dimensions.relWeightId() == StatementConstants.NO_SUCH_PROPERTY_KEY
+                                ? MemoryRange.empty()
+                                : weightsEstimation(dimensions, relationshipsPerRecord));
+    }
+
+    // a delta encoded target takes between 1 and 10 bytes, every list starts with its degree
+    // and every importing thread may leave the rest of a page unused
+    private static MemoryEstimation adjacencyEstimation(long relationshipsPerRecord) {
+        return MemoryEstimations.builder(HugeAdjacencyList.class)
+                .perNode("offsets", HugeLongArray::estimateMemoryUsage)
+                .perGraphDimension("adjacency", (dimensions, concurrency) -> {
+                    long relationships = dimensions.maxRelCount() * relationshipsPerRecord;
+                    long headers = dimensions.hugeNodeCount() * Integer.BYTES;
+                    return MemoryRange.of(
+                            relationships + headers,
+                            relationships * 10L + headers + (long) concurrency * HugeAdjacencyList.PAGE_SIZE);
+                })
+                .build();
+    }
+
+    // one hash map per source node, HPPC keeps the load factor between 0.375 and 0.75
+    private static MemoryRange weightsEstimation(GraphDimensions dimensions, long relationshipsPerRecord) {
+        long relationships = dimensions.maxRelCount() * relationshipsPerRecord;
+        long sources = Math.min(dimensions.hugeNodeCount(), relationships);
+        long perEntry = Long.BYTES + Double.BYTES;
+        long perMap = shallowSizeOfInstance(TrackingLongDoubleHashMap.class) + 2L * sizeOfLongArray(0);
+        return MemoryRange.of(
+                sources * perMap + (long) (relationships * perEntry / 0.75),
+                sources * perMap + (long) (relationships * perEntry / 0.375));
+    }
+
     @Override
     protected ImportProgress importProgress(
             final ProgressLogger progressLogger,
@@ -75,6 +165,7 @@ public final class HugeGraphFactory extends GraphFactory {
         AllocationTracker tracker = setup.tracker;
         HugeIdMap mapping = loadHugeIdMap(tracker, concurrency);
         HugeGraph graph = loadRelationships(dimensions, tracker, mapping, concurrency);
+        graph = reorder(graph, mapping, tracker, concurrency);
         progressLogger.logDone(tracker);
         return graph;
     }
@@ -92,13 +183,13 @@ public final class HugeGraphFactory extends GraphFactory {
         HugeAdjacencyBuilder outAdjacency = null;
         HugeAdjacencyBuilder inAdjacency = null;
         if (setup.loadAsUndirected) {
-            outAdjacency = new HugeAdjacencyBuilder(tracker);
+            outAdjacency = new HugeAdjacencyBuilder(tracker, setup.adjacencyCodecs);
         } else {
             if (setup.loadOutgoing) {
-                outAdjacency = new HugeAdjacencyBuilder(tracker);
+                outAdjacency = new HugeAdjacencyBuilder(tracker, setup.adjacencyCodecs);
             }
             if (setup.loadIncoming) {
-                inAdjacency = new HugeAdjacencyBuilder(tracker);
+                inAdjacency = new HugeAdjacencyBuilder(tracker, setup.adjacencyCodecs);
             }
         }
 
@@ -116,4 +207,66 @@ public final class HugeGraphFactory extends GraphFactory {
         return HugeAdjacencyBuilder.apply(tracker, mapping, weights, inAdjacency, outAdjacency);
     }
 
+    /**
+     * Relabels the nodes in the order of {@link GraphSetup#nodeOrdering} and compresses the adjacency again.
+     * The graph in scan order is needed to find the new order, so both graphs are held in memory
+     * until the relationships have been copied.
+     */
+    private HugeGraph reorder(HugeGraph graph, HugeIdMap mapping, AllocationTracker tracker, int concurrency) {
+        Direction neighbours = setup.loadAsUndirected || !setup.loadIncoming
+                ? Direction.OUTGOING
+                : setup.loadOutgoing ? Direction.BOTH : Direction.INCOMING;
+        HugeLongArray newToOld = setup.nodeOrdering.order(graph, neighbours, setup.loadAsUndirected, tracker);
+        if (newToOld == null) {
+            return graph;
+        }
+        long highestNodeId = dimensions.allNodesCount() - 1L;
+        HugeIdMap reordered = mapping.reorder(newToOld, highestNodeId, tracker);
+        tracker.remove(newToOld.release());
+
+        HugeGraphBuilder builder = HugeGraphBuilder.withIdMap(reordered, highestNodeId)
+                .withDirection(neighbours)
+                .withConcurrency(concurrency)
+                .withExecutorService(threadPool)
+                .withAllocationTracker(tracker)
+                .withAdjacencyCompression(setup.adjacencyCodecs);
+        boolean weighted = dimensions.relWeightId() != StatementConstants.NO_SUCH_PROPERTY_KEY;
+        if (weighted) {
+            builder.withRelationshipWeights(setup.relationDefaultWeight);
+        } else {
+            builder.withoutRelationshipWeights(setup.relationDefaultWeight);
+        }
+        HugeGraphBuilder.Importer importer = builder.importer();
+
+        // every relationship is copied once in its original direction and the builder adds the inverse,
+        // the outgoing adjacency of an undirected graph already contains both directions
+        Direction copyDirection = neighbours == Direction.BOTH ? Direction.OUTGOING : neighbours;
+        long nodeCount = graph.nodeCount();
+        long batchSize = ParallelUtil.adjustBatchSize(nodeCount, concurrency, MIN_REORDER_BATCH_SIZE);
+        List<Runnable> tasks = new ArrayList<>();
+        for (long start = 0L; start < nodeCount; start += batchSize) {
+            long from = start;
+            long to = Math.min(nodeCount, start + batchSize);
+            HugeGraph local = graph.concurrentCopy();
+            tasks.add(() -> {
+                HugeGraphBuilder.Batch batch = importer.newBatch();
+                for (long nodeId = from; nodeId < to; nodeId++) {
+                    local.forEachRelationship(nodeId, copyDirection, (source, target, weight) -> {
+                        if (copyDirection == Direction.INCOMING) {
+                            batch.add(local.toOriginalNodeId(target), local.toOriginalNodeId(source), weight);
+                        } else {
+                            batch.add(local.toOriginalNodeId(source), local.toOriginalNodeId(target), weight);
+                        }
+                        return true;
+                    });
+                }
+                batch.flush();
+            });
+        }
+        ParallelUtil.run(tasks, threadPool);
+        HugeGraph reorderedGraph = importer.build();
+        graph.release();
+        return reorderedGraph;
+    }
+
 }
@@ -24,6 +24,7 @@ import org.neo4j.graphalgo.api.HugeBatchNodeIterable;
 import org.neo4j.graphalgo.api.HugeIdMapping;
 import org.neo4j.graphalgo.api.HugeNodeIterator;
 import org.neo4j.graphalgo.core.utils.LazyBatchCollection;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
 import org.neo4j.graphalgo.core.utils.paged.SparseLongArray;
 
@@ -33,6 +34,9 @@ import java.util.function.LongPredicate;
 /**
  * This is basically a long to int mapper. It sorts the id's in ascending order so its
  * guaranteed that there is no ID greater then nextGraphId / capacity
+ * <p>
+ * Original ids that are too sparse for a {@link SparseLongArray} are mapped
+ * by a binary search over the ascending original ids instead.
  */
 public final class HugeIdMap implements HugeIdMapping, HugeNodeIterator, HugeBatchNodeIterable {
 
@@ -49,9 +53,32 @@ public final class HugeIdMap implements HugeIdMapping, HugeNodeIterator, HugeBat
         this.nodeToGraphIds = nodeToGraphIds;
     }
 
+    /**
+     * initialize the map with strictly ascending original ids
+     */
+    HugeIdMap(HugeLongArray sortedGraphIds, long nodeCount) {
+        this(sortedGraphIds, null, nodeCount);
+    }
+
+    /**
+     * Returns a map in which the node with the mapped id {@code newToOld.get(i)} gets the mapped id {@code i}.
+     * The original ids must not be greater than {@code highestNodeId}.
+     */
+    HugeIdMap reorder(HugeLongArray newToOld, long highestNodeId, AllocationTracker tracker) {
+        HugeLongArray newGraphIds = HugeLongArray.newArray(nodeCount, tracker);
+        SparseLongArray newNodeToGraphIds = SparseLongArray.newArray(highestNodeId + 1L, tracker);
+        for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+            long originalId = graphIds.get(newToOld.get(nodeId));
+            newGraphIds.set(nodeId, originalId);
+            newNodeToGraphIds.set(originalId, nodeId);
+        }
+        return new HugeIdMap(newGraphIds, newNodeToGraphIds, nodeCount);
+    }
+
     @Override
     public long toHugeMappedNodeId(long nodeId) {
-        return nodeToGraphIds.get(nodeId);
+        SparseLongArray nodeToGraphIds = this.nodeToGraphIds;
+        return nodeToGraphIds != null ? nodeToGraphIds.get(nodeId) : search(nodeId);
     }
 
     @Override
@@ -61,7 +88,26 @@ public final class HugeIdMap implements HugeIdMapping, HugeNodeIterator, HugeBat
 
     @Override
     public boolean contains(final long nodeId) {
-        return nodeToGraphIds.contains(nodeId);
+        SparseLongArray nodeToGraphIds = this.nodeToGraphIds;
+        return nodeToGraphIds != null ? nodeToGraphIds.contains(nodeId) : search(nodeId) != -1L;
+    }
+
+    private long search(long nodeId) {
+        HugeLongArray graphIds = this.graphIds;
+        long low = 0L;
+        long high = nodeCount - 1L;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            long midId = graphIds.get(mid);
+            if (midId < nodeId) {
+                low = mid + 1L;
+            } else if (midId > nodeId) {
+                high = mid - 1L;
+            } else {
+                return mid;
+            }
+        }
+        return -1L;
     }
 
     @Override
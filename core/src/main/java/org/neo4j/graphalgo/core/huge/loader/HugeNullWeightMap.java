@@ -39,6 +39,16 @@ class HugeNullWeightMap implements HugeWeightMapping {
         return defaultValue;
     }
 
+    @Override
+    public double defaultValue() {
+        return defaultValue;
+    }
+
+    @Override
+    public boolean hasExplicitWeights(final long source) {
+        return false;
+    }
+
     @Override
     public long release() {
         return 0L;
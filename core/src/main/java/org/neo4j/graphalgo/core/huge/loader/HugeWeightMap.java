@@ -65,6 +65,22 @@ abstract class HugeWeightMap {
             return map != null ? map.getOrDefault(target, defaultValue) : defaultValue;
         }
 
+        @Override
+        public double defaultValue() {
+            return defaultValue;
+        }
+
+        @Override
+        public boolean hasExplicitWeights(final long source) {
+            return hasExplicitWeights((int) source);
+        }
+
+        boolean hasExplicitWeights(int localIndex) {
+            // only weights that differ from the default are stored
+            TrackingLongDoubleHashMap map = data[localIndex];
+            return map != null && !map.isEmpty();
+        }
+
         void put(int localIndex, long target, double value) {
             mapForIndex(localIndex).put(target, value);
         }
@@ -127,10 +143,18 @@ abstract class HugeWeightMap {
             return defaultValue;
         }
 
+        @Override
         public double defaultValue() {
             return defaultValue;
         }
 
+        @Override
+        public boolean hasExplicitWeights(final long source) {
+            int pageIndex = (int) (source >>> pageShift);
+            Page page = pages[pageIndex];
+            return page != null && page.hasExplicitWeights((int) (source & pageMask));
+        }
+
         @Override
         public long release() {
             if (pages != null) {
@@ -0,0 +1,310 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge.loader;
+
+import com.carrotsearch.hppc.LongArrayList;
+import com.carrotsearch.hppc.LongLongHashMap;
+import com.carrotsearch.hppc.cursors.LongLongCursor;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.core.utils.paged.PagedSimpleBitSet;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Orders the nodes of a loaded graph so that nodes which are connected get close ids.
+ * Close ids make the deltas in the adjacency lists smaller and let algorithms
+ * access their per node arrays with better locality.
+ * <p>
+ * An ordering returns the old mapped id for every new mapped id, the relationships are only used to
+ * find the order and are never changed. The weights of relationships are ignored.
+ */
+public enum NodeOrdering {
+    /**
+     * Keep the order of the store scan.
+     */
+    NONE {
+        @Override
+        HugeLongArray order(HugeGraph graph, Direction direction, boolean undirected, AllocationTracker tracker) {
+            return null;
+        }
+    },
+    /**
+     * Descending degree, so that the frequently accessed hubs share a few pages at the start.
+     * Nodes with the same degree keep their order.
+     */
+    DEGREE {
+        @Override
+        HugeLongArray order(HugeGraph graph, Direction direction, boolean undirected, AllocationTracker tracker) {
+            return byDegree(graph, direction, true, tracker);
+        }
+    },
+    /**
+     * Reverse Cuthill-McKee: a breadth first search that starts at a node of minimal degree in every component
+     * and visits the neighbours of a node by ascending degree, the resulting order is reversed.
+     * Neighbours end up in a narrow band of ids.
+     */
+    BFS {
+        @Override
+        HugeLongArray order(HugeGraph graph, Direction direction, boolean undirected, AllocationTracker tracker) {
+            return reverseCuthillMcKee(graph, direction, tracker);
+        }
+    },
+    /**
+     * Communities are found like in Rabbit order: nodes are visited by ascending degree and every node is merged
+     * into the community of a neighbour that increases the modularity the most.
+     * The merges form a forest and its depth first order places every community, and its sub-communities,
+     * in a consecutive range of ids.
+     * Unlike Rabbit order, the merged communities do not aggregate their relationships,
+     * the gain of a merge is computed from the relationships of the merged node.
+     */
+    COMMUNITY {
+        @Override
+        HugeLongArray order(HugeGraph graph, Direction direction, boolean undirected, AllocationTracker tracker) {
+            return communityOrder(graph, direction, undirected, tracker);
+        }
+    };
+
+    // degrees above are ordered as if they were equal to this one
+    private static final int MAX_EXACT_DEGREE = 1 << 16;
+
+    /**
+     * Returns the old mapped id of every new mapped id, or {@code null} if the order does not change.
+     *
+     * @param direction  the relationships that define the neighbourhood of a node
+     * @param undirected whether the relationships of {@code direction} already contain both directions
+     */
+    abstract HugeLongArray order(HugeGraph graph, Direction direction, boolean undirected, AllocationTracker tracker);
+
+    public static NodeOrdering parse(String name) {
+        try {
+            return valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException(String.format(
+                    "Unknown node ordering '%s', expected one of %s",
+                    name,
+                    Arrays.stream(values()).map(o -> o.name().toLowerCase()).collect(Collectors.joining(", "))));
+        }
+    }
+
+    // counting sort by degree
+    private static HugeLongArray byDegree(
+            HugeGraph graph,
+            Direction direction,
+            boolean descending,
+            AllocationTracker tracker) {
+        long nodeCount = graph.nodeCount();
+        int maxDegree = 0;
+        for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+            maxDegree = Math.max(maxDegree, Math.min(MAX_EXACT_DEGREE, graph.degree(nodeId, direction)));
+        }
+        long[] starts = new long[maxDegree + 1];
+        for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+            starts[bucket(graph, nodeId, direction, maxDegree, descending)]++;
+        }
+        long start = 0L;
+        for (int i = 0; i < starts.length; i++) {
+            long count = starts[i];
+            starts[i] = start;
+            start += count;
+        }
+        HugeLongArray order = HugeLongArray.newArray(nodeCount, tracker);
+        for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+            order.set(starts[bucket(graph, nodeId, direction, maxDegree, descending)]++, nodeId);
+        }
+        return order;
+    }
+
+    private static int bucket(HugeGraph graph, long nodeId, Direction direction, int maxDegree, boolean descending) {
+        int degree = Math.min(maxDegree, graph.degree(nodeId, direction));
+        return descending ? maxDegree - degree : degree;
+    }
+
+    private static HugeLongArray reverseCuthillMcKee(HugeGraph graph, Direction direction, AllocationTracker tracker) {
+        long nodeCount = graph.nodeCount();
+        HugeLongArray startNodes = byDegree(graph, direction, false, tracker);
+        HugeLongArray order = HugeLongArray.newArray(nodeCount, tracker);
+        PagedSimpleBitSet visited = PagedSimpleBitSet.newBitSet(nodeCount, tracker);
+        NeighbourBuffer neighbours = new NeighbourBuffer();
+
+        long tail = 0L;
+        for (long i = 0L; i < nodeCount; i++) {
+            long startNode = startNodes.get(i);
+            if (visited.contains(startNode)) {
+                continue;
+            }
+            visited.put(startNode);
+            long head = tail;
+            order.set(tail++, startNode);
+            while (head < tail) {
+                long nodeId = order.get(head++);
+                neighbours.clear();
+                graph.forEachRelationship(nodeId, direction, (source, target) -> {
+                    if (!visited.contains(target)) {
+                        visited.put(target);
+                        neighbours.add(target, graph.degree(target, direction));
+                    }
+                    return true;
+                });
+                tail = neighbours.appendSortedByDegree(order, tail);
+            }
+        }
+        tracker.remove(startNodes.release());
+        tracker.remove(visited.release());
+
+        for (long low = 0L, high = nodeCount - 1L; low < high; low++, high--) {
+            long node = order.get(low);
+            order.set(low, order.get(high));
+            order.set(high, node);
+        }
+        return order;
+    }
+
+    private static HugeLongArray communityOrder(
+            HugeGraph graph,
+            Direction direction,
+            boolean undirected,
+            AllocationTracker tracker) {
+        long nodeCount = graph.nodeCount();
+        HugeLongArray byDegree = byDegree(graph, direction, false, tracker);
+        HugeLongArray parent = HugeLongArray.newArray(nodeCount, tracker);
+        HugeLongArray communityDegree = HugeLongArray.newArray(nodeCount, tracker);
+        HugeLongArray firstChild = HugeLongArray.newArray(nodeCount, tracker);
+        HugeLongArray nextSibling = HugeLongArray.newArray(nodeCount, tracker);
+        double relationships = 0.0;
+        for (long nodeId = 0L; nodeId < nodeCount; nodeId++) {
+            int degree = graph.degree(nodeId, direction);
+            parent.set(nodeId, nodeId);
+            communityDegree.set(nodeId, degree);
+            firstChild.set(nodeId, -1L);
+            nextSibling.set(nodeId, -1L);
+            relationships += degree;
+        }
+        // undirected relationships are counted at both of their nodes, directed ones only at one of them
+        boolean symmetric = undirected || direction == Direction.BOTH;
+        double m = symmetric ? relationships / 2.0 : relationships;
+        // the null model expects k_i * k_j / 2m relationships between two nodes, or k_i * k_j / m if directed
+        double expectedScale = symmetric ? 2.0 * m * m : m * m;
+
+        LongLongHashMap weights = new LongLongHashMap();
+        for (long i = 0L; i < nodeCount; i++) {
+            long nodeId = byDegree.get(i);
+            long degree = communityDegree.get(nodeId);
+            if (degree == 0L) {
+                continue;
+            }
+            weights.clear();
+            graph.forEachRelationship(nodeId, direction, (source, target) -> {
+                long community = find(parent, target);
+                if (community != source) {
+                    weights.addTo(community, 1L);
+                }
+                return true;
+            });
+
+            long best = -1L;
+            double bestGain = 0.0;
+            for (LongLongCursor cursor : weights) {
+                double gain = cursor.value / m - (double) degree * communityDegree.get(cursor.key) / expectedScale;
+                if (gain > bestGain) {
+                    bestGain = gain;
+                    best = cursor.key;
+                }
+            }
+            if (best != -1L) {
+                parent.set(nodeId, best);
+                communityDegree.set(best, communityDegree.get(best) + degree);
+                nextSibling.set(nodeId, firstChild.get(best));
+                firstChild.set(best, nodeId);
+            }
+        }
+        tracker.remove(byDegree.release());
+        tracker.remove(communityDegree.release());
+
+        // depth first over the merge forest, the roots keep their relative order
+        HugeLongArray order = HugeLongArray.newArray(nodeCount, tracker);
+        HugeLongArray stack = HugeLongArray.newArray(nodeCount, tracker);
+        long position = 0L;
+        for (long root = 0L; root < nodeCount; root++) {
+            if (parent.get(root) != root) {
+                continue;
+            }
+            long top = 0L;
+            stack.set(top++, root);
+            while (top > 0L) {
+                long nodeId = stack.get(--top);
+                order.set(position++, nodeId);
+                for (long child = firstChild.get(nodeId); child != -1L; child = nextSibling.get(child)) {
+                    stack.set(top++, child);
+                }
+            }
+        }
+        tracker.remove(parent.release());
+        tracker.remove(firstChild.release());
+        tracker.remove(nextSibling.release());
+        tracker.remove(stack.release());
+        return order;
+    }
+
+    // the root of the community, with path compression
+    private static long find(HugeLongArray parent, long nodeId) {
+        long root = nodeId;
+        long next;
+        while ((next = parent.get(root)) != root) {
+            root = next;
+        }
+        while (nodeId != root) {
+            next = parent.get(nodeId);
+            parent.set(nodeId, root);
+            nodeId = next;
+        }
+        return root;
+    }
+
+    private static final class NeighbourBuffer {
+        private final LongArrayList nodes = new LongArrayList();
+        private long[] keys = new long[0];
+
+        void clear() {
+            nodes.clear();
+        }
+
+        void add(long nodeId, int degree) {
+            if (keys.length <= nodes.size()) {
+                keys = Arrays.copyOf(keys, Math.max(16, keys.length << 1));
+            }
+            // the degree in the upper bits sorts by degree first and by visiting order second
+            keys[nodes.size()] = ((long) degree << 32) | nodes.size();
+            nodes.add(nodeId);
+        }
+
+        long appendSortedByDegree(HugeLongArray into, long position) {
+            int size = nodes.size();
+            Arrays.sort(keys, 0, size);
+            long[] buffer = nodes.buffer;
+            for (int i = 0; i < size; i++) {
+                into.set(position++, buffer[(int) keys[i]]);
+            }
+            return position;
+        }
+    }
+}
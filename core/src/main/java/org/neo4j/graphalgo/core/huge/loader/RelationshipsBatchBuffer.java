@@ -20,6 +20,7 @@ package org.neo4j.graphalgo.core.huge.loader;
 
 import org.neo4j.graphalgo.api.HugeIdMapping;
 import org.neo4j.graphalgo.core.huge.loader.AbstractStorePageCacheScanner.RecordConsumer;
+import org.neo4j.internal.kernel.api.Read;
 import org.neo4j.kernel.impl.store.record.RelationshipRecord;
 
 
@@ -46,6 +47,13 @@ final class RelationshipsBatchBuffer implements RecordConsumer<RelationshipRecor
         histogram = RadixSort.newHistogram(capacity);
     }
 
+    /**
+     * A buffer that is filled through {@link #add(long, long, long, long)} with already mapped node ids.
+     */
+    RelationshipsBatchBuffer(int capacity) {
+        this(null, Read.ANY_RELATIONSHIP_TYPE, capacity);
+    }
+
     boolean scan(AbstractStorePageCacheScanner<RelationshipRecord>.Cursor cursor) {
         length = 0;
         return cursor.bulkNext(this) && length > 0;
@@ -53,23 +61,35 @@ final class RelationshipsBatchBuffer implements RecordConsumer<RelationshipRecor
 
     @Override
     public void add(final RelationshipRecord record) {
-        if ((type & record.getType()) == record.getType()) {
+        if (type == Read.ANY_RELATIONSHIP_TYPE || type == record.getType()) {
             long source = idMap.toHugeMappedNodeId(record.getFirstNode());
             if (source != -1L) {
                 long target = idMap.toHugeMappedNodeId(record.getSecondNode());
                 if (target != -1L) {
-                    int position = this.length;
-                    long[] buffer = this.buffer;
-                    buffer[position] = source;
-                    buffer[1 + position] = target;
-                    buffer[2 + position] = record.getId();
-                    buffer[3 + position] = record.getNextProp();
-                    this.length = 4 + position;
+                    add(source, target, record.getId(), record.getNextProp());
                 }
             }
         }
     }
 
+    void add(long source, long target, long relationshipReference, long propertyReference) {
+        int position = this.length;
+        long[] buffer = this.buffer;
+        buffer[position] = source;
+        buffer[1 + position] = target;
+        buffer[2 + position] = relationshipReference;
+        buffer[3 + position] = propertyReference;
+        this.length = 4 + position;
+    }
+
+    boolean isFull() {
+        return length >= buffer.length;
+    }
+
+    void reset() {
+        length = 0;
+    }
+
     long[] sortBySource() {
         RadixSort.radixSort(buffer, sortCopy, histogram, length);
         return buffer;
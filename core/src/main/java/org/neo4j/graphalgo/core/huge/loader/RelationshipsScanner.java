@@ -22,6 +22,8 @@ import org.neo4j.graphalgo.api.GraphSetup;
 import org.neo4j.graphalgo.api.HugeIdMapping;
 import org.neo4j.graphalgo.core.utils.ImportProgress;
 import org.neo4j.graphalgo.core.utils.StatementAction;
+import org.neo4j.graphalgo.core.utils.metrics.Meter;
+import org.neo4j.graphalgo.core.utils.metrics.Metrics;
 import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
 import org.neo4j.internal.kernel.api.CursorFactory;
 import org.neo4j.internal.kernel.api.Read;
@@ -175,6 +177,12 @@ final class RelationshipsScanner extends StatementAction implements RecordScanne
             final AllocationTracker tracker = this.tracker;
             final Imports imports = this.imports;
 
+            final Meter importedMeter = Metrics.meter(
+                    "loader.relationships.imported",
+                    "thread",
+                    threadName(),
+                    "Relationships imported per loader thread");
+
             long allImported = 0L;
             while (batches.scan(cursor)) {
                 int batchLength = batches.length();
@@ -182,6 +190,7 @@ final class RelationshipsScanner extends StatementAction implements RecordScanne
                         batches, batchLength, weights, cursors, read, tracker, outAdjacency, inAdjacency
                 );
                 progress.relationshipsImported(imported);
+                importedMeter.mark(imported);
                 allImported += imported;
             }
             relationshipsImported = allImported;
@@ -337,7 +346,7 @@ final class RelationshipsScanner extends StatementAction implements RecordScanne
         return importRelationships(buffer, batch, batchLength, inAdjacency, tracker);
     }
 
-    private static int importRelationships(
+    static int importRelationships(
             RelationshipsBatchBuffer buffer,
             long[] batch,
             int batchLength,
@@ -18,13 +18,13 @@
  */
 package org.neo4j.graphalgo.core.huge.loader;
 
-final class VarLongEncoding {
+public final class VarLongEncoding {
 
-    static int encodeVLongs(long[] values, int limit, byte[] out, int into) {
+    public static int encodeVLongs(long[] values, int limit, byte[] out, int into) {
         return encodeVLongs(values, 0, limit, out, into);
     }
 
-    static int encodeVLongs(long[] values, int offset, int end, byte[] out, int into) {
+    public static int encodeVLongs(long[] values, int offset, int end, byte[] out, int into) {
         for (int i = offset; i < end; ++i) {
             into = encodeVLong(out, values[i], into);
         }
@@ -32,7 +32,7 @@ final class VarLongEncoding {
     }
 
     //@formatter:off
-    private static int encodeVLong(final byte[] buffer, final long val, int output) {
+    public static int encodeVLong(final byte[] buffer, final long val, int output) {
         if (val < 128L) {
             buffer[    output] = (byte) (val       | 128L);
             return 1 + output;
@@ -99,7 +99,7 @@ final class VarLongEncoding {
         }
     }
 
-    static int encodedVLongSize(final long val) {
+    public static int encodedVLongSize(final long val) {
         if (val < 128L) {
             return 1;
         } else if (val < 16384L) {
@@ -41,6 +41,8 @@ abstract class WeightBuilder {
             long sourceNodeId,
             long targetNodeId);
 
+    abstract void addWeight(long sourceNodeId, long targetNodeId, double weight);
+
     static WeightBuilder of(
             HugeWeightMapBuilder weights,
             int numPages,
@@ -126,6 +128,13 @@ abstract class WeightBuilder {
                     read
             );
         }
+
+        @Override
+        void addWeight(long sourceNodeId, long targetNodeId, double weight) {
+            int pageIdx = (int) (sourceNodeId >>> pageShift);
+            int localId = (int) (sourceNodeId & pageMask);
+            builders[pageIdx].add(localId, targetNodeId, weight);
+        }
     }
 
     private static final class NoWeights extends WeightBuilder {
@@ -154,5 +163,9 @@ abstract class WeightBuilder {
                 final long sourceNodeId,
                 final long targetNodeId) {
         }
+
+        @Override
+        void addWeight(long sourceNodeId, long targetNodeId, double weight) {
+        }
     }
 }
@@ -21,6 +21,7 @@ package org.neo4j.graphalgo.core.loading;
 import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.GraphFactory;
 import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
 import java.util.concurrent.ConcurrentHashMap;
@@ -35,6 +36,19 @@ public final class LoadGraphFactory extends GraphFactory {
         super(api, setup);
     }
 
+    /**
+     * The graph has already been loaded, building it does not allocate anything.
+     */
+    @Override
+    public boolean canEstimateMemory() {
+        return false;
+    }
+
+    @Override
+    public MemoryEstimation memoryEstimation() {
+        throw new UnsupportedOperationException("The memory usage of a graph that has already been loaded cannot be estimated");
+    }
+
     @Override
     public Graph build() {
         return get(setup.name);
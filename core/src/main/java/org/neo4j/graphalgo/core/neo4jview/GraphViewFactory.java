@@ -26,6 +26,8 @@ import org.neo4j.graphalgo.core.IdMap;
 import org.neo4j.graphalgo.core.NodeImporter;
 import org.neo4j.graphalgo.core.utils.ImportProgress;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimation;
+import org.neo4j.graphalgo.core.utils.mem.MemoryEstimations;
 
 public final class GraphViewFactory extends GraphFactory {
 
@@ -35,6 +37,16 @@ public final class GraphViewFactory extends GraphFactory {
         super(api, setup);
     }
 
+    /**
+     * Relationships are read from the database on demand, only the id map is loaded.
+     */
+    @Override
+    public MemoryEstimation memoryEstimation() {
+        return MemoryEstimations.builder(GraphView.class)
+                .field("nodeIdMap", IdMap.memoryEstimation())
+                .build();
+    }
+
     @Override
     public Graph build() {
         GraphDimensions dimensions = new GraphDimensions(api, setup).call();
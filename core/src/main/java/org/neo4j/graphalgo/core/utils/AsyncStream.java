@@ -0,0 +1,363 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils;
+
+import org.neo4j.helpers.NamedThreadFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Streams the results of parallel producers to a single consumer, e.g. the result stream of a procedure.
+ * <p>
+ * Every producer fills one partition of the output. The producers run on {@link Pools#STREAMS},
+ * at most {@code concurrency} of them at a time, and hand their results over in batches
+ * through bounded queues, so that they wait whenever the consumer falls behind.
+ * Starting the producers never blocks the caller, who is the only one to consume the results:
+ * a producer that is rejected by the executor runs on a thread of its own.
+ * <p>
+ * Closing the returned stream, as Cypher does when the query is done or aborted, cancels the
+ * producers, as does a {@link TerminationFlag} that stops running. Producers learn about the
+ * cancellation from the return value of {@link Sink#emit(Object)} and should stop early.
+ * A producer that fails cancels the others and its exception is rethrown to the consumer.
+ * <p>
+ * By default the partitions are interleaved in the order the batches arrive. Ordered streams
+ * return all results of a partition before those of the next one, while still computing
+ * {@code concurrency} partitions in parallel.
+ */
+public final class AsyncStream<T> {
+
+    public static final int DEFAULT_BATCH_SIZE = 1024;
+    public static final int DEFAULT_CAPACITY = 16;
+
+    private static final long POLL_MILLIS = 100L;
+    private static final NamedThreadFactory FALLBACK_THREADS = NamedThreadFactory.daemon("algo-stream-fallback");
+
+    // marks the end of a partition in ordered streams and the end of all partitions otherwise
+    private static final Object[] END = new Object[0];
+
+    @FunctionalInterface
+    public interface Producer<T> {
+        void produce(Sink<T> sink);
+    }
+
+    public interface Sink<T> {
+        /**
+         * Adds a result, batches are handed over when they are full or when the producer returns.
+         *
+         * @return false if the stream has been cancelled and the producer should stop
+         */
+        boolean emit(T result);
+
+        boolean isCancelled();
+    }
+
+    private final List<? extends Producer<T>> producers;
+    private final ExecutorService executor;
+    private final int concurrency;
+    private final TerminationFlag terminationFlag;
+    private final int batchSize;
+    private final boolean ordered;
+
+    private final BlockingQueue<Object[]>[] queues;
+    private final AtomicInteger nextPartition = new AtomicInteger();
+    private final AtomicInteger runningWorkers = new AtomicInteger();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    private volatile boolean cancelled;
+
+    @SuppressWarnings("unchecked")
+    private AsyncStream(
+            List<? extends Producer<T>> producers,
+            ExecutorService executor,
+            int concurrency,
+            TerminationFlag terminationFlag,
+            int batchSize,
+            int capacity,
+            boolean ordered) {
+        this.producers = producers;
+        this.executor = executor;
+        this.concurrency = concurrency;
+        this.terminationFlag = terminationFlag;
+        this.batchSize = batchSize;
+        this.ordered = ordered;
+        this.queues = new BlockingQueue[ordered ? Math.max(1, producers.size()) : 1];
+        if (!ordered) {
+            queues[0] = new ArrayBlockingQueue<>(capacity);
+        } else {
+            // only the partitions in flight hold batches, the others stay empty
+            for (int i = 0; i < queues.length; i++) {
+                queues[i] = new ArrayBlockingQueue<>(capacity);
+            }
+        }
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    public static final class Builder<T> {
+        private ExecutorService executor = Pools.STREAMS;
+        private int concurrency = Pools.DEFAULT_CONCURRENCY;
+        private TerminationFlag terminationFlag = TerminationFlag.RUNNING_TRUE;
+        private int batchSize = DEFAULT_BATCH_SIZE;
+        private int capacity = DEFAULT_CAPACITY;
+        private boolean ordered;
+
+        private Builder() {
+        }
+
+        /**
+         * @param executor runs the producers, it must reject tasks instead of running them on the caller
+         *                 or waiting for a free thread, like the {@link Pools#DEFAULT default pool} does
+         */
+        public Builder<T> withExecutor(ExecutorService executor) {
+            this.executor = Objects.requireNonNull(executor);
+            return this;
+        }
+
+        public Builder<T> withConcurrency(int concurrency) {
+            this.concurrency = Math.max(1, concurrency);
+            return this;
+        }
+
+        public Builder<T> withTerminationFlag(TerminationFlag terminationFlag) {
+            this.terminationFlag = Objects.requireNonNull(terminationFlag);
+            return this;
+        }
+
+        /**
+         * @param batchSize the number of results that are handed over at once
+         */
+        public Builder<T> withBatchSize(int batchSize) {
+            this.batchSize = Math.max(1, batchSize);
+            return this;
+        }
+
+        /**
+         * @param capacity the number of batches that may wait for the consumer, per partition if ordered
+         */
+        public Builder<T> withCapacity(int capacity) {
+            this.capacity = Math.max(1, capacity);
+            return this;
+        }
+
+        public Builder<T> ordered(boolean ordered) {
+            this.ordered = ordered;
+            return this;
+        }
+
+        /**
+         * Starts the producers and returns the stream of their results.
+         */
+        public Stream<T> stream(Collection<? extends Producer<T>> producers) {
+            AsyncStream<T> stream = new AsyncStream<>(
+                    new ArrayList<>(producers),
+                    executor,
+                    concurrency,
+                    terminationFlag,
+                    batchSize,
+                    capacity,
+                    ordered);
+            return stream.start();
+        }
+    }
+
+    private Stream<T> start() {
+        if (producers.isEmpty()) {
+            return Stream.empty();
+        }
+        int workers = Math.min(concurrency, producers.size());
+        runningWorkers.set(workers);
+        for (int i = 0; i < workers; i++) {
+            try {
+                executor.execute(this::work);
+            } catch (RejectedExecutionException e) {
+                // the consumer has to start reading before the producers can finish, never wait for them
+                FALLBACK_THREADS.newThread(this::work).start();
+            }
+        }
+        return StreamSupport.stream(new Results(), false).onClose(this::cancel);
+    }
+
+    private void work() {
+        try {
+            int partition;
+            while (!cancelled && (partition = nextPartition.getAndIncrement()) < producers.size()) {
+                BlockingQueue<Object[]> queue = queues[ordered ? partition : 0];
+                Batches sink = new Batches(queue);
+                producers.get(partition).produce(sink);
+                if (sink.flush() && ordered) {
+                    put(queue, END);
+                }
+            }
+        } catch (Throwable e) {
+            failure.compareAndSet(null, e);
+            cancel();
+        } finally {
+            if (runningWorkers.decrementAndGet() == 0 && !ordered) {
+                put(queues[0], END);
+            }
+        }
+    }
+
+    private void cancel() {
+        cancelled = true;
+        // let blocked producers see the cancellation right away
+        for (BlockingQueue<Object[]> queue : queues) {
+            queue.clear();
+        }
+    }
+
+    private boolean put(BlockingQueue<Object[]> queue, Object[] batch) {
+        try {
+            while (!cancelled) {
+                if (!terminationFlag.running()) {
+                    cancel();
+                } else if (queue.offer(batch, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+        }
+        return false;
+    }
+
+    private final class Batches implements Sink<T> {
+        private final BlockingQueue<Object[]> queue;
+        private Object[] batch;
+        private int size;
+
+        private Batches(BlockingQueue<Object[]> queue) {
+            this.queue = queue;
+            this.batch = new Object[batchSize];
+        }
+
+        @Override
+        public boolean emit(T result) {
+            batch[size++] = result;
+            if (size == batch.length) {
+                return flush();
+            }
+            return !cancelled;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        private boolean flush() {
+            if (size == 0) {
+                return !cancelled;
+            }
+            Object[] full = size == batch.length ? batch : Arrays.copyOf(batch, size);
+            batch = new Object[batchSize];
+            size = 0;
+            return put(queue, full);
+        }
+    }
+
+    private final class Results implements Spliterator<T> {
+        private int partition;
+        private Object[] batch = END;
+        private int index;
+        private boolean done;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (index == batch.length) {
+                if (done || !nextBatch()) {
+                    // the end marker has been taken, polling again would wait forever
+                    done = true;
+                    return false;
+                }
+            }
+            action.accept((T) batch[index++]);
+            return true;
+        }
+
+        private boolean nextBatch() {
+            try {
+                while (true) {
+                    rethrowFailure();
+                    if (cancelled) {
+                        return false;
+                    }
+                    if (!terminationFlag.running()) {
+                        cancel();
+                        return false;
+                    }
+                    Object[] next = queues[partition].poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (next == END) {
+                        if (!ordered || ++partition == queues.length) {
+                            return false;
+                        }
+                    } else if (next != null) {
+                        batch = next;
+                        index = 0;
+                        return true;
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                cancel();
+                return false;
+            }
+        }
+
+        private void rethrowFailure() {
+            Throwable error = failure.get();
+            if (error != null) {
+                throw ExceptionUtil.asUnchecked(error);
+            }
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ordered ? ORDERED : 0;
+        }
+    }
+}
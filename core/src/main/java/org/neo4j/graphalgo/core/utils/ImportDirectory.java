@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils;
+
+import org.neo4j.graphdb.config.Setting;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.kernel.configuration.Config;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import static org.neo4j.kernel.configuration.Settings.BOOLEAN;
+import static org.neo4j.kernel.configuration.Settings.FALSE;
+import static org.neo4j.kernel.configuration.Settings.NO_DEFAULT;
+import static org.neo4j.kernel.configuration.Settings.PATH;
+import static org.neo4j.kernel.configuration.Settings.setting;
+
+/**
+ * Resolves the files that procedures read or write.
+ * <p>
+ * Files are read with the same rules as {@code LOAD CSV}: only if {@link GraphDatabaseSettings#allow_file_urls}
+ * is enabled, and within {@link GraphDatabaseSettings#load_csv_file_url_root} if it is set.
+ * <p>
+ * Exports create directories and replace files, they have to be enabled by {@link #export_enabled}
+ * and are always resolved within {@link #export_root}, or the import directory if that is not set.
+ */
+public final class ImportDirectory {
+
+    public static final Setting<Boolean> export_enabled = setting("algo.export.enabled", BOOLEAN, FALSE);
+
+    public static final Setting<File> export_root = setting("algo.export.root", PATH, NO_DEFAULT);
+
+    public static Path resolve(GraphDatabaseAPI db, String file) {
+        Config config = db.getDependencyResolver().resolveDependency(Config.class);
+        if (!config.get(GraphDatabaseSettings.allow_file_urls)) {
+            throw new IllegalArgumentException("Accessing files is disabled by " + GraphDatabaseSettings.allow_file_urls.name());
+        }
+        File importRoot = config.get(GraphDatabaseSettings.load_csv_file_url_root);
+        if (importRoot == null) {
+            return Paths.get(file);
+        }
+        return within(importRoot, file);
+    }
+
+    /**
+     * Resolves the target of an export, which must not leave the export root.
+     */
+    public static Path resolveExport(GraphDatabaseAPI db, String directory) {
+        Config config = db.getDependencyResolver().resolveDependency(Config.class);
+        if (!config.get(export_enabled)) {
+            throw new IllegalArgumentException("Exporting files is disabled, it can be enabled with " + export_enabled.name());
+        }
+        File exportRoot = config.get(export_root);
+        if (exportRoot == null) {
+            exportRoot = config.get(GraphDatabaseSettings.load_csv_file_url_root);
+        }
+        if (exportRoot == null) {
+            throw new IllegalArgumentException(String.format(
+                    "Exports require a root directory, set either %s or %s",
+                    export_root.name(),
+                    GraphDatabaseSettings.load_csv_file_url_root.name()));
+        }
+        return within(exportRoot, directory);
+    }
+
+    private static Path within(File directory, String file) {
+        Path root = directory.toPath().toAbsolutePath().normalize();
+        Path path = root.resolve(file.startsWith("/") ? file.substring(1) : file).normalize();
+        if (!path.startsWith(root)) {
+            throw new IllegalArgumentException("The file " + file + " is not within " + root);
+        }
+        return path;
+    }
+
+    private ImportDirectory() {
+        throw new UnsupportedOperationException("No instances");
+    }
+}
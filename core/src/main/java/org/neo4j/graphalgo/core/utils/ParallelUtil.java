@@ -186,7 +186,8 @@ public final class ParallelUtil {
                 tasks.add(importer.newImporter(nodeOffset, iterator));
                 nodeOffset += batchSize;
             }
-            runWithConcurrency(concurrency, tasks, executor);
+            // every abandoned importer would leave a batch of nodes without relationships
+            runWithConcurrency(concurrency, tasks, Integer.MAX_VALUE, 10L, TimeUnit.MICROSECONDS, executor);
             return tasks;
         }
     }
@@ -219,7 +220,7 @@ public final class ParallelUtil {
             Collection<T> tasks = LazyMappingCollection.of(
                     iterators,
                     it -> importer.newImporter(nodeOffset.getAndAdd(batchSize), it));
-            runWithConcurrency(concurrency, tasks, executor);
+            runWithConcurrency(concurrency, tasks, Integer.MAX_VALUE, 10L, TimeUnit.MICROSECONDS, executor);
         }
     }
 
@@ -716,7 +717,11 @@ public final class ParallelUtil {
                 if (!terminationFlag.running()) {
                     return;
                 }
-                if (!completionService.trySubmit(ts) && !completionService.hasTasks()) {
+                if (completionService.trySubmit(ts)) {
+                    // the retries are per task, a worker that is still finishing its previous task
+                    // would otherwise use them up over a long run and the remaining tasks would be dropped
+                    tries = 0;
+                } else if (!completionService.hasTasks()) {
                     if (++tries >= maxWaitRetries) {
                         break;
                     }
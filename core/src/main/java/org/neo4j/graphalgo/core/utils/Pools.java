@@ -18,6 +18,7 @@
  */
 package org.neo4j.graphalgo.core.utils;
 
+import org.neo4j.graphalgo.core.utils.metrics.Metrics;
 import org.neo4j.helpers.NamedThreadFactory;
 
 import java.util.concurrent.ArrayBlockingQueue;
@@ -25,6 +26,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.LockSupport;
@@ -50,6 +52,20 @@ public class Pools {
 
     public final static ExecutorService DEFAULT = createDefaultPool();
     public final static ForkJoinPool FJ_POOL = createFJPool();
+    // producers of result streams, which wait for the consumer and must not occupy the default pool
+    public final static ExecutorService STREAMS = createStreamPool();
+
+    static {
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) DEFAULT;
+        Metrics.gauge(
+                "pools.default.queueSize",
+                "Tasks waiting in the queue of the default pool",
+                () -> pool.getQueue().size());
+        Metrics.gauge(
+                "pools.default.activeThreads",
+                "Threads of the default pool that are running a task",
+                pool::getActiveCount);
+    }
 
     private Pools() {
         throw new UnsupportedOperationException();
@@ -66,6 +82,19 @@ public class Pools {
                 new CallerBlocksPolicy());
     }
 
+    /**
+     * A pool that starts a thread for every task that finds no idle one, it never blocks the caller.
+     */
+    public static ExecutorService createStreamPool() {
+        return new ThreadPoolExecutor(
+                0,
+                Integer.MAX_VALUE,
+                30L,
+                TimeUnit.SECONDS,
+                new SynchronousQueue<>(),
+                NamedThreadFactory.daemon("algo-stream"));
+    }
+
     public static ForkJoinPool createFJPool() {
         return new ForkJoinPool(ForkJoinPool.getCommonPoolParallelism());
     }
@@ -18,6 +18,8 @@
  */
 package org.neo4j.graphalgo.core.utils;
 
+import org.neo4j.graphalgo.core.utils.jobs.Job;
+import org.neo4j.graphalgo.core.utils.jobs.JobRegistry;
 import org.neo4j.logging.Log;
 import org.neo4j.logging.NullLog;
 
@@ -32,19 +34,28 @@ public interface ProgressLogger {
     ProgressLogger NULL_LOGGER = new ProgressLoggerAdapter(NullLog.getInstance(), "NULL");
     Supplier<String> NO_MESSAGE = () -> null;
 
+    /**
+     * Wraps the log as the logger of the compute phase.
+     * Within a running {@link org.neo4j.graphalgo.core.utils.jobs.Job} the progress
+     * is also recorded for {@code algo.jobs.progress}.
+     */
     static ProgressLogger wrap(Log log, String task) {
-        return new ProgressLoggerAdapter(log, task);
+        return JobRegistry.progressLogger(Job.Phase.COMPUTE, task, new ProgressLoggerAdapter(log, task));
     }
 
     static ProgressLogger wrap(Log log, String task, long time, TimeUnit unit) {
+        return wrap(log, task, time, unit, Job.Phase.COMPUTE);
+    }
+
+    static ProgressLogger wrap(Log log, String task, long time, TimeUnit unit, Job.Phase phase) {
         if (log == null || log == NullLog.getInstance() || task == null) {
-            return ProgressLogger.NULL_LOGGER;
+            return JobRegistry.progressLogger(phase, task, ProgressLogger.NULL_LOGGER);
         }
         ProgressLoggerAdapter logger = new ProgressLoggerAdapter(log, task);
         if (time > 0L) {
             logger.withLogIntervalMillis((int) Math.min(unit.toMillis(time), (long) Integer.MAX_VALUE));
         }
-        return logger;
+        return JobRegistry.progressLogger(phase, task, logger);
     }
 
     void logProgress(double percentDone, Supplier<String> msg);
@@ -50,6 +50,14 @@ public class ProgressLoggerAdapter implements ProgressLogger {
         }
     }
 
+    /**
+     * Logs the progress regardless of the log interval, e.g. the last progress of a task.
+     */
+    public void logProgressNow(double percentDone, Supplier<String> msgFactory) {
+        lastLog.set(System.currentTimeMillis());
+        doLog((int) (percentDone * 100), msgFactory);
+    }
+
     @Override
     public void log(Supplier<String> msgFactory) {
         doLog(100, msgFactory);
@@ -38,7 +38,8 @@ public abstract class StatementApi {
 
     protected StatementApi(GraphDatabaseAPI api) {
         this.api = api;
-        this.tx = new TransactionWrapper(api);
+        // detached instances, e.g. GraphDimensions for estimations, never run a transaction
+        this.tx = api == null ? null : new TransactionWrapper(api);
     }
 
     protected final <T> T applyInTransaction(TxFunction<T> fun) {
@@ -18,6 +18,7 @@
  */
 package org.neo4j.graphalgo.core.utils;
 
+import org.neo4j.graphalgo.core.utils.jobs.JobRegistry;
 import org.neo4j.kernel.api.KernelTransaction;
 
 /**
@@ -27,8 +28,12 @@ public interface TerminationFlag {
 
     TerminationFlag RUNNING_TRUE = () -> true;
 
+    /**
+     * The flag also stops running when the {@link org.neo4j.graphalgo.core.utils.jobs.Job}
+     * of the transaction gets cancelled, a job that is registered later is picked up at the next check.
+     */
     static TerminationFlag wrap(KernelTransaction transaction) {
-        return new TerminationFlagImpl(transaction);
+        return new TerminationFlagImpl(transaction, JobRegistry.find(transaction));
     }
 
     boolean running();
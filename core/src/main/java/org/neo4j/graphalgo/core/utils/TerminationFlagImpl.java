@@ -18,6 +18,8 @@
  */
 package org.neo4j.graphalgo.core.utils;
 
+import org.neo4j.graphalgo.core.utils.jobs.Job;
+import org.neo4j.graphalgo.core.utils.jobs.JobRegistry;
 import org.neo4j.kernel.api.KernelTransaction;
 
 /**
@@ -27,6 +29,8 @@ public class TerminationFlagImpl implements TerminationFlag {
 
     private final KernelTransaction transaction;
 
+    private volatile Job job;
+
     private long interval = 10_000;
 
     private volatile long lastCheck = 0;
@@ -34,7 +38,12 @@ public class TerminationFlagImpl implements TerminationFlag {
     private volatile boolean running = true;
 
     public TerminationFlagImpl(KernelTransaction transaction) {
+        this(transaction, null);
+    }
+
+    public TerminationFlagImpl(KernelTransaction transaction, Job job) {
         this.transaction = transaction;
+        this.job = job;
     }
 
     public TerminationFlagImpl withCheckInterval(long interval) {
@@ -44,8 +53,14 @@ public class TerminationFlagImpl implements TerminationFlag {
 
     @Override
     public boolean running() {
+        if (job != null && job.isCancelled()) {
+            return running = false;
+        }
         final long currentTime = System.currentTimeMillis();
         if (currentTime > lastCheck + interval) {
+            if (job == null) {
+                job = JobRegistry.find(transaction);
+            }
             if (transaction.getReasonIfTerminated().isPresent() || !transaction.isOpen()) {
                 running = false;
             }
@@ -0,0 +1,148 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.jobs;
+
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.api.exceptions.Status;
+
+/**
+ * An algorithm call that runs in one transaction, with its load, compute and write phases.
+ * <p>
+ * Jobs are created by the {@link JobRegistry} and live until their transaction is closed.
+ * Every phase gets a fresh {@link JobProgressLogger}, the job always reports the latest phase.
+ */
+public final class Job {
+
+    public enum Phase {
+        LOAD, COMPUTE, WRITE
+    }
+
+    private final long id;
+    private final String username;
+    private final KernelTransaction transaction;
+    private final long startMillis;
+
+    private volatile JobProgressLogger current;
+    private volatile AllocationTracker tracker = AllocationTracker.EMPTY;
+    private volatile boolean cancelled;
+    private volatile boolean finished;
+
+    Job(long id, String username, KernelTransaction transaction) {
+        this.id = id;
+        this.username = username;
+        this.transaction = transaction;
+        this.startMillis = System.currentTimeMillis();
+    }
+
+    public long id() {
+        return id;
+    }
+
+    public String username() {
+        return username;
+    }
+
+    /**
+     * @return the current phase or {@code null} if no phase has been started yet
+     */
+    public Phase phase() {
+        JobProgressLogger logger = current;
+        return logger == null ? null : logger.phase;
+    }
+
+    /**
+     * @return the task of the current phase, e.g. the name of the algorithm
+     */
+    public String task() {
+        JobProgressLogger logger = current;
+        return logger == null ? null : logger.task;
+    }
+
+    /**
+     * @return the done fraction of the current phase, between 0 and 1
+     */
+    public double progress() {
+        JobProgressLogger logger = current;
+        return logger == null ? 0.0 : logger.progress();
+    }
+
+    public long phaseMillis() {
+        JobProgressLogger logger = current;
+        return System.currentTimeMillis() - (logger == null ? startMillis : logger.startMillis);
+    }
+
+    public long runningMillis() {
+        return System.currentTimeMillis() - startMillis;
+    }
+
+    /**
+     * @return the bytes allocated by the paged data structures of this job so far
+     */
+    public long trackedMemory() {
+        return tracker.tracked();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Marks the job and its transaction as terminated.
+     * Running algorithms notice the cancellation at their next {@code TerminationFlag} check.
+     */
+    public void cancel() {
+        cancelled = true;
+        // a closed transaction object may already be reused by another query
+        if (!finished) {
+            transaction.markForTermination(Status.Transaction.Terminated);
+        }
+    }
+
+    public void track(AllocationTracker tracker) {
+        if (AllocationTracker.isTracking(tracker)) {
+            this.tracker = tracker;
+        }
+    }
+
+    JobProgressLogger startPhase(JobProgressLogger logger) {
+        JobProgressLogger previous = current;
+        if (previous != null) {
+            previous.flush();
+        }
+        current = logger;
+        return logger;
+    }
+
+    JobProgressLogger currentPhase() {
+        return current;
+    }
+
+    KernelTransaction transaction() {
+        return transaction;
+    }
+
+    void finish() {
+        finished = true;
+    }
+}
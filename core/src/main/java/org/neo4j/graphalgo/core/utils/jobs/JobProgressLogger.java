@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.jobs;
+
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.ProgressLoggerAdapter;
+
+import java.util.function.Supplier;
+
+/**
+ * Progress logger of one phase of a {@link Job}.
+ * <p>
+ * Progress updates only write into the {@link StripedProgress} of the phase,
+ * the {@link JobRegistry} reports them to the wrapped logger from its own thread,
+ * and once more when the phase or the job ends.
+ * Messages that are logged directly are passed through.
+ */
+final class JobProgressLogger implements ProgressLogger {
+
+    final Job.Phase phase;
+    final String task;
+    final long startMillis;
+
+    private final ProgressLogger delegate;
+    private final StripedProgress progress;
+    private double reported;
+    private boolean flushed;
+
+    JobProgressLogger(Job.Phase phase, String task, ProgressLogger delegate) {
+        this.phase = phase;
+        this.task = task;
+        this.delegate = delegate;
+        this.progress = new StripedProgress();
+        this.startMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public void logProgress(double percentDone, Supplier<String> msg) {
+        progress.update(percentDone);
+    }
+
+    @Override
+    public void log(Supplier<String> msg) {
+        delegate.log(msg);
+    }
+
+    @Override
+    public void logDone(Supplier<String> msg) {
+        delegate.logDone(msg);
+    }
+
+    double progress() {
+        return progress.progress();
+    }
+
+    /**
+     * Hands new progress to the wrapped logger, which applies its own log interval.
+     */
+    synchronized void report() {
+        double current = progress.progress();
+        if (current > reported) {
+            reported = current;
+            delegate.logProgress(current, NO_MESSAGE);
+        }
+    }
+
+    /**
+     * Logs the final progress of the phase once, regardless of the log interval.
+     */
+    synchronized void flush() {
+        double current = progress.progress();
+        if (!flushed && current > 0.0) {
+            flushed = true;
+            reported = current;
+            if (delegate instanceof ProgressLoggerAdapter) {
+                ((ProgressLoggerAdapter) delegate).logProgressNow(current, NO_MESSAGE);
+            } else {
+                delegate.logProgress(current, NO_MESSAGE);
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.jobs;
+
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphdb.DependencyResolver;
+import org.neo4j.internal.kernel.api.security.SecurityContext;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.kernel.lifecycle.LifecycleAdapter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of the running algorithm {@link Job}s of one database.
+ * <p>
+ * The registry is a dependency of the database, provided by a kernel extension,
+ * and drops its jobs when the database shuts down.
+ * A job is registered for a transaction the first time a graph is loaded in it,
+ * and is removed when the transaction closes. Termination flags of the transaction
+ * pick the job up once it exists.
+ * The job is bound to the thread that registered it, so that {@link ProgressLogger}s
+ * created on that thread report into the current phase of the job.
+ * <p>
+ * A single daemon thread per database forwards the progress of its jobs to their loggers,
+ * the threads of the algorithms never touch the log or the clock for that.
+ */
+public final class JobRegistry extends LifecycleAdapter {
+
+    private static final long REPORT_INTERVAL_MILLIS = 1000L;
+
+    // the registries of the running databases, to find the job of a transaction
+    private static final Set<JobRegistry> REGISTRIES = ConcurrentHashMap.newKeySet();
+    private static final ThreadLocal<Job> CURRENT = new ThreadLocal<>();
+
+    private final AtomicLong ids = new AtomicLong();
+    private final Map<Long, Job> jobs = new ConcurrentHashMap<>();
+    private final Map<KernelTransaction, Job> byTransaction = new ConcurrentHashMap<>();
+
+    private volatile ScheduledExecutorService reporter;
+
+    @Override
+    public void start() {
+        REGISTRIES.add(this);
+    }
+
+    @Override
+    public void shutdown() {
+        REGISTRIES.remove(this);
+        for (Job job : new ArrayList<>(jobs.values())) {
+            unregister(job);
+        }
+        synchronized (this) {
+            if (reporter != null) {
+                reporter.shutdownNow();
+                reporter = null;
+            }
+        }
+    }
+
+    /**
+     * @return the registry of the database or {@code null} if the kernel extension is not loaded
+     */
+    public static JobRegistry of(GraphDatabaseAPI api) {
+        DependencyResolver resolver = api == null ? null : api.getDependencyResolver();
+        if (resolver == null) {
+            return null;
+        }
+        try {
+            return resolver.resolveDependency(JobRegistry.class);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Returns the job of the transaction that is bound to the current thread,
+     * creating it if necessary, or {@code null} if there is no such transaction.
+     */
+    public static Job job(GraphDatabaseAPI api) {
+        JobRegistry registry = of(api);
+        if (registry == null) {
+            return null;
+        }
+        ThreadToStatementContextBridge bridge = api.getDependencyResolver().resolveDependency(ThreadToStatementContextBridge.class);
+        return registry.job(bridge.getKernelTransactionBoundToThisThread(false));
+    }
+
+    /**
+     * Returns the job of the given transaction, creating it if necessary,
+     * and binds it to the current thread.
+     */
+    public Job job(KernelTransaction transaction) {
+        if (transaction == null || !transaction.isOpen()) {
+            return null;
+        }
+        Job job = byTransaction.computeIfAbsent(transaction, this::register);
+        CURRENT.set(job);
+        return job;
+    }
+
+    /**
+     * @return the job that has been registered for the transaction in any database, or {@code null}
+     */
+    public static Job find(KernelTransaction transaction) {
+        if (transaction == null) {
+            return null;
+        }
+        for (JobRegistry registry : REGISTRIES) {
+            Job job = registry.byTransaction.get(transaction);
+            if (job != null) {
+                return job;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the running job bound to the current thread or {@code null}
+     */
+    public static Job current() {
+        Job job = CURRENT.get();
+        if (job != null && job.isFinished()) {
+            CURRENT.remove();
+            return null;
+        }
+        return job;
+    }
+
+    /**
+     * Starts a new phase of the job bound to the current thread.
+     *
+     * @return a logger that records the progress of the new phase and reports it to {@code delegate},
+     * or {@code delegate} itself if there is no running job
+     */
+    public static ProgressLogger progressLogger(Job.Phase phase, String task, ProgressLogger delegate) {
+        Job job = current();
+        if (job == null) {
+            return delegate;
+        }
+        return job.startPhase(new JobProgressLogger(phase, task, delegate));
+    }
+
+    public Collection<Job> jobs() {
+        return new ArrayList<>(jobs.values());
+    }
+
+    public Optional<Job> get(long id) {
+        return Optional.ofNullable(jobs.get(id));
+    }
+
+    /**
+     * Cancels a job, which is allowed for the user who started it and for admins.
+     *
+     * @throws IllegalArgumentException if there is no job with that id
+     * @throws SecurityException if the caller may not cancel the job
+     */
+    public Job cancel(long id, SecurityContext caller) {
+        Job job = get(id).orElseThrow(() -> new IllegalArgumentException("No running job with id " + id));
+        if (!isVisible(job, caller)) {
+            throw new SecurityException("Only the owner of job " + id + " or an admin can cancel it");
+        }
+        job.cancel();
+        return job;
+    }
+
+    public static boolean isVisible(Job job, SecurityContext caller) {
+        return caller.isAdmin() || caller.subject().hasUsername(job.username());
+    }
+
+    private Job register(KernelTransaction transaction) {
+        Job job = new Job(ids.incrementAndGet(), transaction.securityContext().subject().username(), transaction);
+        jobs.put(job.id(), job);
+        transaction.registerCloseListener(txId -> unregister(job));
+        startReporter();
+        return job;
+    }
+
+    private void unregister(Job job) {
+        // the reporter may not have seen the last progress of the job
+        JobProgressLogger logger = job.currentPhase();
+        if (logger != null) {
+            try {
+                logger.flush();
+            } catch (RuntimeException ignored) {
+                // a failing log must not keep the job registered
+            }
+        }
+        job.finish();
+        jobs.remove(job.id());
+        byTransaction.remove(job.transaction(), job);
+    }
+
+    private void startReporter() {
+        if (reporter == null) {
+            synchronized (this) {
+                if (reporter == null) {
+                    ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                        Thread thread = new Thread(runnable, "algo-jobs-progress");
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+                    service.scheduleWithFixedDelay(
+                            this::report,
+                            REPORT_INTERVAL_MILLIS,
+                            REPORT_INTERVAL_MILLIS,
+                            TimeUnit.MILLISECONDS);
+                    reporter = service;
+                }
+            }
+        }
+    }
+
+    private void report() {
+        for (Job job : jobs.values()) {
+            JobProgressLogger logger = job.currentPhase();
+            if (logger != null) {
+                try {
+                    logger.report();
+                } catch (RuntimeException ignored) {
+                    // a failing log must not stop the reporting of the other jobs
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.jobs;
+
+import org.neo4j.graphalgo.core.utils.paged.BitUtil;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Progress of a phase, updated by many threads without contention.
+ * <p>
+ * Every thread writes into its own stripe, picked by the thread id.
+ * The stripes are one cache line apart, so threads don't invalidate each other's lines.
+ * Progress loggers are called with the done fraction of the whole phase,
+ * so the progress of the phase is the maximum over all stripes.
+ * Updates are plain lazy sets without any CAS and without reading the clock.
+ */
+final class StripedProgress {
+
+    // 8 longs are 64 bytes, the size of a cache line
+    private static final int STRIDE = 8;
+
+    private final AtomicLongArray stripes;
+    private final int mask;
+
+    StripedProgress() {
+        this(Runtime.getRuntime().availableProcessors() << 1);
+    }
+
+    StripedProgress(int minStripes) {
+        int stripeCount = BitUtil.nextHighestPowerOfTwo(Math.max(1, minStripes));
+        this.stripes = new AtomicLongArray(stripeCount * STRIDE);
+        this.mask = stripeCount - 1;
+    }
+
+    void update(double fraction) {
+        int index = ((int) Thread.currentThread().getId() & mask) * STRIDE;
+        // threads sharing a stripe may overwrite a bigger value, the next update repairs it
+        if (Double.longBitsToDouble(stripes.get(index)) < fraction) {
+            stripes.lazySet(index, Double.doubleToRawLongBits(fraction));
+        }
+    }
+
+    double progress() {
+        double progress = 0.0;
+        for (int i = 0; i < stripes.length(); i += STRIDE) {
+            progress = Math.max(progress, Double.longBitsToDouble(stripes.get(i)));
+        }
+        return Math.min(1.0, progress);
+    }
+}
@@ -0,0 +1,308 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.mem;
+
+import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.utils.paged.MemoryUsage;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.LongUnaryOperator;
+
+import static org.neo4j.graphalgo.core.utils.paged.AllocationTracker.humanReadable;
+
+public final class MemoryEstimations {
+
+    private static final MemoryEstimation EMPTY = of("", MemoryRange.empty());
+
+    public static MemoryEstimation empty() {
+        return EMPTY;
+    }
+
+    /**
+     * An estimation that does not depend on the graph dimensions.
+     */
+    public static MemoryEstimation of(String description, MemoryRange range) {
+        return new LeafEstimation(description, (dimensions, concurrency) -> range);
+    }
+
+    public static Builder builder(String description) {
+        return new Builder(description);
+    }
+
+    /**
+     * Starts with the shallow size of an instance of the given class, named after the class.
+     */
+    public static Builder builder(Class<?> type) {
+        return new Builder(type.getSimpleName())
+                .fixed("this.instance", MemoryUsage.shallowSizeOfInstance(type));
+    }
+
+    /**
+     * Fails fast if the lower bound of the estimation does not fit into the heap
+     * that is currently available, instead of running into an {@link OutOfMemoryError}
+     * after the task has already loaded or allocated a large share of it.
+     *
+     * @throws IllegalStateException if the estimated minimum exceeds the free heap
+     */
+    public static void assertFitsInFreeHeap(MemoryTree estimate, String task) {
+        long required = estimate.memoryUsage().min();
+        long available = freeHeap();
+        if (required > available) {
+            throw new IllegalStateException(String.format(
+                    "%s requires at least %s of memory, but only %s are available. Estimated usage:%n%s",
+                    task,
+                    humanReadable(required),
+                    humanReadable(available),
+                    estimate.render()));
+        }
+    }
+
+    /**
+     * @return the bytes that can still be allocated before the heap reaches its maximum size
+     */
+    public static long freeHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.maxMemory() - runtime.totalMemory() + runtime.freeMemory();
+    }
+
+    private MemoryEstimations() {
+        throw new UnsupportedOperationException("No instances");
+    }
+
+    public static final class Builder {
+
+        private final String description;
+        private final List<MemoryEstimation> components = new ArrayList<>();
+
+        private Builder(String description) {
+            this.description = description;
+        }
+
+        public Builder fixed(String description, long bytes) {
+            return fixed(description, MemoryRange.of(bytes));
+        }
+
+        public Builder fixed(String description, MemoryRange range) {
+            components.add(of(description, range));
+            return this;
+        }
+
+        /**
+         * A nested estimation, e.g. of a data structure that is a field of the estimated one.
+         */
+        public Builder field(String description, MemoryEstimation estimation) {
+            components.add(new NamedEstimation(description, estimation));
+            return this;
+        }
+
+        public Builder add(MemoryEstimation estimation) {
+            components.add(estimation);
+            return this;
+        }
+
+        /**
+         * @param bytes the bytes needed for the given node count
+         */
+        public Builder perNode(String description, LongUnaryOperator bytes) {
+            components.add(new LeafEstimation(
+                    description,
+                    (dimensions, concurrency) -> MemoryRange.of(bytes.applyAsLong(dimensions.hugeNodeCount()))));
+            return this;
+        }
+
+        /**
+         * An estimation that is allocated once for every thread.
+         */
+        public Builder perThread(String description, MemoryEstimation estimation) {
+            components.add(new PerThreadEstimation(description, estimation));
+            return this;
+        }
+
+        public Builder perGraphDimension(
+                String description,
+                BiFunction<GraphDimensions, Integer, MemoryRange> range) {
+            components.add(new LeafEstimation(description, range));
+            return this;
+        }
+
+        public MemoryEstimation build() {
+            return new CompositeEstimation(description, new ArrayList<>(components));
+        }
+    }
+
+    private static final class LeafEstimation implements MemoryEstimation {
+        private final String description;
+        private final BiFunction<GraphDimensions, Integer, MemoryRange> range;
+
+        private LeafEstimation(String description, BiFunction<GraphDimensions, Integer, MemoryRange> range) {
+            this.description = description;
+            this.range = range;
+        }
+
+        @Override
+        public String description() {
+            return description;
+        }
+
+        @Override
+        public MemoryTree estimate(GraphDimensions dimensions, int concurrency) {
+            return MemoryTree.leaf(description, range.apply(dimensions, concurrency));
+        }
+    }
+
+    private static final class NamedEstimation implements MemoryEstimation {
+        private final String description;
+        private final MemoryEstimation delegate;
+
+        private NamedEstimation(String description, MemoryEstimation delegate) {
+            this.description = description;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String description() {
+            return description;
+        }
+
+        @Override
+        public Collection<MemoryEstimation> components() {
+            return delegate.components();
+        }
+
+        @Override
+        public MemoryTree estimate(GraphDimensions dimensions, int concurrency) {
+            return new Tree(description, delegate.estimate(dimensions, concurrency));
+        }
+
+        private static final class Tree implements MemoryTree {
+            private final String description;
+            private final MemoryTree delegate;
+
+            private Tree(String description, MemoryTree delegate) {
+                this.description = description;
+                this.delegate = delegate;
+            }
+
+            @Override
+            public String description() {
+                return description;
+            }
+
+            @Override
+            public MemoryRange memoryUsage() {
+                return delegate.memoryUsage();
+            }
+
+            @Override
+            public Collection<MemoryTree> components() {
+                return delegate.components();
+            }
+        }
+    }
+
+    private static final class PerThreadEstimation implements MemoryEstimation {
+        private final String description;
+        private final MemoryEstimation delegate;
+
+        private PerThreadEstimation(String description, MemoryEstimation delegate) {
+            this.description = description;
+            this.delegate = delegate;
+        }
+
+        @Override
+        public String description() {
+            return description;
+        }
+
+        @Override
+        public Collection<MemoryEstimation> components() {
+            return Collections.singletonList(delegate);
+        }
+
+        @Override
+        public MemoryTree estimate(GraphDimensions dimensions, int concurrency) {
+            MemoryTree perThread = delegate.estimate(dimensions, concurrency);
+            MemoryRange total = perThread.memoryUsage().times(concurrency);
+            return new CompositeTree(description, total, Collections.singletonList(perThread));
+        }
+    }
+
+    private static final class CompositeEstimation implements MemoryEstimation {
+        private final String description;
+        private final List<MemoryEstimation> components;
+
+        private CompositeEstimation(String description, List<MemoryEstimation> components) {
+            this.description = description;
+            this.components = components;
+        }
+
+        @Override
+        public String description() {
+            return description;
+        }
+
+        @Override
+        public Collection<MemoryEstimation> components() {
+            return components;
+        }
+
+        @Override
+        public MemoryTree estimate(GraphDimensions dimensions, int concurrency) {
+            List<MemoryTree> trees = new ArrayList<>(components.size());
+            MemoryRange total = MemoryRange.empty();
+            for (MemoryEstimation component : components) {
+                MemoryTree tree = component.estimate(dimensions, concurrency);
+                trees.add(tree);
+                total = total.add(tree.memoryUsage());
+            }
+            return new CompositeTree(description, total, trees);
+        }
+    }
+
+    private static final class CompositeTree implements MemoryTree {
+        private final String description;
+        private final MemoryRange range;
+        private final Collection<MemoryTree> components;
+
+        private CompositeTree(String description, MemoryRange range, Collection<MemoryTree> components) {
+            this.description = description;
+            this.range = range;
+            this.components = components;
+        }
+
+        @Override
+        public String description() {
+            return description;
+        }
+
+        @Override
+        public MemoryRange memoryUsage() {
+            return range;
+        }
+
+        @Override
+        public Collection<MemoryTree> components() {
+            return components;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.mem;
+
+import java.util.Objects;
+
+import static org.neo4j.graphalgo.core.utils.paged.AllocationTracker.humanReadable;
+
+/**
+ * An inclusive range of bytes, {@code min} is the least and {@code max}
+ * the most an estimated component may use.
+ */
+public final class MemoryRange {
+
+    private static final MemoryRange NULL_RANGE = new MemoryRange(0L, 0L);
+
+    public static MemoryRange of(long value) {
+        return of(value, value);
+    }
+
+    public static MemoryRange of(long min, long max) {
+        if (min < 0L || max < min) {
+            throw new IllegalArgumentException(String.format(
+                    "invalid memory range [%d, %d]",
+                    min,
+                    max));
+        }
+        return min == 0L && max == 0L ? NULL_RANGE : new MemoryRange(min, max);
+    }
+
+    public static MemoryRange empty() {
+        return NULL_RANGE;
+    }
+
+    private final long min;
+    private final long max;
+
+    private MemoryRange(long min, long max) {
+        this.min = min;
+        this.max = max;
+    }
+
+    public long min() {
+        return min;
+    }
+
+    public long max() {
+        return max;
+    }
+
+    public boolean isEmpty() {
+        return max == 0L;
+    }
+
+    public MemoryRange add(MemoryRange other) {
+        return of(min + other.min, max + other.max);
+    }
+
+    public MemoryRange times(long count) {
+        return of(min * count, max * count);
+    }
+
+    /**
+     * @return the range that covers both ranges
+     */
+    public MemoryRange union(MemoryRange other) {
+        return of(Math.min(min, other.min), Math.max(max, other.max));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        MemoryRange that = (MemoryRange) o;
+        return min == that.min && max == that.max;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(min, max);
+    }
+
+    @Override
+    public String toString() {
+        return min == max
+                ? humanReadable(min)
+                : "[" + humanReadable(min) + " ... " + humanReadable(max) + "]";
+    }
+}
@@ -0,0 +1,98 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.mem;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The result of a {@link MemoryEstimation} for concrete graph dimensions,
+ * the estimated range of a component together with the ranges of its parts.
+ */
+public interface MemoryTree {
+
+    String description();
+
+    MemoryRange memoryUsage();
+
+    default Collection<MemoryTree> components() {
+        return Collections.emptyList();
+    }
+
+    /**
+     * @return an indented, line per component representation of this tree
+     */
+    default String render() {
+        StringBuilder sb = new StringBuilder();
+        render(sb, this, 0);
+        return sb.toString();
+    }
+
+    /**
+     * @return this tree as nested maps of {@code name}, {@code memoryUsage} and {@code components}
+     */
+    default Map<String, Object> renderMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("name", description());
+        map.put("memoryUsage", memoryUsage().toString());
+        Collection<MemoryTree> components = components();
+        if (!components.isEmpty()) {
+            List<Map<String, Object>> children = new ArrayList<>(components.size());
+            for (MemoryTree component : components) {
+                children.add(component.renderMap());
+            }
+            map.put("components", children);
+        }
+        return map;
+    }
+
+    static MemoryTree leaf(String description, MemoryRange range) {
+        return new MemoryTree() {
+            @Override
+            public String description() {
+                return description;
+            }
+
+            @Override
+            public MemoryRange memoryUsage() {
+                return range;
+            }
+        };
+    }
+
+    static void render(StringBuilder sb, MemoryTree tree, int depth) {
+        for (int i = 1; i < depth; i++) {
+            sb.append("    ");
+        }
+        if (depth > 0) {
+            sb.append("|-- ");
+        }
+        sb.append(tree.description())
+                .append(": ")
+                .append(tree.memoryUsage())
+                .append(System.lineSeparator());
+        for (MemoryTree component : tree.components()) {
+            render(sb, component, depth + 1);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.metrics;
+
+/**
+ * Iteration count, time of the last iteration and its residual for one iterative algorithm.
+ * The residual is whatever the algorithm uses to decide about convergence.
+ */
+public final class IterationMetrics {
+
+    private final Meter iterations;
+    private final Gauge iterationMillis;
+    private final Gauge residual;
+
+    private IterationMetrics(String algorithm) {
+        this.iterations = Metrics.meter(
+                "algo.iterations", "algorithm", algorithm, "Iterations of iterative algorithms");
+        this.iterationMillis = Metrics.gauge(
+                "algo.iteration.millis", "algorithm", algorithm, "Duration of the last iteration in milliseconds");
+        this.residual = Metrics.gauge(
+                "algo.iteration.residual", "algorithm", algorithm, "Residual after the last iteration");
+    }
+
+    public static IterationMetrics of(String algorithm) {
+        return new IterationMetrics(algorithm);
+    }
+
+    /**
+     * @param startNanos {@link System#nanoTime()} at the start of the iteration
+     */
+    public void iterationDone(long startNanos, double residual) {
+        iterations.mark();
+        iterationMillis.set((System.nanoTime() - startNanos) / 1_000_000.0);
+        this.residual.set(residual);
+    }
+}
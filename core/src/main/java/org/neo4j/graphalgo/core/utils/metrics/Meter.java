@@ -0,0 +1,75 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Counts events and keeps their rate per second as a one minute moving average.
+ * <p>
+ * Marking only adds to {@link LongAdder}s, so threads don't contend on it.
+ * The rate is updated by the metrics thread every {@link Metrics#TICK_SECONDS} seconds.
+ */
+public final class Meter extends Metric {
+
+    private static final double ALPHA = 1.0 - Math.exp(-Metrics.TICK_SECONDS / 60.0);
+
+    private final LongAdder count = new LongAdder();
+    private final LongAdder uncounted = new LongAdder();
+    private volatile double rate = Double.NaN;
+
+    Meter(String name, String label, String labelValue, String help) {
+        super(name, label, labelValue, help);
+    }
+
+    public void mark() {
+        mark(1L);
+    }
+
+    public void mark(long events) {
+        count.add(events);
+        uncounted.add(events);
+    }
+
+    public long count() {
+        return count.sum();
+    }
+
+    /**
+     * @return events per second, averaged over the last minute
+     */
+    public double ratePerSecond() {
+        double rate = this.rate;
+        return Double.isNaN(rate) ? 0.0 : rate;
+    }
+
+    @Override
+    void collect(ObjDoubleConsumer<String> values) {
+        values.accept(".count", (double) count());
+        values.accept(".perSecond", ratePerSecond());
+    }
+
+    @Override
+    void tick() {
+        double instantRate = uncounted.sumThenReset() / (double) Metrics.TICK_SECONDS;
+        double rate = this.rate;
+        this.rate = Double.isNaN(rate) ? instantRate : rate + ALPHA * (instantRate - rate);
+    }
+}
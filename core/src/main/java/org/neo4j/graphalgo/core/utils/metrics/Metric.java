@@ -0,0 +1,55 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.metrics;
+
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * A registered metric with its name, help text and an optional label.
+ */
+abstract class Metric {
+
+    final String name;
+    final String label;
+    final String labelValue;
+    final String help;
+
+    Metric(String name, String label, String labelValue, String help) {
+        this.name = name;
+        this.label = label;
+        this.labelValue = labelValue;
+        this.help = help;
+    }
+
+    static String key(String name, String labelValue) {
+        return labelValue == null ? name : name + '[' + labelValue + ']';
+    }
+
+    String key() {
+        return key(name, labelValue);
+    }
+
+    /**
+     * Hands every value of the metric to the consumer, together with the suffix of its name.
+     */
+    abstract void collect(ObjDoubleConsumer<String> values);
+
+    void tick() {
+    }
+}
@@ -0,0 +1,225 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.metrics;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * Registry of the metrics of the loaders, the algorithms and the exporter.
+ * <p>
+ * All metrics are exposed as attributes of the MBean {@code org.neo4j.graphalgo:type=Metrics}.
+ * If the system property {@code neo4j.graphalgo.metrics.file} is set, they are also written
+ * in the Prometheus text format to that file every {@code neo4j.graphalgo.metrics.interval}
+ * seconds (10 by default), e.g. for the textfile collector of the node exporter.
+ * <p>
+ * Metrics are created once, usually in static fields, and are cheap to update from many threads.
+ */
+public final class Metrics {
+
+    static final long TICK_SECONDS = 5L;
+
+    public static final String OBJECT_NAME = "org.neo4j.graphalgo:type=Metrics";
+
+    private static final String PROMETHEUS_PREFIX = "neo4j_graphalgo_";
+
+    private static final Map<String, Metric> METRICS = new ConcurrentHashMap<>();
+
+    static {
+        registerMBean();
+        startTicker();
+    }
+
+    private Metrics() {
+        throw new UnsupportedOperationException("No instances");
+    }
+
+    public static Meter meter(String name, String help) {
+        return meter(name, null, null, help);
+    }
+
+    /**
+     * @param label      name of the label, e.g. {@code thread}
+     * @param labelValue value of the label, metrics with the same name are distinguished by it
+     */
+    public static Meter meter(String name, String label, String labelValue, String help) {
+        return register(name, labelValue, Meter.class, key -> new Meter(name, label, labelValue, help));
+    }
+
+    public static Gauge gauge(String name, String help) {
+        return gauge(name, null, null, help);
+    }
+
+    public static Gauge gauge(String name, String label, String labelValue, String help) {
+        return register(name, labelValue, Gauge.class, key -> new Gauge(name, label, labelValue, help, null));
+    }
+
+    /**
+     * Registers a gauge that reads its value from the supplier whenever it is collected.
+     * An existing gauge of the same name is replaced.
+     */
+    public static Gauge gauge(String name, String help, DoubleSupplier supplier) {
+        Gauge gauge = new Gauge(name, null, null, help, supplier);
+        METRICS.put(Metric.key(name, null), gauge);
+        return gauge;
+    }
+
+    /**
+     * @return the current values of all metrics, keyed by their JMX attribute names
+     */
+    public static Map<String, Double> snapshot() {
+        Map<String, Double> values = new ConcurrentHashMap<>();
+        for (Metric metric : METRICS.values()) {
+            String key = metric.key();
+            metric.collect((suffix, value) -> values.put(key + suffix, value));
+        }
+        return values;
+    }
+
+    static Metric get(String key) {
+        return METRICS.get(key);
+    }
+
+    /**
+     * Writes all metrics in the Prometheus text exposition format.
+     * Meters become a counter {@code _total} and a gauge {@code _per_second}.
+     * Dots in the names become underscores and all names get the prefix {@code neo4j_graphalgo_}.
+     */
+    public static String toPrometheus() {
+        Map<String, List<Metric>> families = new TreeMap<>();
+        for (Metric metric : METRICS.values()) {
+            families.computeIfAbsent(metric.name, name -> new ArrayList<>()).add(metric);
+        }
+        StringBuilder out = new StringBuilder();
+        for (List<Metric> family : families.values()) {
+            family.sort(Comparator.comparing(Metric::key));
+            Metric first = family.get(0);
+            String name = PROMETHEUS_PREFIX + first.name.replaceAll("[^a-zA-Z0-9_]", "_");
+            if (first instanceof Meter) {
+                appendFamily(out, name + "_total", "counter", first.help, family, m -> (double) ((Meter) m).count());
+                appendFamily(out, name + "_per_second", "gauge", first.help, family, m -> ((Meter) m).ratePerSecond());
+            } else {
+                appendFamily(out, name, "gauge", first.help, family, m -> ((Gauge) m).value());
+            }
+        }
+        return out.toString();
+    }
+
+    public static void writePrometheus(Path file) {
+        try {
+            Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+            Files.write(temp, toPrometheus().getBytes(StandardCharsets.UTF_8));
+            // scrapers must never see a half written file
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void appendFamily(
+            StringBuilder out,
+            String name,
+            String type,
+            String help,
+            List<Metric> family,
+            ToDoubleFunction<Metric> value) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+        for (Metric metric : family) {
+            out.append(name);
+            if (metric.label != null) {
+                out.append('{').append(metric.label).append("=\"")
+                        .append(metric.labelValue.replace("\\", "\\\\").replace("\"", "\\\""))
+                        .append("\"}");
+            }
+            out.append(' ').append(String.format(Locale.ENGLISH, "%s", value.applyAsDouble(metric))).append('\n');
+        }
+    }
+
+    private static <M extends Metric> M register(
+            String name,
+            String labelValue,
+            Class<M> type,
+            Function<String, M> create) {
+        Metric metric = METRICS.computeIfAbsent(Metric.key(name, labelValue), create);
+        if (!type.isInstance(metric)) {
+            throw new IllegalArgumentException(String.format(
+                    "Metric %s is a %s, not a %s",
+                    metric.key(),
+                    metric.getClass().getSimpleName(),
+                    type.getSimpleName()));
+        }
+        return type.cast(metric);
+    }
+
+    private static void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(new MetricsMBean(), new ObjectName(OBJECT_NAME));
+        } catch (JMException | SecurityException ignored) {
+            // another copy of the library already exposes its metrics, ours are still collected
+        }
+    }
+
+    private static void startTicker() {
+        ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "algo-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(
+                () -> METRICS.values().forEach(Metric::tick),
+                TICK_SECONDS,
+                TICK_SECONDS,
+                TimeUnit.SECONDS);
+
+        String file = System.getProperty("neo4j.graphalgo.metrics.file");
+        if (file != null && !file.isEmpty()) {
+            long interval = Long.getLong("neo4j.graphalgo.metrics.interval", 10L);
+            Path path = Paths.get(file);
+            ticker.scheduleWithFixedDelay(() -> {
+                try {
+                    writePrometheus(path);
+                } catch (UncheckedIOException ignored) {
+                    // try again with the next interval
+                }
+            }, interval, interval, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.metrics;
+
+import javax.management.Attribute;
+import javax.management.AttributeList;
+import javax.management.AttributeNotFoundException;
+import javax.management.DynamicMBean;
+import javax.management.MBeanAttributeInfo;
+import javax.management.MBeanInfo;
+import javax.management.MBeanNotificationInfo;
+import javax.management.MBeanOperationInfo;
+import javax.management.ReflectionException;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exposes every metric value as a read-only attribute, metrics registered later show up on the next read.
+ */
+final class MetricsMBean implements DynamicMBean {
+
+    @Override
+    public Object getAttribute(String attribute) throws AttributeNotFoundException {
+        Double value = Metrics.snapshot().get(attribute);
+        if (value == null) {
+            throw new AttributeNotFoundException("No metric " + attribute);
+        }
+        return value;
+    }
+
+    @Override
+    public AttributeList getAttributes(String[] attributes) {
+        Map<String, Double> values = Metrics.snapshot();
+        AttributeList list = new AttributeList();
+        for (String attribute : attributes) {
+            Double value = values.get(attribute);
+            if (value != null) {
+                list.add(new Attribute(attribute, value));
+            }
+        }
+        return list;
+    }
+
+    @Override
+    public void setAttribute(Attribute attribute) throws AttributeNotFoundException {
+        throw new AttributeNotFoundException("Metrics are read-only");
+    }
+
+    @Override
+    public AttributeList setAttributes(AttributeList attributes) {
+        return new AttributeList();
+    }
+
+    @Override
+    public Object invoke(String actionName, Object[] params, String[] signature) throws ReflectionException {
+        throw new ReflectionException(new NoSuchMethodException(actionName));
+    }
+
+    @Override
+    public MBeanInfo getMBeanInfo() {
+        Map<String, Double> values = new TreeMap<>(Metrics.snapshot());
+        MBeanAttributeInfo[] attributes = new MBeanAttributeInfo[values.size()];
+        int i = 0;
+        for (String key : values.keySet()) {
+            Metric metric = Metrics.get(metricKey(key));
+            String help = metric == null ? key : metric.help;
+            attributes[i++] = new MBeanAttributeInfo(key, Double.class.getName(), help, true, false, false);
+        }
+        return new MBeanInfo(
+                Metrics.class.getName(),
+                "Metrics of the graph algorithms",
+                attributes,
+                null,
+                new MBeanOperationInfo[0],
+                new MBeanNotificationInfo[0]);
+    }
+
+    // strips the suffix that meters add to their key
+    private static String metricKey(String attribute) {
+        if (attribute.endsWith(".count")) {
+            return attribute.substring(0, attribute.length() - ".count".length());
+        }
+        if (attribute.endsWith(".perSecond")) {
+            return attribute.substring(0, attribute.length() - ".perSecond".length());
+        }
+        return attribute;
+    }
+}
@@ -164,6 +164,16 @@ public abstract class HugeLongArray {
      */
     abstract public Cursor cursor(Cursor cursor, long start, long end);
 
+    /**
+     * @return the bytes that {@link #newArray(long, AllocationTracker)} allocates for the given size
+     */
+    public static long estimateMemoryUsage(long size) {
+        if (size <= SingleHugeLongArray.PAGE_SIZE) {
+            return shallowSizeOfInstance(HugeLongArray.class) + sizeOfLongArray((int) size);
+        }
+        return PagedHugeLongArray.memoryUsageOf(size);
+    }
+
     /**
      * Creates a new array if the given size, tracking the memory requirements into the given {@link AllocationTracker}.
      * The tracker is no longer referenced, as the arrays do not dynamically change their size.
@@ -425,6 +435,14 @@ public abstract class HugeLongArray {
         private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
         private static final long PAGE_MASK = (long) (PAGE_SIZE - 1);
 
+        private static long memoryUsageOf(long size) {
+            int numPages = PageUtil.numPagesFor(size, PAGE_SHIFT, PAGE_MASK);
+            return shallowSizeOfInstance(HugeLongArray.class) +
+                    sizeOfObjectArray(numPages) +
+                    (numPages - 1) * sizeOfLongArray(PAGE_SIZE) +
+                    sizeOfLongArray(exclusiveIndexOfPage(size));
+        }
+
         private static HugeLongArray of(long size, AllocationTracker tracker) {
             int numPages = PageUtil.numPagesFor(size, PAGE_SHIFT, PAGE_MASK);
             long[][] pages = new long[numPages][];
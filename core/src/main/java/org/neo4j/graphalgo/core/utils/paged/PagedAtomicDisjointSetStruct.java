@@ -0,0 +1,97 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.paged;
+
+import org.neo4j.graphalgo.core.write.PropertyTranslator;
+
+/**
+ * Lock-free disjoint set struct that supports concurrent {@link #union(long, long)}
+ * and {@link #find(long)} calls.
+ * <p>
+ * Roots point to themselves. Unions link the root with the higher id below the
+ * root with the lower id using a CAS, so concurrent unions can never form a cycle.
+ * Finds use path halving, the racy writes of which only ever shortcut to an ancestor.
+ */
+public final class PagedAtomicDisjointSetStruct {
+
+    private final PagedAtomicLongArray parent;
+    private final long capacity;
+
+    public PagedAtomicDisjointSetStruct(long capacity, AllocationTracker tracker) {
+        parent = PagedAtomicLongArray.newArray(capacity, tracker);
+        this.capacity = capacity;
+        for (long i = 0L; i < capacity; i++) {
+            parent.set(i, i);
+        }
+    }
+
+    public long capacity() {
+        return capacity;
+    }
+
+    public boolean connected(long p, long q) {
+        return find(p) == find(q);
+    }
+
+    public long find(long p) {
+        long parentOfP = parent.get(p);
+        while (parentOfP != p) {
+            long grandParent = parent.get(parentOfP);
+            if (grandParent != parentOfP) {
+                parent.cas(p, parentOfP, grandParent);
+            }
+            p = parentOfP;
+            parentOfP = parent.get(p);
+        }
+        return p;
+    }
+
+    /**
+     * join the sets of p and q
+     *
+     * @return {@code true} if p and q were in different sets before
+     */
+    public boolean union(long p, long q) {
+        while (true) {
+            p = find(p);
+            q = find(q);
+            if (p == q) {
+                return false;
+            }
+            if (p < q) {
+                long tmp = p;
+                p = q;
+                q = tmp;
+            }
+            if (parent.cas(p, p, q)) {
+                return true;
+            }
+        }
+    }
+
+    public static final class Translator implements PropertyTranslator.OfLong<PagedAtomicDisjointSetStruct> {
+
+        public static final PropertyTranslator<PagedAtomicDisjointSetStruct> INSTANCE = new Translator();
+
+        @Override
+        public long toLong(final PagedAtomicDisjointSetStruct data, final long nodeId) {
+            return data.find(nodeId);
+        }
+    }
+}
@@ -18,6 +18,8 @@
  */
 package org.neo4j.graphalgo.core.utils.paged;
 
+import org.neo4j.graphalgo.core.utils.mem.MemoryRange;
+
 import java.util.Arrays;
 
 public final class SparseLongArray {
@@ -33,6 +35,19 @@ public final class SparseLongArray {
     private final long[][] pages;
     private final AllocationTracker tracker;
 
+    /**
+     * Pages are only allocated once a value is set, so the estimation depends on how
+     * the {@code setCount} values are spread over the {@code size} indices:
+     * at least the pages to hold them densely, at most one page per value.
+     */
+    public static MemoryRange memoryEstimation(long size, long setCount) {
+        int numPages = PageUtil.numPagesFor(size, PAGE_SHIFT, (int) PAGE_MASK);
+        long fixed = MemoryUsage.shallowSizeOfInstance(SparseLongArray.class) + MemoryUsage.sizeOfObjectArray(numPages);
+        long minPages = PageUtil.numPagesFor(setCount, PAGE_SHIFT, (int) PAGE_MASK);
+        long maxPages = Math.max(minPages, Math.min(numPages, setCount));
+        return MemoryRange.of(fixed + minPages * PAGE_SIZE_IN_BYTES, fixed + maxPages * PAGE_SIZE_IN_BYTES);
+    }
+
     public static SparseLongArray newArray(
             long size,
             AllocationTracker tracker) {
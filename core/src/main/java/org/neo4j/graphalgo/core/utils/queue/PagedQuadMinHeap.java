@@ -0,0 +1,160 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.queue;
+
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.MemoryUsage;
+
+import java.util.Arrays;
+
+/**
+ * A 4-ary min heap of long elements with double keys, stored in pages that are
+ * allocated as the heap grows, so that its size is not limited by the size of an array.
+ * <p>
+ * The four children of a position share a cache line for most of their keys, and the
+ * heap is half as deep as a binary heap. There is no decrease-key: an element whose key
+ * gets lower is added again and it is up to the caller to skip the outdated entry.
+ * Pages are kept when the heap is cleared.
+ */
+public final class PagedQuadMinHeap {
+
+    private static final int PAGE_SHIFT = 12;
+    private static final int PAGE_SIZE = 1 << PAGE_SHIFT;
+    private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+    private static final long PAGE_BYTES =
+            MemoryUsage.sizeOfLongArray(PAGE_SIZE) + MemoryUsage.sizeOfDoubleArray(PAGE_SIZE);
+
+    private final AllocationTracker tracker;
+    private long[][] elements = new long[0][];
+    private double[][] keys = new double[0][];
+    private long size;
+
+    public PagedQuadMinHeap(AllocationTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    public boolean isEmpty() {
+        return size == 0L;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * @return the element with the smallest key, undefined for an empty heap
+     */
+    public long top() {
+        return elements[0][0];
+    }
+
+    /**
+     * @return the smallest key, undefined for an empty heap
+     */
+    public double topKey() {
+        return keys[0][0];
+    }
+
+    public void add(long element, double key) {
+        long index = size;
+        if ((index & PAGE_MASK) == 0L && (index >>> PAGE_SHIFT) == elements.length) {
+            addPage();
+        }
+        size++;
+        while (index > 0L) {
+            long parent = (index - 1L) >>> 2;
+            double parentKey = key(parent);
+            if (parentKey <= key) {
+                break;
+            }
+            set(index, element(parent), parentKey);
+            index = parent;
+        }
+        set(index, element, key);
+    }
+
+    /**
+     * Removes and returns the element with the smallest key.
+     */
+    public long pop() {
+        long top = elements[0][0];
+        long last = --size;
+        if (last > 0L) {
+            long element = element(last);
+            double key = key(last);
+            long index = 0L;
+            long firstChild;
+            while ((firstChild = (index << 2) + 1L) < last) {
+                long end = Math.min(firstChild + 4L, last);
+                long child = firstChild;
+                double childKey = key(firstChild);
+                for (long i = firstChild + 1L; i < end; i++) {
+                    double k = key(i);
+                    if (k < childKey) {
+                        child = i;
+                        childKey = k;
+                    }
+                }
+                if (key <= childKey) {
+                    break;
+                }
+                set(index, element(child), childKey);
+                index = child;
+            }
+            set(index, element, key);
+        }
+        return top;
+    }
+
+    public void clear() {
+        size = 0L;
+    }
+
+    public void release() {
+        tracker.remove(elements.length * PAGE_BYTES);
+        elements = new long[0][];
+        keys = new double[0][];
+        size = 0L;
+    }
+
+    private void addPage() {
+        int pages = elements.length;
+        elements = Arrays.copyOf(elements, pages + 1);
+        keys = Arrays.copyOf(keys, pages + 1);
+        elements[pages] = new long[PAGE_SIZE];
+        keys[pages] = new double[PAGE_SIZE];
+        tracker.add(PAGE_BYTES);
+    }
+
+    private long element(long index) {
+        return elements[(int) (index >>> PAGE_SHIFT)][(int) (index & PAGE_MASK)];
+    }
+
+    private double key(long index) {
+        return keys[(int) (index >>> PAGE_SHIFT)][(int) (index & PAGE_MASK)];
+    }
+
+    private void set(long index, long element, double key) {
+        int page = (int) (index >>> PAGE_SHIFT);
+        int indexInPage = (int) (index & PAGE_MASK);
+        elements[page][indexInPage] = element;
+        keys[page][indexInPage] = key;
+    }
+}
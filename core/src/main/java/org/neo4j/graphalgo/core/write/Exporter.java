@@ -27,6 +27,10 @@ import org.neo4j.graphalgo.core.utils.ParallelUtil;
 import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.ProgressLogger;
 import org.neo4j.graphalgo.core.utils.ProgressLoggerAdapter;
+import org.neo4j.graphalgo.core.utils.jobs.Job;
+import org.neo4j.graphalgo.core.utils.jobs.JobRegistry;
+import org.neo4j.graphalgo.core.utils.metrics.Meter;
+import org.neo4j.graphalgo.core.utils.metrics.Metrics;
 import org.neo4j.graphalgo.core.utils.StatementApi;
 import org.neo4j.graphalgo.core.utils.TerminationFlag;
 import org.neo4j.internal.kernel.api.Write;
@@ -49,6 +53,10 @@ public final class Exporter extends StatementApi {
     private static final long MAX_BATCH_SIZE = 100_000L;
     public static final String TASK_EXPORT = "EXPORT";
 
+    private static final Meter WRITES = Metrics.meter(
+            "exporter.nodes.written",
+            "Nodes whose results have been written back by the exporter");
+
     private final TerminationFlag terminationFlag;
     private final ExecutorService executorService;
     private final ProgressLogger progressLogger;
@@ -116,9 +124,10 @@ public final class Exporter extends StatementApi {
         }
 
         public Exporter build() {
-            ProgressLogger progressLogger = loggerAdapter == null
-                    ? ProgressLogger.NULL_LOGGER
-                    : loggerAdapter;
+            ProgressLogger progressLogger = JobRegistry.progressLogger(
+                    Job.Phase.WRITE,
+                    TASK_EXPORT,
+                    loggerAdapter == null ? ProgressLogger.NULL_LOGGER : loggerAdapter);
             TerminationFlag flag = terminationFlag == null
                     ? TerminationFlag.RUNNING_TRUE
                     : terminationFlag;
@@ -279,6 +288,7 @@ public final class Exporter extends StatementApi {
                 writer.accept(ops, i);
                 progressLogger.logProgress(++progress, nodeCount);
             }
+            WRITES.mark(nodeCount);
         });
     }
 
@@ -302,6 +312,7 @@ public final class Exporter extends StatementApi {
                                     progress.incrementAndGet(),
                                     nodeCount);
                         }
+                        WRITES.mark(len);
                     });
                 });
         ParallelUtil.runWithConcurrency(
@@ -0,0 +1,527 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.write;
+
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.HugeIdMapping;
+import org.neo4j.graphalgo.api.IdMapping;
+import org.neo4j.graphalgo.core.utils.ParallelUtil;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphdb.Direction;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongPredicate;
+import java.util.function.LongToDoubleFunction;
+import java.util.function.LongUnaryOperator;
+
+/**
+ * Writes node values and relationships into local files, as the file counterpart of the {@link Exporter}.
+ * <p>
+ * The nodes are split into contiguous ranges which are written in parallel, every range into its own
+ * partition file {@code part-00000.csv}, {@code part-00001.csv}, ... of the target directory.
+ * Values are encoded into a direct buffer that is written through a {@link FileChannel},
+ * without creating a result row per node.
+ * <p>
+ * The {@link Format#CSV CSV} format writes a header and one line per node or relationship,
+ * nodes without a value are skipped.
+ * The {@link Format#BINARY binary} format writes big endian columns. A node partition starts with
+ * the number of rows and the value type ({@link #LONG_VALUES} or {@link #DOUBLE_VALUES}),
+ * followed by the column of original node ids and the column of values of all nodes.
+ * A relationship partition is an edge list of original source and target ids and an optional weight,
+ * that can be loaded again by the {@link org.neo4j.graphalgo.core.huge.loader.BinaryEdgeListLoader}.
+ */
+public final class FileExporter {
+
+    public static final String PARTITION_FILE_PREFIX = "part-";
+    public static final long LONG_VALUES = 0L;
+    public static final long DOUBLE_VALUES = 1L;
+    public static final int HEADER_SIZE = 2 * Long.BYTES;
+
+    private static final long MIN_BATCH_SIZE = 10_000L;
+    private static final int BUFFER_SIZE = 1 << 20;
+    // the longest encodings, of Long.MIN_VALUE and of a negative double with exponent like -2.2250738585072014E-308
+    private static final int MAX_LONG_LENGTH = 20;
+    private static final int MAX_DOUBLE_LENGTH = 24;
+    // the longest line that is encoded at once, two longs and a double with separators and the line break
+    static final int MAX_LINE_LENGTH = 2 * MAX_LONG_LENGTH + MAX_DOUBLE_LENGTH + 3;
+
+    public enum Format {
+        CSV("csv"),
+        BINARY("bin");
+
+        private final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        public String extension() {
+            return extension;
+        }
+
+        public static Format parse(String format) {
+            switch (format.toLowerCase(Locale.ROOT)) {
+                case "csv":
+                    return CSV;
+                case "binary":
+                case "bin":
+                    return BINARY;
+                default:
+                    throw new IllegalArgumentException("Unknown export format: " + format + ", expected 'csv' or 'binary'");
+            }
+        }
+    }
+
+    private final Path directory;
+    private final Format format;
+    private final Graph graph;
+    private final long nodeCount;
+    private final LongUnaryOperator toOriginalId;
+    private final TerminationFlag terminationFlag;
+    private final ExecutorService executorService;
+    private final int concurrency;
+    private final int bufferSize;
+
+    public static Builder of(Graph graph) {
+        if (graph instanceof HugeGraph) {
+            return new Builder(graph, (HugeIdMapping) graph);
+        }
+        return new Builder(graph, graph);
+    }
+
+    public static final class Builder {
+
+        private final Graph graph;
+        private final LongUnaryOperator toOriginalId;
+        private final long nodeCount;
+        private Format format = Format.CSV;
+        private TerminationFlag terminationFlag;
+        private ExecutorService executorService;
+        private int concurrency = Pools.DEFAULT_CONCURRENCY;
+        private int bufferSize = BUFFER_SIZE;
+
+        private Builder(Graph graph, IdMapping idMapping) {
+            this.graph = Objects.requireNonNull(graph);
+            this.nodeCount = idMapping.nodeCount();
+            this.toOriginalId = (n) -> idMapping.toOriginalNodeId((int) n);
+        }
+
+        private Builder(Graph graph, HugeIdMapping idMapping) {
+            this.graph = Objects.requireNonNull(graph);
+            this.nodeCount = idMapping.nodeCount();
+            this.toOriginalId = idMapping::toOriginalNodeId;
+        }
+
+        public Builder withFormat(Format format) {
+            this.format = Objects.requireNonNull(format);
+            return this;
+        }
+
+        public Builder parallel(ExecutorService es, int concurrency, TerminationFlag flag) {
+            this.executorService = es;
+            this.concurrency = concurrency;
+            this.terminationFlag = flag;
+            return this;
+        }
+
+        // smaller buffers let tests cross buffer boundaries with few rows
+        Builder withBufferSize(int bufferSize) {
+            if (bufferSize < 2 * MAX_LINE_LENGTH) {
+                throw new IllegalArgumentException("bufferSize must be at least " + 2 * MAX_LINE_LENGTH + ", but was " + bufferSize);
+            }
+            this.bufferSize = bufferSize;
+            return this;
+        }
+
+        /**
+         * @param directory the directory of the partition files, which is created if it does not exist
+         */
+        public FileExporter build(Path directory) {
+            TerminationFlag flag = terminationFlag == null
+                    ? TerminationFlag.RUNNING_TRUE
+                    : terminationFlag;
+            return new FileExporter(directory, format, graph, nodeCount, toOriginalId, flag, concurrency, executorService, bufferSize);
+        }
+    }
+
+    private FileExporter(
+            Path directory,
+            Format format,
+            Graph graph,
+            long nodeCount,
+            LongUnaryOperator toOriginalId,
+            TerminationFlag terminationFlag,
+            int concurrency,
+            ExecutorService executorService,
+            int bufferSize) {
+        this.directory = Objects.requireNonNull(directory);
+        this.format = format;
+        this.graph = graph;
+        this.nodeCount = nodeCount;
+        this.toOriginalId = toOriginalId;
+        this.terminationFlag = terminationFlag;
+        this.concurrency = concurrency;
+        this.executorService = executorService;
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * Writes the value of every node, translated from the data like the {@link Exporter} does.
+     * Only numeric translators are supported.
+     *
+     * @return the written partition files
+     */
+    public <T> List<Path> write(String column, T data, PropertyTranslator<T> translator) {
+        NodeColumn values = NodeColumn.of(data, translator);
+        List<Path> files = preparePartitions();
+        long batchSize = batchSize();
+        List<Runnable> tasks = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            long start = i * batchSize;
+            long end = Math.min(nodeCount, start + batchSize);
+            Path file = files.get(i);
+            tasks.add(() -> {
+                try (FileChannel channel = open(file)) {
+                    if (format == Format.CSV) {
+                        writeCsv(channel, column, values, start, end);
+                    } else {
+                        writeBinary(channel, values, start, end);
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        run(tasks);
+        return files;
+    }
+
+    /**
+     * Writes every relationship of the graph in the given direction, partitioned by its source node.
+     *
+     * @return the number of written relationships
+     */
+    public long writeRelationships(Direction direction, boolean weighted) {
+        List<Path> files = preparePartitions();
+        long batchSize = batchSize();
+        AtomicLong relationships = new AtomicLong();
+        List<Runnable> tasks = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            long start = i * batchSize;
+            long end = Math.min(nodeCount, start + batchSize);
+            Path file = files.get(i);
+            tasks.add(() -> {
+                try (FileChannel channel = open(file)) {
+                    ChannelOutput out = new ChannelOutput(channel, 0L, bufferSize);
+                    if (format == Format.CSV) {
+                        out.ascii(weighted ? "source,target,weight\n" : "source,target\n");
+                    }
+                    if (graph instanceof HugeGraph) {
+                        writeRelationships((HugeGraph) graph, direction, weighted, out, start, end);
+                    } else {
+                        writeRelationships(graph, direction, weighted, out, (int) start, (int) end);
+                    }
+                    out.flush();
+                    relationships.addAndGet(out.rows);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        }
+        run(tasks);
+        return relationships.get();
+    }
+
+    /**
+     * @return the number of partition files that are written
+     */
+    public int partitionCount() {
+        long batchSize = batchSize();
+        return (int) Math.max(1L, (nodeCount + batchSize - 1L) / batchSize);
+    }
+
+    private void writeRelationships(HugeGraph hugeGraph, Direction direction, boolean weighted, ChannelOutput out, long start, long end) {
+        HugeGraph copy = hugeGraph.concurrentCopy();
+        for (long nodeId = start; nodeId < end; nodeId++) {
+            if (weighted) {
+                copy.forEachRelationship(nodeId, direction, (source, target, weight) -> {
+                    writeRelationship(out, source, target, true, weight);
+                    return true;
+                });
+            } else {
+                copy.forEachRelationship(nodeId, direction, (source, target) -> {
+                    writeRelationship(out, source, target, false, 0.0);
+                    return true;
+                });
+            }
+        }
+    }
+
+    private void writeRelationships(Graph graph, Direction direction, boolean weighted, ChannelOutput out, int start, int end) {
+        for (int nodeId = start; nodeId < end; nodeId++) {
+            if (weighted) {
+                graph.forEachRelationship(nodeId, direction, (source, target, relationId, weight) -> {
+                    writeRelationship(out, source, target, true, weight);
+                    return true;
+                });
+            } else {
+                graph.forEachRelationship(nodeId, direction, (source, target, relationId) -> {
+                    writeRelationship(out, source, target, false, 0.0);
+                    return true;
+                });
+            }
+        }
+    }
+
+    private void writeRelationship(ChannelOutput out, long source, long target, boolean weighted, double weight) {
+        out.ensure(MAX_LINE_LENGTH);
+        out.rows++;
+        long originalSource = toOriginalId.applyAsLong(source);
+        long originalTarget = toOriginalId.applyAsLong(target);
+        if (format == Format.CSV) {
+            out.ascii(originalSource);
+            out.buffer.put((byte) ',');
+            out.ascii(originalTarget);
+            if (weighted) {
+                out.buffer.put((byte) ',');
+                out.ascii(weight);
+            }
+            out.buffer.put((byte) '\n');
+        } else {
+            out.buffer.putLong(originalSource).putLong(originalTarget);
+            if (weighted) {
+                out.buffer.putDouble(weight);
+            }
+        }
+    }
+
+    private void writeCsv(FileChannel channel, String column, NodeColumn values, long start, long end) {
+        ChannelOutput out = new ChannelOutput(channel, 0L, bufferSize);
+        out.ascii("nodeId," + column + "\n");
+        for (long nodeId = start; nodeId < end; nodeId++) {
+            if (!values.present.test(nodeId)) {
+                continue;
+            }
+            out.ensure(MAX_LINE_LENGTH);
+            out.ascii(toOriginalId.applyAsLong(nodeId));
+            out.buffer.put((byte) ',');
+            if (values.doubles != null) {
+                out.ascii(values.doubles.applyAsDouble(nodeId));
+            } else {
+                out.ascii(values.longs.applyAsLong(nodeId));
+            }
+            out.buffer.put((byte) '\n');
+        }
+        out.flush();
+    }
+
+    private void writeBinary(FileChannel channel, NodeColumn values, long start, long end) {
+        long rows = end - start;
+        ChannelOutput ids = new ChannelOutput(channel, HEADER_SIZE, bufferSize >> 1);
+        ChannelOutput column = new ChannelOutput(channel, HEADER_SIZE + rows * Long.BYTES, bufferSize >> 1);
+        for (long nodeId = start; nodeId < end; nodeId++) {
+            ids.ensure(Long.BYTES);
+            ids.buffer.putLong(toOriginalId.applyAsLong(nodeId));
+            column.ensure(Long.BYTES);
+            if (values.doubles != null) {
+                column.buffer.putDouble(values.doubles.applyAsDouble(nodeId));
+            } else {
+                column.buffer.putLong(values.longs.applyAsLong(nodeId));
+            }
+        }
+        ids.flush();
+        column.flush();
+        // the header is written last, a partition without a header is incomplete
+        ChannelOutput header = new ChannelOutput(channel, 0L, HEADER_SIZE);
+        header.buffer.putLong(rows).putLong(values.doubles != null ? DOUBLE_VALUES : LONG_VALUES);
+        header.flush();
+    }
+
+    private long batchSize() {
+        return ParallelUtil.adjustBatchSize(nodeCount, concurrency, MIN_BATCH_SIZE);
+    }
+
+    private List<Path> preparePartitions() {
+        try {
+            Files.createDirectories(directory);
+            // remove the partitions of an earlier export, which may have had more partitions
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, PARTITION_FILE_PREFIX + "*")) {
+                for (Path file : stale) {
+                    Files.delete(file);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        int partitions = partitionCount();
+        List<Path> files = new ArrayList<>(partitions);
+        for (int i = 0; i < partitions; i++) {
+            files.add(directory.resolve(String.format("%s%05d.%s", PARTITION_FILE_PREFIX, i, format.extension())));
+        }
+        return files;
+    }
+
+    private void run(List<Runnable> tasks) {
+        ParallelUtil.runWithConcurrency(
+                concurrency,
+                tasks,
+                Integer.MAX_VALUE,
+                10L,
+                TimeUnit.MICROSECONDS,
+                terminationFlag,
+                executorService);
+    }
+
+    private static FileChannel open(Path file) throws IOException {
+        return FileChannel.open(
+                file,
+                StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+    }
+
+    /**
+     * The values of one column, either as longs or as doubles.
+     */
+    private static final class NodeColumn {
+        private static final LongPredicate ALL = nodeId -> true;
+
+        private final LongPredicate present;
+        private final LongUnaryOperator longs;
+        private final LongToDoubleFunction doubles;
+
+        private NodeColumn(LongPredicate present, LongUnaryOperator longs, LongToDoubleFunction doubles) {
+            this.present = present;
+            this.longs = longs;
+            this.doubles = doubles;
+        }
+
+        private static <T> NodeColumn of(T data, PropertyTranslator<T> translator) {
+            if (translator instanceof PropertyTranslator.OfDouble) {
+                PropertyTranslator.OfDouble<T> t = (PropertyTranslator.OfDouble<T>) translator;
+                return new NodeColumn(ALL, null, n -> t.toDouble(data, n));
+            }
+            if (translator instanceof PropertyTranslator.OfOptionalDouble) {
+                PropertyTranslator.OfOptionalDouble<T> t = (PropertyTranslator.OfOptionalDouble<T>) translator;
+                return new NodeColumn(n -> t.toDouble(data, n) >= 0D, null, n -> t.toDouble(data, n));
+            }
+            if (translator instanceof PropertyTranslator.OfLong) {
+                PropertyTranslator.OfLong<T> t = (PropertyTranslator.OfLong<T>) translator;
+                return new NodeColumn(ALL, n -> t.toLong(data, n), null);
+            }
+            if (translator instanceof PropertyTranslator.OfInt) {
+                PropertyTranslator.OfInt<T> t = (PropertyTranslator.OfInt<T>) translator;
+                return new NodeColumn(ALL, n -> t.toInt(data, n), null);
+            }
+            if (translator instanceof PropertyTranslator.OfOptionalInt) {
+                PropertyTranslator.OfOptionalInt<T> t = (PropertyTranslator.OfOptionalInt<T>) translator;
+                return new NodeColumn(n -> t.toInt(data, n) >= 0, n -> t.toInt(data, n), null);
+            }
+            throw new IllegalArgumentException("Only numeric values can be exported to files, but got " + translator.getClass().getSimpleName());
+        }
+    }
+
+    /**
+     * Writes the content of a direct buffer at increasing positions of a channel.
+     */
+    private static final class ChannelOutput {
+        private final FileChannel channel;
+        private final ByteBuffer buffer;
+        private long position;
+        private long rows;
+
+        private ChannelOutput(FileChannel channel, long position, int bufferSize) {
+            this.channel = channel;
+            this.position = position;
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        private void flush() {
+            buffer.flip();
+            try {
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            buffer.clear();
+        }
+
+        private void ascii(String value) {
+            for (int i = 0; i < value.length(); i++) {
+                ensure(1);
+                buffer.put((byte) value.charAt(i));
+            }
+        }
+
+        private void ascii(double value) {
+            ascii(Double.toString(value));
+        }
+
+        // encodes the digits without creating a string, the buffer has room for the longest long
+        private void ascii(long value) {
+            if (value == Long.MIN_VALUE) {
+                ascii(Long.toString(value));
+                return;
+            }
+            if (value < 0L) {
+                buffer.put((byte) '-');
+                value = -value;
+            }
+            int end = buffer.position() + digits(value);
+            for (int i = end - 1; i >= buffer.position(); i--) {
+                buffer.put(i, (byte) ('0' + (value % 10L)));
+                value /= 10L;
+            }
+            buffer.position(end);
+        }
+
+        private static int digits(long value) {
+            int digits = 1;
+            while (value >= 10L) {
+                value /= 10L;
+                digits++;
+            }
+            return digits;
+        }
+    }
+}
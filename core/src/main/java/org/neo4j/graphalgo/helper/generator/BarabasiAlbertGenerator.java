@@ -0,0 +1,92 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.helper.generator;
+
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+
+import java.util.SplittableRandom;
+
+/**
+ * Scale free graphs by preferential attachment. Every new node connects to
+ * {@code edgesPerNode} existing nodes that are chosen proportional to their degree,
+ * by picking a random endpoint of all relationships created so far.
+ * A node never connects twice to the same node, so the generated graph has no parallel relationships.
+ * <p>
+ * The endpoints are kept in memory, that is 16 bytes per relationship.
+ */
+public final class BarabasiAlbertGenerator extends GraphGenerator {
+
+    private final int edgesPerNode;
+
+    public BarabasiAlbertGenerator(long nodeCount, int edgesPerNode, long seed) {
+        super(nodeCount, seed);
+        if (edgesPerNode < 1) {
+            throw new IllegalArgumentException("edgesPerNode must be >= 1, but was " + edgesPerNode);
+        }
+        this.edgesPerNode = edgesPerNode;
+    }
+
+    @Override
+    public long relationshipCount() {
+        // the first nodes can connect to fewer than edgesPerNode nodes
+        long m = Math.min(edgesPerNode, nodeCount - 1L);
+        return m * (m - 1L) / 2L + (nodeCount - m) * m;
+    }
+
+    @Override
+    public void generate(HugeRelationshipConsumer consumer) {
+        SplittableRandom random = new SplittableRandom(seed);
+        HugeLongArray endpoints = HugeLongArray.newArray(relationshipCount() << 1, AllocationTracker.EMPTY);
+        long filled = 0L;
+        for (long source = 1L; source < nodeCount; source++) {
+            long degree = Math.min(edgesPerNode, source);
+            long existing = filled;
+            for (long i = 0L; i < degree; i++) {
+                long target;
+                do {
+                    target = existing == 0L ? random.nextLong(source) : endpoints.get(random.nextLong(existing));
+                } while (alreadyConnected(endpoints, existing, filled, target));
+                endpoints.set(filled++, source);
+                endpoints.set(filled++, target);
+                if (!consumer.accept(source, target)) {
+                    endpoints.release();
+                    return;
+                }
+            }
+        }
+        endpoints.release();
+    }
+
+    // the targets of the current source are at the odd positions after the existing endpoints
+    private static boolean alreadyConnected(HugeLongArray endpoints, long from, long to, long target) {
+        for (long i = from + 1L; i < to; i += 2L) {
+            if (endpoints.get(i) == target) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String id() {
+        return String.format("ba-n%d-m%d-%d", nodeCount, edgesPerNode, seed);
+    }
+}
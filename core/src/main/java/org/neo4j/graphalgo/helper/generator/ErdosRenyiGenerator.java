@@ -0,0 +1,62 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.helper.generator;
+
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+
+import java.util.SplittableRandom;
+
+/**
+ * Uniform random graphs with a fixed number of relationships, {@code G(n, m)}.
+ * Relationships are drawn independently, so parallel relationships may occur.
+ */
+public final class ErdosRenyiGenerator extends GraphGenerator {
+
+    private final long relationshipCount;
+
+    public ErdosRenyiGenerator(long nodeCount, long relationshipCount, long seed) {
+        super(nodeCount, seed);
+        this.relationshipCount = relationshipCount;
+    }
+
+    @Override
+    public long relationshipCount() {
+        return relationshipCount;
+    }
+
+    @Override
+    public void generate(HugeRelationshipConsumer consumer) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (long i = 0L; i < relationshipCount; i++) {
+            long source = random.nextLong(nodeCount);
+            long target = random.nextLong(nodeCount - 1L);
+            if (target >= source) {
+                target++;
+            }
+            if (!consumer.accept(source, target)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String id() {
+        return String.format("er-n%d-m%d-%d", nodeCount, relationshipCount, seed);
+    }
+}
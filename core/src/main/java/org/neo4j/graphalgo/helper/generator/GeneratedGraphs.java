@@ -0,0 +1,99 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.helper.generator;
+
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphBuilder;
+import org.neo4j.graphalgo.helper.ldbc.LdbcDownloader;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.unsafe.batchinsert.BatchInserter;
+import org.neo4j.unsafe.batchinsert.BatchInserters;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Writes generated graphs into a store with the batch inserter, bypassing transactions,
+ * or builds them directly as a {@link HugeGraph} without any store.
+ * The node with the generated id {@code i} gets the node id {@code i} in the store.
+ */
+public final class GeneratedGraphs {
+
+    public static final Label LABEL = Label.label("Node");
+    public static final RelationshipType TYPE = RelationshipType.withName("TYPE");
+
+    private static final Map<String, Object> NO_PROPERTIES = Collections.emptyMap();
+
+    /**
+     * Opens the store of the generated graph, which is written once into the
+     * temporary directory and reused by all later calls with the same generator.
+     */
+    public static GraphDatabaseAPI openDb(GraphGenerator generator, String pageCacheSize) throws IOException {
+        Path graphDir = LdbcDownloader.tempDirFor("org.neo4j", "generated", generator.id());
+        Path graphDbDir = graphDir.resolve("graph.db");
+        if (!Files.isDirectory(graphDbDir)) {
+            // write into a separate directory so that an aborted run does not leave a partial store behind,
+            // the leftovers of such a run are removed first
+            Path inProgress = graphDir.resolve("graph.db.tmp");
+            FileUtils.deleteRecursively(inProgress.toFile());
+            writeStore(generator, inProgress);
+            Files.move(inProgress, graphDbDir);
+        }
+        return LdbcDownloader.openDb(graphDbDir, pageCacheSize);
+    }
+
+    public static void writeStore(GraphGenerator generator, Path graphDbDir) throws IOException {
+        BatchInserter inserter = BatchInserters.inserter(graphDbDir.toFile());
+        try {
+            for (long nodeId = 0L; nodeId < generator.nodeCount(); nodeId++) {
+                inserter.createNode(nodeId, NO_PROPERTIES, LABEL);
+            }
+            generator.generate((source, target) -> {
+                inserter.createRelationship(source, target, TYPE, NO_PROPERTIES);
+                return true;
+            });
+        } finally {
+            inserter.shutdown();
+        }
+    }
+
+    /**
+     * Builds the generated graph in memory, {@link Direction#BOTH} keeps the outgoing and the incoming adjacency.
+     */
+    public static HugeGraph hugeGraph(GraphGenerator generator, Direction direction) {
+        HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes(generator.nodeCount())
+                .withDirection(direction)
+                .importer();
+        HugeGraphBuilder.Batch batch = importer.newBatch();
+        generator.generate(batch);
+        batch.flush();
+        return importer.build();
+    }
+
+    private GeneratedGraphs() {
+        throw new UnsupportedOperationException("No instances");
+    }
+}
@@ -0,0 +1,66 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.helper.generator;
+
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+
+/**
+ * A seeded, synthetic graph over the node ids {@code 0} to {@code nodeCount - 1}.
+ * The same parameters always generate the same relationships in the same order,
+ * so generated graphs can replace downloaded datasets as benchmark fixtures.
+ *
+ * @see GeneratedGraphs
+ */
+public abstract class GraphGenerator {
+
+    protected final long nodeCount;
+    protected final long seed;
+
+    protected GraphGenerator(long nodeCount, long seed) {
+        if (nodeCount < 2L) {
+            throw new IllegalArgumentException("nodeCount must be >= 2, but was " + nodeCount);
+        }
+        this.nodeCount = nodeCount;
+        this.seed = seed;
+    }
+
+    public final long nodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * @return the number of relationships that {@link #generate(HugeRelationshipConsumer)} emits
+     */
+    public abstract long relationshipCount();
+
+    /**
+     * Emits all relationships, without self loops, until the consumer returns {@code false}.
+     */
+    public abstract void generate(HugeRelationshipConsumer consumer);
+
+    /**
+     * @return a name that identifies the generated graph, e.g. to cache a store of it
+     */
+    public abstract String id();
+
+    @Override
+    public String toString() {
+        return id();
+    }
+}
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.helper.generator;
+
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Graphs with a known community structure. The nodes are split into {@code communities}
+ * consecutive blocks of equal size, every node has {@code degree} relationships of which
+ * a share of {@code mixing} leads to a random node of the whole graph and the others to
+ * a random node of the same block.
+ */
+public final class PlantedPartitionGenerator extends GraphGenerator {
+
+    private final int communities;
+    private final int degree;
+    private final double mixing;
+
+    public PlantedPartitionGenerator(long nodeCount, int communities, int degree, double mixing, long seed) {
+        super(nodeCount, seed);
+        if (communities < 1 || nodeCount / communities < 2L) {
+            throw new IllegalArgumentException(String.format(
+                    "cannot plant %d communities of at least 2 nodes into %d nodes",
+                    communities,
+                    nodeCount));
+        }
+        if (mixing < 0.0 || mixing > 1.0) {
+            throw new IllegalArgumentException("mixing must be between 0 and 1, but was " + mixing);
+        }
+        this.communities = communities;
+        this.degree = degree;
+        this.mixing = mixing;
+    }
+
+    /**
+     * @return the planted community of the node
+     */
+    public int community(long nodeId) {
+        return (int) (nodeId * communities / nodeCount);
+    }
+
+    @Override
+    public long relationshipCount() {
+        return nodeCount * degree;
+    }
+
+    @Override
+    public void generate(HugeRelationshipConsumer consumer) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (long source = 0L; source < nodeCount; source++) {
+            int community = community(source);
+            long start = communityStart(community);
+            long size = communityStart(community + 1) - start;
+            for (int i = 0; i < degree; i++) {
+                long target;
+                do {
+                    target = random.nextDouble() < mixing
+                            ? random.nextLong(nodeCount)
+                            : start + random.nextLong(size);
+                } while (target == source);
+                if (!consumer.accept(source, target)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    // the first node id with community(nodeId) >= community
+    private long communityStart(int community) {
+        return (community * nodeCount + communities - 1L) / communities;
+    }
+
+    @Override
+    public String id() {
+        return String.format(Locale.ROOT, "pp-n%d-c%d-d%d-%.3f-%d", nodeCount, communities, degree, mixing, seed);
+    }
+}
@@ -0,0 +1,139 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.helper.generator;
+
+import org.neo4j.graphalgo.api.HugeRelationshipConsumer;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Recursive matrix (R-MAT) graphs, a Kronecker graph with a 2x2 initiator matrix.
+ * Every relationship descends {@code scale} times into one of the four quadrants of the
+ * adjacency matrix with the probabilities {@code a}, {@code b}, {@code c} and {@code 1 - a - b - c},
+ * which leads to a power law degree distribution and community structure.
+ * <p>
+ * The node ids are scrambled, so that high degree nodes are not clustered at the lowest ids.
+ */
+public final class RMatGenerator extends GraphGenerator {
+
+    private static final long SCRAMBLE = 0x9E3779B97F4A7C15L;
+
+    private final int scale;
+    private final long relationshipCount;
+    private final double a;
+    private final double ab;
+    private final double abc;
+
+    /**
+     * @param scale      generates {@code 2^scale} nodes
+     * @param edgeFactor the average out degree
+     */
+    public RMatGenerator(int scale, int edgeFactor, double a, double b, double c, long seed) {
+        super(1L << checkScale(scale), seed);
+        // without any probability off the diagonal every relationship would be a self loop
+        if (a < 0.0 || b < 0.0 || c < 0.0 || a + b + c > 1.0 || b + c == 0.0) {
+            throw new IllegalArgumentException(String.format(
+                    "invalid R-MAT probabilities a=%f, b=%f, c=%f",
+                    a,
+                    b,
+                    c));
+        }
+        this.scale = scale;
+        this.relationshipCount = nodeCount * edgeFactor;
+        this.a = a;
+        this.ab = a + b;
+        this.abc = a + b + c;
+    }
+
+    /**
+     * A skew of {@code 0.25} generates a uniform random graph, {@code 0.57} uses the Graph500
+     * probabilities {@code (0.57, 0.19, 0.19, 0.05)}. Skews in between interpolate linearly
+     * between both, larger skews keep the Graph500 ratio between {@code b}, {@code c} and {@code d}.
+     *
+     * @param skew the probability {@code a} of the top left quadrant, in {@code [0.25, 1)}
+     */
+    public static RMatGenerator withSkew(int scale, int edgeFactor, double skew, long seed) {
+        if (!(skew >= 0.25 && skew < 1.0)) {
+            throw new IllegalArgumentException("skew must be in [0.25, 1), but was " + skew);
+        }
+        double b;
+        if (skew <= 0.57) {
+            b = 0.25 - 0.06 * (skew - 0.25) / 0.32;
+        } else {
+            b = 0.19 * (1.0 - skew) / 0.43;
+        }
+        return new RMatGenerator(scale, edgeFactor, skew, b, b, seed);
+    }
+
+    @Override
+    public long relationshipCount() {
+        return relationshipCount;
+    }
+
+    @Override
+    public void generate(HugeRelationshipConsumer consumer) {
+        SplittableRandom random = new SplittableRandom(seed);
+        long mask = nodeCount - 1L;
+        for (long i = 0L; i < relationshipCount; i++) {
+            long source;
+            long target;
+            do {
+                source = 0L;
+                target = 0L;
+                for (int level = 0; level < scale; level++) {
+                    double r = random.nextDouble();
+                    source <<= 1;
+                    target <<= 1;
+                    if (r >= abc) {
+                        source |= 1L;
+                        target |= 1L;
+                    } else if (r >= ab) {
+                        source |= 1L;
+                    } else if (r >= a) {
+                        target |= 1L;
+                    }
+                }
+            } while (source == target);
+            if (!consumer.accept((source * SCRAMBLE) & mask, (target * SCRAMBLE) & mask)) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    public String id() {
+        return String.format(
+                Locale.ROOT,
+                "rmat-s%d-e%d-%.3f-%.3f-%.3f-%d",
+                scale,
+                relationshipCount / nodeCount,
+                a,
+                ab - a,
+                abc - ab,
+                seed);
+    }
+
+    private static int checkScale(int scale) {
+        if (scale < 1 || scale > 40) {
+            throw new IllegalArgumentException("scale must be between 1 and 40, but was " + scale);
+        }
+        return scale;
+    }
+}
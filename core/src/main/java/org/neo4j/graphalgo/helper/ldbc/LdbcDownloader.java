@@ -103,7 +103,7 @@ public final class LdbcDownloader {
         return openDb(id, location, pageCacheSize);
     }
 
-    private static GraphDatabaseAPI openDb(Path dbLocation, final String pageCache) {
+    public static GraphDatabaseAPI openDb(Path dbLocation, final String pageCache) {
         GraphDatabaseService db = new GraphDatabaseFactory()
                 .newEmbeddedDatabaseBuilder(dbLocation.toFile())
                 .setConfig(GraphDatabaseSettings.pagecache_memory, pageCache)
@@ -137,7 +137,7 @@ public final class LdbcDownloader {
         }
     }
 
-    private static Path tempDirFor(String... subDirs) throws IOException {
+    public static Path tempDirFor(String... subDirs) throws IOException {
         Path tmpDir = getDefaultTempDir().toAbsolutePath();
         for (String subDir : subDirs) {
             tmpDir = tmpDir.resolve(subDir);
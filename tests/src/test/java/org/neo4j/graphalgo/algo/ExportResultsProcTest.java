@@ -0,0 +1,211 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.algo;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.neo4j.graphalgo.LoadGraphProc;
+import org.neo4j.graphalgo.LouvainProc;
+import org.neo4j.graphalgo.PageRankProc;
+import org.neo4j.graphalgo.UnionFindProc;
+import org.neo4j.graphalgo.core.loading.LoadGraphFactory;
+import org.neo4j.graphalgo.core.utils.ImportDirectory;
+import org.neo4j.graphalgo.core.write.FileExporter;
+import org.neo4j.graphdb.QueryExecutionException;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public final class ExportResultsProcTest {
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    private static File importDir;
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setup() throws Exception {
+        importDir = folder.newFolder("import");
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .setConfig(GraphDatabaseSettings.load_csv_file_url_root, importDir.getAbsolutePath())
+                .setConfig(ImportDirectory.export_enabled, "true")
+                .newGraphDatabase();
+        Procedures procedures = db.getDependencyResolver().resolveDependency(Procedures.class);
+        procedures.registerProcedure(LoadGraphProc.class);
+        procedures.registerProcedure(PageRankProc.class);
+        procedures.registerProcedure(UnionFindProc.class);
+        procedures.registerProcedure(LouvainProc.class);
+        // two rings of 5 nodes
+        db.execute("UNWIND range(0, 9) AS id CREATE (:Node {id: id})").close();
+        db.execute("MATCH (a:Node), (b:Node) WHERE a.id / 5 = b.id / 5 AND b.id % 5 = (a.id + 1) % 5 " +
+                "CREATE (a)-[:TYPE]->(b)").close();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void shouldExportPageRankScores() throws IOException {
+        Map<String, Double> streamed = new HashMap<>();
+        db.execute("CALL algo.pageRank.stream('Node', 'TYPE', {graph: 'huge'}) YIELD nodeId, score RETURN *")
+                .accept(row -> {
+                    streamed.put(row.getNumber("nodeId").toString(), row.getNumber("score").doubleValue());
+                    return true;
+                });
+
+        db.execute("CALL algo.pageRank('Node', 'TYPE', {graph: 'huge', write: false, exportPath: 'pagerank'})").close();
+
+        List<String> lines = Files.readAllLines(partition("pagerank", "csv"), StandardCharsets.US_ASCII);
+        assertEquals("nodeId,pagerank", lines.get(0));
+        assertEquals(11, lines.size());
+        for (String line : lines.subList(1, lines.size())) {
+            String[] columns = line.split(",");
+            assertEquals(streamed.get(columns[0]), Double.parseDouble(columns[1]), 1e-9);
+        }
+        assertEquals(0L, db.execute("MATCH (n:Node) WHERE exists(n.pagerank) RETURN count(*) AS c").next().get("c"));
+    }
+
+    @Test
+    public void shouldExportUnionFindPartitionsAsBinary() throws IOException {
+        db.execute("CALL algo.unionFind('Node', 'TYPE', {graph: 'huge', exportPath: 'partitions', exportFormat: 'binary'})").close();
+
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(partition("partitions", "bin")));
+        assertEquals(10L, buffer.getLong());
+        assertEquals(FileExporter.LONG_VALUES, buffer.getLong());
+        long[] ids = new long[10];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = buffer.getLong();
+        }
+        Map<Long, Long> written = new HashMap<>();
+        db.execute("MATCH (n:Node) RETURN id(n) AS id, n.partition AS partition").accept(row -> {
+            written.put(row.getNumber("id").longValue(), row.getNumber("partition").longValue());
+            return true;
+        });
+        for (long id : ids) {
+            assertEquals(written.get(id).longValue(), buffer.getLong());
+        }
+    }
+
+    @Test
+    public void shouldExportLouvainCommunities() throws IOException {
+        db.execute("CALL algo.louvain('Node', 'TYPE', {write: false, exportPath: 'communities'})").close();
+
+        List<String> lines = Files.readAllLines(partition("communities", "csv"), StandardCharsets.US_ASCII);
+        assertEquals("nodeId,community", lines.get(0));
+        Set<String> communities = new HashSet<>();
+        for (String line : lines.subList(1, lines.size())) {
+            communities.add(line.split(",")[1]);
+        }
+        assertEquals(10, lines.size() - 1);
+        assertEquals(2, communities.size());
+    }
+
+    @Test
+    public void shouldExportNamedGraphs() throws IOException {
+        db.execute("CALL algo.graph.load('rings', 'Node', 'TYPE', {graph: 'huge'})").close();
+        try {
+            Map<String, Object> row = db.execute(
+                    "CALL algo.graph.export('rings', 'rings', {format: 'binary'}) YIELD partitions, nodes, relationships RETURN *")
+                    .next();
+            assertEquals(1L, row.get("partitions"));
+            assertEquals(10L, row.get("nodes"));
+            assertEquals(10L, row.get("relationships"));
+            assertEquals(10L * 2L * Long.BYTES, Files.size(partition("rings", "bin")));
+        } finally {
+            LoadGraphFactory.remove("rings");
+        }
+    }
+
+    @Test
+    public void shouldNotExportOutsideOfTheImportDirectory() {
+        try {
+            db.execute("CALL algo.pageRank('Node', 'TYPE', {write: false, exportPath: '../pagerank'})").close();
+            fail("expected the directory to be rejected");
+        } catch (QueryExecutionException e) {
+            assertThat(e.getMessage(), containsString("is not within"));
+        }
+        assertFalse(Files.exists(importDir.toPath().resolveSibling("pagerank")));
+    }
+
+    @Test
+    public void shouldNotExportGraphsOutsideOfTheImportDirectory() {
+        db.execute("CALL algo.graph.load('escape', 'Node', 'TYPE', {graph: 'huge'})").close();
+        try {
+            db.execute("CALL algo.graph.export('escape', '../../escape')").close();
+            fail("expected the directory to be rejected");
+        } catch (QueryExecutionException e) {
+            assertThat(e.getMessage(), containsString("is not within"));
+        } finally {
+            LoadGraphFactory.remove("escape");
+        }
+        assertFalse(Files.exists(importDir.toPath().getParent().resolveSibling("escape")));
+    }
+
+    @Test
+    public void shouldNotExportUnlessEnabled() throws Exception {
+        File otherImportDir = folder.newFolder("disabled");
+        GraphDatabaseAPI disabled = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .setConfig(GraphDatabaseSettings.load_csv_file_url_root, otherImportDir.getAbsolutePath())
+                .newGraphDatabase();
+        try {
+            disabled.getDependencyResolver().resolveDependency(Procedures.class).registerProcedure(PageRankProc.class);
+            disabled.execute("CREATE (:Node)-[:TYPE]->(:Node)").close();
+            try {
+                disabled.execute("CALL algo.pageRank('Node', 'TYPE', {write: false, exportPath: 'pagerank'})").close();
+                fail("expected the export to be rejected");
+            } catch (QueryExecutionException e) {
+                assertThat(e.getMessage(), containsString(ImportDirectory.export_enabled.name()));
+            }
+            assertFalse(Files.exists(otherImportDir.toPath().resolve("pagerank")));
+        } finally {
+            disabled.shutdown();
+        }
+    }
+
+    private static Path partition(String directory, String extension) {
+        return importDir.toPath().resolve(directory).resolve("part-00000." + extension);
+    }
+}
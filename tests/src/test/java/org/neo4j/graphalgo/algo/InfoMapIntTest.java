@@ -27,14 +27,17 @@ import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.impl.pagerank.PageRank;
 import org.neo4j.graphalgo.impl.pagerank.PageRankAlgorithm;
 import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.QueryExecutionException;
 import org.neo4j.graphdb.Transaction;
 import org.neo4j.internal.kernel.api.exceptions.KernelException;
 import org.neo4j.kernel.impl.proc.Procedures;
 import org.neo4j.test.rule.ImpermanentDatabaseRule;
 
 import java.util.BitSet;
+import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
@@ -170,4 +173,47 @@ public class InfoMapIntTest {
 
     }
 
+    @Test
+    public void testHugeUnweightedStream() throws Exception {
+
+        final BitSet bitSet = new BitSet(8);
+
+        db.execute("CALL algo.infoMap.stream('Node', 'TYPE', {iterations:15, graph:'huge'}) YIELD nodeId, community")
+                .accept(row -> {
+                    bitSet.set(row.getNumber("community").intValue());
+                    return true;
+                });
+
+        assertEquals(3, bitSet.cardinality());
+    }
+
+    @Test
+    public void testHugeWeighted() throws Exception {
+
+        final BitSet bitSet = new BitSet(8);
+
+        db.execute("CALL algo.infoMap('Node', 'TYPE', {weightProperty:'v', writeProperty:'hc', graph:'huge', concurrency:4}) " +
+                "YIELD communityCount, codeLengths").accept(row -> {
+            @SuppressWarnings("unchecked")
+            final List<Double> codeLengths = (List<Double>) row.get("codeLengths");
+            assertFalse(codeLengths.isEmpty());
+            assertEquals(row.getNumber("communityCount").longValue(), 2L);
+            return true;
+        });
+
+        db.execute("MATCH (n) RETURN n").accept(row -> {
+            final Node node = row.getNode("n");
+            bitSet.set(((Number) node.getProperty("hc")).intValue());
+            return true;
+        });
+
+        assertEquals(2, bitSet.cardinality());
+    }
+
+    @Test(expected = QueryExecutionException.class)
+    public void testHugePredefinedPageRankIsNotSupported() throws Exception {
+        db.execute("CALL algo.infoMap.stream('Node', 'TYPE', {pageRankProperty:'p', graph:'huge'}) YIELD nodeId, community")
+                .close();
+    }
+
 }
@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.algo;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.JobsProc;
+import org.neo4j.graphalgo.PageRankProc;
+import org.neo4j.graphalgo.core.utils.ProgressLogger;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphalgo.core.utils.jobs.Job;
+import org.neo4j.graphalgo.core.utils.jobs.JobRegistry;
+import org.neo4j.graphdb.QueryExecutionException;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.collection.Iterators;
+import org.neo4j.helpers.collection.MapUtil;
+import org.neo4j.kernel.api.KernelTransaction;
+import org.neo4j.kernel.impl.core.ThreadToStatementContextBridge;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.logging.NullLog;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class JobsProcTest {
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setup() throws Exception {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .setConfig(GraphDatabaseSettings.procedure_unrestricted, "algo.*")
+                .newGraphDatabase();
+        Procedures procedures = db.getDependencyResolver().resolveDependency(Procedures.class);
+        procedures.registerProcedure(JobsProc.class);
+        procedures.registerProcedure(PageRankProc.class);
+        db.execute("UNWIND range(0, 99) AS id CREATE (:Node {id: id})").close();
+        db.execute("MATCH (a:Node), (b:Node) WHERE b.id = (a.id + 1) % 100 CREATE (a)-[:TYPE]->(b)").close();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void shouldShowTheProgressOfARunningJob() {
+        long id;
+        try (Transaction tx = db.beginTx()) {
+            id = JobRegistry.job(db).id();
+            ProgressLogger logger = ProgressLogger.wrap(NullLog.getInstance(), "TestAlgo");
+            logger.logProgress(0.25);
+
+            List<Map<String, Object>> jobs = listed(id);
+            assertEquals(1, jobs.size());
+            Map<String, Object> job = jobs.get(0);
+            assertEquals("COMPUTE", job.get("phase"));
+            assertEquals("TestAlgo", job.get("task"));
+            assertEquals(25.0, (double) job.get("progress"), 1e-9);
+            assertFalse((boolean) job.get("cancelled"));
+
+            logger.logProgress(0.5);
+            Map<String, Object> progress = inOtherTransaction("CALL algo.jobs.progress($id)", MapUtil.map("id", job.get("id"))).get(0);
+            assertEquals(50.0, (double) progress.get("progress"), 1e-9);
+            assertTrue((long) progress.get("remainingMillis") >= 0L);
+            tx.success();
+        }
+        assertTrue(listed(id).isEmpty());
+    }
+
+    @Test
+    public void shouldCancelARunningJob() {
+        Transaction tx = db.beginTx();
+        long id;
+        try {
+            id = JobRegistry.job(db).id();
+            TerminationFlag flag = TerminationFlag.wrap(currentTransaction());
+            assertTrue(flag.running());
+
+            Map<String, Object> cancelled = inOtherTransaction("CALL algo.jobs.cancel($id)", MapUtil.map("id", id)).get(0);
+            assertTrue((boolean) cancelled.get("cancelled"));
+            assertFalse(flag.running());
+            tx.failure();
+        } finally {
+            try {
+                tx.close();
+            } catch (RuntimeException ignored) {
+                // the transaction has been terminated
+            }
+        }
+        assertTrue(listed(id).isEmpty());
+    }
+
+    @Test
+    public void shouldFailToCancelAnUnknownJob() {
+        try {
+            inOtherTransaction("CALL algo.jobs.cancel(-1)", MapUtil.map());
+            fail("expected an unknown job to fail");
+        } catch (CompletionException e) {
+            assertThat(e.getCause(), instanceOf(QueryExecutionException.class));
+            assertThat(e.getCause().getMessage(), containsString("No running job with id -1"));
+        }
+    }
+
+    @Test
+    public void shouldRemoveJobsOfFinishedAlgorithms() {
+        List<Object> before = ids(inOtherTransaction("CALL algo.jobs.list()", MapUtil.map()));
+        db.execute("CALL algo.pageRank('Node', 'TYPE', {write: true, graph: 'huge'})").close();
+        List<Object> after = ids(inOtherTransaction("CALL algo.jobs.list()", MapUtil.map()));
+        after.removeAll(before);
+        assertTrue(after.toString(), after.isEmpty());
+    }
+
+    @Test
+    public void shouldKeepTheJobsPerDatabase() {
+        GraphDatabaseAPI other = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+        Transaction tx = other.beginTx();
+        try {
+            KernelTransaction transaction = other.getDependencyResolver()
+                    .resolveDependency(ThreadToStatementContextBridge.class)
+                    .getKernelTransactionBoundToThisThread(true);
+            Job job = JobRegistry.job(other);
+            assertTrue(JobRegistry.of(other).jobs().contains(job));
+            assertFalse(JobRegistry.of(db).jobs().contains(job));
+
+            // jobs that are still running when their database shuts down are dropped
+            other.shutdown();
+            assertTrue(job.isFinished());
+            assertNull(JobRegistry.find(transaction));
+        } finally {
+            try {
+                tx.close();
+            } catch (RuntimeException ignored) {
+                // the database is already shut down
+            }
+            other.shutdown();
+        }
+    }
+
+    private static List<Map<String, Object>> listed(long id) {
+        return inOtherTransaction("CALL algo.jobs.list()", MapUtil.map()).stream()
+                .filter(row -> ((Number) row.get("id")).longValue() == id)
+                .collect(Collectors.toList());
+    }
+
+    private static List<Object> ids(List<Map<String, Object>> jobs) {
+        return jobs.stream().map(row -> row.get("id")).collect(Collectors.toList());
+    }
+
+    private static KernelTransaction currentTransaction() {
+        return db.getDependencyResolver()
+                .resolveDependency(ThreadToStatementContextBridge.class)
+                .getKernelTransactionBoundToThisThread(true);
+    }
+
+    // runs outside of the transaction that is bound to the test thread
+    private static List<Map<String, Object>> inOtherTransaction(String query, Map<String, Object> params) {
+        return CompletableFuture.supplyAsync(() -> {
+            try (Result result = db.execute(query, params)) {
+                return Iterators.asList(result);
+            }
+        }).join();
+    }
+}
@@ -0,0 +1,145 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.algo;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.graphalgo.LeidenProc;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Graph:
+ *
+ * (a)-(b)---(e)-(f)
+ *  | X |     | X |   (z)
+ * (c)-(d)   (g)-(h)
+ */
+public class LeidenProcTest {
+
+    @ClassRule
+    public static ImpermanentDatabaseRule DB = new ImpermanentDatabaseRule();
+
+    @BeforeClass
+    public static void setupGraph() throws KernelException {
+        final String cypher =
+                "CREATE (a:Node {name:'a'})\n" +
+                        "CREATE (b:Node {name:'b'})\n" +
+                        "CREATE (c:Node {name:'c'})\n" +
+                        "CREATE (d:Node {name:'d'})\n" +
+                        "CREATE (e:Node {name:'e'})\n" +
+                        "CREATE (f:Node {name:'f'})\n" +
+                        "CREATE (g:Node {name:'g'})\n" +
+                        "CREATE (h:Node {name:'h'})\n" +
+                        "CREATE (z:Node {name:'z'})\n" +
+                        "CREATE" +
+                        " (a)-[:TYPE]->(b),\n" +
+                        " (a)-[:TYPE]->(c),\n" +
+                        " (a)-[:TYPE]->(d),\n" +
+                        " (c)-[:TYPE]->(d),\n" +
+                        " (b)-[:TYPE]->(c),\n" +
+                        " (b)-[:TYPE]->(d),\n" +
+                        " (f)-[:TYPE]->(e),\n" +
+                        " (e)-[:TYPE]->(g),\n" +
+                        " (e)-[:TYPE]->(h),\n" +
+                        " (f)-[:TYPE]->(h),\n" +
+                        " (f)-[:TYPE]->(g),\n" +
+                        " (g)-[:TYPE]->(h),\n" +
+                        " (b)-[:TYPE]->(e)";
+
+        DB.resolveDependency(Procedures.class).registerProcedure(LeidenProc.class);
+        DB.execute(cypher);
+    }
+
+    @Test
+    public void testWrite() {
+        final String cypher = "CALL algo.leiden('Node', 'TYPE', {concurrency:1, seed:42, writeProperty:'leiden'}) " +
+                "YIELD nodes, communityCount, levels, iterations, modularity, modularities, write, writeProperty, loadMillis, computeMillis, writeMillis";
+
+        DB.execute(cypher).accept(row -> {
+            assertEquals(9L, row.getNumber("nodes").longValue());
+            assertEquals(3L, row.getNumber("communityCount").longValue());
+            assertTrue(row.getNumber("levels").longValue() >= 1L);
+            assertTrue(row.getNumber("iterations").longValue() >= 1L);
+            assertTrue((boolean) row.get("write"));
+            assertEquals("leiden", row.get("writeProperty"));
+            @SuppressWarnings("unchecked")
+            List<Double> modularities = (List<Double>) row.get("modularities");
+            assertEquals(row.getNumber("levels").longValue(), modularities.size());
+            assertEquals(modularities.get(modularities.size() - 1), row.getNumber("modularity").doubleValue(), 1e-9);
+            assertTrue(row.getNumber("modularity").doubleValue() > 0.3);
+            assertTrue(row.getNumber("computeMillis").longValue() >= 0L);
+            return false;
+        });
+
+        assertCommunities(communities("MATCH (n:Node) RETURN n.name AS name, n.leiden AS community"));
+    }
+
+    @Test
+    public void testStream() {
+        assertCommunities(communities("CALL algo.leiden.stream('Node', 'TYPE', {concurrency:4, seed:42}) " +
+                "YIELD nodeId, community " +
+                "MATCH (n) WHERE id(n) = nodeId " +
+                "RETURN n.name AS name, community"));
+    }
+
+    @Test
+    public void testWeighted() {
+        final String cypher = "CALL algo.leiden('Node', 'TYPE', {weightProperty:'weight', defaultValue:1.0, write:false}) " +
+                "YIELD communityCount, write";
+
+        DB.execute(cypher).accept(row -> {
+            assertEquals(3L, row.getNumber("communityCount").longValue());
+            assertEquals(false, row.get("write"));
+            return false;
+        });
+    }
+
+    private static Map<String, Long> communities(String cypher) {
+        final Map<String, Long> communities = new HashMap<>();
+        DB.execute(cypher).accept(row -> {
+            communities.put(row.getString("name"), row.getNumber("community").longValue());
+            return true;
+        });
+        return communities;
+    }
+
+    private static void assertCommunities(Map<String, Long> communities) {
+        assertEquals(9, communities.size());
+        for (String node : new String[]{"b", "c", "d"}) {
+            assertEquals(communities.get("a"), communities.get(node));
+        }
+        for (String node : new String[]{"f", "g", "h"}) {
+            assertEquals(communities.get("e"), communities.get(node));
+        }
+        assertNotEquals(communities.get("a"), communities.get("e"));
+        assertNotEquals(communities.get("a"), communities.get("z"));
+        assertNotEquals(communities.get("e"), communities.get("z"));
+    }
+}
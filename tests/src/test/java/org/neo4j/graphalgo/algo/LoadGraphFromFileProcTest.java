@@ -0,0 +1,115 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.algo;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.neo4j.graphalgo.LoadGraphProc;
+import org.neo4j.graphalgo.PageRankProc;
+import org.neo4j.graphalgo.core.loading.LoadGraphFactory;
+import org.neo4j.graphdb.QueryExecutionException;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.util.Map;
+
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public final class LoadGraphFromFileProcTest {
+
+    @ClassRule
+    public static TemporaryFolder folder = new TemporaryFolder();
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setup() throws Exception {
+        File importDir = folder.newFolder("import");
+        // a ring of 10 nodes with the ids 100, 110, ..., 190
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                new FileOutputStream(new File(importDir, "ring.bin"))))) {
+            for (int i = 0; i < 10; i++) {
+                out.writeLong(100L + 10L * i);
+                out.writeLong(100L + 10L * ((i + 1) % 10));
+                out.writeDouble(i + 1.0);
+            }
+        }
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .setConfig(GraphDatabaseSettings.load_csv_file_url_root, importDir.getAbsolutePath())
+                .newGraphDatabase();
+        Procedures procedures = db.getDependencyResolver().resolveDependency(Procedures.class);
+        procedures.registerProcedure(LoadGraphProc.class);
+        procedures.registerProcedure(PageRankProc.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @After
+    public void removeGraph() {
+        LoadGraphFactory.remove("ring");
+    }
+
+    @Test
+    public void shouldLoadGraphFromFile() {
+        Map<String, Object> row = db.execute(
+                "CALL algo.graph.load('ring', null, null, {file: 'ring.bin', weighted: true}) " +
+                        "YIELD nodes, graph, relationshipWeight RETURN *").next();
+        assertEquals(10L, row.get("nodes"));
+        assertEquals("huge", row.get("graph"));
+        assertEquals("weight", row.get("relationshipWeight"));
+
+        long[] count = {0L};
+        db.execute("CALL algo.pageRank.stream(null, null, {graph: 'ring'}) YIELD nodeId, score RETURN *")
+                .accept(result -> {
+                    assertEquals(0.0, result.getNumber("nodeId").longValue() % 10L, 0.0);
+                    count[0]++;
+                    return true;
+                });
+        assertEquals(10L, count[0]);
+    }
+
+    @Test
+    public void shouldNotLoadFilesOutsideOfTheImportDirectory() {
+        try {
+            db.execute("CALL algo.graph.load('ring', null, null, {file: $file})",
+                    singletonMap("file", "../ring.bin")).close();
+            fail("expected the file to be rejected");
+        } catch (QueryExecutionException e) {
+            assertThat(e.getMessage(), containsString("is not within"));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.algo;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.MemRecProc;
+import org.neo4j.graphdb.QueryExecutionException;
+import org.neo4j.graphdb.Result;
+import org.neo4j.graphdb.factory.GraphDatabaseSettings;
+import org.neo4j.helpers.collection.MapUtil;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class MemRecProcTest {
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setup() throws Exception {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory()
+                .newImpermanentDatabaseBuilder()
+                .setConfig(GraphDatabaseSettings.procedure_unrestricted, "algo.*")
+                .newGraphDatabase();
+        db.getDependencyResolver()
+                .resolveDependency(Procedures.class)
+                .registerProcedure(MemRecProc.class);
+        db.execute("UNWIND range(0, 99) AS id CREATE (:Node {id: id})").close();
+        db.execute("MATCH (a:Node), (b:Node) WHERE b.id = (a.id + 1) % 100 OR b.id = (a.id + 7) % 100 " +
+                "CREATE (a)-[:TYPE {weight: 1.0}]->(b)").close();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void shouldEstimateGraphLoading() {
+        Map<String, Object> row = memrec("graph.load", Collections.emptyMap());
+
+        assertEquals(100L, row.get("nodeCount"));
+        assertEquals(200L, row.get("relationshipCount"));
+        long min = (long) row.get("bytesMin");
+        long max = (long) row.get("bytesMax");
+        assertTrue(min > 0L);
+        assertTrue(min <= max);
+        assertThat((String) row.get("treeView"), containsString("|-- nodeIdMap"));
+        assertThat((String) row.get("treeView"), containsString("|-- outgoing"));
+    }
+
+    @Test
+    public void shouldAddAlgorithmToLoading() {
+        long load = (long) memrec("graph.load", Collections.emptyMap()).get("bytesMin");
+        Map<String, Object> pageRank = memrec("pageRank", Collections.emptyMap());
+
+        assertTrue((long) pageRank.get("bytesMin") > load);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> components = (List<Map<String, Object>>) ((Map<String, Object>) pageRank.get("mapView")).get("components");
+        assertEquals(2, components.size());
+        assertEquals("HugeGraphImpl", components.get(0).get("name"));
+        assertEquals("HugePageRank", components.get(1).get("name"));
+    }
+
+    @Test
+    public void shouldEstimateMoreForMoreLoadedData() {
+        long outgoing = (long) memrec("graph.load", Collections.emptyMap()).get("bytesMin");
+        long both = (long) memrec("graph.load", Collections.singletonMap("direction", "BOTH")).get("bytesMin");
+        long weighted = (long) memrec("graph.load", Collections.singletonMap("weightProperty", "weight")).get("bytesMin");
+
+        assertTrue(both > outgoing);
+        assertTrue(weighted > outgoing);
+    }
+
+    @Test
+    public void shouldEstimateEveryAlgorithm() {
+        for (String algo : new String[]{"unionFind", "degreeCentrality", "deltaStepping"}) {
+            Map<String, Object> row = memrec(algo, Collections.emptyMap());
+            assertTrue((long) row.get("bytesMin") <= (long) row.get("bytesMax"));
+        }
+    }
+
+    @Test
+    public void shouldFailForUnknownAlgorithm() {
+        try {
+            memrec("foo", Collections.emptyMap());
+            fail("expected an unknown algorithm to fail");
+        } catch (QueryExecutionException e) {
+            assertThat(e.getMessage(), containsString("No memory estimation for 'foo'"));
+        }
+    }
+
+    @Test
+    public void shouldOnlyEstimateAlgorithmsOnHugeGraphs() {
+        assertTrue((long) memrec("graph.load", Collections.singletonMap("graph", "heavy")).get("bytesMin") > 0L);
+        try {
+            memrec("pageRank", Collections.singletonMap("graph", "heavy"));
+            fail("expected an algorithm on a heavy graph to fail");
+        } catch (QueryExecutionException e) {
+            assertThat(e.getMessage(), containsString("No memory estimation for 'pageRank' on graph 'heavy'"));
+        }
+    }
+
+    @Test
+    public void shouldFailForCypherGraphs() {
+        try (Result result = db.execute(
+                "CALL algo.memrec($nodes, $relationships, 'graph.load', {graph: 'cypher'})",
+                MapUtil.map(
+                        "nodes", "MATCH (n:Node) RETURN id(n) AS id",
+                        "relationships", "MATCH (a:Node)-[:TYPE]->(b:Node) RETURN id(a) AS source, id(b) AS target"))) {
+            result.next();
+            fail("expected a cypher graph to fail");
+        } catch (QueryExecutionException e) {
+            assertThat(e.getMessage(), containsString("No memory estimation for graph 'cypher'"));
+        }
+    }
+
+    private Map<String, Object> memrec(String algo, Map<String, Object> config) {
+        try (Result result = db.execute(
+                "CALL algo.memrec('Node', 'TYPE', $algo, $config)",
+                MapUtil.map("algo", algo, "config", config))) {
+            return result.next();
+        }
+    }
+}
@@ -111,7 +111,8 @@ public final class ShortestPathDeltaSteppingProcTest {
         return Arrays.asList(
                 new Object[]{"Heavy"},
                 new Object[]{"Light"},
-                new Object[]{"Kernel"}
+                new Object[]{"Kernel"},
+                new Object[]{"Huge"}
         );
     }
 
@@ -107,7 +107,8 @@ public final class ShortestPathDeltaSteppingProcUndirectedTest {
         return Arrays.asList(
                 new Object[]{"Heavy"},
                 new Object[]{"Light"},
-                new Object[]{"Kernel"}
+                new Object[]{"Kernel"},
+                new Object[]{"Huge"}
         );
     }
 
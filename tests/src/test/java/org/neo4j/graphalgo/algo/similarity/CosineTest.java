@@ -29,6 +29,7 @@ import org.neo4j.kernel.impl.proc.Procedures;
 import org.neo4j.kernel.internal.GraphDatabaseAPI;
 
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import static java.util.Collections.singletonMap;
@@ -385,6 +386,24 @@ public class CosineTest {
         assertEquals(6L, (long) writeRow.get("computations"));
     }
 
+    @Test
+    public void reportsTaskTimings() {
+        String query = "MATCH (i:Item) WITH i ORDER BY id(i) MATCH (p:Person) OPTIONAL MATCH (p)-[r:LIKES]->(i)\n" +
+                "WITH {item:id(p), weights: collect(coalesce(r.stars,0))} as userData\n" +
+                "WITH collect(userData) as data\n" +
+                "CALL algo.similarity.cosine(data, $config) " +
+                "YIELD taskMillis " +
+                "RETURN taskMillis";
+        Map<String, Object> params = map("config", map("concurrency", 2, "topK", 1));
+
+        Map<String, Object> row = db.execute(query, params).next();
+        List<Long> taskMillis = (List<Long>) row.get("taskMillis");
+        assertFalse(taskMillis.isEmpty());
+        for (Long millis : taskMillis) {
+            assertTrue(millis >= 0);
+        }
+    }
+
     @Test
     public void simpleCosineWriteTest() {
         Map<String, Object> params = map("config", map( "write",true, "similarityCutoff", 0.1));
@@ -0,0 +1,188 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.algo.similarity;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.similarity.JaccardProc;
+import org.neo4j.graphalgo.similarity.NodeSimilarityProc;
+import org.neo4j.graphdb.Result;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.Map;
+
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.neo4j.helpers.collection.MapUtil.map;
+
+public class NodeSimilarityTest {
+
+    private static final String STATEMENT_STREAM = "CALL algo.nodeSimilarity.stream('', 'LIKES', $config) " +
+            "YIELD item1, item2, count1, count2, intersection, similarity " +
+            "MATCH (a), (b) WHERE id(a) = item1 AND id(b) = item2 " +
+            "RETURN a.name AS name1, b.name AS name2, count1, count2, intersection, similarity " +
+            "ORDER BY name1, name2";
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void beforeClass() throws KernelException {
+        db = TestDatabaseCreator.createTestDatabase();
+        Procedures procedures = db.getDependencyResolver().resolveDependency(Procedures.class);
+        procedures.registerProcedure(NodeSimilarityProc.class);
+        procedures.registerProcedure(JaccardProc.class);
+        db.execute(buildDatabaseQuery()).close();
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        db.shutdown();
+    }
+
+    private static String buildDatabaseQuery() {
+        return "CREATE (a:Person {name:'Alice'})\n" +
+                "CREATE (b:Person {name:'Bob'})\n" +
+                "CREATE (c:Person {name:'Charlie'})\n" +
+                "CREATE (d:Person {name:'Dana'})\n" +
+                "CREATE (i1:Item {name:'p1'})\n" +
+                "CREATE (i2:Item {name:'p2'})\n" +
+                "CREATE (i3:Item {name:'p3'})\n" +
+                "CREATE" +
+                " (a)-[:LIKES {stars:1}]->(i1),\n" +
+                " (a)-[:LIKES {stars:2}]->(i2),\n" +
+                " (a)-[:LIKES {stars:3}]->(i3),\n" +
+                " (b)-[:LIKES {stars:2}]->(i1),\n" +
+                " (b)-[:LIKES {stars:1}]->(i2),\n" +
+                " (c)-[:LIKES {stars:1}]->(i3)\n";
+        // a / b = 2 : 2/3
+        // a / c = 1 : 1/3
+        // b / c = 0 : 0/3 = 0
+    }
+
+    @Test
+    public void jaccardStream() {
+        Result result = db.execute(STATEMENT_STREAM, map("config", map("similarityCutoff", 0.1)));
+
+        assertRow(result.next(), "Alice", "Bob", 3, 2, 2, 2.0 / 3);
+        assertRow(result.next(), "Alice", "Charlie", 3, 1, 1, 1.0 / 3);
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    public void overlapStream() {
+        Result result = db.execute(STATEMENT_STREAM, map("config", map("similarity", "overlap", "similarityCutoff", 0.1)));
+
+        assertRow(result.next(), "Bob", "Alice", 2, 3, 2, 1.0);
+        assertRow(result.next(), "Charlie", "Alice", 1, 3, 1, 1.0);
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    public void weightedCosineStream() {
+        Result result = db.execute(STATEMENT_STREAM, map("config", map("similarity", "cosine", "weightProperty", "stars", "similarityCutoff", 0.1)));
+
+        assertRow(result.next(), "Alice", "Bob", 3, 2, 2, 4 / Math.sqrt(14 * 5));
+        assertRow(result.next(), "Alice", "Charlie", 3, 1, 1, 3 / Math.sqrt(14));
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    public void unweightedCosineStream() {
+        Result result = db.execute(STATEMENT_STREAM, map("config", map("similarity", "cosine", "similarityCutoff", 0.1)));
+
+        assertRow(result.next(), "Alice", "Bob", 3, 2, 2, 2 / Math.sqrt(3 * 2));
+        assertRow(result.next(), "Alice", "Charlie", 3, 1, 1, 1 / Math.sqrt(3));
+    }
+
+    @Test
+    public void topKStream() {
+        Result result = db.execute(STATEMENT_STREAM, map("config", map("similarityCutoff", 0.1, "topK", 1)));
+
+        assertRow(result.next(), "Alice", "Bob", 3, 2, 2, 2.0 / 3);
+        assertRow(result.next(), "Bob", "Alice", 2, 3, 2, 2.0 / 3);
+        assertRow(result.next(), "Charlie", "Alice", 1, 3, 1, 1.0 / 3);
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    public void sameAsJaccardOnCypherInput() {
+        String create = "UNWIND range(1, 30) AS i CREATE (:Person:Random) CREATE (:Item:Random)";
+        db.execute(create).close();
+        String connect = "MATCH (p:Person:Random) WITH collect(p) AS people " +
+                "MATCH (i:Item:Random) WITH people, collect(i) AS items " +
+                "UNWIND range(1, $size) AS _ " +
+                "WITH people[toInteger(rand() * size(people))] AS p, items[toInteger(rand() * size(items))] AS i " +
+                "MERGE (p)-[:RANDOM_LIKES]->(i)";
+        db.execute(connect, singletonMap("size", 300)).close();
+
+        String cypher = "MATCH (p:Person:Random)-[:RANDOM_LIKES]->(i) " +
+                "WITH {item:id(p), categories: collect(id(i))} AS userData " +
+                "WITH collect(userData) AS data " +
+                "CALL algo.similarity.jaccard.stream(data, {similarityCutoff: 0.0}) " +
+                "YIELD item1, item2, similarity RETURN item1, item2, similarity ORDER BY item1, item2";
+        String graph = "CALL algo.nodeSimilarity.stream('', 'RANDOM_LIKES', {similarityCutoff: 0.0, concurrency: 4}) " +
+                "YIELD item1, item2, similarity RETURN item1, item2, similarity ORDER BY item1, item2";
+
+        Result expected = db.execute(cypher);
+        Result actual = db.execute(graph);
+        int count = 0;
+        while (expected.hasNext()) {
+            assertTrue(actual.hasNext());
+            Map<String, Object> row = expected.next();
+            assertEquals(row, actual.next());
+            count++;
+        }
+        assertFalse(actual.hasNext());
+        assertTrue(count > 0);
+
+        db.execute("MATCH (n:Random) DETACH DELETE n").close();
+    }
+
+    @Test
+    public void writeSimilarities() {
+        Map<String, Object> row = db.execute("CALL algo.nodeSimilarity('', 'LIKES', {similarityCutoff: 0.5, write: true, writeRelationshipType: 'SIMILAR_ITEMS'}) " +
+                "YIELD nodes, similarityPairs, write RETURN *").next();
+
+        assertEquals(3L, row.get("nodes"));
+        assertEquals(1L, row.get("similarityPairs"));
+        assertEquals(true, row.get("write"));
+
+        Map<String, Object> written = db.execute("MATCH (a)-[s:SIMILAR_ITEMS]->(b) RETURN a.name AS a, b.name AS b, s.score AS score ORDER BY a").next();
+        assertEquals("Alice", written.get("a"));
+        assertEquals("Bob", written.get("b"));
+        assertEquals(2.0 / 3, (double) written.get("score"), 1e-9);
+
+        db.execute("MATCH ()-[s:SIMILAR_ITEMS]->() DELETE s").close();
+    }
+
+    private static void assertRow(Map<String, Object> row, String name1, String name2, long count1, long count2, long intersection, double similarity) {
+        assertEquals(row.toString(), name1, row.get("name1"));
+        assertEquals(row.toString(), name2, row.get("name2"));
+        assertEquals(row.toString(), count1, row.get("count1"));
+        assertEquals(row.toString(), count2, row.get("count2"));
+        assertEquals(row.toString(), intersection, row.get("intersection"));
+        assertEquals(row.toString(), similarity, (double) row.get("similarity"), 1e-9);
+    }
+}
@@ -364,6 +364,20 @@ public class OverlapTest {
                 "showComputations", true,
                 "similarityCutoff", 0.1));
 
+        // only pairs that share a category are compared
+        Result writeResult = db.execute(STATEMENT, params);
+        Map<String, Object> writeRow = writeResult.next();
+        assertEquals(2L, (long) writeRow.get("computations"));
+    }
+
+    @Test
+    public void numberOfComputationsWithoutSparseIndex() {
+        Map<String, Object> params = map("config", map(
+                "write", true,
+                "showComputations", true,
+                "sparse", false,
+                "similarityCutoff", 0.1));
+
         Result writeResult = db.execute(STATEMENT, params);
         Map<String, Object> writeRow = writeResult.next();
         assertEquals(3L, (long) writeRow.get("computations"));
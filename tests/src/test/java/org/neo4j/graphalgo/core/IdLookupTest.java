@@ -0,0 +1,118 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core;
+
+import org.junit.Test;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class IdLookupTest {
+
+    @Test
+    public void shouldUseDirectArrayForDenseIds() {
+        long[] ids = LongStream.range(0L, 10_000L).filter(id -> id % 3L != 0L).toArray();
+        IdLookup lookup = IdLookup.of(ids, ids.length);
+
+        assertTrue(lookup instanceof IdLookup.Direct);
+        assertLookup(ids, lookup);
+    }
+
+    @Test
+    public void shouldUsePagesForClusteredIds() {
+        long[] ids = LongStream.range(0L, 100L)
+                .flatMap(cluster -> LongStream.range(0L, 3_000L).map(id -> (cluster << 20) + id))
+                .toArray();
+        IdLookup lookup = IdLookup.of(ids, ids.length);
+
+        assertTrue(lookup instanceof IdLookup.Paged);
+        assertLookup(ids, lookup);
+    }
+
+    @Test
+    public void shouldSearchSpreadOutIds() {
+        Random random = new Random(42L);
+        long[] ids = LongStream.generate(() -> Math.abs(random.nextLong() >>> 8))
+                .limit(10_000L)
+                .sorted()
+                .distinct()
+                .toArray();
+        IdLookup lookup = IdLookup.of(ids, ids.length);
+
+        assertTrue(lookup instanceof IdLookup.Sorted);
+        assertEquals(0L, lookup.memoryUsage());
+        assertLookup(ids, lookup);
+    }
+
+    @Test
+    public void shouldSearchSkewedIds() {
+        long[] ids = LongStream.concat(
+                LongStream.range(0L, 1_000L),
+                LongStream.of(1L << 40, 1L << 50, 1L << 60)).toArray();
+        IdLookup lookup = IdLookup.of(ids, ids.length);
+
+        assertLookup(ids, lookup);
+    }
+
+    @Test
+    public void shouldMapEmptyIds() {
+        IdLookup lookup = IdLookup.of(new long[0], 0);
+
+        assertEquals(-1, lookup.get(0L));
+        assertEquals(-1, lookup.get(42L));
+    }
+
+    @Test
+    public void shouldBuildIdMapsFromAscendingAndUnsortedIds() {
+        IdMapBuilder ascending = new IdMapBuilder(2);
+        IdMapBuilder unsorted = new IdMapBuilder(2);
+        for (long id : new long[]{3L, 7L, 11L}) {
+            ascending.add(id);
+        }
+        for (long id : new long[]{11L, 3L, 7L}) {
+            unsorted.add(id);
+        }
+        IdMap ascendingMap = ascending.build(AllocationTracker.EMPTY);
+        IdMap unsortedMap = unsorted.build(AllocationTracker.EMPTY);
+
+        assertEquals(3L, ascendingMap.nodeCount());
+        assertEquals(1, ascendingMap.get(7L));
+        assertEquals(11L, ascendingMap.toOriginalNodeId(2));
+        assertEquals(-1, ascendingMap.toMappedNodeId(5L));
+        assertEquals(3L, unsortedMap.nodeCount());
+        assertEquals(0, unsortedMap.get(11L));
+        assertEquals(3L, unsortedMap.toOriginalNodeId(1));
+        assertEquals(2, ascendingMap.nodeToGraphIds().get(11L));
+    }
+
+    private static void assertLookup(long[] ids, IdLookup lookup) {
+        for (int i = 0; i < ids.length; i++) {
+            assertEquals(i, lookup.get(ids[i]));
+            if (i > 0 && ids[i] - ids[i - 1] > 1L) {
+                assertEquals(-1, lookup.get(ids[i] - 1L));
+            }
+        }
+        assertEquals(-1, lookup.get(-1L));
+        assertEquals(-1, lookup.get(ids[ids.length - 1] + 1L));
+    }
+}
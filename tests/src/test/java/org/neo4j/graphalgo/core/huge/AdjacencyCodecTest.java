@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class AdjacencyCodecTest {
+
+    private static final int[] LENGTHS = {1, 2, 15, 16, 17, 63, 64, 65, 128, 200, 1000};
+
+    @Test
+    public void shouldRoundTripSmallDeltas() {
+        SplittableRandom random = new SplittableRandom(42L);
+        for (AdjacencyCodecs codecs : AdjacencyCodecs.values()) {
+            for (int length : LENGTHS) {
+                assertRoundTrip(codecs, deltas(random, length, 1L << 10));
+            }
+        }
+    }
+
+    @Test
+    public void shouldRoundTripLargeDeltas() {
+        SplittableRandom random = new SplittableRandom(42L);
+        for (AdjacencyCodecs codecs : AdjacencyCodecs.values()) {
+            for (int length : LENGTHS) {
+                assertRoundTrip(codecs, deltas(random, length, 1L << 40));
+            }
+        }
+    }
+
+    @Test
+    public void shouldRoundTripOutliers() {
+        SplittableRandom random = new SplittableRandom(42L);
+        for (AdjacencyCodecs codecs : AdjacencyCodecs.values()) {
+            for (int length : LENGTHS) {
+                long[] deltas = deltas(random, length, 16L);
+                // a large first id followed by small deltas, a few large jumps and one that needs more than 56 bits
+                deltas[0] = 1L << 33;
+                for (int i = 7; i < length; i += 31) {
+                    deltas[i] = random.nextLong(1L << 40, 1L << 41);
+                }
+                deltas[length / 2] = (1L << 57) + 1L;
+                assertRoundTrip(codecs, deltas);
+            }
+        }
+    }
+
+    @Test
+    public void shouldRoundTripZeroAsFirstId() {
+        for (AdjacencyCodecs codecs : AdjacencyCodecs.values()) {
+            long[] deltas = new long[100];
+            Arrays.fill(deltas, 1L);
+            deltas[0] = 0L;
+            assertRoundTrip(codecs, deltas);
+        }
+    }
+
+    @Test
+    public void shouldUseVLongsForSmallDegrees() {
+        for (AdjacencyCodecs codecs : AdjacencyCodecs.values()) {
+            assertTrue(codecs.forDegree(AdjacencyCodecs.MIN_BLOCK_DEGREE - 1) instanceof VarLongCodec);
+        }
+        assertTrue(AdjacencyCodecs.AUTO.forDegree(AdjacencyCodecs.MIN_BLOCK_DEGREE) instanceof GroupVarIntCodec);
+        assertTrue(AdjacencyCodecs.AUTO.forDegree(AdjacencyCodecs.MIN_PFOR_DEGREE) instanceof PForCodec);
+    }
+
+    @Test
+    public void shouldPackSmallDeltasTighterThanVLongs() {
+        long[] deltas = deltas(new SplittableRandom(42L), 1000, 3L);
+        int vlong = AdjacencyCodecs.VLONG.forDegree(deltas.length).encodedSize(deltas, deltas.length);
+        int pfor = AdjacencyCodecs.PFOR.forDegree(deltas.length).encodedSize(deltas, deltas.length);
+        assertTrue("pfor used " + pfor + " bytes", pfor < vlong / 2);
+    }
+
+    @Test
+    public void shouldParseCompressionNames() {
+        assertEquals(AdjacencyCodecs.GROUP_VARINT, AdjacencyCodecs.parse("group-varint"));
+        assertEquals(AdjacencyCodecs.PFOR, AdjacencyCodecs.parse("pfor"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnUnknownCompression() {
+        AdjacencyCodecs.parse("gzip");
+    }
+
+    private static void assertRoundTrip(AdjacencyCodecs codecs, long[] deltas) {
+        int length = deltas.length;
+        AdjacencyCodec codec = codecs.forDegree(length);
+        int size = codec.encodedSize(deltas, length);
+        // leave garbage around the encoded bytes to catch reads outside of them
+        byte[] data = new byte[size + 20];
+        Arrays.fill(data, (byte) 0xAA);
+        assertEquals(codecs + " " + length, 10 + size, codec.encode(deltas, length, data, 10));
+
+        long[] expected = new long[length];
+        long value = 0L;
+        for (int i = 0; i < length; i++) {
+            expected[i] = value += deltas[i];
+        }
+
+        long[] actual = new long[length];
+        long[] block = new long[AdjacencyCodec.BLOCK_SIZE];
+        int offset = 10;
+        long last = 0L;
+        for (int from = 0; from < length; from += AdjacencyCodec.BLOCK_SIZE) {
+            int limit = Math.min(length - from, AdjacencyCodec.BLOCK_SIZE);
+            offset = codec.decode(last, data, offset, limit, block);
+            System.arraycopy(block, 0, actual, from, limit);
+            last = block[limit - 1];
+        }
+        assertEquals(codecs + " " + length, 10 + size, offset);
+        assertArrayEquals(codecs + " " + length, expected, actual);
+    }
+
+    private static long[] deltas(SplittableRandom random, int length, long maxDelta) {
+        long[] deltas = new long[length];
+        deltas[0] = random.nextLong(1L << 20);
+        for (int i = 1; i < length; i++) {
+            deltas[i] = 1L + random.nextLong(maxDelta);
+        }
+        return deltas;
+    }
+}
@@ -0,0 +1,196 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge.loader;
+
+import com.carrotsearch.hppc.LongArrayList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.helper.generator.BarabasiAlbertGenerator;
+import org.neo4j.graphalgo.helper.generator.GraphGenerator;
+import org.neo4j.graphdb.Direction;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public final class BinaryEdgeListLoaderTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void shouldLoadSparseNodeIds() throws IOException {
+        Path file = write(false, 1000L, 5L, 5L, 1L << 40, 1000L, 7L);
+
+        HugeGraph graph = new BinaryEdgeListLoader(file).withDirection(Direction.BOTH).load();
+
+        assertEquals(4L, graph.nodeCount());
+        assertArrayEquals(new long[]{5L, 7L, 1000L, 1L << 40}, originalIds(graph));
+        long n5 = graph.toHugeMappedNodeId(5L);
+        long n7 = graph.toHugeMappedNodeId(7L);
+        long n1000 = graph.toHugeMappedNodeId(1000L);
+        long nBig = graph.toHugeMappedNodeId(1L << 40);
+        assertArrayEquals(new long[]{nBig}, targets(graph, n5, Direction.OUTGOING));
+        assertArrayEquals(sorted(n5, n7), targets(graph, n1000, Direction.OUTGOING));
+        assertArrayEquals(new long[]{n1000}, targets(graph, n5, Direction.INCOMING));
+        assertArrayEquals(new long[]{n5}, targets(graph, nBig, Direction.INCOMING));
+    }
+
+    @Test
+    public void shouldMapIdsThatAreTooSparseForPages() throws IOException {
+        Path file = write(false, 0L, 10_000_000L, 10_000_000L, 5_000_000L);
+
+        HugeGraph graph = new BinaryEdgeListLoader(file).load();
+
+        assertArrayEquals(new long[]{0L, 5_000_000L, 10_000_000L}, originalIds(graph));
+        assertEquals(2L, graph.toHugeMappedNodeId(10_000_000L));
+        assertEquals(-1L, graph.toHugeMappedNodeId(42L));
+        assertArrayEquals(new long[]{2L}, targets(graph, 0L, Direction.OUTGOING));
+        assertArrayEquals(new long[]{1L}, targets(graph, 2L, Direction.OUTGOING));
+    }
+
+    @Test
+    public void shouldLoadWeightsInLittleEndian() throws IOException {
+        Path file = folder.newFile("weighted.bin").toPath();
+        ByteBuffer buffer = ByteBuffer.allocate(3 * 24).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putLong(0L).putLong(1L).putDouble(4.2);
+        buffer.putLong(1L).putLong(2L).putDouble(1.0);
+        buffer.putLong(2L).putLong(0L).putDouble(-1.5);
+        Files.write(file, buffer.array());
+
+        HugeGraph graph = new BinaryEdgeListLoader(file)
+                .withByteOrder(ByteOrder.LITTLE_ENDIAN)
+                .withRelationshipWeights(1.0)
+                .load();
+
+        assertEquals(3L, graph.nodeCount());
+        assertEquals(4.2, graph.weightOf(0L, 1L), 0.0);
+        assertEquals(1.0, graph.weightOf(1L, 2L), 0.0);
+        assertEquals(-1.5, graph.weightOf(2L, 0L), 0.0);
+    }
+
+    @Test
+    public void shouldLoadTheSameGraphAsTheBuilderInParallel() throws IOException {
+        GraphGenerator generator = new BarabasiAlbertGenerator(100_000L, 4, 42L);
+        Path file = folder.newFile("generated.bin").toPath();
+        LongArrayList sources = new LongArrayList();
+        LongArrayList targets = new LongArrayList();
+        try (DataOutputStream out = open(file)) {
+            generator.generate((source, target) -> {
+                try {
+                    out.writeLong(source);
+                    out.writeLong(target);
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+                sources.add(source);
+                targets.add(target);
+                return true;
+            });
+        }
+
+        HugeGraph loaded = new BinaryEdgeListLoader(file)
+                .asUndirected(true)
+                .withConcurrency(4)
+                .withExecutorService(Pools.DEFAULT)
+                .load();
+
+        HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes(generator.nodeCount())
+                .asUndirected(true)
+                .importer();
+        importer.addAll(sources.toArray(), targets.toArray(), null, Pools.DEFAULT, 4);
+        HugeGraph built = importer.build();
+
+        assertEquals(built.nodeCount(), loaded.nodeCount());
+        for (long nodeId = 0L; nodeId < built.nodeCount(); nodeId++) {
+            assertArrayEquals(
+                    targets(built, nodeId, Direction.OUTGOING),
+                    targets(loaded, nodeId, Direction.OUTGOING));
+        }
+    }
+
+    @Test
+    public void shouldLoadEmptyFiles() throws IOException {
+        Path file = write(false);
+        assertEquals(0L, new BinaryEdgeListLoader(file).load().nodeCount());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnIncompleteRecords() throws IOException {
+        Path file = folder.newFile("broken.bin").toPath();
+        Files.write(file, new byte[20]);
+        new BinaryEdgeListLoader(file).load();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnNegativeIds() throws IOException {
+        new BinaryEdgeListLoader(write(false, 1L, -2L)).load();
+    }
+
+    private Path write(boolean weighted, long... ids) throws IOException {
+        Path file = folder.newFile().toPath();
+        try (DataOutputStream out = open(file)) {
+            for (int i = 0; i < ids.length; i += 2) {
+                out.writeLong(ids[i]);
+                out.writeLong(ids[i + 1]);
+                if (weighted) {
+                    out.writeDouble(1.0);
+                }
+            }
+        }
+        return file;
+    }
+
+    private static DataOutputStream open(Path file) throws IOException {
+        OutputStream out = Files.newOutputStream(file);
+        return new DataOutputStream(new BufferedOutputStream(out));
+    }
+
+    private static long[] originalIds(HugeGraph graph) {
+        long[] ids = new long[(int) graph.nodeCount()];
+        Arrays.setAll(ids, i -> graph.toOriginalNodeId((long) i));
+        return ids;
+    }
+
+    private static long[] targets(HugeGraph graph, long nodeId, Direction direction) {
+        LongArrayList targets = new LongArrayList();
+        graph.forEachRelationship(nodeId, direction, (source, target) -> {
+            targets.add(target);
+            return true;
+        });
+        return sorted(targets.toArray());
+    }
+
+    private static long[] sorted(long... values) {
+        Arrays.sort(values);
+        return values;
+    }
+}
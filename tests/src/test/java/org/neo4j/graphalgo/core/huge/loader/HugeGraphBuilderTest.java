@@ -0,0 +1,228 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge.loader;
+
+import com.carrotsearch.hppc.LongArrayList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.api.RelationshipIntersect;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.AdjacencyCodecs;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.helper.generator.BarabasiAlbertGenerator;
+import org.neo4j.graphalgo.helper.generator.ErdosRenyiGenerator;
+import org.neo4j.graphalgo.helper.generator.GeneratedGraphs;
+import org.neo4j.graphalgo.helper.generator.GraphGenerator;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class HugeGraphBuilderTest {
+
+    private static final RelationshipType TYPE = RelationshipType.withName("TYPE");
+
+    @Rule
+    public ImpermanentDatabaseRule db = new ImpermanentDatabaseRule();
+
+    @Test
+    public void shouldBuildTheSameGraphAsTheStoreLoader() {
+        GraphGenerator generator = new ErdosRenyiGenerator(5000L, 40_000L, 42L);
+        long[] nodeIds = new long[(int) generator.nodeCount()];
+        LongArrayList sources = new LongArrayList();
+        LongArrayList targets = new LongArrayList();
+        try (Transaction tx = db.beginTx()) {
+            Node[] nodes = new Node[nodeIds.length];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = db.createNode();
+                nodeIds[i] = nodes[i].getId();
+            }
+            generator.generate((source, target) -> {
+                nodes[(int) source].createRelationshipTo(nodes[(int) target], TYPE).setProperty("w", source + target);
+                sources.add(nodeIds[(int) source]);
+                targets.add(nodeIds[(int) target]);
+                return true;
+            });
+            tx.success();
+        }
+        double[] weights = new double[sources.size()];
+        for (int i = 0; i < weights.length; i++) {
+            weights[i] = sources.get(i) + targets.get(i);
+        }
+
+        for (Direction direction : Direction.values()) {
+            HugeGraph loaded = (HugeGraph) new GraphLoader(db, Pools.DEFAULT)
+                    .withRelationshipWeightsFromProperty("w", 0.0)
+                    .withDirection(direction)
+                    .load(HugeGraphFactory.class);
+
+            HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodeIds(nodeIds)
+                    .withDirection(direction)
+                    .withRelationshipWeights(0.0)
+                    .withBatchSize(1000)
+                    .importer();
+            importer.addAll(sources.toArray(), targets.toArray(), weights, Pools.DEFAULT, 4);
+            HugeGraph built = importer.build();
+
+            assertSameGraph(direction, loaded, built);
+        }
+    }
+
+    @Test
+    public void shouldBuildUndirectedGraphs() {
+        HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes(4L)
+                .asUndirected(true)
+                .importer();
+        HugeGraphBuilder.Batch batch = importer.newBatch();
+        batch.add(0L, 1L);
+        batch.add(1L, 2L);
+        batch.add(3L, 2L);
+        batch.flush();
+        HugeGraph graph = importer.build();
+
+        assertArrayEquals(new long[]{1L}, targets(graph, 0L, Direction.OUTGOING));
+        assertArrayEquals(new long[]{0L, 2L}, targets(graph, 1L, Direction.OUTGOING));
+        assertArrayEquals(new long[]{1L, 3L}, targets(graph, 2L, Direction.OUTGOING));
+        assertArrayEquals(new long[]{2L}, targets(graph, 3L, Direction.OUTGOING));
+    }
+
+    @Test
+    public void shouldIgnoreRelationshipsOfUnknownNodes() {
+        HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodeIds(10L, 20L, 30L).importer();
+        HugeGraphBuilder.Batch batch = importer.newBatch();
+        batch.add(10L, 20L);
+        batch.add(20L, 25L);
+        batch.add(30L, 40L);
+        batch.add(-1L, 10L);
+        batch.flush();
+        HugeGraph graph = importer.build();
+
+        assertEquals(3L, graph.nodeCount());
+        assertEquals(30L, graph.toOriginalNodeId(2L));
+        assertArrayEquals(new long[]{1L}, targets(graph, 0L, Direction.OUTGOING));
+        assertEquals(0, graph.degree(1L, Direction.OUTGOING));
+        assertEquals(0, graph.degree(2L, Direction.OUTGOING));
+    }
+
+    @Test
+    public void shouldBuildGeneratedGraphs() {
+        GraphGenerator generator = new ErdosRenyiGenerator(1000L, 8000L, 42L);
+        HugeGraph graph = GeneratedGraphs.hugeGraph(generator, Direction.BOTH);
+        long outgoing = 0L;
+        long incoming = 0L;
+        for (long nodeId = 0L; nodeId < graph.nodeCount(); nodeId++) {
+            outgoing += graph.degree(nodeId, Direction.OUTGOING);
+            incoming += graph.degree(nodeId, Direction.INCOMING);
+        }
+        assertEquals(outgoing, incoming);
+        assertTrue(outgoing > 7900L && outgoing <= 8000L);
+    }
+
+    @Test
+    public void shouldBuildTheSameGraphWithEveryCompression() {
+        // preferential attachment creates a few hubs whose lists span many blocks
+        GraphGenerator generator = new BarabasiAlbertGenerator(2000L, 12, 42L);
+        HugeGraph expected = compressedGraph(generator, AdjacencyCodecs.VLONG);
+        long expectedTriangles = triangles(expected);
+        assertTrue(expectedTriangles > 0L);
+        for (AdjacencyCodecs codecs : AdjacencyCodecs.values()) {
+            HugeGraph actual = compressedGraph(generator, codecs);
+            assertSameGraph(Direction.OUTGOING, expected, actual);
+            // intersections skip through the lists
+            assertEquals(codecs.name(), expectedTriangles, triangles(actual));
+            for (long nodeId = 0L; nodeId < actual.nodeCount(); nodeId += 7L) {
+                for (long target : targets(expected, nodeId, Direction.OUTGOING)) {
+                    assertTrue(actual.exists(nodeId, target, Direction.OUTGOING));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldNotAcceptRelationshipsAfterBuild() {
+        HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes(2L).importer();
+        HugeGraphBuilder.Batch batch = importer.newBatch();
+        importer.build();
+        batch.add(0L, 1L);
+        try {
+            batch.flush();
+            assertFalse("expected an exception", true);
+        } catch (IllegalStateException expected) {
+        }
+    }
+
+    private static void assertSameGraph(Direction direction, HugeGraph expected, HugeGraph actual) {
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        Direction[] directions = direction == Direction.BOTH
+                ? new Direction[]{Direction.OUTGOING, Direction.INCOMING}
+                : new Direction[]{direction};
+        for (long nodeId = 0L; nodeId < expected.nodeCount(); nodeId++) {
+            assertEquals(expected.toOriginalNodeId(nodeId), actual.toOriginalNodeId(nodeId));
+            for (Direction d : directions) {
+                long[] expectedTargets = targets(expected, nodeId, d);
+                assertArrayEquals(d + " of " + nodeId, expectedTargets, targets(actual, nodeId, d));
+                for (long target : expectedTargets) {
+                    long source = d == Direction.OUTGOING ? nodeId : target;
+                    long other = d == Direction.OUTGOING ? target : nodeId;
+                    assertEquals(expected.weightOf(source, other), actual.weightOf(source, other), 0.0);
+                }
+            }
+        }
+    }
+
+    private static HugeGraph compressedGraph(GraphGenerator generator, AdjacencyCodecs codecs) {
+        HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes(generator.nodeCount())
+                .asUndirected(true)
+                .withAdjacencyCompression(codecs)
+                .importer();
+        HugeGraphBuilder.Batch batch = importer.newBatch();
+        generator.generate(batch);
+        batch.flush();
+        return importer.build();
+    }
+
+    private static long triangles(HugeGraph graph) {
+        long[] triangles = {0L};
+        RelationshipIntersect intersect = graph.intersection();
+        for (long nodeId = 0L; nodeId < graph.nodeCount(); nodeId++) {
+            intersect.intersectAll(nodeId, (a, b, c) -> triangles[0]++);
+        }
+        return triangles[0];
+    }
+
+    private static long[] targets(HugeGraph graph, long nodeId, Direction direction) {
+        LongArrayList targets = new LongArrayList();
+        graph.forEachRelationship(nodeId, direction, (source, target) -> {
+            targets.add(target);
+            return true;
+        });
+        long[] result = targets.toArray();
+        Arrays.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,255 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.huge.loader;
+
+import com.carrotsearch.hppc.LongArrayList;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.GraphSetup;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphDimensions;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.mem.MemoryTree;
+import org.neo4j.graphalgo.helper.generator.ErdosRenyiGenerator;
+import org.neo4j.graphalgo.helper.generator.GraphGenerator;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Node;
+import org.neo4j.graphdb.RelationshipType;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class NodeOrderingTest {
+
+    private static final Label RANDOM = Label.label("Random");
+    private static final Label CLUSTERED = Label.label("Clustered");
+    private static final RelationshipType RANDOM_TYPE = RelationshipType.withName("RANDOM");
+    private static final RelationshipType CLUSTERED_TYPE = RelationshipType.withName("CLUSTERED");
+
+    private static final int CLUSTERS = 100;
+    private static final int CLUSTER_SIZE = 10;
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setup() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+        GraphGenerator generator = new ErdosRenyiGenerator(1000L, 5000L, 42L);
+        Random random = new Random(42L);
+        try (Transaction tx = db.beginTx()) {
+            Node[] nodes = new Node[(int) generator.nodeCount()];
+            for (int i = 0; i < nodes.length; i++) {
+                nodes[i] = db.createNode(RANDOM);
+            }
+            generator.generate((source, target) -> {
+                nodes[(int) source].createRelationshipTo(nodes[(int) target], RANDOM_TYPE)
+                        .setProperty("w", (double) (source * 7 + target));
+                return true;
+            });
+
+            // dense clusters whose nodes are scattered over the store
+            Node[] clustered = new Node[CLUSTERS * CLUSTER_SIZE];
+            for (int i = 0; i < clustered.length; i++) {
+                clustered[i] = db.createNode(CLUSTERED);
+            }
+            Node[] shuffled = clustered.clone();
+            for (int i = shuffled.length - 1; i > 0; i--) {
+                int j = random.nextInt(i + 1);
+                Node node = shuffled[i];
+                shuffled[i] = shuffled[j];
+                shuffled[j] = node;
+            }
+            for (int cluster = 0; cluster < CLUSTERS; cluster++) {
+                int base = cluster * CLUSTER_SIZE;
+                for (int i = 0; i < CLUSTER_SIZE; i++) {
+                    for (int j = i + 1; j < CLUSTER_SIZE; j++) {
+                        shuffled[base + i].createRelationshipTo(shuffled[base + j], CLUSTERED_TYPE);
+                    }
+                }
+                // connect the clusters to a ring
+                shuffled[base].createRelationshipTo(shuffled[(base + CLUSTER_SIZE) % shuffled.length], CLUSTERED_TYPE);
+            }
+            tx.success();
+        }
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void shouldKeepTheRelationshipsOfEveryNode() {
+        for (NodeOrdering ordering : NodeOrdering.values()) {
+            for (Direction direction : Direction.values()) {
+                HugeGraph expected = load(RANDOM, RANDOM_TYPE, direction, false, NodeOrdering.NONE);
+                HugeGraph actual = load(RANDOM, RANDOM_TYPE, direction, false, ordering);
+                assertSameRelationships(ordering + " " + direction, direction, expected, actual);
+            }
+            HugeGraph expected = load(RANDOM, RANDOM_TYPE, Direction.BOTH, true, NodeOrdering.NONE);
+            HugeGraph actual = load(RANDOM, RANDOM_TYPE, Direction.BOTH, true, ordering);
+            assertSameRelationships(ordering + " undirected", Direction.OUTGOING, expected, actual);
+        }
+    }
+
+    @Test
+    public void shouldOrderByDescendingDegree() {
+        HugeGraph graph = load(RANDOM, RANDOM_TYPE, Direction.OUTGOING, false, NodeOrdering.DEGREE);
+        for (long nodeId = 1L; nodeId < graph.nodeCount(); nodeId++) {
+            assertTrue(graph.degree(nodeId - 1L, Direction.OUTGOING) >= graph.degree(nodeId, Direction.OUTGOING));
+        }
+    }
+
+    @Test
+    public void shouldPlaceNeighboursCloser() {
+        long scanOrder = distances(load(CLUSTERED, CLUSTERED_TYPE, Direction.BOTH, true, NodeOrdering.NONE));
+        for (NodeOrdering ordering : new NodeOrdering[]{NodeOrdering.BFS, NodeOrdering.COMMUNITY}) {
+            long reordered = distances(load(CLUSTERED, CLUSTERED_TYPE, Direction.BOTH, true, ordering));
+            assertTrue(ordering + ": " + reordered + " vs " + scanOrder, reordered * 5L < scanOrder);
+        }
+    }
+
+    @Test
+    public void shouldFindCommunitiesOfDirectedRelationships() {
+        long scanOrder = distances(load(CLUSTERED, CLUSTERED_TYPE, Direction.OUTGOING, false, NodeOrdering.NONE));
+        long reordered = distances(load(CLUSTERED, CLUSTERED_TYPE, Direction.OUTGOING, false, NodeOrdering.COMMUNITY));
+        assertTrue(reordered + " vs " + scanOrder, reordered * 5L < scanOrder);
+    }
+
+    @Test
+    public void shouldKeepCommunitiesInConsecutiveIds() {
+        HugeGraph graph = load(CLUSTERED, CLUSTERED_TYPE, Direction.BOTH, true, NodeOrdering.COMMUNITY);
+        // only the ring relationships between clusters may span more than one cluster
+        long farRelationships = 0L;
+        for (long nodeId = 0L; nodeId < graph.nodeCount(); nodeId++) {
+            long[] far = {0L};
+            graph.forEachRelationship(nodeId, Direction.OUTGOING, (source, target) -> {
+                if (Math.abs(source - target) >= CLUSTER_SIZE) {
+                    far[0]++;
+                }
+                return true;
+            });
+            farRelationships += far[0];
+        }
+        assertTrue("far relationships: " + farRelationships, farRelationships <= 2L * CLUSTERS);
+    }
+
+    @Test
+    public void shouldEstimateBothGraphs() {
+        GraphDimensions dimensions = GraphDimensions.of(1000L, 5000L);
+        for (boolean undirected : new boolean[]{false, true}) {
+            MemoryTree scanOrder = HugeGraphFactory
+                    .memoryEstimation(setup(undirected, NodeOrdering.NONE))
+                    .estimate(dimensions, 4);
+            MemoryTree reordered = HugeGraphFactory
+                    .memoryEstimation(setup(undirected, NodeOrdering.COMMUNITY))
+                    .estimate(dimensions, 4);
+            assertEquals(scanOrder.memoryUsage().times(2L), reordered.memoryUsage());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailOnUnknownOrdering() {
+        NodeOrdering.parse("random");
+    }
+
+    private static HugeGraph load(
+            Label label,
+            RelationshipType type,
+            Direction direction,
+            boolean undirected,
+            NodeOrdering ordering) {
+        GraphLoader loader = new GraphLoader(db, Pools.DEFAULT)
+                .withLabel(label)
+                .withRelationshipType(type)
+                .withRelationshipWeightsFromProperty("w", 1.0)
+                .withNodeOrdering(ordering)
+                .withConcurrency(4);
+        loader = undirected ? loader.asUndirected(true).withDirection(Direction.BOTH) : loader.withDirection(direction);
+        return (HugeGraph) loader.load(HugeGraphFactory.class);
+    }
+
+    private static GraphSetup setup(boolean undirected, NodeOrdering ordering) {
+        return new GraphLoader(db)
+                .withDirection(Direction.BOTH)
+                .asUndirected(undirected)
+                .withNodeOrdering(ordering)
+                .toSetup();
+    }
+
+    private static void assertSameRelationships(String message, Direction direction, HugeGraph expected, HugeGraph actual) {
+        assertEquals(expected.nodeCount(), actual.nodeCount());
+        Direction[] directions = direction == Direction.BOTH
+                ? new Direction[]{Direction.OUTGOING, Direction.INCOMING}
+                : new Direction[]{direction};
+        for (long nodeId = 0L; nodeId < expected.nodeCount(); nodeId++) {
+            long originalId = expected.toOriginalNodeId(nodeId);
+            long actualId = actual.toHugeMappedNodeId(originalId);
+            assertEquals(originalId, actual.toOriginalNodeId(actualId));
+            for (Direction d : directions) {
+                assertArrayEquals(message, targets(expected, nodeId, d), targets(actual, actualId, d));
+                assertArrayEquals(message, weights(expected, nodeId, d), weights(actual, actualId, d), 0.0);
+            }
+        }
+    }
+
+    // original ids of the targets, in ascending order
+    private static long[] targets(HugeGraph graph, long nodeId, Direction direction) {
+        LongArrayList targets = new LongArrayList();
+        graph.forEachRelationship(nodeId, direction, (source, target) -> {
+            targets.add(graph.toOriginalNodeId(target));
+            return true;
+        });
+        long[] result = targets.toArray();
+        Arrays.sort(result);
+        return result;
+    }
+
+    private static double[] weights(HugeGraph graph, long nodeId, Direction direction) {
+        LongArrayList weights = new LongArrayList();
+        graph.forEachRelationship(nodeId, direction, (source, target, weight) -> {
+            weights.add((long) weight);
+            return true;
+        });
+        long[] sorted = weights.toArray();
+        Arrays.sort(sorted);
+        return Arrays.stream(sorted).asDoubleStream().toArray();
+    }
+
+    private static long distances(HugeGraph graph) {
+        long[] sum = {0L};
+        for (long nodeId = 0L; nodeId < graph.nodeCount(); nodeId++) {
+            graph.forEachRelationship(nodeId, Direction.OUTGOING, (source, target) -> {
+                sum[0] += Math.abs(source - target);
+                return true;
+            });
+        }
+        return sum[0];
+    }
+}
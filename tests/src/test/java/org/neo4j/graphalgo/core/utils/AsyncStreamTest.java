@@ -0,0 +1,239 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils;
+
+import org.junit.AfterClass;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class AsyncStreamTest {
+
+    private static final ExecutorService POOL = Executors.newFixedThreadPool(4);
+
+    @AfterClass
+    public static void shutdown() {
+        POOL.shutdownNow();
+    }
+
+    @Test
+    public void shouldStreamTheResultsOfAllProducers() {
+        List<Long> results;
+        try (Stream<Long> stream = builder().ordered(false).stream(ranges(8, 10_000))) {
+            results = stream.sorted().collect(Collectors.toList());
+        }
+        assertEquals(LongStream.range(0L, 80_000L).boxed().collect(Collectors.toList()), results);
+    }
+
+    @Test
+    public void shouldKeepThePartitionsInOrder() {
+        List<Long> results;
+        try (Stream<Long> stream = builder().ordered(true).stream(ranges(8, 10_000))) {
+            results = stream.collect(Collectors.toList());
+        }
+        assertEquals(LongStream.range(0L, 80_000L).boxed().collect(Collectors.toList()), results);
+    }
+
+    @Test
+    public void shouldStopTheProducersWhenTheStreamIsClosed() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicLong emitted = new AtomicLong();
+        List<AsyncStream.Producer<Long>> producers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            producers.add(sink -> {
+                running.incrementAndGet();
+                try {
+                    long value = 0L;
+                    while (sink.emit(value++)) {
+                        emitted.incrementAndGet();
+                    }
+                } finally {
+                    running.decrementAndGet();
+                }
+            });
+        }
+
+        try (Stream<Long> stream = builder().withBatchSize(10).withCapacity(2).stream(producers)) {
+            assertEquals(100L, stream.limit(100L).count());
+        }
+
+        // producers that had not started when the stream was closed are skipped, only the started ones have to stop
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+        while (running.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10L);
+        }
+        assertEquals("producers keep running", 0, running.get());
+        // the read results, the rest of the current batch, the queued batches
+        // and per producer a full batch waiting for the queue plus a partial batch
+        assertTrue(emitted.get() <= 100L + 10L + 2 * 10L + 4 * 2 * 10L);
+    }
+
+    @Test
+    public void shouldStopWhenTheTerminationFlagStops() throws InterruptedException {
+        CountDownLatch stopped = new CountDownLatch(1);
+        AtomicLong running = new AtomicLong(1L);
+        List<AsyncStream.Producer<Long>> producers = new ArrayList<>();
+        producers.add(sink -> {
+            long value = 0L;
+            while (sink.emit(value++)) {
+            }
+            stopped.countDown();
+        });
+
+        try (Stream<Long> stream = builder()
+                .withBatchSize(10)
+                .withTerminationFlag(() -> running.get() == 1L)
+                .stream(producers)) {
+            long count = stream.peek(value -> {
+                if (value == 50L) {
+                    running.set(0L);
+                }
+            }).count();
+            assertTrue(count >= 51L);
+        }
+        assertTrue("producer keeps running", stopped.await(10L, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void shouldRethrowFailuresOfProducers() {
+        List<AsyncStream.Producer<Long>> producers = ranges(4, 1_000);
+        producers.add(sink -> {
+            throw new IllegalStateException("broken producer");
+        });
+        try (Stream<Long> stream = builder().stream(producers)) {
+            stream.count();
+            fail("expected the failure of the producer");
+        } catch (IllegalStateException e) {
+            assertEquals("broken producer", e.getMessage());
+        }
+    }
+
+    @Test(timeout = 10_000L)
+    public void shouldStayAtTheEndOnceExhausted() {
+        try (Stream<Long> stream = builder().stream(ranges(2, 10))) {
+            Iterator<Long> results = stream.iterator();
+            long count = 0L;
+            while (results.hasNext()) {
+                results.next();
+                count++;
+            }
+            assertEquals(20L, count);
+            assertFalse(results.hasNext());
+        }
+    }
+
+    @Test
+    public void shouldStreamNothingWithoutProducers() {
+        assertEquals(0L, builder().stream(new ArrayList<>()).count());
+    }
+
+    @Test(timeout = 30_000L)
+    public void shouldNotNeedTheDefaultPool() throws InterruptedException {
+        ThreadPoolExecutor pool = (ThreadPoolExecutor) Pools.DEFAULT;
+        CountDownLatch release = new CountDownLatch(1);
+        int saturating = pool.getMaximumPoolSize() + pool.getQueue().remainingCapacity();
+        for (int i = 0; i < saturating; i++) {
+            pool.execute(() -> {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        try {
+            List<Long> results;
+            try (Stream<Long> stream = AsyncStream.<Long>builder()
+                    .withConcurrency(4)
+                    .withCapacity(1)
+                    .ordered(true)
+                    .stream(ranges(8, 10_000))) {
+                results = stream.collect(Collectors.toList());
+            }
+            assertEquals(LongStream.range(0L, 80_000L).boxed().collect(Collectors.toList()), results);
+        } finally {
+            release.countDown();
+        }
+    }
+
+    @Test(timeout = 30_000L)
+    public void shouldRunRejectedProducersOnTheirOwnThread() throws InterruptedException {
+        // a single thread that is busy and no queue, every producer is rejected
+        ThreadPoolExecutor busy = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.SECONDS, new SynchronousQueue<>());
+        CountDownLatch release = new CountDownLatch(1);
+        busy.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        try (Stream<Long> stream = AsyncStream.<Long>builder()
+                .withExecutor(busy)
+                .withConcurrency(4)
+                .withCapacity(1)
+                .stream(ranges(8, 10_000))) {
+            assertEquals(80_000L, stream.count());
+        } finally {
+            release.countDown();
+            busy.shutdown();
+        }
+    }
+
+    private static AsyncStream.Builder<Long> builder() {
+        return AsyncStream.<Long>builder()
+                .withExecutor(POOL)
+                .withConcurrency(4)
+                .withBatchSize(64)
+                .withCapacity(4);
+    }
+
+    private static List<AsyncStream.Producer<Long>> ranges(int partitions, int partitionSize) {
+        List<AsyncStream.Producer<Long>> producers = new ArrayList<>();
+        for (int i = 0; i < partitions; i++) {
+            long start = (long) i * partitionSize;
+            producers.add(sink -> {
+                for (long value = start; value < start + partitionSize; value++) {
+                    if (!sink.emit(value)) {
+                        return;
+                    }
+                }
+            });
+        }
+        return producers;
+    }
+}
@@ -35,6 +35,7 @@ import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
 
 import static org.junit.Assert.assertEquals;
@@ -43,6 +44,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -280,6 +282,48 @@ public final class ParallelUtilTest extends RandomizedTest {
         verify(pool, times(11)).getActiveCount();
     }
 
+    @Test
+    public void shouldRetryEveryTaskOnABusyThreadpool() {
+        // every task is refused twice before it can be submitted
+        ThreadPoolExecutor pool = busyPool(2);
+        Tasks tasks = new Tasks(5, 0);
+        tasks.run(t -> ParallelUtil.runWithConcurrency(
+                2,
+                t,
+                3,
+                1,
+                TimeUnit.MILLISECONDS,
+                pool));
+        assertEquals(5, tasks.started());
+        assertEquals(5, tasks.requested());
+    }
+
+    @Test
+    public void shouldReadAllBatchesOnABusyThreadpool() {
+        PrimitiveIntIterable[] ints = {ints(0, 10), ints(10, 10), ints(20, 4)};
+        BatchNodeIterable batches = (size) -> Arrays.asList(ints);
+        AtomicInteger imported = new AtomicInteger();
+        ParallelGraphImporter<Runnable> importer = (offset, nodes) -> imported::incrementAndGet;
+
+        Collection<Runnable> tasks = ParallelUtil.readParallel(2, 10, batches, importer, busyPool(3));
+
+        assertEquals(3, tasks.size());
+        assertEquals(3, imported.get());
+    }
+
+    // runs the submitted tasks on the calling thread, but is busy for the given number of checks before each task
+    private static ThreadPoolExecutor busyPool(int busyChecks) {
+        ThreadPoolExecutor pool = mock(ThreadPoolExecutor.class);
+        AtomicInteger checks = new AtomicInteger();
+        when(pool.getCorePoolSize()).thenReturn(1);
+        when(pool.getActiveCount()).thenAnswer(invocation -> checks.incrementAndGet() % (busyChecks + 1) == 0 ? 0 : 1);
+        doAnswer(invocation -> {
+            ((Runnable) invocation.getArguments()[0]).run();
+            return null;
+        }).when(pool).execute(any());
+        return pool;
+    }
+
     private static void withPool(
             int nThreads,
             ThrowingConsumer<ExecutorService, ? extends Throwable> block) {
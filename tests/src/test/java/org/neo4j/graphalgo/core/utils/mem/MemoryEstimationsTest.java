@@ -0,0 +1,117 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.mem;
+
+import org.junit.Test;
+import org.neo4j.graphalgo.core.GraphDimensions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+public final class MemoryEstimationsTest {
+
+    @Test
+    public void shouldSumComponents() {
+        MemoryEstimation estimation = MemoryEstimations.builder("root")
+                .fixed("fixed", MemoryRange.of(10L, 20L))
+                .perNode("perNode", nodeCount -> nodeCount * 8L)
+                .perGraphDimension("perRelationship", (dimensions, concurrency) ->
+                        MemoryRange.of(dimensions.maxRelCount(), dimensions.maxRelCount() * 2L))
+                .build();
+
+        MemoryTree tree = estimation.estimate(GraphDimensions.of(100L, 1000L), 4);
+
+        assertEquals("root", tree.description());
+        assertEquals(MemoryRange.of(10L + 800L + 1000L, 20L + 800L + 2000L), tree.memoryUsage());
+        assertEquals(3, tree.components().size());
+    }
+
+    @Test
+    public void shouldMultiplyPerThreadComponents() {
+        MemoryEstimation estimation = MemoryEstimations.builder("root")
+                .perThread("perThread", MemoryEstimations.builder("local")
+                        .perNode("scratch", nodeCount -> nodeCount)
+                        .build())
+                .build();
+
+        MemoryTree tree = estimation.estimate(GraphDimensions.of(100L, 0L), 4);
+
+        assertEquals(MemoryRange.of(400L), tree.memoryUsage());
+        MemoryTree perThread = tree.components().iterator().next();
+        assertEquals(MemoryRange.of(400L), perThread.memoryUsage());
+        assertEquals(MemoryRange.of(100L), perThread.components().iterator().next().memoryUsage());
+    }
+
+    @Test
+    public void shouldRenameNestedEstimations() {
+        MemoryEstimation nested = MemoryEstimations.builder("nested")
+                .fixed("leaf", 42L)
+                .build();
+        MemoryTree tree = MemoryEstimations.builder("root")
+                .field("renamed", nested)
+                .build()
+                .estimate(GraphDimensions.of(0L, 0L), 1);
+
+        assertThat(tree.render(), containsString("|-- renamed: 42 Bytes"));
+        assertThat(tree.render(), containsString("    |-- leaf: 42 Bytes"));
+
+        Map<String, Object> map = tree.renderMap();
+        assertEquals("root", map.get("name"));
+        List<?> components = (List<?>) map.get("components");
+        assertEquals("renamed", ((Map<?, ?>) components.get(0)).get("name"));
+    }
+
+    @Test
+    public void shouldCombineRanges() {
+        MemoryRange a = MemoryRange.of(10L, 20L);
+        MemoryRange b = MemoryRange.of(5L, 30L);
+
+        assertEquals(MemoryRange.of(15L, 50L), a.add(b));
+        assertEquals(MemoryRange.of(30L, 60L), a.times(3L));
+        assertEquals(MemoryRange.of(5L, 30L), a.union(b));
+        assertEquals(MemoryRange.empty(), MemoryRange.of(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRejectInvalidRanges() {
+        MemoryRange.of(20L, 10L);
+    }
+
+    @Test
+    public void shouldFailIfEstimationExceedsFreeHeap() {
+        MemoryTree tree = MemoryEstimations.of("huge", MemoryRange.of(Long.MAX_VALUE))
+                .estimate(GraphDimensions.of(0L, 0L), 1);
+        try {
+            MemoryEstimations.assertFitsInFreeHeap(tree, "Test");
+            fail("expected the estimation to exceed the heap");
+        } catch (IllegalStateException e) {
+            assertThat(e.getMessage(), containsString("Test requires at least"));
+        }
+
+        MemoryEstimations.assertFitsInFreeHeap(
+                MemoryEstimations.of("small", MemoryRange.of(1024L)).estimate(GraphDimensions.of(0L, 0L), 1),
+                "Test");
+    }
+}
@@ -0,0 +1,133 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.utils.metrics;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+import org.neo4j.test.TestGraphDatabaseFactory;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+public final class MetricsTest {
+
+    private static GraphDatabaseAPI db;
+
+    @BeforeClass
+    public static void setup() {
+        db = (GraphDatabaseAPI) new TestGraphDatabaseFactory().newImpermanentDatabase();
+        db.execute("UNWIND range(0, 999) AS id CREATE (:Node {id: id})").close();
+        db.execute("MATCH (a:Node), (b:Node) WHERE b.id = (a.id + 1) % 1000 OR b.id = (a.id + 3) % 1000 " +
+                "CREATE (a)-[:TYPE]->(b)").close();
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void shouldCountEvents() {
+        Meter meter = Metrics.meter("test.events", "Events of a test");
+        long before = meter.count();
+        meter.mark();
+        meter.mark(41L);
+
+        assertEquals(before + 42L, meter.count());
+        assertSame(meter, Metrics.meter("test.events", "Events of a test"));
+        assertEquals(before + 42.0, Metrics.snapshot().get("test.events.count"), 0.0);
+    }
+
+    @Test
+    public void shouldReadGaugesFromSuppliers() {
+        Gauge gauge = Metrics.gauge("test.value", "A value of a test");
+        gauge.set(1.5);
+        Metrics.gauge("test.supplied", "A supplied value of a test", () -> 42.0);
+
+        Map<String, Double> snapshot = Metrics.snapshot();
+        assertEquals(1.5, snapshot.get("test.value"), 0.0);
+        assertEquals(42.0, snapshot.get("test.supplied"), 0.0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldFailForMetricsOfAnotherType() {
+        Metrics.meter("test.conflict", "A meter");
+        Metrics.gauge("test.conflict", "A gauge");
+    }
+
+    @Test
+    public void shouldExposeMetricsAsMBeanAttributes() throws Exception {
+        Metrics.meter("test.jmx", "Events read through JMX").mark(7L);
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(Metrics.OBJECT_NAME);
+
+        assertTrue((double) server.getAttribute(name, "test.jmx.count") >= 7.0);
+        assertTrue(Arrays.stream(server.getMBeanInfo(name).getAttributes())
+                .anyMatch(attribute -> attribute.getName().equals("test.jmx.perSecond")));
+    }
+
+    @Test
+    public void shouldWriteThePrometheusTextFormat() {
+        Metrics.meter("test.labelled", "thread", "a", "Labelled events").mark(2L);
+        Metrics.meter("test.labelled", "thread", "b", "Labelled events").mark(3L);
+
+        String text = Metrics.toPrometheus();
+        assertThat(text, containsString(
+                "# HELP neo4j_graphalgo_test_labelled_total Labelled events\n" +
+                "# TYPE neo4j_graphalgo_test_labelled_total counter\n" +
+                "neo4j_graphalgo_test_labelled_total{thread=\"a\"} 2.0\n" +
+                "neo4j_graphalgo_test_labelled_total{thread=\"b\"} 3.0\n"));
+        assertThat(text, containsString("# TYPE neo4j_graphalgo_test_labelled_per_second gauge\n"));
+    }
+
+    @Test
+    public void shouldMeasureTheLoader() {
+        Map<String, Double> before = Metrics.snapshot();
+        new GraphLoader(db)
+                .withAnyLabel()
+                .withAnyRelationshipType()
+                .withDirection(Direction.OUTGOING)
+                .load(HugeGraphFactory.class);
+        Map<String, Double> after = Metrics.snapshot();
+
+        assertEquals(2000.0, delta(before, after, "loader.adjacency.relationships.count"), 0.0);
+        assertTrue(delta(before, after, "loader.adjacency.bytes.count") > 0.0);
+        assertTrue(delta(before, after, "loader.pages.scanned.count") > 0.0);
+        assertTrue(after.get("loader.adjacency.bytesPerRelationship") > 0.0);
+        assertTrue(after.containsKey("pools.default.queueSize"));
+    }
+
+    private static double delta(Map<String, Double> before, Map<String, Double> after, String key) {
+        return after.get(key) - before.getOrDefault(key, 0.0);
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.core.write;
+
+import org.junit.BeforeClass;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.huge.loader.BinaryEdgeListLoader;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphBuilder;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.TerminationFlag;
+import org.neo4j.graphdb.Direction;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public final class FileExporterTest {
+
+    // more nodes than fit into one partition
+    private static final int NODE_COUNT = 25_000;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static HugeGraph graph;
+
+    @BeforeClass
+    public static void setup() {
+        long[] nodeIds = new long[NODE_COUNT];
+        long[] sources = new long[NODE_COUNT];
+        long[] targets = new long[NODE_COUNT];
+        double[] weights = new double[NODE_COUNT];
+        for (int i = 0; i < NODE_COUNT; i++) {
+            nodeIds[i] = originalId(i);
+            sources[i] = originalId(i);
+            targets[i] = originalId((i + 1) % NODE_COUNT);
+            weights[i] = i;
+        }
+        HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodeIds(nodeIds)
+                .withRelationshipWeights(0.0)
+                .importer();
+        importer.addAll(sources, targets, weights, Pools.DEFAULT, 4);
+        graph = importer.build();
+    }
+
+    @Test
+    public void shouldWriteCsvPartitions() throws IOException {
+        List<Path> files = exporter(FileExporter.Format.CSV)
+                .write("score", null, (PropertyTranslator.OfDouble<Object>) (data, nodeId) -> nodeId / 2.0);
+
+        assertEquals(3, files.size());
+        int row = 0;
+        for (Path file : files) {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+            assertEquals("nodeId,score", lines.get(0));
+            for (String line : lines.subList(1, lines.size())) {
+                assertEquals(originalId(row) + "," + (row / 2.0), line);
+                row++;
+            }
+        }
+        assertEquals(NODE_COUNT, row);
+    }
+
+    @Test
+    public void shouldSkipMissingValuesInCsv() throws IOException {
+        List<Path> files = exporter(FileExporter.Format.CSV)
+                .write("community", null, (PropertyTranslator.OfOptionalInt<Object>) (data, nodeId) -> nodeId % 2L == 0L ? -1 : (int) nodeId);
+
+        long rows = 0L;
+        for (Path file : files) {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.US_ASCII);
+            for (String line : lines.subList(1, lines.size())) {
+                String[] columns = line.split(",");
+                assertEquals(1L, Long.parseLong(columns[1]) % 2L);
+                rows++;
+            }
+        }
+        assertEquals(NODE_COUNT / 2, rows);
+    }
+
+    @Test
+    public void shouldWriteBinaryColumns() throws IOException {
+        List<Path> files = exporter(FileExporter.Format.BINARY)
+                .write("partition", null, (PropertyTranslator.OfLong<Object>) (data, nodeId) -> -nodeId);
+
+        long row = 0L;
+        for (Path file : files) {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(file));
+            long rows = buffer.getLong();
+            assertEquals(FileExporter.LONG_VALUES, buffer.getLong());
+            assertEquals(FileExporter.HEADER_SIZE + rows * 2L * Long.BYTES, buffer.capacity());
+            for (long i = 0L; i < rows; i++) {
+                assertEquals(originalId(row + i), buffer.getLong());
+            }
+            for (long i = 0L; i < rows; i++) {
+                assertEquals(-(row + i), buffer.getLong());
+            }
+            row += rows;
+        }
+        assertEquals(NODE_COUNT, row);
+    }
+
+    @Test
+    public void shouldWriteRelationshipsThatCanBeLoadedAgain() throws IOException {
+        FileExporter exporter = exporter(FileExporter.Format.BINARY);
+        assertEquals(NODE_COUNT, exporter.writeRelationships(Direction.OUTGOING, true));
+
+        long relationships = 0L;
+        for (int partition = 0; partition < exporter.partitionCount(); partition++) {
+            Path file = folder.getRoot().toPath().resolve(String.format("export/part-%05d.bin", partition));
+            HugeGraph loaded = new BinaryEdgeListLoader(file)
+                    .withRelationshipWeights(0.0)
+                    .load();
+            for (long nodeId = 0L; nodeId < loaded.nodeCount(); nodeId++) {
+                long source = loaded.toOriginalNodeId(nodeId);
+                loaded.forEachRelationship(nodeId, Direction.OUTGOING, (s, t, weight) -> {
+                    int index = (int) ((source - 1000L) / 2L);
+                    assertEquals(originalId((index + 1) % NODE_COUNT), loaded.toOriginalNodeId(t));
+                    assertEquals(index, weight, 0.0);
+                    return true;
+                });
+                relationships += loaded.degree(nodeId, Direction.OUTGOING);
+            }
+        }
+        assertEquals(NODE_COUNT, relationships);
+    }
+
+    @Test
+    public void shouldWriteRelationshipsAsCsv() throws IOException {
+        exporter(FileExporter.Format.CSV).writeRelationships(Direction.OUTGOING, false);
+
+        List<String> lines = Files.readAllLines(folder.getRoot().toPath().resolve("export/part-00000.csv"));
+        assertEquals("source,target", lines.get(0));
+        assertEquals(originalId(0) + "," + originalId(1), lines.get(1));
+    }
+
+    @Test
+    public void shouldWriteTheLongestLinesAcrossBufferBoundaries() throws IOException {
+        // 19 digit ids and a weight of 24 characters, every line is 65 bytes long
+        int nodeCount = 200;
+        long[] sources = new long[nodeCount];
+        long[] targets = new long[nodeCount];
+        double[] weights = new double[nodeCount];
+        for (int i = 0; i < nodeCount; i++) {
+            sources[i] = i;
+            targets[i] = (i + 1) % nodeCount;
+            weights[i] = -Double.MIN_NORMAL;
+        }
+        HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes(nodeCount)
+                .withRelationshipWeights(0.0)
+                .importer();
+        importer.addAll(sources, targets, weights, Pools.DEFAULT, 1);
+        HugeGraph ring = importer.build();
+        // the id map cannot hold ids that large, only the original ids are replaced
+        HugeGraph longIds = (HugeGraph) Proxy.newProxyInstance(
+                HugeGraph.class.getClassLoader(),
+                new Class<?>[]{HugeGraph.class},
+                (proxy, method, args) -> method.getName().equals("toOriginalNodeId")
+                        ? Long.MAX_VALUE - (long) args[0]
+                        : method.invoke(ring, args));
+
+        // every buffer size leaves a different number of bytes at the end of the buffer
+        for (int bufferSize = 2 * FileExporter.MAX_LINE_LENGTH; bufferSize < 3 * FileExporter.MAX_LINE_LENGTH; bufferSize++) {
+            Path directory = folder.getRoot().toPath().resolve("long-" + bufferSize);
+            FileExporter exporter = FileExporter.of(longIds)
+                    .withBufferSize(bufferSize)
+                    .build(directory);
+            assertEquals(nodeCount, exporter.writeRelationships(Direction.OUTGOING, true));
+
+            List<String> lines = Files.readAllLines(directory.resolve("part-00000.csv"), StandardCharsets.US_ASCII);
+            assertEquals(nodeCount + 1, lines.size());
+            for (int i = 0; i < nodeCount; i++) {
+                String expected = (Long.MAX_VALUE - i) + "," + (Long.MAX_VALUE - targets[i]) + ",-2.2250738585072014E-308";
+                assertEquals(expected, lines.get(i + 1));
+            }
+        }
+    }
+
+    @Test
+    public void shouldReplacePartitionsOfEarlierExports() throws IOException {
+        Path directory = folder.getRoot().toPath().resolve("export");
+        Files.createDirectories(directory);
+        Path stale = Files.createFile(directory.resolve("part-00042.csv"));
+        Path other = Files.createFile(directory.resolve("README"));
+
+        exporter(FileExporter.Format.CSV).write("id", null, (PropertyTranslator.OfLong<Object>) (data, nodeId) -> nodeId);
+
+        assertFalse(Files.exists(stale));
+        assertTrue(Files.exists(other));
+        assertTrue(Files.exists(directory.resolve("part-00000.csv")));
+    }
+
+    private FileExporter exporter(FileExporter.Format format) {
+        return FileExporter.of(graph)
+                .withFormat(format)
+                .parallel(Pools.DEFAULT, 4, TerminationFlag.RUNNING_TRUE)
+                .build(folder.getRoot().toPath().resolve("export"));
+    }
+
+    private static long originalId(long nodeId) {
+        return 1000L + 2L * nodeId;
+    }
+}
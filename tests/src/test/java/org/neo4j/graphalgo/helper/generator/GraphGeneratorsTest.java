@@ -0,0 +1,210 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.helper.generator;
+
+import com.carrotsearch.hppc.LongArrayList;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.helper.ldbc.LdbcDownloader;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.io.fs.FileUtils;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public final class GraphGeneratorsTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static List<GraphGenerator> generators(long seed) {
+        return Arrays.asList(
+                RMatGenerator.withSkew(10, 8, 0.57, seed),
+                new ErdosRenyiGenerator(1000L, 5000L, seed),
+                new BarabasiAlbertGenerator(1000L, 4, seed),
+                new PlantedPartitionGenerator(1000L, 10, 8, 0.2, seed));
+    }
+
+    @Test
+    public void shouldGenerateTheSameRelationshipsForTheSameSeed() {
+        List<GraphGenerator> first = generators(42L);
+        List<GraphGenerator> second = generators(42L);
+        List<GraphGenerator> other = generators(1337L);
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).id(), second.get(i).id());
+            assertEquals(relationships(first.get(i)), relationships(second.get(i)));
+            assertNotEquals(relationships(first.get(i)), relationships(other.get(i)));
+        }
+    }
+
+    @Test
+    public void shouldEmitTheAnnouncedRelationshipsWithinTheNodeRange() {
+        for (GraphGenerator generator : generators(42L)) {
+            long[] relationships = relationships(generator).toArray();
+            assertEquals(generator.toString(), generator.relationshipCount() * 2L, relationships.length);
+            for (int i = 0; i < relationships.length; i += 2) {
+                long source = relationships[i];
+                long target = relationships[i + 1];
+                assertTrue(generator.toString(), source >= 0L && source < generator.nodeCount());
+                assertTrue(generator.toString(), target >= 0L && target < generator.nodeCount());
+                assertNotEquals(generator + " generated a self loop", source, target);
+            }
+        }
+    }
+
+    @Test
+    public void shouldStopWhenTheConsumerDoes() {
+        int[] count = {0};
+        new ErdosRenyiGenerator(1000L, 5000L, 42L).generate((source, target) -> ++count[0] < 10);
+        assertEquals(10, count[0]);
+    }
+
+    @Test
+    public void shouldPlantCommunitiesWithTheGivenMixing() {
+        PlantedPartitionGenerator generator = new PlantedPartitionGenerator(10_000L, 10, 10, 0.2, 42L);
+        long[] intra = {0L};
+        generator.generate((source, target) -> {
+            if (generator.community(source) == generator.community(target)) {
+                intra[0]++;
+            }
+            return true;
+        });
+        double intraShare = (double) intra[0] / generator.relationshipCount();
+        assertEquals(0.8, intraShare, 0.02);
+    }
+
+    @Test
+    public void shouldSkewTheRMatDegrees() {
+        int[] uniform = degrees(RMatGenerator.withSkew(12, 8, 0.25, 42L));
+        int[] skewed = degrees(RMatGenerator.withSkew(12, 8, 0.57, 42L));
+        assertTrue(max(skewed) > 2 * max(uniform));
+    }
+
+    @Test
+    public void shouldWriteGeneratedGraphIntoStore() throws Exception {
+        GraphGenerator generator = new BarabasiAlbertGenerator(500L, 3, 42L);
+        Path graphDbDir = folder.getRoot().toPath().resolve("graph.db");
+        GeneratedGraphs.writeStore(generator, graphDbDir);
+
+        GraphDatabaseAPI db = LdbcDownloader.openDb(graphDbDir, "100M");
+        try {
+            Graph graph = new GraphLoader(db, Pools.DEFAULT)
+                    .withLabel(GeneratedGraphs.LABEL.name())
+                    .withRelationshipType(GeneratedGraphs.TYPE.name())
+                    .withDirection(Direction.OUTGOING)
+                    .load(HugeGraphFactory.class);
+            assertEquals(generator.nodeCount(), graph.nodeCount());
+            long relationships = 0L;
+            for (int nodeId = 0; nodeId < graph.nodeCount(); nodeId++) {
+                relationships += graph.degree(nodeId, Direction.OUTGOING);
+            }
+            assertEquals(generator.relationshipCount(), relationships);
+            assertEquals(42L, graph.toOriginalNodeId(42));
+        } finally {
+            db.shutdown();
+        }
+    }
+
+    @Test
+    public void shouldInterpolateTheRMatProbabilities() {
+        assertEquals("rmat-s4-e8-0.250-0.250-0.250-42", RMatGenerator.withSkew(4, 8, 0.25, 42L).id());
+        assertEquals("rmat-s4-e8-0.570-0.190-0.190-42", RMatGenerator.withSkew(4, 8, 0.57, 42L).id());
+        assertEquals("rmat-s4-e8-0.785-0.095-0.095-42", RMatGenerator.withSkew(4, 8, 0.785, 42L).id());
+    }
+
+    @Test
+    public void shouldRejectRMatSkewsOutOfRange() {
+        for (double skew : new double[]{0.2, 1.0, -0.5, Double.NaN}) {
+            try {
+                RMatGenerator.withSkew(4, 8, skew, 42L);
+                fail("expected skew " + skew + " to be rejected");
+            } catch (IllegalArgumentException e) {
+                assertThat(e.getMessage(), containsString("skew must be in [0.25, 1)"));
+            }
+        }
+    }
+
+    @Test
+    public void shouldReplaceTheLeftoversOfAnAbortedRun() throws Exception {
+        GraphGenerator generator = new BarabasiAlbertGenerator(200L, 3, System.nanoTime());
+        Path graphDir = LdbcDownloader.tempDirFor("org.neo4j", "generated", generator.id());
+        try {
+            Path inProgress = Files.createDirectories(graphDir.resolve("graph.db.tmp"));
+            Files.write(inProgress.resolve("neostore"), new byte[]{1, 2, 3});
+
+            GraphDatabaseAPI db = GeneratedGraphs.openDb(generator, "100M");
+            try {
+                Graph graph = new GraphLoader(db, Pools.DEFAULT)
+                        .withLabel(GeneratedGraphs.LABEL.name())
+                        .withRelationshipType(GeneratedGraphs.TYPE.name())
+                        .withDirection(Direction.OUTGOING)
+                        .load(HugeGraphFactory.class);
+                assertEquals(generator.nodeCount(), graph.nodeCount());
+                long relationships = 0L;
+                for (int nodeId = 0; nodeId < graph.nodeCount(); nodeId++) {
+                    relationships += graph.degree(nodeId, Direction.OUTGOING);
+                }
+                assertEquals(generator.relationshipCount(), relationships);
+            } finally {
+                db.shutdown();
+            }
+            assertFalse(Files.exists(inProgress));
+        } finally {
+            FileUtils.deleteRecursively(graphDir.toFile());
+        }
+    }
+
+    private static LongArrayList relationships(GraphGenerator generator) {
+        LongArrayList relationships = new LongArrayList();
+        generator.generate((source, target) -> {
+            relationships.add(source, target);
+            return true;
+        });
+        return relationships;
+    }
+
+    private static int[] degrees(GraphGenerator generator) {
+        int[] degrees = new int[(int) generator.nodeCount()];
+        generator.generate((source, target) -> {
+            degrees[(int) source]++;
+            return true;
+        });
+        return degrees;
+    }
+
+    private static int max(int[] values) {
+        return Arrays.stream(values).max().orElse(0);
+    }
+}
@@ -0,0 +1,227 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphBuilder;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.helper.graphbuilder.GraphBuilder;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Compares the bidirectional search on a grid with random weights against
+ * the distances of the huge delta-stepping from one of its corners.
+ */
+public final class HugeBidirectionalDijkstraTest {
+
+    private static final String PROPERTY = "property";
+    private static final String LABEL = "Node";
+    private static final String RELATIONSHIP = "REL";
+
+    private static GraphDatabaseAPI db;
+    private static HugeGraph directed;
+    private static HugeGraph undirected;
+    private static long rootNodeId;
+
+    @BeforeClass
+    public static void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        Random random = new Random(42L);
+        rootNodeId = GraphBuilder.create(db)
+                .setLabel(LABEL)
+                .setRelationship(RELATIONSHIP)
+                .newGridBuilder()
+                .createGrid(30, 30)
+                .forEachRelInTx(rel -> {
+                    rel.setProperty(PROPERTY, random.nextDouble() * 5);
+                })
+                .getLineNodes()
+                .get(0)
+                .get(0)
+                .getId();
+
+        directed = (HugeGraph) new GraphLoader(db)
+                .withLabel(LABEL)
+                .withRelationshipType(RELATIONSHIP)
+                .withRelationshipWeightsFromProperty(PROPERTY, 1.0)
+                .withDirection(Direction.BOTH)
+                .load(HugeGraphFactory.class);
+        undirected = (HugeGraph) new GraphLoader(db)
+                .withLabel(LABEL)
+                .withRelationshipType(RELATIONSHIP)
+                .withRelationshipWeightsFromProperty(PROPERTY, 1.0)
+                .asUndirected(true)
+                .load(HugeGraphFactory.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void shouldFindTheShortestPathsOfDirectedGraphs() {
+        HugeShortestPathDeltaStepping reference = distancesFromRoot(directed);
+        HugeBidirectionalDijkstra dijkstra = new HugeBidirectionalDijkstra(
+                directed,
+                Direction.OUTGOING,
+                Direction.INCOMING,
+                HugeBidirectionalDijkstra.Heuristic.NONE,
+                AllocationTracker.EMPTY);
+        assertDistances(dijkstra, directed, reference);
+    }
+
+    @Test
+    public void shouldFindTheShortestPathsOfUndirectedGraphs() {
+        HugeShortestPathDeltaStepping reference = distancesFromRoot(undirected);
+        HugeBidirectionalDijkstra dijkstra = new HugeBidirectionalDijkstra(
+                undirected,
+                Direction.OUTGOING,
+                Direction.OUTGOING,
+                HugeBidirectionalDijkstra.Heuristic.NONE,
+                AllocationTracker.EMPTY);
+        assertDistances(dijkstra, undirected, reference);
+    }
+
+    @Test
+    public void shouldFindTheShortestPathsWithAHeuristic() {
+        // the distances to a landmark bound the distance between any two nodes of an undirected graph
+        HugeShortestPathDeltaStepping landmark = new HugeShortestPathDeltaStepping(
+                undirected,
+                2.5,
+                Direction.OUTGOING,
+                Pools.DEFAULT,
+                1,
+                AllocationTracker.EMPTY)
+                .compute(undirected.toOriginalNodeId(undirected.nodeCount() - 1L));
+        HugeBidirectionalDijkstra dijkstra = new HugeBidirectionalDijkstra(
+                undirected,
+                Direction.OUTGOING,
+                Direction.OUTGOING,
+                (source, target) -> Math.abs(landmark.distance(source) - landmark.distance(target)),
+                AllocationTracker.EMPTY);
+        assertDistances(dijkstra, undirected, distancesFromRoot(undirected));
+    }
+
+    @Test
+    public void shouldReturnAnEmptyPathForUnreachableNodes() {
+        HugeGraph disconnected = HugeGraphBuilder.withNodes(3L)
+                .withRelationshipWeights(1.0)
+                .importer()
+                .build();
+        HugeBidirectionalDijkstra dijkstra = new HugeBidirectionalDijkstra(
+                disconnected,
+                Direction.OUTGOING,
+                Direction.OUTGOING,
+                HugeBidirectionalDijkstra.Heuristic.NONE,
+                AllocationTracker.EMPTY);
+
+        HugeBidirectionalDijkstra.Path path = dijkstra.compute(
+                disconnected.toOriginalNodeId(0L),
+                disconnected.toOriginalNodeId(2L));
+        assertEquals(0, path.length());
+        assertEquals(HugeBidirectionalDijkstra.NO_PATH_FOUND, path.totalCost(), 0.0);
+
+        path = dijkstra.compute(disconnected.toOriginalNodeId(1L), disconnected.toOriginalNodeId(1L));
+        assertEquals(1, path.length());
+        assertEquals(0.0, path.totalCost(), 0.0);
+    }
+
+    @Test
+    public void shouldReleaseThePagesOfASearch() {
+        AllocationTracker tracker = AllocationTracker.create();
+        HugeBidirectionalDijkstra dijkstra = new HugeBidirectionalDijkstra(
+                undirected,
+                Direction.OUTGOING,
+                Direction.OUTGOING,
+                HugeBidirectionalDijkstra.Heuristic.NONE,
+                tracker);
+        HugeBidirectionalDijkstra.Search search = dijkstra.newSearch();
+        search.compute(rootNodeId, undirected.toOriginalNodeId(undirected.nodeCount() - 1L));
+        assertTrue(tracker.tracked() > 0L);
+
+        search.release();
+        assertEquals(0L, tracker.tracked());
+
+        // a search that is not kept by the caller releases itself
+        dijkstra.compute(rootNodeId, undirected.toOriginalNodeId(undirected.nodeCount() - 1L));
+        assertEquals(0L, tracker.tracked());
+    }
+
+    private static HugeShortestPathDeltaStepping distancesFromRoot(HugeGraph graph) {
+        return new HugeShortestPathDeltaStepping(
+                graph,
+                2.5,
+                Direction.OUTGOING,
+                Pools.DEFAULT,
+                1,
+                AllocationTracker.EMPTY)
+                .compute(rootNodeId);
+    }
+
+    private static void assertDistances(
+            HugeBidirectionalDijkstra dijkstra,
+            HugeGraph graph,
+            HugeShortestPathDeltaStepping reference) {
+        // queries of many threads share the engine, every thread reuses its own search for many queries
+        int threads = 4;
+        IntStream.range(0, threads).parallel().forEach(thread -> {
+            HugeBidirectionalDijkstra.Search search = dijkstra.newSearch();
+            try {
+                for (long node = thread; node < graph.nodeCount(); node += threads) {
+                    assertPath(search.compute(rootNodeId, graph.toOriginalNodeId(node)), node, graph, reference);
+                }
+            } finally {
+                search.release();
+            }
+        });
+    }
+
+    private static void assertPath(
+            HugeBidirectionalDijkstra.Path path,
+            long node,
+            HugeGraph graph,
+            HugeShortestPathDeltaStepping reference) {
+        double expected = reference.distance(node);
+        if (Double.isInfinite(expected)) {
+            assertEquals(0, path.length());
+            return;
+        }
+        assertEquals(expected, path.totalCost(), 0.001);
+        assertEquals(rootNodeId, path.nodeIds[0]);
+        assertEquals(graph.toOriginalNodeId(node), path.nodeIds[path.length() - 1]);
+        for (int i = 1; i < path.length(); i++) {
+            assertTrue(path.costs[i - 1] <= path.costs[i]);
+        }
+    }
+}
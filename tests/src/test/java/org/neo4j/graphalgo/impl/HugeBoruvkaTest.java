@@ -0,0 +1,217 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.impl.spanningTrees.HugeBoruvka;
+import org.neo4j.graphalgo.impl.spanningTrees.HugeSpanningForest;
+import org.neo4j.graphalgo.impl.spanningTrees.Prim;
+import org.neo4j.graphalgo.impl.spanningTrees.SpanningTree;
+import org.neo4j.graphdb.Label;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+/**
+ *         a                  a                  a
+ *     1 /   \ 2            /  \                  \
+ *      /     \            /    \                  \
+ *     b --3-- c          b      c          b       c
+ *     |       |  =min=>  |      |  =max=>  |       |
+ *     4       5          |      |          |       |
+ *     |       |          |      |          |       |
+ *     d --6-- e          d      e          d-------e
+ *
+ *     y       z          y      z          y       z
+ */
+public class HugeBoruvkaTest {
+
+    private static final Label LABEL = Label.label("Node");
+
+    private static final String cypher =
+            "CREATE (a:Node {name:'a'})\n" +
+            "CREATE (b:Node {name:'b'})\n" +
+            "CREATE (c:Node {name:'c'})\n" +
+            "CREATE (d:Node {name:'d'})\n" +
+            "CREATE (e:Node {name:'e'})\n" +
+            "CREATE (y:Node {name:'y'})\n" +
+            "CREATE (z:Node {name:'z'})\n" +
+            "CREATE" +
+            " (a)-[:TYPE {cost:1.0}]->(b),\n" +
+            " (a)-[:TYPE {cost:2.0}]->(c),\n" +
+            " (b)-[:TYPE {cost:3.0}]->(c),\n" +
+            " (b)-[:TYPE {cost:4.0}]->(d),\n" +
+            " (c)-[:TYPE {cost:5.0}]->(e),\n" +
+            " (d)-[:TYPE {cost:6.0}]->(e)";
+
+    private static final String randomCypher =
+            "UNWIND range(0, 499) AS i CREATE (:Random {id: i})\n" +
+            "WITH count(*) AS ignore\n" +
+            "MATCH (s:Random), (t:Random) WHERE t.id = (s.id + 1) % 500 OR t.id = (s.id * 7 + 3) % 500\n" +
+            "CREATE (s)-[:RANDOM {cost: toFloat(((s.id + t.id) * 31 + abs(s.id - t.id) * 17) % 23)}]->(t)";
+
+    @ClassRule
+    public static final ImpermanentDatabaseRule DB = new ImpermanentDatabaseRule();
+
+    @BeforeClass
+    public static void setupGraph() {
+        try (Transaction tx = DB.beginTx()) {
+            DB.execute(cypher);
+            DB.execute(randomCypher);
+            tx.success();
+        }
+    }
+
+    @Test
+    public void testMinimumSpanningForest() {
+        final HugeGraph graph = load("Node", "TYPE");
+        final HugeSpanningForest forest = boruvka(graph, 4).computeMinimumSpanningForest().getSpanningForest();
+
+        assertEquals(4, forest.edgeCount());
+        assertEquals(edges("a-b", "a-c", "b-d", "c-e"), edges(graph, forest));
+        assertEquals(5, forest.treeSize(id(graph, "a")));
+        assertEquals(1, forest.treeSize(id(graph, "y")));
+        assertNotEquals(forest.component(id(graph, "y")), forest.component(id(graph, "z")));
+    }
+
+    @Test
+    public void testMaximumSpanningForest() {
+        final HugeGraph graph = load("Node", "TYPE");
+        final HugeSpanningForest forest = boruvka(graph, 4).computeMaximumSpanningForest().getSpanningForest();
+
+        assertEquals(4, forest.edgeCount());
+        assertEquals(edges("a-c", "b-d", "c-e", "d-e"), edges(graph, forest));
+    }
+
+    @Test
+    public void testKSpanningTree() {
+        final HugeGraph graph = load("Node", "TYPE");
+        final HugeSpanningForest spanningForest = boruvka(graph, 4)
+                .computeMinimumSpanningForest()
+                .getSpanningForest();
+        assertEquals(5, spanningForest.treeSize(id(graph, "a")));
+        final HugeSpanningForest forest = spanningForest.kSpanningTree(id(graph, "a"), 2, AllocationTracker.EMPTY);
+
+        assertEquals(edges("a-b", "a-c", "b-d"), edges(graph, forest));
+        assertEquals(4, forest.treeSize(id(graph, "a")));
+        assertEquals(1, forest.treeSize(id(graph, "e")));
+        assertEquals(1, forest.treeSize(id(graph, "y")));
+        assertEquals(5, spanningForest.treeSize(id(graph, "e")));
+        final long component = forest.component(id(graph, "a"));
+        assertEquals(component, forest.component(id(graph, "b")));
+        assertEquals(component, forest.component(id(graph, "c")));
+        assertEquals(component, forest.component(id(graph, "d")));
+        assertNotEquals(component, forest.component(id(graph, "e")));
+    }
+
+    @Test
+    public void testSameWeightAsPrim() {
+        final HugeGraph graph = load("Random", "RANDOM");
+        for (int concurrency : new int[]{1, 4}) {
+            final HugeSpanningForest forest = boruvka(graph, concurrency)
+                    .computeMinimumSpanningForest()
+                    .getSpanningForest();
+            final SpanningTree tree = new Prim(graph, graph, graph)
+                    .computeMinimumSpanningTree(0)
+                    .getSpanningTree();
+
+            assertEquals(tree.effectiveNodeCount, forest.treeSize(0));
+            assertEquals(tree.effectiveNodeCount - 1, forest.edgeCount());
+            assertEquals(weight(graph, tree), weight(forest), 1e-6);
+        }
+    }
+
+    private static HugeBoruvka boruvka(HugeGraph graph, int concurrency) {
+        return new HugeBoruvka(graph, concurrency, Pools.DEFAULT, AllocationTracker.EMPTY);
+    }
+
+    private static HugeGraph load(String label, String type) {
+        return (HugeGraph) new GraphLoader(DB)
+                .withLabel(label)
+                .withRelationshipType(type)
+                .withRelationshipWeightsFromProperty("cost", Double.MAX_VALUE)
+                .withoutNodeWeights()
+                .asUndirected(true)
+                .load(HugeGraphFactory.class);
+    }
+
+    private static long id(HugeGraph graph, String name) {
+        try (Transaction tx = DB.beginTx()) {
+            final long id = graph.toHugeMappedNodeId(DB.findNode(LABEL, "name", name).getId());
+            tx.success();
+            return id;
+        }
+    }
+
+    private static Set<String> edges(String... edges) {
+        final Set<String> set = new HashSet<>();
+        for (String edge : edges) {
+            set.add(edge);
+        }
+        return set;
+    }
+
+    private static Set<String> edges(HugeGraph graph, HugeSpanningForest forest) {
+        final Set<String> set = new HashSet<>();
+        try (Transaction tx = DB.beginTx()) {
+            forest.forEach((s, t, w) -> {
+                final String source = name(graph, s);
+                final String target = name(graph, t);
+                set.add(source.compareTo(target) < 0 ? source + "-" + target : target + "-" + source);
+                return true;
+            });
+            tx.success();
+        }
+        return set;
+    }
+
+    private static String name(HugeGraph graph, long nodeId) {
+        return (String) DB.getNodeById(graph.toOriginalNodeId(nodeId)).getProperty("name");
+    }
+
+    private static double weight(HugeSpanningForest forest) {
+        final double[] sum = {0.0};
+        forest.forEach((s, t, w) -> {
+            sum[0] += w;
+            return true;
+        });
+        return sum[0];
+    }
+
+    private static double weight(HugeGraph graph, SpanningTree tree) {
+        final double[] sum = {0.0};
+        tree.forEach((s, t, r) -> {
+            sum[0] += graph.weightOf(s, t);
+            return true;
+        });
+        return sum[0];
+    }
+}
@@ -0,0 +1,150 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl;
+
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.impl.degree.HugeDegreeCentrality;
+import org.neo4j.graphalgo.impl.results.CentralityResult;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.test.rule.ImpermanentDatabaseRule;
+
+import static org.junit.Assert.assertEquals;
+
+public class HugeDegreeCentralityTest {
+
+    private static final int NODE_COUNT = 300;
+
+    // every fifth relationship has no weight and uses the default weight,
+    // the others have weights in [-3, 7) which includes zero and negative weights
+    private static final String cypher =
+            "UNWIND range(0, " + (NODE_COUNT - 1) + ") AS i CREATE (:Node {id: i})\n" +
+            "WITH count(*) AS ignore\n" +
+            "MATCH (s:Node), (t:Node) WHERE t.id = (s.id + 1) % " + NODE_COUNT + " OR t.id = (s.id * 7 + 3) % " + NODE_COUNT + "\n" +
+            "CREATE (s)-[:TYPE {weight: CASE WHEN (s.id + t.id) % 5 = 0 THEN null ELSE toFloat((s.id * 13 + t.id) % 10 - 3) END}]->(t)";
+
+    // every third node gets a parallel relationship next to each of its relationships,
+    // half of them without a weight and the other half with a positive weight
+    private static final String parallelCypher =
+            "MATCH (s:Node)-[:TYPE]->(t:Node) WHERE s.id % 3 = 0\n" +
+            "CREATE (s)-[:TYPE {weight: CASE WHEN s.id % 2 = 0 THEN null ELSE toFloat(s.id % 4 + 1) END}]->(t)";
+
+    @ClassRule
+    public static final ImpermanentDatabaseRule DB = new ImpermanentDatabaseRule();
+
+    @BeforeClass
+    public static void setupGraph() {
+        try (Transaction tx = DB.beginTx()) {
+            DB.execute(cypher).close();
+            DB.execute(parallelCypher).close();
+            tx.success();
+        }
+    }
+
+    @Test
+    public void testDegrees() {
+        final HugeGraph graph = load(1.0, false);
+        for (Direction direction : Direction.values()) {
+            final HugeDegreeCentrality algo = compute(graph, direction, false);
+            for (long nodeId = 0L; nodeId < graph.nodeCount(); nodeId++) {
+                assertEquals(graph.degree(nodeId, direction), algo.degrees().get(nodeId), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void testWeightedDegrees() {
+        for (double defaultWeight : new double[]{1.0, 0.0, -1.0}) {
+            for (boolean undirected : new boolean[]{false, true}) {
+                final HugeGraph graph = load(defaultWeight, undirected);
+                // undirected graphs only store the outgoing adjacency
+                final Direction[] directions = undirected
+                        ? new Direction[]{Direction.OUTGOING}
+                        : Direction.values();
+                for (Direction direction : directions) {
+                    final HugeDegreeCentrality algo = compute(graph, direction, true);
+                    for (long nodeId = 0L; nodeId < graph.nodeCount(); nodeId++) {
+                        assertEquals(weightedDegree(graph, nodeId, direction), algo.degrees().get(nodeId), 1e-9);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testNorms() {
+        final HugeGraph graph = load(1.0, false);
+        final HugeDegreeCentrality algo = compute(graph, Direction.OUTGOING, true);
+        final CentralityResult result = algo.result();
+
+        double max = 0.0, sum = 0.0, squaredSum = 0.0;
+        for (long nodeId = 0L; nodeId < graph.nodeCount(); nodeId++) {
+            final double degree = weightedDegree(graph, nodeId, Direction.OUTGOING);
+            max = Math.max(max, degree);
+            sum += degree;
+            squaredSum += degree * degree;
+        }
+
+        assertEquals(max, result.computeMax(), 1e-9);
+        assertEquals(sum, result.computeL1Norm(), 1e-9);
+        assertEquals(Math.sqrt(squaredSum), result.computeL2Norm(), 1e-9);
+        assertEquals(sum / NODE_COUNT, algo.average(), 1e-9);
+    }
+
+    private static HugeDegreeCentrality compute(HugeGraph graph, Direction direction, boolean weighted) {
+        final HugeDegreeCentrality algo = new HugeDegreeCentrality(
+                graph,
+                Pools.DEFAULT,
+                4,
+                direction,
+                weighted,
+                AllocationTracker.EMPTY);
+        algo.compute();
+        return algo;
+    }
+
+    private static double weightedDegree(HugeGraph graph, long nodeId, Direction direction) {
+        final double[] sum = {0.0};
+        graph.forEachRelationship(nodeId, direction, (s, t, w) -> {
+            if (w > 0) {
+                sum[0] += w;
+            }
+            return true;
+        });
+        return sum[0];
+    }
+
+    private static HugeGraph load(double defaultWeight, boolean undirected) {
+        return (HugeGraph) new GraphLoader(DB)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withRelationshipWeightsFromProperty("weight", defaultWeight)
+                .withoutNodeWeights()
+                .withDirection(Direction.BOTH)
+                .asUndirected(undirected)
+                .load(HugeGraphFactory.class);
+    }
+}
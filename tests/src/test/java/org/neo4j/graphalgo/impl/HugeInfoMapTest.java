@@ -0,0 +1,206 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl;
+
+import org.junit.Test;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphBuilder;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.impl.infomap.HugeInfoMap;
+import org.neo4j.graphalgo.impl.infomap.InfoMap;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Rings of cliques, every clique is connected to the next one by a single relationship.
+ */
+public final class HugeInfoMapTest {
+
+    private static final int CLIQUES = 24;
+    private static final int CLIQUE_SIZE = 6;
+
+    @Test
+    public void shouldFindTheCliques() {
+        HugeGraph graph = ringOfCliques(CLIQUES, CLIQUE_SIZE);
+        HugeInfoMap infoMap = HugeInfoMap.unweighted(
+                graph,
+                20,
+                InfoMap.THRESHOLD,
+                InfoMap.TAU,
+                Pools.DEFAULT,
+                1,
+                AllocationTracker.EMPTY)
+                .compute(HugeInfoMap.DEFAULT_MAX_LEVELS, HugeInfoMap.DEFAULT_MAX_ITERATIONS);
+
+        assertCliques(graph, infoMap);
+    }
+
+    @Test
+    public void shouldMergeTheModulesOfCoarserLevels() {
+        HugeGraph graph = ringOfCliques(CLIQUES, CLIQUE_SIZE);
+        // a single iteration per level leaves some of the cliques split
+        HugeInfoMap infoMap = HugeInfoMap.unweighted(
+                graph,
+                20,
+                InfoMap.THRESHOLD,
+                InfoMap.TAU,
+                Pools.DEFAULT,
+                1,
+                AllocationTracker.EMPTY)
+                .compute(HugeInfoMap.DEFAULT_MAX_LEVELS, 1);
+
+        assertCliques(graph, infoMap);
+        double[] codeLengths = infoMap.getCodeLengths();
+        assertTrue(Arrays.toString(codeLengths), codeLengths.length > 2);
+        assertTrue(Arrays.toString(codeLengths), codeLengths[1] < codeLengths[0]);
+    }
+
+    @Test
+    public void shouldFindTheCliquesInParallel() {
+        HugeGraph graph = ringOfCliques(CLIQUES, CLIQUE_SIZE);
+        HugeInfoMap infoMap = HugeInfoMap.unweighted(
+                graph,
+                20,
+                InfoMap.THRESHOLD,
+                InfoMap.TAU,
+                Pools.DEFAULT,
+                4,
+                AllocationTracker.EMPTY)
+                .compute(HugeInfoMap.DEFAULT_MAX_LEVELS, HugeInfoMap.DEFAULT_MAX_ITERATIONS);
+
+        assertCliques(graph, infoMap);
+    }
+
+    @Test
+    public void shouldFollowTheRelationshipWeights() {
+        // a complete graph, the relationships within both halves are heavier than those between them
+        int nodeCount = 24;
+        HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes(nodeCount)
+                .asUndirected(true)
+                .withRelationshipWeights(1.0)
+                .importer();
+        HugeGraphBuilder.Batch batch = importer.newBatch();
+        for (long source = 0L; source < nodeCount; source++) {
+            for (long target = source + 1L; target < nodeCount; target++) {
+                batch.add(source, target, source < nodeCount / 2 == target < nodeCount / 2 ? 10.0 : 1.0);
+            }
+        }
+        batch.flush();
+        HugeGraph graph = importer.build();
+
+        HugeInfoMap infoMap = HugeInfoMap.weighted(
+                graph,
+                20,
+                InfoMap.THRESHOLD,
+                InfoMap.TAU,
+                Pools.DEFAULT,
+                1,
+                AllocationTracker.EMPTY)
+                .compute(HugeInfoMap.DEFAULT_MAX_LEVELS, HugeInfoMap.DEFAULT_MAX_ITERATIONS);
+
+        HugeLongArray communities = infoMap.getCommunities();
+        assertEquals(2L, infoMap.getCommunityCount());
+        for (long node = 0L; node < nodeCount; node++) {
+            assertEquals(communities.get(node < nodeCount / 2 ? 0L : nodeCount - 1L), communities.get(node));
+        }
+        assertNotEquals(communities.get(0L), communities.get(nodeCount - 1L));
+    }
+
+    @Test
+    public void shouldReduceTheCodeLengthOnEveryLevel() {
+        HugeGraph graph = ringOfCliques(CLIQUES, CLIQUE_SIZE);
+        HugeInfoMap infoMap = HugeInfoMap.unweighted(
+                graph,
+                node -> 1.0,
+                InfoMap.THRESHOLD,
+                InfoMap.TAU,
+                Pools.DEFAULT,
+                1,
+                AllocationTracker.EMPTY)
+                .compute(HugeInfoMap.DEFAULT_MAX_LEVELS, HugeInfoMap.DEFAULT_MAX_ITERATIONS);
+
+        double[] codeLengths = infoMap.getCodeLengths();
+        assertTrue(Arrays.toString(codeLengths), codeLengths.length > 0);
+        // all nodes in one module encode every step with the entropy of the visit rates
+        double oneModule = Math.log(CLIQUES * CLIQUE_SIZE) / Math.log(2.0);
+        assertTrue(codeLengths[0] < oneModule);
+        for (int i = 1; i < codeLengths.length; i++) {
+            assertTrue(Arrays.toString(codeLengths), codeLengths[i] <= codeLengths[i - 1] + 1e-9);
+        }
+    }
+
+    @Test
+    public void shouldKeepUnconnectedNodesApart() {
+        HugeGraph graph = HugeGraphBuilder.withNodes(3L)
+                .asUndirected(true)
+                .importer()
+                .build();
+        HugeInfoMap infoMap = HugeInfoMap.unweighted(
+                graph,
+                node -> 1.0,
+                InfoMap.THRESHOLD,
+                InfoMap.TAU,
+                Pools.DEFAULT,
+                1,
+                AllocationTracker.EMPTY)
+                .compute(HugeInfoMap.DEFAULT_MAX_LEVELS, HugeInfoMap.DEFAULT_MAX_ITERATIONS);
+
+        assertEquals(3L, infoMap.getCommunityCount());
+        assertEquals(1, infoMap.getCodeLengths().length);
+    }
+
+    private static void assertCliques(HugeGraph graph, HugeInfoMap infoMap) {
+        HugeLongArray communities = infoMap.getCommunities();
+        assertEquals(CLIQUES, infoMap.getCommunityCount());
+        for (long node = 0L; node < graph.nodeCount(); node++) {
+            long clique = node / CLIQUE_SIZE;
+            assertEquals(communities.get(clique * CLIQUE_SIZE), communities.get(node));
+            assertTrue(communities.get(node) < CLIQUES);
+        }
+        for (int clique = 1; clique < CLIQUES; clique++) {
+            assertNotEquals(communities.get(0L), communities.get(clique * CLIQUE_SIZE));
+        }
+    }
+
+    private static HugeGraph ringOfCliques(int cliques, int cliqueSize) {
+        HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes((long) cliques * cliqueSize)
+                .asUndirected(true)
+                .withRelationshipWeights(1.0)
+                .importer();
+        HugeGraphBuilder.Batch batch = importer.newBatch();
+        for (int clique = 0; clique < cliques; clique++) {
+            long first = (long) clique * cliqueSize;
+            for (long source = first; source < first + cliqueSize; source++) {
+                for (long target = source + 1L; target < first + cliqueSize; target++) {
+                    batch.add(source, target, 1.0);
+                }
+            }
+            long next = ((clique + 1L) % cliques) * cliqueSize;
+            batch.add(first + cliqueSize - 1L, next, 1.0);
+        }
+        batch.flush();
+        return importer.build();
+    }
+}
@@ -0,0 +1,241 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphBuilder;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.helper.graphbuilder.GraphBuilder;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Compares the huge delta-stepping on a grid with random weights against
+ * the results of the delta-stepping for heavy graphs.
+ */
+public final class HugeShortestPathDeltaSteppingTest {
+
+    private static final String PROPERTY = "property";
+    private static final String LABEL = "Node";
+    private static final String RELATIONSHIP = "REL";
+
+    private static GraphDatabaseAPI db;
+    private static Graph heavy;
+    private static HugeGraph graph;
+    private static double[] reference;
+    private static long rootNodeId;
+
+    @BeforeClass
+    public static void setup() {
+        db = TestDatabaseCreator.createTestDatabase();
+        Random random = new Random(42L);
+        rootNodeId = GraphBuilder.create(db)
+                .setLabel(LABEL)
+                .setRelationship(RELATIONSHIP)
+                .newGridBuilder()
+                .createGrid(50, 50)
+                .forEachRelInTx(rel -> {
+                    rel.setProperty(PROPERTY, random.nextDouble() * 5);
+                })
+                .getLineNodes()
+                .get(0)
+                .get(0)
+                .getId();
+
+        heavy = new GraphLoader(db)
+                .withLabel(LABEL)
+                .withRelationshipType(RELATIONSHIP)
+                .withRelationshipWeightsFromProperty(PROPERTY, 1.0)
+                .load(HeavyGraphFactory.class);
+        reference = new ShortestPathDeltaStepping(heavy, 2.5, Direction.OUTGOING)
+                .withExecutorService(Executors.newSingleThreadExecutor())
+                .compute(rootNodeId)
+                .getShortestPaths();
+
+        graph = (HugeGraph) new GraphLoader(db)
+                .withLabel(LABEL)
+                .withRelationshipType(RELATIONSHIP)
+                .withRelationshipWeightsFromProperty(PROPERTY, 1.0)
+                .load(HugeGraphFactory.class);
+    }
+
+    @AfterClass
+    public static void tearDown() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void shouldComputeTheSameDistancesAsTheHeavyDeltaStepping() {
+        for (double delta : new double[]{0.1, 2.5, 100.0}) {
+            for (int concurrency : new int[]{1, 4}) {
+                HugeShortestPathDeltaStepping algorithm = compute(delta, concurrency);
+                for (int node = 0; node < reference.length; node++) {
+                    long mapped = graph.toHugeMappedNodeId(heavy.toOriginalNodeId(node));
+                    assertEquals(
+                            "delta " + delta + ", concurrency " + concurrency,
+                            reference[node],
+                            algorithm.distance(mapped),
+                            0.001);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void shouldReportUnreachableNodesAsInfinite() {
+        HugeGraph disconnected = HugeGraphBuilder.withNodes(3L)
+                .withRelationshipWeights(1.0)
+                .importer()
+                .build();
+        HugeShortestPathDeltaStepping algorithm = new HugeShortestPathDeltaStepping(
+                disconnected,
+                1.0,
+                Direction.OUTGOING,
+                Pools.DEFAULT,
+                2,
+                AllocationTracker.EMPTY)
+                .compute(disconnected.toOriginalNodeId(1L));
+
+        assertEquals(Double.POSITIVE_INFINITY, algorithm.distance(0L), 0.0);
+        assertEquals(0.0, algorithm.distance(1L), 0.0);
+        assertEquals(Double.POSITIVE_INFINITY, algorithm.distance(2L), 0.0);
+    }
+
+    @Test
+    public void shouldRelaxLargeFrontiersInParallel() {
+        // layers that are wide enough for every worker to relax its own part of a bucket
+        int layers = 4;
+        int width = 5_000;
+        HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes(1L + layers * width)
+                .withRelationshipWeights(1.0)
+                .importer();
+        HugeGraphBuilder.Batch batch = importer.newBatch();
+        Random random = new Random(42L);
+        for (int i = 0; i < width; i++) {
+            batch.add(0L, 1L + i, random.nextDouble());
+        }
+        for (int layer = 0; layer < layers - 1; layer++) {
+            long start = 1L + layer * width;
+            for (int i = 0; i < width; i++) {
+                for (int j = 0; j < 3; j++) {
+                    batch.add(start + i, start + width + random.nextInt(width), 2.0 * random.nextDouble());
+                }
+            }
+        }
+        batch.flush();
+        HugeGraph layered = importer.build();
+
+        double[] expected = dijkstra(layered, 0L);
+        HugeShortestPathDeltaStepping algorithm = new HugeShortestPathDeltaStepping(
+                layered,
+                1.0,
+                Direction.OUTGOING,
+                Pools.DEFAULT,
+                4,
+                AllocationTracker.EMPTY)
+                .compute(layered.toOriginalNodeId(0L));
+
+        for (int node = 0; node < expected.length; node++) {
+            assertEquals("node " + node, expected[node], algorithm.distance(node), 1e-9);
+        }
+    }
+
+    @Test
+    public void shouldRejectNegativeWeights() {
+        HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes(3L)
+                .withRelationshipWeights(1.0)
+                .importer();
+        HugeGraphBuilder.Batch batch = importer.newBatch();
+        batch.add(0L, 1L, 1.0);
+        batch.add(1L, 2L, -0.5);
+        batch.flush();
+        HugeGraph negative = importer.build();
+        try {
+            new HugeShortestPathDeltaStepping(negative, 1.0, Direction.OUTGOING, Pools.DEFAULT, 2, AllocationTracker.EMPTY)
+                    .compute(negative.toOriginalNodeId(0L));
+            fail("expected the negative weight to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals(
+                    "Delta-stepping requires non-negative weights, but the relationship from 1 to 2 has a weight of -0.5",
+                    e.getMessage());
+        }
+    }
+
+    @Test
+    public void shouldRejectNonPositiveDelta() {
+        try {
+            new HugeShortestPathDeltaStepping(graph, 0.0, Direction.OUTGOING, Pools.DEFAULT, 1, AllocationTracker.EMPTY);
+            fail("expected delta 0 to be rejected");
+        } catch (IllegalArgumentException e) {
+            assertEquals("delta must be > 0, but was 0.0", e.getMessage());
+        }
+    }
+
+    private static double[] dijkstra(HugeGraph graph, long start) {
+        double[] distances = new double[Math.toIntExact(graph.nodeCount())];
+        Arrays.fill(distances, Double.POSITIVE_INFINITY);
+        distances[(int) start] = 0.0;
+        PriorityQueue<double[]> queue = new PriorityQueue<>(Comparator.comparingDouble(entry -> entry[0]));
+        queue.add(new double[]{0.0, start});
+        while (!queue.isEmpty()) {
+            double[] entry = queue.poll();
+            if (entry[0] > distances[(int) entry[1]]) {
+                continue;
+            }
+            graph.forEachRelationship((long) entry[1], Direction.OUTGOING, (source, target, weight) -> {
+                double distance = entry[0] + weight;
+                if (distance < distances[(int) target]) {
+                    distances[(int) target] = distance;
+                    queue.add(new double[]{distance, target});
+                }
+                return true;
+            });
+        }
+        return distances;
+    }
+
+    private static HugeShortestPathDeltaStepping compute(double delta, int concurrency) {
+        return new HugeShortestPathDeltaStepping(
+                graph,
+                delta,
+                Direction.OUTGOING,
+                Pools.DEFAULT,
+                concurrency,
+                AllocationTracker.EMPTY)
+                .compute(rootNodeId);
+    }
+}
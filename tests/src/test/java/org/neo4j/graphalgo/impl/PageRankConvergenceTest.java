@@ -0,0 +1,166 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphalgo.api.Graph;
+import org.neo4j.graphalgo.api.GraphFactory;
+import org.neo4j.graphalgo.core.GraphLoader;
+import org.neo4j.graphalgo.core.heavyweight.HeavyGraphFactory;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory;
+import org.neo4j.graphalgo.impl.pagerank.PageRankAlgorithm;
+import org.neo4j.graphalgo.impl.results.CentralityResult;
+import org.neo4j.graphdb.Direction;
+import org.neo4j.graphdb.Transaction;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.stream.LongStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public final class PageRankConvergenceTest {
+
+    private static final String DB_CYPHER = "" +
+            "CREATE (a:Node {name:\"a\"})\n" +
+            "CREATE (b:Node {name:\"b\"})\n" +
+            "CREATE (c:Node {name:\"c\"})\n" +
+            "CREATE (d:Node {name:\"d\"})\n" +
+            "CREATE (e:Node {name:\"e\"})\n" +
+            "CREATE\n" +
+            "  (a)-[:TYPE]->(b),\n" +
+            "  (a)-[:TYPE]->(c),\n" +
+            "  (b)-[:TYPE]->(c),\n" +
+            "  (c)-[:TYPE]->(a),\n" +
+            "  (c)-[:TYPE]->(d),\n" +
+            "  (d)-[:TYPE]->(a),\n" +
+            "  (e)-[:TYPE]->(a)\n";
+
+    private static GraphDatabaseAPI db;
+
+    private final Graph graph;
+
+    @Parameterized.Parameters(name = "{1}")
+    public static Collection<Object[]> data() {
+        return Arrays.asList(
+                new Object[]{HeavyGraphFactory.class, "HeavyGraphFactory"},
+                new Object[]{HugeGraphFactory.class, "HugeGraphFactory"}
+        );
+    }
+
+    @BeforeClass
+    public static void setupGraph() {
+        db = TestDatabaseCreator.createTestDatabase();
+        try (Transaction tx = db.beginTx()) {
+            db.execute(DB_CYPHER).close();
+            tx.success();
+        }
+    }
+
+    public PageRankConvergenceTest(Class<? extends GraphFactory> graphImpl, String name) {
+        graph = new GraphLoader(db)
+                .withLabel("Node")
+                .withRelationshipType("TYPE")
+                .withDirection(Direction.OUTGOING)
+                .load(graphImpl);
+    }
+
+    @AfterClass
+    public static void shutdownGraph() {
+        if (db != null) db.shutdown();
+    }
+
+    @Test
+    public void pageRankStopsOnceConverged() {
+        PageRankAlgorithm full = PageRankAlgorithm.of(graph, 0.85, LongStream.empty()).compute(200);
+        PageRankAlgorithm converged = PageRankAlgorithm.of(graph, 0.85, LongStream.empty()).compute(200, 1e-4);
+
+        assertEquals(200, full.iterations());
+        assertTrue(converged.iterations() < 200);
+        assertScores(full.result(), converged.result(), 1e-3);
+    }
+
+    @Test
+    public void articleRankStopsOnceConverged() {
+        PageRankAlgorithm full = PageRankAlgorithm.articleRankOf(graph, 0.85, LongStream.empty()).compute(200);
+        PageRankAlgorithm converged = PageRankAlgorithm.articleRankOf(graph, 0.85, LongStream.empty()).compute(200, 1e-4);
+
+        assertTrue(converged.iterations() < 200);
+        assertScores(full.result(), converged.result(), 1e-3);
+    }
+
+    @Test
+    public void eigenvectorCentralityStopsOnceDirectionConverged() {
+        PageRankAlgorithm converged = PageRankAlgorithm
+                .eigenvectorCentralityOf(graph, LongStream.empty())
+                .compute(200, 1e-4);
+        int iterations = converged.iterations();
+        assertTrue(iterations < 200);
+
+        CentralityResult result = converged.result();
+        CentralityResult more = PageRankAlgorithm
+                .eigenvectorCentralityOf(graph, LongStream.empty())
+                .compute(iterations + 10)
+                .result();
+        // converged scores grow proportionally to the dominant eigenvector
+        double norm = result.computeL2Norm();
+        double moreNorm = more.computeL2Norm();
+        for (long nodeId = 0; nodeId < graph.nodeCount(); nodeId++) {
+            assertEquals(result.score(nodeId) / norm, more.score(nodeId) / moreNorm, 1e-2);
+        }
+    }
+
+    @Test
+    public void zeroToleranceComputesAllIterations() {
+        PageRankAlgorithm algorithm = PageRankAlgorithm
+                .eigenvectorCentralityOf(graph, LongStream.empty())
+                .compute(20, 0.0);
+        assertEquals(20, algorithm.iterations());
+    }
+
+    @Test
+    public void normsAreCollectedWhileComputing() {
+        CentralityResult result = PageRankAlgorithm.of(graph, 0.85, LongStream.empty()).compute(20).result();
+
+        double max = 0.0, l1 = 0.0, l2 = 0.0;
+        for (long nodeId = 0; nodeId < graph.nodeCount(); nodeId++) {
+            double score = result.score(nodeId);
+            max = Math.max(max, score);
+            l1 += score;
+            l2 += score * score;
+        }
+        assertEquals(max, result.computeMax(), 1e-9);
+        assertEquals(l1, result.computeL1Norm(), 1e-9);
+        assertEquals(Math.sqrt(l2), result.computeL2Norm(), 1e-9);
+    }
+
+    private void assertScores(CentralityResult expected, CentralityResult actual, double delta) {
+        for (long nodeId = 0; nodeId < graph.nodeCount(); nodeId++) {
+            assertEquals("Node#" + nodeId, expected.score(nodeId), actual.score(nodeId), delta);
+        }
+    }
+}
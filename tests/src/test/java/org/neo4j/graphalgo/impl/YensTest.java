@@ -27,6 +27,7 @@ import org.neo4j.graphalgo.api.Graph;
 import org.neo4j.graphalgo.api.RelationshipConsumer;
 import org.neo4j.graphalgo.core.GraphLoader;
 import org.neo4j.graphalgo.core.huge.loader.HugeGraphFactory;
+import org.neo4j.graphalgo.core.utils.Pools;
 import org.neo4j.graphalgo.core.utils.RawValues;
 import org.neo4j.graphalgo.impl.yens.Dijkstra;
 import org.neo4j.graphalgo.impl.yens.WeightedPath;
@@ -42,6 +43,7 @@ import java.util.function.DoubleConsumer;
 
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.AdditionalMatchers.eq;
 import static org.mockito.Mockito.mock;
@@ -120,6 +122,41 @@ public class YensTest {
         verify(mock, times(2)).accept(eq(8.0, DELTA));
     }
 
+    @Test
+    public void testParallel() throws Exception {
+        final List<WeightedPath> expected = new YensKShortestPaths(graph)
+                .compute(id("a"), id("f"), Direction.OUTGOING, 42, 10)
+                .getPaths();
+        final List<WeightedPath> paths = new YensKShortestPaths(graph, Pools.DEFAULT, 4)
+                .compute(id("a"), id("f"), Direction.OUTGOING, 42, 10)
+                .getPaths();
+        assertEquals(expected.size(), paths.size());
+        for (int i = 0; i < paths.size(); i++) {
+            assertEquals(expected.get(i).getCost(), paths.get(i).getCost(), DELTA);
+        }
+    }
+
+    @Test
+    public void testFewerPathsAreNotCutShort() throws Exception {
+        // the cost bound of the spur searches must not lose any of the cheapest paths
+        final List<WeightedPath> paths = new YensKShortestPaths(graph, Pools.DEFAULT, 4)
+                .compute(id("a"), id("f"), Direction.OUTGOING, 5, 10)
+                .getPaths();
+        assertEquals(5, paths.size());
+        assertEquals(3.0, paths.get(0).getCost(), DELTA);
+        assertEquals(3.0, paths.get(1).getCost(), DELTA);
+        assertEquals(4.0, paths.get(2).getCost(), DELTA);
+        assertEquals(4.0, paths.get(3).getCost(), DELTA);
+        assertEquals(5.0, paths.get(4).getCost(), DELTA);
+    }
+
+    @Test
+    public void testMaxCost() throws Exception {
+        final Dijkstra dijkstra = new Dijkstra(graph).withDirection(Direction.OUTGOING);
+        assertTrue(dijkstra.compute(id("a"), id("f"), Integer.MAX_VALUE, 3.0).isPresent());
+        assertFalse(dijkstra.compute(id("a"), id("f"), Integer.MAX_VALUE, 2.5).isPresent());
+    }
+
     @Test
     public void test04325() throws Exception {
         final RelationshipConsumer filter04325 = filter(
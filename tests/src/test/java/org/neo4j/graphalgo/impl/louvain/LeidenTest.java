@@ -0,0 +1,198 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.impl.louvain;
+
+import com.carrotsearch.hppc.LongArrayDeque;
+import com.carrotsearch.hppc.LongHashSet;
+import org.junit.Test;
+import org.neo4j.graphalgo.api.HugeGraph;
+import org.neo4j.graphalgo.core.huge.loader.HugeGraphBuilder;
+import org.neo4j.graphalgo.core.utils.Pools;
+import org.neo4j.graphalgo.core.utils.paged.AllocationTracker;
+import org.neo4j.graphalgo.core.utils.paged.HugeLongArray;
+import org.neo4j.graphalgo.helper.generator.GraphGenerator;
+import org.neo4j.graphalgo.helper.generator.PlantedPartitionGenerator;
+import org.neo4j.graphdb.Direction;
+
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public final class LeidenTest {
+
+    private static final int CLIQUES = 24;
+    private static final int CLIQUE_SIZE = 6;
+    // far below Leiden.MIN_BATCH_SIZE, so that the graphs of these tests are split across the workers
+    private static final long MIN_BATCH_SIZE = 32L;
+
+    @Test
+    public void shouldFindTheCliques() {
+        HugeGraph graph = ringOfCliques();
+        Leiden leiden = leiden(graph, Leiden.DEFAULT_RESOLUTION, 1);
+
+        assertCliques(leiden.getCommunities(), leiden.getCommunityCount());
+    }
+
+    @Test
+    public void shouldFindTheCliquesInParallel() {
+        HugeGraph graph = ringOfCliques();
+        Leiden leiden = leiden(graph, Leiden.DEFAULT_RESOLUTION, 4);
+
+        assertCliques(leiden.getCommunities(), leiden.getCommunityCount());
+    }
+
+    @Test
+    public void shouldRecoverPlantedCommunities() {
+        PlantedPartitionGenerator generator = new PlantedPartitionGenerator(2000L, 10, 10, 0.1, 42L);
+        HugeGraph graph = undirected(generator);
+        Leiden leiden = leiden(graph, Leiden.DEFAULT_RESOLUTION, 1);
+
+        HugeLongArray communities = leiden.getCommunities();
+        assertEquals(10L, leiden.getCommunityCount());
+        for (long node = 0L; node < graph.nodeCount(); node++) {
+            long first = generator.community(node) * 200L;
+            assertEquals(communities.get(first), communities.get(node));
+        }
+    }
+
+    @Test
+    public void shouldRecoverPlantedCommunitiesInParallel() {
+        PlantedPartitionGenerator generator = new PlantedPartitionGenerator(2000L, 10, 10, 0.1, 42L);
+        HugeGraph graph = undirected(generator);
+        Leiden leiden = leiden(graph, Leiden.DEFAULT_RESOLUTION, 4);
+
+        HugeLongArray communities = leiden.getCommunities();
+        assertEquals(10L, leiden.getCommunityCount());
+        for (long node = 0L; node < graph.nodeCount(); node++) {
+            long first = generator.community(node) * 200L;
+            assertEquals(communities.get(first), communities.get(node));
+        }
+    }
+
+    @Test
+    public void shouldOnlyFindConnectedCommunities() {
+        // weak community structure, where Louvain tends to leave communities disconnected
+        HugeGraph graph = undirected(new PlantedPartitionGenerator(3000L, 30, 6, 0.5, 7L));
+        Leiden leiden = leiden(graph, Leiden.DEFAULT_RESOLUTION, 4);
+
+        HugeLongArray communities = leiden.getCommunities();
+        LongHashSet visitedCommunities = new LongHashSet();
+        boolean[] visited = new boolean[(int) graph.nodeCount()];
+        for (long start = 0L; start < graph.nodeCount(); start++) {
+            if (visited[(int) start]) {
+                continue;
+            }
+            long community = communities.get(start);
+            // every community is reached from exactly one of its nodes
+            assertTrue("community " + community + " is not connected", visitedCommunities.add(community));
+            LongArrayDeque queue = new LongArrayDeque();
+            queue.addLast(start);
+            visited[(int) start] = true;
+            while (!queue.isEmpty()) {
+                long node = queue.removeFirst();
+                graph.forEachRelationship(node, Direction.OUTGOING, (source, target) -> {
+                    if (!visited[(int) target] && communities.get(target) == community) {
+                        visited[(int) target] = true;
+                        queue.addLast(target);
+                    }
+                    return true;
+                });
+            }
+        }
+        assertEquals(leiden.getCommunityCount(), visitedCommunities.size());
+    }
+
+    @Test
+    public void shouldIncreaseTheModularityOnEveryLevel() {
+        HugeGraph graph = undirected(new PlantedPartitionGenerator(3000L, 30, 6, 0.3, 11L));
+        Leiden leiden = leiden(graph, Leiden.DEFAULT_RESOLUTION, 1);
+
+        double[] modularities = leiden.getModularities();
+        assertTrue(Arrays.toString(modularities), modularities.length > 1);
+        assertTrue(Arrays.toString(modularities), modularities[0] > 0.0);
+        for (int i = 1; i < modularities.length; i++) {
+            assertTrue(Arrays.toString(modularities), modularities[i] >= modularities[i - 1] - 1e-9);
+        }
+        assertEquals(modularities[modularities.length - 1], leiden.getModularity(), 0.0);
+    }
+
+    @Test
+    public void shouldFindSmallerCommunitiesWithAHigherResolution() {
+        HugeGraph graph = undirected(new PlantedPartitionGenerator(2000L, 10, 10, 0.1, 42L));
+        long communities = leiden(graph, Leiden.DEFAULT_RESOLUTION, 1).getCommunityCount();
+        long finerCommunities = leiden(graph, 20.0, 1).getCommunityCount();
+
+        assertTrue(finerCommunities + " <= " + communities, finerCommunities > communities);
+    }
+
+    private static Leiden leiden(HugeGraph graph, double resolution, int concurrency) {
+        return new Leiden(
+                graph,
+                resolution,
+                Leiden.DEFAULT_RANDOMNESS,
+                42L,
+                Pools.DEFAULT,
+                concurrency,
+                AllocationTracker.EMPTY)
+                .withMinBatchSize(MIN_BATCH_SIZE)
+                .compute(Leiden.DEFAULT_MAX_LEVELS, Leiden.DEFAULT_MAX_ITERATIONS);
+    }
+
+    private static void assertCliques(HugeLongArray communities, long communityCount) {
+        assertEquals(CLIQUES, communityCount);
+        for (long node = 0L; node < CLIQUES * CLIQUE_SIZE; node++) {
+            long clique = node / CLIQUE_SIZE;
+            assertEquals(communities.get(clique * CLIQUE_SIZE), communities.get(node));
+        }
+        for (int clique = 1; clique < CLIQUES; clique++) {
+            assertNotEquals(communities.get(0L), communities.get(clique * CLIQUE_SIZE));
+        }
+    }
+
+    private static HugeGraph undirected(GraphGenerator generator) {
+        HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes(generator.nodeCount())
+                .asUndirected(true)
+                .importer();
+        HugeGraphBuilder.Batch batch = importer.newBatch();
+        generator.generate(batch);
+        batch.flush();
+        return importer.build();
+    }
+
+    // every clique is connected to the next one by a single relationship
+    private static HugeGraph ringOfCliques() {
+        HugeGraphBuilder.Importer importer = HugeGraphBuilder.withNodes((long) CLIQUES * CLIQUE_SIZE)
+                .asUndirected(true)
+                .importer();
+        HugeGraphBuilder.Batch batch = importer.newBatch();
+        for (int clique = 0; clique < CLIQUES; clique++) {
+            long first = (long) clique * CLIQUE_SIZE;
+            for (long source = first; source < first + CLIQUE_SIZE; source++) {
+                for (long target = source + 1L; target < first + CLIQUE_SIZE; target++) {
+                    batch.add(source, target);
+                }
+            }
+            batch.add(first + CLIQUE_SIZE - 1L, ((clique + 1L) % CLIQUES) * CLIQUE_SIZE);
+        }
+        batch.flush();
+        return importer.build();
+    }
+}
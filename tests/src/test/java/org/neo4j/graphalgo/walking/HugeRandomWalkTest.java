@@ -0,0 +1,157 @@
+/**
+ * Copyright (c) 2017 "Neo4j, Inc." <http://neo4j.com>
+ *
+ * This file is part of Neo4j Graph Algorithms <http://github.com/neo4j-contrib/neo4j-graph-algorithms>.
+ *
+ * Neo4j Graph Algorithms is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package org.neo4j.graphalgo.walking;
+
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.neo4j.graphalgo.TestDatabaseCreator;
+import org.neo4j.graphdb.ResourceIterator;
+import org.neo4j.graphdb.Result;
+import org.neo4j.helpers.collection.Iterators;
+import org.neo4j.internal.kernel.api.exceptions.KernelException;
+import org.neo4j.kernel.impl.proc.Procedures;
+import org.neo4j.kernel.internal.GraphDatabaseAPI;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class HugeRandomWalkTest {
+
+    private static final int NODE_COUNT = 53;
+
+    private static GraphDatabaseAPI db;
+    private static long start;
+    private static long heavy;
+    private static long light;
+
+    @BeforeClass
+    public static void beforeClass() throws KernelException {
+        db = TestDatabaseCreator.createTestDatabase();
+        db.getDependencyResolver().resolveDependency(Procedures.class).registerProcedure(NodeWalkerProc.class);
+
+        db.execute("CREATE (a:Node {name:'a'})\n" +
+                "CREATE (b:Node {name:'b'})\n" +
+                "CREATE (c:Node {name:'c'})\n" +
+                "CREATE" +
+                " (a)-[:TYPE {weight: 1.0}]->(b),\n" +
+                " (a)-[:TYPE {weight: 0.0}]->(c),\n" +
+                " (b)-[:TYPE {weight: 1.0}]->(c)\n" +
+                " WITH * UNWIND range(0, 49) AS id CREATE (n:Node {name:''+id})\n" +
+                "CREATE (n)-[:TYPE {weight: 1.0}]->(a),\n" +
+                "(b)-[:TYPE {weight: 1.0}]->(n)\n").close();
+
+        try (ResourceIterator<Map<String, Object>> rows = db.execute(
+                "MATCH (a:Node {name:'a'}), (b:Node {name:'b'}), (c:Node {name:'c'}) RETURN id(a) AS a, id(b) AS b, id(c) AS c")) {
+            Map<String, Object> row = rows.next();
+            start = (long) row.get("a");
+            heavy = (long) row.get("b");
+            light = (long) row.get("c");
+        }
+    }
+
+    @AfterClass
+    public static void afterClass() {
+        db.shutdown();
+    }
+
+    @Test
+    public void shouldHaveGivenStartNode() {
+        try (ResourceIterator<List<Long>> result = db.execute(
+                "CALL algo.randomWalk.stream($start, 1, 1, {graph:'huge'})",
+                map("start", start)).columnAs("nodeIds")) {
+            List<Long> path = result.next();
+            assertEquals(start, path.get(0).longValue());
+            assertNotEquals(start, path.get(1).longValue());
+            assertFalse(result.hasNext());
+        }
+    }
+
+    @Test
+    public void shouldReturnNoWalksIfNoStartNodeMatches() {
+        try (Result result = db.execute("CALL algo.randomWalk.stream('Missing', 1, 5, {graph:'huge'})")) {
+            assertFalse(result.hasNext());
+        }
+        try (Result result = db.execute("CALL algo.randomWalk.stream([], 1, 5, {graph:'huge'})")) {
+            assertFalse(result.hasNext());
+        }
+    }
+
+    @Test
+    public void shouldHaveStartedFromEveryNode() {
+        Set<Long> nodeIds = new HashSet<>();
+        try (ResourceIterator<List<Long>> results = db.execute(
+                "CALL algo.randomWalk.stream(null, 1, 106, {graph:'huge'})").columnAs("nodeIds")) {
+            while (results.hasNext()) {
+                nodeIds.add(results.next().get(0));
+            }
+        }
+        assertEquals("Should have visited all nodes.", NODE_COUNT, nodeIds.size());
+    }
+
+    @Test
+    public void shouldHandleLargeResults() {
+        Result results = db.execute("CALL algo.randomWalk.stream(null, 80, 10000, {graph:'huge', concurrency: 4})");
+
+        assertEquals(10000, Iterators.count(results));
+    }
+
+    @Test
+    public void shouldComputeNode2VecWalks() {
+        try (ResourceIterator<List<Long>> results = db.execute(
+                "CALL algo.randomWalk.stream(null, 10, 1000, {graph:'huge', mode:'node2vec', return: 0.5, inOut: 2.0})").columnAs("nodeIds")) {
+            int count = 0;
+            while (results.hasNext()) {
+                List<Long> path = results.next();
+                assertTrue(path.size() == 11 || path.size() == 1);
+                count++;
+            }
+            assertEquals(1000, count);
+        }
+    }
+
+    @Test
+    public void shouldFollowRelationshipWeights() {
+        try (ResourceIterator<List<Long>> results = db.execute(
+                "CALL algo.randomWalk.stream($start, 1, 100, {graph:'huge', direction:'OUTGOING', weightProperty:'weight'})",
+                map("start", start)).columnAs("nodeIds")) {
+            int count = 0;
+            while (results.hasNext()) {
+                List<Long> path = results.next();
+                assertEquals(start, path.get(0).longValue());
+                assertEquals(heavy, path.get(1).longValue());
+                assertNotEquals(light, path.get(1).longValue());
+                count++;
+            }
+            assertEquals(100, count);
+        }
+    }
+
+    private static Map<String, Object> map(String key, Object value) {
+        return Collections.singletonMap(key, value);
+    }
+}